@@ -1,10 +1,27 @@
 package builderb0y.autocodec;
 
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
 import java.lang.invoke.MethodHandles;
+import java.nio.ByteBuffer;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
+import com.google.gson.JsonElement;
 import com.mojang.serialization.Codec;
 import com.mojang.serialization.DynamicOps;
+import com.mojang.serialization.JsonOps;
 import com.mojang.serialization.MapCodec;
 import org.jetbrains.annotations.ApiStatus.Internal;
 import org.jetbrains.annotations.ApiStatus.OverrideOnly;
@@ -14,34 +31,58 @@ import org.jetbrains.annotations.TestOnly;
 
 import builderb0y.autocodec.coders.AutoCoder;
 import builderb0y.autocodec.coders.CoderFactoryList;
+import builderb0y.autocodec.coders.DeltaCoder;
+import builderb0y.autocodec.common.AutoHandler;
 import builderb0y.autocodec.common.AutoHandler.AutoFactory;
 import builderb0y.autocodec.common.FactoryContext;
+import builderb0y.autocodec.common.FactoryDecisionCache;
 import builderb0y.autocodec.common.FactoryException;
+import builderb0y.autocodec.common.FactoryList;
+import builderb0y.autocodec.common.HandlerCache;
+import builderb0y.autocodec.common.HandlerDependencies;
+import builderb0y.autocodec.common.LazyHandler;
+import builderb0y.autocodec.common.PendingHandlers;
 import builderb0y.autocodec.common.ReflectContextProvider;
+import builderb0y.autocodec.common.WarmUpException;
 import builderb0y.autocodec.constructors.AutoConstructor;
 import builderb0y.autocodec.constructors.ConstructException;
 import builderb0y.autocodec.constructors.ConstructorFactoryList;
 import builderb0y.autocodec.decoders.AutoDecoder;
+import builderb0y.autocodec.decoders.BinaryDecodeSource;
 import builderb0y.autocodec.decoders.DecodeContext;
+import builderb0y.autocodec.decoders.DecodeContext.ArrayDecodePath;
 import builderb0y.autocodec.decoders.DecodeContext.RootDecodePath;
 import builderb0y.autocodec.decoders.DecodeException;
+import builderb0y.autocodec.decoders.DecodeSource;
+import builderb0y.autocodec.decoders.DecodeSource.Token;
 import builderb0y.autocodec.decoders.DecoderFactoryList;
+import builderb0y.autocodec.decoders.JsonDecodeSource;
+import builderb0y.autocodec.decoders.LazyDecodeException;
+import builderb0y.autocodec.decoders.ProjectionDecoder;
 import builderb0y.autocodec.encoders.AutoEncoder;
+import builderb0y.autocodec.encoders.BinaryEncodeSink;
 import builderb0y.autocodec.encoders.EncodeContext;
 import builderb0y.autocodec.encoders.EncodeException;
+import builderb0y.autocodec.encoders.EncodeSink;
 import builderb0y.autocodec.encoders.EncoderFactoryList;
+import builderb0y.autocodec.encoders.JsonEncodeSink;
 import builderb0y.autocodec.imprinters.AutoImprinter;
 import builderb0y.autocodec.imprinters.ImprintException;
 import builderb0y.autocodec.imprinters.ImprinterFactoryList;
+import builderb0y.autocodec.imprinters.ReusingImprinter;
 import builderb0y.autocodec.integration.Auto2DFUCodec;
 import builderb0y.autocodec.integration.Auto2DFUMapCodec;
 import builderb0y.autocodec.integration.DFU2AutoCoder;
+import builderb0y.autocodec.logging.AbstractTaskLogger;
+import builderb0y.autocodec.logging.DisabledTaskLogger;
+import builderb0y.autocodec.logging.LoggableTask;
 import builderb0y.autocodec.logging.Printer;
 import builderb0y.autocodec.logging.StackContextLogger;
 import builderb0y.autocodec.logging.TaskLogger;
 import builderb0y.autocodec.reflection.ReflectContext;
 import builderb0y.autocodec.reflection.ReflectionManager;
 import builderb0y.autocodec.reflection.reification.ReifiedType;
+import builderb0y.autocodec.util.BinaryFormat;
 import builderb0y.autocodec.verifiers.AutoVerifier;
 import builderb0y.autocodec.verifiers.VerifierFactoryList;
 import builderb0y.autocodec.verifiers.VerifyException;
@@ -56,10 +97,39 @@ on it to create a Codec for that type.
 */
 public class AutoCodec implements ReflectContextProvider {
 
+	/**
+	the AutoCodec which this AutoCodec was derived from, or null if this AutoCodec was not derived.
+	see {@link #AutoCodec(AutoCodec)}.
+	*/
+	public final @Nullable AutoCodec parent;
+
+	/**
+	true once {@link #freeze()} has been called.
+	frozen AutoCodecs record the {@link HandlerDependencies} of every
+	handler they create, so that derived AutoCodecs can share them.
+	*/
+	public volatile boolean frozen;
+
+	/**
+	while a frozen AutoCodec is creating a handler, the top of this stack
+	holds the dependencies of the handler currently being created.
+	*/
+	public final @NotNull ThreadLocal<@NotNull ArrayDeque<@NotNull HandlerDependencies>> dependencyFrames = ThreadLocal.withInitial(ArrayDeque::new);
+	/**
+	handlers which were created on the current thread, but can't be cached yet
+	because the outermost request which they were created during has not finished.
+	shared by all 6 of our factory lists, since requests to one list
+	can make nested requests to the others.
+	*/
+	public final @NotNull ThreadLocal<@NotNull PendingHandlers> pendingHandlers = ThreadLocal.withInitial(PendingHandlers::new);
+
 	public final @NotNull TaskLogger factoryLogger, encodeLogger, decodeLogger;
 
 	public final @NotNull ReflectionManager reflectionManager;
 
+	/** null unless {@link #createDecisionCache()} is overridden. */
+	public final @Nullable FactoryDecisionCache decisionCache;
+
 	public final @NotNull       CoderFactoryList coders;
 	public final @NotNull     EncoderFactoryList encoders;
 	public final @NotNull ConstructorFactoryList constructors;
@@ -67,13 +137,56 @@ public class AutoCodec implements ReflectContextProvider {
 	public final @NotNull     DecoderFactoryList decoders;
 	public final @NotNull    VerifierFactoryList verifiers;
 
+	/** the cache used by {@link #createProjection(ReifiedType, String...)}. */
+	public final @NotNull Map<ProjectionDecoder.@NotNull Key, @NotNull ProjectionDecoder<?>> projections = new ConcurrentHashMap<>(16);
+	/** the cache used by {@link #createDeltaCoder(ReifiedType)}. */
+	public final @NotNull Map<@NotNull ReifiedType<?>, @NotNull DeltaCoder<?>> deltaCoders = new ConcurrentHashMap<>(16);
+	/** the cache used by {@link #createReusingImprinter(ReifiedType)}. */
+	public final @NotNull Map<@NotNull ReifiedType<?>, @NotNull ReusingImprinter<?>> reusingImprinters = new ConcurrentHashMap<>(16);
+
 	public AutoCodec() {
+		this(null);
+	}
+
+	/**
+	creates an AutoCodec which shares as much as it can with the provided parent.
+	anonymous subclasses can still override any of the createX() methods
+	to configure the derived AutoCodec differently from its parent.
+	the parent must be {@link #freeze() frozen}.
+
+	the derived AutoCodec will use its parent's {@link #reflectionManager}
+	unless {@link #createReflectionManager()} is overridden.
+	even if it is, the underlying reflection data is still
+	shared (see {@link ReflectionManager#DECLARED_MEMBERS}).
+
+	whenever the derived AutoCodec needs a handler which it has not cached yet,
+	it checks if its parent has already created a handler for the same type,
+	and if so, whether or not it would create the exact same handler as its parent.
+	this is the case when every factory list which was involved in creating
+	the parent's handler would try the same factories in the same order
+	for every type that was requested while creating the parent's handler,
+	and when both ReflectionManagers expose the same members
+	for every class which was reflected into (see
+	{@link ReflectionManager#isEquivalentTo(ReflectionManager, Class)}).
+	see {@link HandlerDependencies} for more info.
+	if so, the derived AutoCodec uses its parent's handler instead of creating its own.
+	for example, if the derived AutoCodec only uses a different enum naming strategy,
+	it can still share the parent's handlers for primitives, Strings, lists of Strings,
+	and records which don't (directly or indirectly) contain any enums.
+	*/
+	public AutoCodec(@Nullable AutoCodec parent) {
+		if (parent != null && !parent.frozen) {
+			throw new IllegalStateException("Parent AutoCodec must be frozen first.");
+		}
+		this.parent            = parent;
+
 		ReentrantLock lock     = new ReentrantLock();
 		this.factoryLogger     = this.createFactoryLogger(lock);
 		this.encodeLogger      = this.createEncodeLogger(lock);
 		this.decodeLogger      = this.createDecodeLogger(lock);
 
 		this.reflectionManager = this.createReflectionManager();
+		this.decisionCache     = this.createDecisionCache();
 
 		this.coders            = this.createCoders();
 		this.encoders          = this.createEncoders();
@@ -348,6 +461,210 @@ public class AutoCodec implements ReflectContextProvider {
 		return this.newFactoryContext(type).forceCreateVerifier();
 	}
 
+	/**
+	creates a {@link ProjectionDecoder} which decodes instances of the provided class,
+	but only populates the members selected by the provided paths.
+	see {@link #createProjection(ReifiedType, String...)} for more info.
+	*/
+	public <T_Decoded> @NotNull ProjectionDecoder<T_Decoded> createProjection(@NotNull Class<T_Decoded> clazz, @NotNull String @NotNull ... paths) throws FactoryException {
+		return this.createProjection(ReifiedType.from(clazz), paths);
+	}
+
+	/**
+	creates a {@link ProjectionDecoder} which decodes instances of the provided type,
+	but only populates the members selected by the provided paths,
+	like "settings.render.distance". members which are not selected are never decoded.
+	projections are cached per type and set of paths,
+	so the order of the paths does not matter.
+	if the projection could not be created for any reason, a {@link FactoryException} is thrown.
+	*/
+	@SuppressWarnings("unchecked")
+	public <T_Decoded> @NotNull ProjectionDecoder<T_Decoded> createProjection(@NotNull ReifiedType<T_Decoded> type, @NotNull String @NotNull ... paths) throws FactoryException {
+		ProjectionDecoder.Key key = new ProjectionDecoder.Key(type.canonicalize(), Set.copyOf(Arrays.asList(paths)));
+		ProjectionDecoder<?> projection = this.projections.get(key);
+		if (projection == null) {
+			//not computeIfAbsent(), because creating a projection
+			//can take a while, and may create other handlers.
+			FactoryContext<T_Decoded> context = this.newFactoryContext(type);
+			projection = this.factoryLogger.runTask(new LoggableTask<ProjectionDecoder<T_Decoded>, FactoryException>() {
+
+				@Override
+				public ProjectionDecoder<T_Decoded> run() throws FactoryException {
+					return ProjectionDecoder.create(context, key.paths());
+				}
+
+				@Override
+				public String toString() {
+					return "Creating projection of " + key.paths() + " for " + context;
+				}
+			});
+			ProjectionDecoder<?> existing = this.projections.putIfAbsent(key, projection);
+			if (existing != null) projection = existing;
+		}
+		return (ProjectionDecoder<T_Decoded>)(projection);
+	}
+
+	/**
+	creates a {@link DeltaCoder} which can encode the differences
+	between two instances of the provided class, and apply them.
+	see {@link #createDeltaCoder(ReifiedType)} for more info.
+	*/
+	public <T_Decoded> @NotNull DeltaCoder<T_Decoded> createDeltaCoder(@NotNull Class<T_Decoded> clazz) throws FactoryException {
+		return this.createDeltaCoder(ReifiedType.from(clazz));
+	}
+
+	/**
+	creates a {@link DeltaCoder} which can encode the differences
+	between two instances of the provided type, and apply them.
+	delta coders are cached per type, along with the delta coders for every type they contain.
+	if the delta coder could not be created for any reason, a {@link FactoryException} is thrown.
+	*/
+	@SuppressWarnings("unchecked")
+	public <T_Decoded> @NotNull DeltaCoder<T_Decoded> createDeltaCoder(@NotNull ReifiedType<T_Decoded> type) throws FactoryException {
+		DeltaCoder<?> delta = this.deltaCoders.get(type.canonicalize());
+		if (delta == null) {
+			FactoryContext<T_Decoded> context = this.newFactoryContext(type);
+			delta = this.factoryLogger.runTask(new LoggableTask<DeltaCoder<T_Decoded>, FactoryException>() {
+
+				@Override
+				public DeltaCoder<T_Decoded> run() throws FactoryException {
+					return new DeltaCoder.Builder(AutoCodec.this).build(context);
+				}
+
+				@Override
+				public String toString() {
+					return "Creating delta coder for " + context;
+				}
+			});
+		}
+		return (DeltaCoder<T_Decoded>)(delta);
+	}
+
+	/**
+	decides how instances of the provided type are compared
+	by the {@link DeltaCoder}'s created by this AutoCodec.
+	the default implementation returns null for all types, which means
+	that instances are compared by encoding them and comparing the results,
+	except for primitives, Strings, and enums, which are compared with equals().
+	anonymous subclasses of AutoCodec can override this method
+	to provide a cheaper comparison for some types, for example: {@code
+		public <T_Decoded> DeltaCoder.Equality<T_Decoded> createDeltaEquality(ReifiedType<T_Decoded> type) {
+			return type.getRawClass() == MyVector.class ? Object::equals : null;
+		}
+	}
+	*/
+	@OverrideOnly
+	public <T_Decoded> DeltaCoder.@Nullable Equality<T_Decoded> createDeltaEquality(@NotNull ReifiedType<T_Decoded> type) {
+		return null;
+	}
+
+	/**
+	creates a {@link ReusingImprinter} which can decode input into
+	existing instances of the provided class, re-using nested objects.
+	see {@link #createReusingImprinter(ReifiedType)} for more info.
+	*/
+	public <T_Decoded> @NotNull ReusingImprinter<T_Decoded> createReusingImprinter(@NotNull Class<T_Decoded> clazz) throws FactoryException {
+		return this.createReusingImprinter(ReifiedType.from(clazz));
+	}
+
+	/**
+	creates a {@link ReusingImprinter} which can decode input into
+	existing instances of the provided type, re-using nested objects.
+	reusing imprinters are cached per type, along with the reusing imprinters for every type they contain.
+	if the reusing imprinter could not be created for any reason, a {@link FactoryException} is thrown.
+	*/
+	@SuppressWarnings("unchecked")
+	public <T_Decoded> @NotNull ReusingImprinter<T_Decoded> createReusingImprinter(@NotNull ReifiedType<T_Decoded> type) throws FactoryException {
+		ReusingImprinter<?> imprinter = this.reusingImprinters.get(type.canonicalize());
+		if (imprinter == null) {
+			FactoryContext<T_Decoded> context = this.newFactoryContext(type);
+			imprinter = this.factoryLogger.runTask(new LoggableTask<ReusingImprinter<T_Decoded>, FactoryException>() {
+
+				@Override
+				public ReusingImprinter<T_Decoded> run() throws FactoryException {
+					return new ReusingImprinter.Builder(AutoCodec.this).build(context);
+				}
+
+				@Override
+				public String toString() {
+					return "Creating reusing imprinter for " + context;
+				}
+			});
+		}
+		return (ReusingImprinter<T_Decoded>)(imprinter);
+	}
+
+	//////////////// warm-up ////////////////
+
+	/**
+	creates coders for all the provided classes in parallel.
+	see {@link #warmUp(Collection, Executor)} for more info.
+	*/
+	public @NotNull Map<@NotNull ReifiedType<?>, @NotNull AutoCoder<?>> warmUp(@NotNull Class<?> @NotNull ... roots) throws WarmUpException {
+		List<ReifiedType<?>> types = new ArrayList<>(roots.length);
+		for (Class<?> root : roots) {
+			types.add(ReifiedType.from(root));
+		}
+		return this.warmUp(types);
+	}
+
+	/**
+	creates coders for all the provided types in parallel, using the {@link ForkJoinPool#commonPool()}.
+	see {@link #warmUp(Collection, Executor)} for more info.
+	*/
+	public @NotNull Map<@NotNull ReifiedType<?>, @NotNull AutoCoder<?>> warmUp(@NotNull Collection<? extends @NotNull ReifiedType<?>> roots) throws WarmUpException {
+		return this.warmUp(roots, ForkJoinPool.commonPool());
+	}
+
+	/**
+	creates coders for all the provided types in parallel, using the provided executor,
+	and waits for all of them to finish. the created coders are cached as usual,
+	so later calls to {@link #createCoder(ReifiedType)} for the same types
+	(and any types they depend on) will return immediately.
+	returns the created coders, in the order their types were provided.
+	duplicate types are only created once.
+
+	types which share subtypes, or which reference each other recursively, are handled correctly:
+	every thread resolves its own {@link LazyHandler}'s, and if two threads happen to
+	create a handler for the same type at the same time, only one of them is kept.
+	handlers are only cached once every lazy handler they could reach has been resolved,
+	so other threads never observe a handler which is still being created.
+	see {@link PendingHandlers}.
+
+	if any of the coders could not be created, the rest are still created,
+	and then a {@link WarmUpException} is thrown which reports all the failures at once.
+
+	note: most {@link TaskLogger}'s (including the default {@link StackContextLogger})
+	extend {@link AbstractTaskLogger}, which only allows one task to run at a time.
+	if our {@link #factoryLogger} is one of these, this method is still safe to call,
+	but the coders will effectively be created one at a time.
+	to actually create them in parallel, use a logger which does not lock,
+	like {@link DisabledTaskLogger}, by overriding {@link #createFactoryLogger(ReentrantLock)}.
+	*/
+	public @NotNull Map<@NotNull ReifiedType<?>, @NotNull AutoCoder<?>> warmUp(@NotNull Collection<? extends @NotNull ReifiedType<?>> roots, @NotNull Executor executor) throws WarmUpException {
+		Set<ReifiedType<?>> types = new LinkedHashSet<>(roots.size());
+		for (ReifiedType<?> root : roots) {
+			types.add(root.canonicalize());
+		}
+		List<CompletableFuture<AutoCoder<?>>> futures = new ArrayList<>(types.size());
+		for (ReifiedType<?> type : types) {
+			futures.add(CompletableFuture.supplyAsync(() -> this.createCoder(type), executor));
+		}
+		Map<ReifiedType<?>, AutoCoder<?>> coders = new LinkedHashMap<>(types.size());
+		Map<ReifiedType<?>, Throwable> failures = new LinkedHashMap<>(4);
+		int index = 0;
+		for (ReifiedType<?> type : types) {
+			try {
+				coders.put(type, futures.get(index++).join());
+			}
+			catch (CompletionException exception) {
+				failures.put(type, exception.getCause() != null ? exception.getCause() : exception);
+			}
+		}
+		if (!failures.isEmpty()) throw new WarmUpException(coders, failures);
+		return coders;
+	}
+
 
 
 	//////////////////////////////// util ////////////////////////////////
@@ -362,6 +679,116 @@ public class AutoCodec implements ReflectContextProvider {
 		return new EncodeContext<>(this, input, ops).encodeWith(encoder);
 	}
 
+	/**
+	encodes the provided input with the provided encoder, and writes the result to sink.
+	encoders which support it write tokens to sink directly,
+	and the rest encode a subtree with {@link EncodeSink#ops} which is then written to sink.
+	any exceptions thrown by the encoder or the sink are relayed to the caller.
+	*/
+	public <T_Encoded, T_Decoded> void encodeTo(@NotNull AutoEncoder<T_Decoded> encoder, T_Decoded input, @NotNull EncodeSink<T_Encoded> sink) throws EncodeException {
+		new EncodeContext<>(this, input, sink.ops).encodeWith(encoder, sink);
+	}
+
+	/**
+	encodes the provided input with the provided encoder,
+	and writes it to the provided Writer as JSON text.
+	this produces the same JSON as encoding with {@link JsonOps#INSTANCE}
+	and serializing the result with Gson would, but without creating the
+	{@link JsonElement} tree first, which matters for large objects.
+	the writer is flushed, but not closed. IOException's are wrapped in {@link EncodeException}.
+	*/
+	public <T_Decoded> void encodeJson(@NotNull AutoEncoder<T_Decoded> encoder, T_Decoded input, @NotNull Writer writer) throws EncodeException {
+		JsonEncodeSink sink = new JsonEncodeSink(writer);
+		this.encodeTo(encoder, input, sink);
+		sink.flush();
+	}
+
+	/** same as {@link #encodeJson(AutoEncoder, Object, Writer)}, but writes UTF-8 encoded JSON text to stream. */
+	public <T_Decoded> void encodeJson(@NotNull AutoEncoder<T_Decoded> encoder, T_Decoded input, @NotNull OutputStream stream) throws EncodeException {
+		JsonEncodeSink sink = new JsonEncodeSink(stream);
+		this.encodeTo(encoder, input, sink);
+		sink.flush();
+	}
+
+	/**
+	encodes the provided input with the provided encoder, and returns
+	it in the compact binary format described in {@link BinaryFormat}.
+	the result can be decoded with {@link #decodeBinary(AutoDecoder, byte[])}.
+	*/
+	public <T_Decoded> byte @NotNull [] encodeBinary(@NotNull AutoEncoder<T_Decoded> encoder, T_Decoded input) throws EncodeException {
+		BinaryEncodeSink sink = new BinaryEncodeSink();
+		this.encodeTo(encoder, input, sink);
+		return sink.toByteArray();
+	}
+
+	/**
+	same as {@link #encodeBinary(AutoEncoder, Object)}, but writes the result to stream.
+	the stream is not flushed or closed. IOException's are wrapped in {@link EncodeException}.
+	*/
+	public <T_Decoded> void encodeBinary(@NotNull AutoEncoder<T_Decoded> encoder, T_Decoded input, @NotNull OutputStream stream) throws EncodeException {
+		BinaryEncodeSink sink = new BinaryEncodeSink();
+		this.encodeTo(encoder, input, sink);
+		sink.writeTo(stream);
+	}
+
+	/**
+	encodes the provided elements as a list, using the provided element encoder,
+	and returns the result. elements are pulled from the Stream one at a time
+	as the ops consume the Stream of encoded elements.
+	*/
+	public <T_Encoded, T_Decoded> @NotNull T_Encoded encodeEach(@NotNull AutoEncoder<T_Decoded> elementEncoder, @NotNull Stream<? extends T_Decoded> elements, @NotNull DynamicOps<T_Encoded> ops) throws EncodeException {
+		EncodeContext<T_Encoded, ?> context = new EncodeContext<>(this, null, ops);
+		return context.createList(elements.sequential().map((T_Decoded element) -> context.object(element).encodeWith(elementEncoder)));
+	}
+
+	/**
+	encodes the provided elements as a list, using the provided element encoder,
+	and writes them to sink as they are pulled from the Iterator.
+	neither the elements nor their encoded forms are collected anywhere,
+	so this can be used to export any number of elements which are generated
+	on the fly, as long as sink writes its output somewhere which isn't memory.
+	*/
+	public <T_Encoded, T_Decoded> void encodeEachTo(@NotNull AutoEncoder<T_Decoded> elementEncoder, @NotNull Iterator<? extends T_Decoded> elements, @NotNull EncodeSink<T_Encoded> sink) throws EncodeException {
+		EncodeContext<T_Encoded, ?> context = new EncodeContext<>(this, null, sink.ops);
+		sink.beginList();
+		while (elements.hasNext()) {
+			context.object(elements.next()).encodeWith(elementEncoder, sink);
+		}
+		sink.endList();
+	}
+
+	/** same as {@link #encodeEachTo(AutoEncoder, Iterator, EncodeSink)}, but pulls elements from an Iterable. */
+	public <T_Encoded, T_Decoded> void encodeEachTo(@NotNull AutoEncoder<T_Decoded> elementEncoder, @NotNull Iterable<? extends T_Decoded> elements, @NotNull EncodeSink<T_Encoded> sink) throws EncodeException {
+		this.encodeEachTo(elementEncoder, elements.iterator(), sink);
+	}
+
+	/** same as {@link #encodeEachTo(AutoEncoder, Iterator, EncodeSink)}, but pulls elements from a Stream. the Stream is not closed. */
+	public <T_Encoded, T_Decoded> void encodeEachTo(@NotNull AutoEncoder<T_Decoded> elementEncoder, @NotNull Stream<? extends T_Decoded> elements, @NotNull EncodeSink<T_Encoded> sink) throws EncodeException {
+		this.encodeEachTo(elementEncoder, elements.sequential().iterator(), sink);
+	}
+
+	/**
+	same as {@link #encodeEachTo(AutoEncoder, Iterator, EncodeSink)},
+	but writes the list to the provided Writer as JSON text.
+	the writer is flushed, but not closed.
+	*/
+	public <T_Decoded> void encodeEachJson(@NotNull AutoEncoder<T_Decoded> elementEncoder, @NotNull Iterator<? extends T_Decoded> elements, @NotNull Writer writer) throws EncodeException {
+		JsonEncodeSink sink = new JsonEncodeSink(writer);
+		this.encodeEachTo(elementEncoder, elements, sink);
+		sink.flush();
+	}
+
+	/**
+	encodes the differences between baseline and current with the provided delta coder and ops.
+	returns {@link DynamicOps#empty()} if there are no differences.
+	if baseline is null, then current is encoded in full.
+	see {@link DeltaCoder} for more info.
+	*/
+	public <T_Encoded, T_Decoded> @NotNull T_Encoded encodeDelta(@NotNull DeltaCoder<T_Decoded> delta, @Nullable T_Decoded baseline, @NotNull T_Decoded current, @NotNull DynamicOps<T_Encoded> ops) throws EncodeException {
+		T_Encoded encoded = delta.encodeDelta(new EncodeContext<>(this, current, ops), baseline);
+		return encoded != null ? encoded : ops.empty();
+	}
+
 	/**
 	creates a new {@link DecodeContext} bound to this AutoCodec,
 	with a root path (AKA no parent), and the provided input and ops.
@@ -408,6 +835,218 @@ public class AutoCodec implements ReflectContextProvider {
 		return this.newDecodeContext(input, ops).decodeWith(decoder);
 	}
 
+	/**
+	applies a delta created by {@link #encodeDelta(DeltaCoder, Object, Object, DynamicOps)}
+	to existing, and returns the updated object. if existing can be updated in place,
+	then existing itself is returned. otherwise, a new object is returned.
+	empty deltas leave existing unchanged.
+	*/
+	public <T_Encoded, T_Decoded> T_Decoded applyDelta(@NotNull DeltaCoder<T_Decoded> delta, @Nullable T_Decoded existing, @NotNull T_Encoded input, @NotNull DynamicOps<T_Encoded> ops) throws DecodeException {
+		DecodeContext<T_Encoded> context = this.newDecodeContext(input, ops);
+		if (context.isEmpty()) return existing;
+		return delta.applyDelta(context, existing);
+	}
+
+	/**
+	decodes the provided input into existing, re-using the objects nested inside it where possible,
+	and returns the result. if existing could be updated in place, then existing itself is returned.
+	otherwise (for example, because existing is null), a new object is returned.
+	see {@link ReusingImprinter} for the exact rules.
+	*/
+	public <T_Encoded, T_Decoded> T_Decoded decodeInto(@NotNull ReusingImprinter<T_Decoded> imprinter, @Nullable T_Decoded existing, @NotNull T_Encoded input, @NotNull DynamicOps<T_Encoded> ops) throws DecodeException {
+		return imprinter.decodeInto(this.newDecodeContext(input, ops), existing);
+	}
+
+	/**
+	decodes the next value in source using the provided decoder.
+	decoders which support it read tokens from source directly,
+	and the rest read the value they need into a subtree with {@link DecodeSource#ops}.
+	any exceptions thrown by the decoder or the source are relayed to the caller.
+	*/
+	public <T_Encoded, T_Decoded> T_Decoded decodeFrom(@NotNull AutoDecoder<T_Decoded> decoder, @NotNull DecodeSource<T_Encoded> source) throws DecodeException {
+		return this.newDecodeContext(source.ops.empty(), source.ops).decodeWith(decoder, source);
+	}
+
+	/**
+	decodes every element of the provided encoded list using the provided element decoder,
+	and passes them to action one at a time, in order.
+	unlike decoding the input as a {@link List}, the decoded elements are not
+	collected anywhere, so they can be discarded as soon as action is done with them.
+	errors are reported with the index of the element which caused them,
+	for example "<root>[5].name is not a string".
+	any exceptions thrown by the decoder are relayed to the caller.
+	*/
+	public <T_Encoded, T_Decoded> void decodeEach(
+		@NotNull AutoDecoder<T_Decoded> elementDecoder,
+		@NotNull T_Encoded input,
+		@NotNull DynamicOps<T_Encoded> ops,
+		@NotNull Consumer<? super T_Decoded> action
+	)
+	throws DecodeException {
+		Iterator<DecodeContext<T_Encoded>> iterator = this.newDecodeContext(input, ops).forceAsStream(false).iterator();
+		while (iterator.hasNext()) {
+			action.accept(iterator.next().decodeWith(elementDecoder));
+		}
+	}
+
+	/**
+	returns a sequential Stream which decodes the elements of the provided
+	encoded list using the provided element decoder, as they are consumed.
+	nothing is decoded until a terminal operation is performed on the returned Stream.
+	since Stream's can't throw checked exceptions, errors which occur while decoding
+	an element are thrown as {@link LazyDecodeException}'s by the terminal operation.
+	as with {@link #decodeEach(AutoDecoder, Object, DynamicOps, Consumer)},
+	errors are reported with the index of the element which caused them.
+	if the input is not a list, a {@link DecodeException} is thrown immediately.
+	*/
+	public <T_Encoded, T_Decoded> @NotNull Stream<T_Decoded> decodeStream(
+		@NotNull AutoDecoder<T_Decoded> elementDecoder,
+		@NotNull T_Encoded input,
+		@NotNull DynamicOps<T_Encoded> ops
+	)
+	throws DecodeException {
+		return this.newDecodeContext(input, ops).forceAsStream(false).map((DecodeContext<T_Encoded> element) -> {
+			try {
+				return element.decodeWith(elementDecoder);
+			}
+			catch (DecodeException exception) {
+				throw new LazyDecodeException(exception);
+			}
+		});
+	}
+
+	/** same as {@link #decodeStream(AutoDecoder, Object, DynamicOps)}, but returns an Iterator instead. */
+	public <T_Encoded, T_Decoded> @NotNull Iterator<T_Decoded> decodeIterator(
+		@NotNull AutoDecoder<T_Decoded> elementDecoder,
+		@NotNull T_Encoded input,
+		@NotNull DynamicOps<T_Encoded> ops
+	)
+	throws DecodeException {
+		return this.decodeStream(elementDecoder, input, ops).iterator();
+	}
+
+	/**
+	same as {@link #decodeEach(AutoDecoder, Object, DynamicOps, Consumer)},
+	but reads the list from source one element at a time.
+	this means the encoded list does not need to be in memory either,
+	only the element which is currently being decoded.
+	*/
+	public <T_Encoded, T_Decoded> void decodeEachFrom(
+		@NotNull AutoDecoder<T_Decoded> elementDecoder,
+		@NotNull DecodeSource<T_Encoded> source,
+		@NotNull Consumer<? super T_Decoded> action
+	)
+	throws DecodeException {
+		DecodeContext<T_Encoded> context = this.newDecodeContext(source.ops.empty(), source.ops);
+		if (source.peek() != Token.LIST) throw source.notA(context, "list");
+		source.beginList();
+		for (int index = 0; source.hasNext(); index++) {
+			action.accept(context.input(context.empty(), new ArrayDecodePath(index)).decodeWith(elementDecoder, source));
+		}
+		source.endList();
+	}
+
+	/**
+	same as {@link #decodeIterator(AutoDecoder, Object, DynamicOps)},
+	but reads the list from source one element at a time.
+	the beginning of the list is read immediately, and a {@link DecodeException}
+	is thrown if the next value in source is not a list. after that, elements
+	are read as the returned Iterator is advanced, and the end of the list is
+	read as soon as the Iterator reaches it. errors which occur while reading an
+	element are thrown by {@link Iterator#next()} as {@link LazyDecodeException}'s.
+	source should not be used by anything else until the returned Iterator is exhausted.
+	*/
+	public <T_Encoded, T_Decoded> @NotNull Iterator<T_Decoded> decodeIteratorFrom(
+		@NotNull AutoDecoder<T_Decoded> elementDecoder,
+		@NotNull DecodeSource<T_Encoded> source
+	)
+	throws DecodeException {
+		DecodeContext<T_Encoded> context = this.newDecodeContext(source.ops.empty(), source.ops);
+		if (source.peek() != Token.LIST) throw source.notA(context, "list");
+		source.beginList();
+		return new Iterator<>() {
+
+			public int index;
+			public boolean ended;
+
+			@Override
+			public boolean hasNext() {
+				if (this.ended) return false;
+				try {
+					if (source.hasNext()) return true;
+					this.ended = true;
+					source.endList();
+					return false;
+				}
+				catch (DecodeException exception) {
+					throw new LazyDecodeException(exception);
+				}
+			}
+
+			@Override
+			public T_Decoded next() {
+				if (!this.hasNext()) throw new NoSuchElementException();
+				try {
+					return context.input(context.empty(), new ArrayDecodePath(this.index++)).decodeWith(elementDecoder, source);
+				}
+				catch (DecodeException exception) {
+					throw new LazyDecodeException(exception);
+				}
+			}
+		};
+	}
+
+	/** same as {@link #decodeIteratorFrom(AutoDecoder, DecodeSource)}, but returns a sequential Stream instead. */
+	public <T_Encoded, T_Decoded> @NotNull Stream<T_Decoded> decodeStreamFrom(
+		@NotNull AutoDecoder<T_Decoded> elementDecoder,
+		@NotNull DecodeSource<T_Encoded> source
+	)
+	throws DecodeException {
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this.decodeIteratorFrom(elementDecoder, source), Spliterator.ORDERED), false);
+	}
+
+	/**
+	decodes JSON text from the provided Reader using the provided decoder.
+	this produces the same result as parsing the JSON with Gson and decoding
+	the result with {@link JsonOps#INSTANCE} would, but without creating the
+	{@link JsonElement} tree first, which matters for large objects.
+	the reader is not closed. IOException's and malformed JSON are
+	reported as {@link DecodeException}'s, as is any trailing data after the value.
+	*/
+	public <T_Decoded> T_Decoded decodeJson(@NotNull AutoDecoder<T_Decoded> decoder, @NotNull Reader reader) throws DecodeException {
+		JsonDecodeSource source = new JsonDecodeSource(reader);
+		T_Decoded result = this.decodeFrom(decoder, source);
+		source.expectEnd();
+		return result;
+	}
+
+	/** same as {@link #decodeJson(AutoDecoder, Reader)}, but reads UTF-8 encoded JSON text from stream. */
+	public <T_Decoded> T_Decoded decodeJson(@NotNull AutoDecoder<T_Decoded> decoder, @NotNull InputStream stream) throws DecodeException {
+		JsonDecodeSource source = new JsonDecodeSource(stream);
+		T_Decoded result = this.decodeFrom(decoder, source);
+		source.expectEnd();
+		return result;
+	}
+
+	/**
+	decodes a value in the compact binary format described in {@link BinaryFormat}
+	from the provided buffer, starting at its current position.
+	the buffer must contain exactly one value, and no trailing data.
+	strings and byte arrays are decoded without copying the
+	buffer first, but the decoded values do not share content with it.
+	*/
+	public <T_Decoded> T_Decoded decodeBinary(@NotNull AutoDecoder<T_Decoded> decoder, @NotNull ByteBuffer buffer) throws DecodeException {
+		BinaryDecodeSource source = new BinaryDecodeSource(buffer);
+		T_Decoded result = this.decodeFrom(decoder, source);
+		source.expectEnd();
+		return result;
+	}
+
+	/** same as {@link #decodeBinary(AutoDecoder, ByteBuffer)}, but reads from an array. */
+	public <T_Decoded> T_Decoded decodeBinary(@NotNull AutoDecoder<T_Decoded> decoder, byte @NotNull [] bytes) throws DecodeException {
+		return this.decodeBinary(decoder, ByteBuffer.wrap(bytes));
+	}
+
 	/**
 	verifies the provided object using the provided verifier, input, and ops.
 	any exceptions thrown by the verifier are relayed to the caller.
@@ -502,7 +1141,226 @@ public class AutoCodec implements ReflectContextProvider {
 	*/
 	@OverrideOnly
 	public @NotNull ReflectionManager createReflectionManager() {
-		return new ReflectionManager();
+		return this.parent != null ? this.parent.reflectionManager : new ReflectionManager();
+	}
+
+	/**
+	creates the {@link FactoryDecisionCache} which our factory lists will use
+	to remember which factory created the handler for each type across JVM runs.
+	the default implementation returns null, which disables the decision cache.
+	see {@link FactoryDecisionCache} for an example of how to enable it.
+	*/
+	@OverrideOnly
+	public @Nullable FactoryDecisionCache createDecisionCache() {
+		return null;
+	}
+
+	/**
+	creates the {@link HandlerCache} for the provided factory list.
+	this method is called once for each of the 6 factory lists,
+	while they are being constructed.
+	the default implementation returns an {@link HandlerCache.Unbounded} cache.
+	anonymous subclasses of AutoCodec can override this method to
+	bound the number of cached handlers, for example: {@code
+		@Override
+		public <T_Handler extends AutoHandler> HandlerCache<T_Handler> createHandlerCache(FactoryList<T_Handler, ?> factoryList) {
+			return new HandlerCache.LeastRecentlyUsed<>(1024);
+		}
+	}
+	*/
+	@OverrideOnly
+	public <T_Handler extends AutoHandler> @NotNull HandlerCache<T_Handler> createHandlerCache(@NotNull FactoryList<T_Handler, ?> factoryList) {
+		return new HandlerCache.Unbounded<>();
+	}
+
+	/**
+	returns true if the provided factory list should hand out placeholders
+	for child handlers instead of creating them immediately.
+	when enabled, creating a coder only creates the outermost coder itself,
+	and the coders for its fields, elements, etc. are created the
+	first time they are actually used to encode or decode something.
+	this makes the first call to {@link #createCoder(ReifiedType)}
+	(or {@link #createDFUCodec(ReifiedType)}) faster for large types,
+	especially ones with branches which are rarely used,
+	at the cost of a small amount of indirection on every use,
+	and of reporting creation errors later than usual.
+	call {@link #validateAll()} to create everything
+	which has been deferred so far, and report any errors.
+	the default implementation returns false.
+	this method is called once for each of the 6 factory lists,
+	while they are being constructed.
+	at the time of writing, only {@link CoderFactoryList} supports deferring handlers.
+	*/
+	@OverrideOnly
+	public boolean shouldDeferChildren(@NotNull FactoryList<?, ?> factoryList) {
+		return false;
+	}
+
+	/**
+	creates every handler which was deferred by any of our 6 factory lists
+	(see {@link #shouldDeferChildren(FactoryList)}), including handlers
+	which are deferred while creating other deferred handlers.
+	if any of them could not be created, the rest are still created,
+	and then a {@link FactoryException} is thrown which reports all the failures at once.
+	does nothing if no handlers have been deferred.
+	*/
+	public void validateAll() throws FactoryException {
+		FactoryException failure = null;
+		for (FactoryList<?, ?> list : this.getFactoryLists()) {
+			try {
+				list.validateAll();
+			}
+			catch (FactoryException exception) {
+				if (failure == null) failure = exception;
+				else failure.addSuppressed(exception);
+			}
+		}
+		if (failure != null) throw failure;
+	}
+
+	/**
+	returns all 6 of our factory lists, in a consistent order.
+	the returned array is a new array every time this method is called.
+	*/
+	public @NotNull FactoryList<?, ?> @NotNull [] getFactoryLists() {
+		return new FactoryList<?, ?>[] { this.coders, this.encoders, this.constructors, this.imprinters, this.decoders, this.verifiers };
+	}
+
+	/** returns the index of the provided factory list in {@link #getFactoryLists()}. */
+	public int getFactoryListIndex(@NotNull FactoryList<?, ?> list) {
+		FactoryList<?, ?>[] lists = this.getFactoryLists();
+		for (int index = 0; index < lists.length; index++) {
+			if (lists[index] == list) return index;
+		}
+		throw new IllegalArgumentException(list + " does not belong to " + this);
+	}
+
+	/**
+	prevents factories from being added to or removed from any of our factory lists,
+	and starts recording the {@link HandlerDependencies} of every handler created from now on,
+	so that AutoCodecs derived from this one (see {@link #AutoCodec(AutoCodec)}) can share them.
+	handlers which were created before this method was called are never shared,
+	so this method should be called as soon as this AutoCodec has been constructed.
+	this AutoCodec can still be used normally after being frozen.
+	returns this, for chaining.
+	*/
+	public @NotNull AutoCodec freeze() {
+		for (FactoryList<?, ?> list : this.getFactoryLists()) {
+			list.freeze();
+		}
+		this.frozen = true;
+		return this;
+	}
+
+	/**
+	records that the handler currently being created on this thread
+	requested a handler for the provided type from the provided list.
+	does nothing if this AutoCodec is not frozen, or no handler is being created.
+	*/
+	public void noteRequest(@NotNull FactoryList<?, ?> list, @NotNull ReifiedType<?> canonicalType) {
+		if (!this.frozen) return;
+		HandlerDependencies frame = this.dependencyFrames.get().peek();
+		if (frame != null) frame.requests.add(new HandlerDependencies.Request(this.getFactoryListIndex(list), canonicalType));
+	}
+
+	/**
+	records that the handler currently being created on this thread
+	used our {@link #reflectionManager} to reflect into the provided type.
+	does nothing if this AutoCodec is not frozen, or no handler is being created.
+	*/
+	public void noteReflection(@NotNull ReifiedType<?> owner) {
+		if (!this.frozen) return;
+		HandlerDependencies frame = this.dependencyFrames.get().peek();
+		if (frame != null) {
+			Class<?> rawClass = owner.getRawClass();
+			if (rawClass != null) frame.reflectedClasses.add(rawClass);
+		}
+	}
+
+	/**
+	removes all cached handlers whose type matches the provided
+	predicate from all 6 of our factory lists, our {@link #projections}, our {@link #deltaCoders}, and our {@link #reusingImprinters}.
+	returns the total number of handlers which were removed.
+	*/
+	public int invalidate(@NotNull Predicate<? super ReifiedType<?>> predicate) {
+		return (
+			this.invalidateProjections(predicate) +
+			this.invalidateDeltaCoders(predicate) +
+			this.invalidateReusingImprinters(predicate) +
+			this.coders      .invalidate(predicate) +
+			this.encoders    .invalidate(predicate) +
+			this.constructors.invalidate(predicate) +
+			this.imprinters  .invalidate(predicate) +
+			this.decoders    .invalidate(predicate) +
+			this.verifiers   .invalidate(predicate)
+		);
+	}
+
+	/**
+	removes all cached handlers whose type references a class which
+	was loaded by the provided loader (or one of its descendants)
+	from all 6 of our factory lists, our {@link #projections}, our {@link #deltaCoders}, and our {@link #reusingImprinters}.
+	this should be called before discarding the loader,
+	to allow the loader to be garbage collected.
+	returns the total number of handlers which were removed.
+	*/
+	public int invalidate(@NotNull ClassLoader loader) {
+		return (
+			this.invalidateProjections((ReifiedType<?> type) -> HandlerCache.references(type, loader)) +
+			this.invalidateDeltaCoders((ReifiedType<?> type) -> HandlerCache.references(type, loader)) +
+			this.invalidateReusingImprinters((ReifiedType<?> type) -> HandlerCache.references(type, loader)) +
+			this.coders      .invalidate(loader) +
+			this.encoders    .invalidate(loader) +
+			this.constructors.invalidate(loader) +
+			this.imprinters  .invalidate(loader) +
+			this.decoders    .invalidate(loader) +
+			this.verifiers   .invalidate(loader)
+		);
+	}
+
+	/**
+	removes all cached {@link #projections} whose root type matches the provided predicate.
+	returns the number of projections which were removed.
+	*/
+	public int invalidateProjections(@NotNull Predicate<? super ReifiedType<?>> predicate) {
+		int removed = 0;
+		for (Iterator<ProjectionDecoder.Key> iterator = this.projections.keySet().iterator(); iterator.hasNext();) {
+			if (predicate.test(iterator.next().type())) {
+				iterator.remove();
+				removed++;
+			}
+		}
+		return removed;
+	}
+
+	/**
+	removes all cached {@link #deltaCoders} whose type matches the provided predicate.
+	returns the number of delta coders which were removed.
+	*/
+	public int invalidateDeltaCoders(@NotNull Predicate<? super ReifiedType<?>> predicate) {
+		int removed = 0;
+		for (Iterator<ReifiedType<?>> iterator = this.deltaCoders.keySet().iterator(); iterator.hasNext();) {
+			if (predicate.test(iterator.next())) {
+				iterator.remove();
+				removed++;
+			}
+		}
+		return removed;
+	}
+
+	/**
+	removes all cached {@link #reusingImprinters} whose type matches the provided predicate.
+	returns the number of reusing imprinters which were removed.
+	*/
+	public int invalidateReusingImprinters(@NotNull Predicate<? super ReifiedType<?>> predicate) {
+		int removed = 0;
+		for (Iterator<ReifiedType<?>> iterator = this.reusingImprinters.keySet().iterator(); iterator.hasNext();) {
+			if (predicate.test(iterator.next())) {
+				iterator.remove();
+				removed++;
+			}
+		}
+		return removed;
 	}
 
 	/**
@@ -0,0 +1,63 @@
+package builderb0y.autocodec.annotations;
+
+import java.lang.annotation.*;
+import java.util.List;
+
+import builderb0y.autocodec.coders.LazyListCoder;
+import builderb0y.autocodec.coders.LazyListCoder.LazyDecodedList;
+import builderb0y.autocodec.decoders.LazyDecodeException;
+import builderb0y.autocodec.reflection.reification.ReifiedType;
+
+/**
+applicable to {@link List}s, indicates that the elements of the List
+should not be decoded until they are accessed for the first time.
+the List is decoded as an unmodifiable {@link LazyDecodedList},
+which keeps the encoded elements around until then.
+once an element is decoded, it is cached, and subsequent accesses return the same instance.
+this is useful for large, read-mostly data, where most elements are never accessed.
+
+since the elements are decoded after the decoding of the List itself has finished,
+errors in the elements are reported by throwing {@link LazyDecodeException}
+from whichever method of the List triggered the decoding.
+
+when a LazyDecodedList is encoded with the same DynamicOps that it was decoded with,
+elements which have not been decoded yet are written back in their original encoded form.
+if no elements have been decoded at all, the original encoded List is written back as-is.
+
+see {@link LazyListCoder} for more details.
+*/
+@Target(ElementType.TYPE_USE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface DecodeLazily {
+
+	/**
+	convenience instance of DecodeLazily to be used
+	whenever an instance of one is needed at runtime.
+	for example, {@link ReifiedType#addAnnotations(Annotation...)}.
+	*/
+	public static final DecodeLazily INSTANCE = new DecodeLazily() {
+
+		@Override
+		public Class<? extends Annotation> annotationType() {
+			return DecodeLazily.class;
+		}
+
+		/** consistent with {@link sun.reflect.annotation.AnnotationInvocationHandler} */
+		@Override
+		public String toString() {
+			return '@' + DecodeLazily.class.getName() + "()";
+		}
+
+		/** consistent with {@link sun.reflect.annotation.AnnotationInvocationHandler} */
+		@Override
+		public int hashCode() {
+			return 0;
+		}
+
+		/** consistent with {@link sun.reflect.annotation.AnnotationInvocationHandler} */
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof DecodeLazily;
+		}
+	};
+}
@@ -0,0 +1,38 @@
+package builderb0y.autocodec.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import builderb0y.autocodec.coders.GeneratedCoderRegistry;
+import builderb0y.autocodec.coders.GeneratedRecordCoder;
+import builderb0y.autocodec.coders.LookupCoderFactory;
+
+/**
+applicable to records and enums to indicate that the AutoCodec
+annotation processor should generate source code for their coder at compile time.
+the processor is published as a separate artifact with the "processor" classifier,
+and must be added to the annotationProcessor configuration: {@code
+	dependencies {
+		implementation("builderb0y:AutoCodec:<version>")
+		annotationProcessor("builderb0y:AutoCodec:<version>:processor")
+	}
+}
+
+at runtime, {@link LookupCoderFactory} will check the {@link GeneratedCoderRegistry}
+for a generated coder before anything else it knows about.
+for records, the generated coder ({@link GeneratedRecordCoder}) invokes the
+canonical constructor and the accessors directly, instead of using MethodHandle's.
+the coders for the record's components are still created by the usual factories,
+so annotations like {@link UseName}, {@link Alias}, {@link EncodeInline},
+{@link DefaultInt}, or {@link VerifyIntRange} on the components work the same
+way they would without this annotation. for enums, the generated coder
+is an ordinary EnumCoder, but it is created without probing every factory first.
+
+if the annotation processor was not run, this annotation does nothing,
+and the type is handled by the usual factories instead.
+*/
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface GenerateCoder {}
@@ -10,20 +10,26 @@ import org.jetbrains.annotations.Nullable;
 
 import builderb0y.autocodec.annotations.SingletonArray;
 import builderb0y.autocodec.coders.AutoCoder.NamedCoder;
+import builderb0y.autocodec.common.FactoryApplicability;
 import builderb0y.autocodec.common.FactoryContext;
 import builderb0y.autocodec.common.FactoryException;
 import builderb0y.autocodec.decoders.DecodeContext;
+import builderb0y.autocodec.decoders.DecodeContext.ArrayDecodePath;
 import builderb0y.autocodec.decoders.DecodeException;
+import builderb0y.autocodec.decoders.DecodeSource;
+import builderb0y.autocodec.decoders.DecodeSource.Token;
 import builderb0y.autocodec.encoders.EncodeContext;
 import builderb0y.autocodec.encoders.EncodeException;
+import builderb0y.autocodec.encoders.EncodeSink;
 import builderb0y.autocodec.reflection.reification.ReifiedType;
+import builderb0y.autocodec.reflection.reification.TypeClassification;
 import builderb0y.autocodec.util.ArrayFactory;
 import builderb0y.autocodec.util.ObjectArrayFactory;
 import builderb0y.autocodec.util.PrimitiveArrayFactory;
 
 public class ArrayCoder<T_DecodedElement, T_DecodedArray> extends NamedCoder<T_DecodedArray> {
 
-	public final @NotNull AutoCoder<T_DecodedElement> elementCoder;
+	public @NotNull AutoCoder<T_DecodedElement> elementCoder;
 	public final @NotNull ArrayFactory<T_DecodedArray> arrayFactory;
 	public final boolean singleton;
 
@@ -52,6 +58,31 @@ public class ArrayCoder<T_DecodedElement, T_DecodedArray> extends NamedCoder<T_D
 		return to;
 	}
 
+	@Override
+	@OverrideOnly
+	public <T_Encoded> @Nullable T_DecodedArray decodeFrom(@NotNull DecodeContext<T_Encoded> context, @NotNull DecodeSource<T_Encoded> source) throws DecodeException {
+		if (source.tryReadEmpty()) return null;
+		if (source.peek() != Token.LIST) {
+			if (!this.singleton) throw source.notA(context, "list");
+			T_DecodedArray to = this.arrayFactory.apply(1);
+			Array.set(to, 0, context.decodeWith(this.elementCoder, source));
+			return to;
+		}
+		//the length is not known in advance, so decode into a list first.
+		List<T_DecodedElement> from = new ArrayList<>(16);
+		source.beginList();
+		for (int index = 0; source.hasNext(); index++) {
+			from.add(context.input(context.empty(), new ArrayDecodePath(index)).decodeWith(this.elementCoder, source));
+		}
+		source.endList();
+		int length = from.size();
+		T_DecodedArray to = this.arrayFactory.apply(length);
+		for (int index = 0; index < length; index++) {
+			Array.set(to, index, from.get(index));
+		}
+		return to;
+	}
+
 	@Override
 	@OverrideOnly
 	@SuppressWarnings("unchecked")
@@ -71,15 +102,53 @@ public class ArrayCoder<T_DecodedElement, T_DecodedArray> extends NamedCoder<T_D
 		return context.createList(to);
 	}
 
+	@Override
+	@OverrideOnly
+	@SuppressWarnings("unchecked")
+	public <T_Encoded> void encodeTo(@NotNull EncodeContext<T_Encoded, T_DecodedArray> context, @NotNull EncodeSink<T_Encoded> sink) throws EncodeException {
+		T_DecodedArray from = context.object;
+		if (from == null) {
+			sink.writeEmpty();
+			return;
+		}
+		int length = Array.getLength(from);
+		if (this.singleton && length == 1) {
+			T_DecodedElement decodedElement = (T_DecodedElement)(Array.get(from, 0));
+			context.object(decodedElement).encodeWith(this.elementCoder, sink);
+			return;
+		}
+		sink.beginList();
+		for (int index = 0; index < length; index++) {
+			T_DecodedElement decodedElement = (T_DecodedElement)(Array.get(from, index));
+			context.object(decodedElement).encodeWith(this.elementCoder, sink);
+		}
+		sink.endList();
+	}
+
 	@Override
 	public String toString() {
 		return super.toString() + ": { elementCoder: " + this.elementCoder + " }";
 	}
 
+	@Override
+	public void visitChildren(@NotNull ChildVisitor visitor) {
+		visitor.visitChild("elementCoder", this.elementCoder);
+	}
+
+	@Override
+	public void linkChildren(@NotNull ChildLinker linker) {
+		this.elementCoder = linker.link(this.elementCoder);
+	}
+
 	public static class Factory extends NamedCoderFactory {
 
 		public static final Factory INSTANCE = new Factory();
 
+		@Override
+		public @NotNull FactoryApplicability getApplicability() {
+			return FactoryApplicability.classification(TypeClassification.ARRAY);
+		}
+
 		@Override
 		@OverrideOnly
 		@SuppressWarnings({ "unchecked", "rawtypes" })
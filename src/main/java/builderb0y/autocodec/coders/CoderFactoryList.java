@@ -26,7 +26,8 @@ public class CoderFactoryList extends FactoryList<AutoCoder<?>, CoderFactory> im
 			//note: InternedStringCoder must be added before MultiLineStringCoder
 			//so that these two annotations stack with each other.
 			InternedStringCoder.Factory.INSTANCE,
-			MultiLineStringCoder.Factory.INSTANCE
+			MultiLineStringCoder.Factory.INSTANCE,
+			LazyListCoder.Factory.INSTANCE
 		);
 		this.addFactoriesToEnd(
 			ArrayCoder.Factory.INSTANCE,
@@ -49,6 +50,12 @@ public class CoderFactoryList extends FactoryList<AutoCoder<?>, CoderFactory> im
 		return new LazyCoder();
 	}
 
+	@Override
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public @Nullable DeferredHandler<AutoCoder<?>> createDeferredHandler(@NotNull FactoryContext<?> context) {
+		return new DeferredCoder(this, context);
+	}
+
 	@Override
 	@SuppressWarnings({ "unchecked", "rawtypes" })
 	public @Nullable AutoCoder<?> doCreate(@NotNull FactoryContext<?> context) throws FactoryException {
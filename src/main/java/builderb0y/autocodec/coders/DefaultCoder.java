@@ -9,17 +9,19 @@ import org.jetbrains.annotations.Nullable;
 
 import builderb0y.autocodec.coders.AutoCoder.NamedCoder;
 import builderb0y.autocodec.common.DefaultSpec;
+import builderb0y.autocodec.common.FactoryApplicability;
 import builderb0y.autocodec.common.FactoryContext;
 import builderb0y.autocodec.common.FactoryException;
 import builderb0y.autocodec.decoders.DecodeContext;
 import builderb0y.autocodec.decoders.DecodeException;
+import builderb0y.autocodec.decoders.DecodeSource;
 import builderb0y.autocodec.encoders.EncodeContext;
 import builderb0y.autocodec.encoders.EncodeException;
 import builderb0y.autocodec.reflection.reification.ReifiedType;
 
 public class DefaultCoder<T_Decoded> extends NamedCoder<T_Decoded> {
 
-	public final @NotNull AutoCoder<T_Decoded> fallback;
+	public @NotNull AutoCoder<T_Decoded> fallback;
 	public final @NotNull DefaultSpec spec;
 
 	public DefaultCoder(
@@ -50,6 +52,14 @@ public class DefaultCoder<T_Decoded> extends NamedCoder<T_Decoded> {
 		}
 	}
 
+	@Override
+	@OverrideOnly
+	public <T_Encoded> @Nullable T_Decoded decodeFrom(@NotNull DecodeContext<T_Encoded> context, @NotNull DecodeSource<T_Encoded> source) throws DecodeException {
+		//context's input is already empty, so decode() will use the default value.
+		if (source.tryReadEmpty()) return this.decode(context);
+		return context.decodeWith(this.fallback, source);
+	}
+
 	@Override
 	@OverrideOnly
 	public <T_Encoded> @NotNull T_Encoded encode(@NotNull EncodeContext<T_Encoded, T_Decoded> context) throws EncodeException {
@@ -85,10 +95,25 @@ public class DefaultCoder<T_Decoded> extends NamedCoder<T_Decoded> {
 		return this.fallback.getKeys();
 	}
 
+	@Override
+	public void visitChildren(@NotNull ChildVisitor visitor) {
+		visitor.visitChild("fallback", this.fallback);
+	}
+
+	@Override
+	public void linkChildren(@NotNull ChildLinker linker) {
+		this.fallback = linker.link(this.fallback);
+	}
+
 	public static class Factory extends NamedCoderFactory {
 
 		public static final Factory INSTANCE = new Factory();
 
+		@Override
+		public @NotNull FactoryApplicability getApplicability() {
+			return DefaultSpec.APPLICABILITY;
+		}
+
 		@Override
 		@OverrideOnly
 		public <T_HandledType> @Nullable AutoCoder<?> tryCreate(@NotNull FactoryContext<T_HandledType> context) throws FactoryException {
@@ -10,6 +10,7 @@ import org.jetbrains.annotations.Nullable;
 
 import builderb0y.autocodec.annotations.DefaultEmpty;
 import builderb0y.autocodec.coders.AutoCoder.NamedCoder;
+import builderb0y.autocodec.common.FactoryApplicability;
 import builderb0y.autocodec.common.FactoryContext;
 import builderb0y.autocodec.common.FactoryException;
 import builderb0y.autocodec.constructors.AutoConstructor;
@@ -27,8 +28,8 @@ import builderb0y.autocodec.util.ObjectOps;
 
 public class DefaultEmptyCoder<T_Decoded> extends NamedCoder<T_Decoded> {
 
-	public final @NotNull AutoCoder<T_Decoded> nonEmpty;
-	public final @NotNull AutoConstructor<T_Decoded> constructor;
+	public @NotNull AutoCoder<T_Decoded> nonEmpty;
+	public @NotNull AutoConstructor<T_Decoded> constructor;
 	public final boolean alwaysEncode;
 
 	public DefaultEmptyCoder(
@@ -81,6 +82,18 @@ public class DefaultEmptyCoder<T_Decoded> extends NamedCoder<T_Decoded> {
 		return this.nonEmpty.getKeys();
 	}
 
+	@Override
+	public void visitChildren(@NotNull ChildVisitor visitor) {
+		visitor.visitChild("nonEmpty", this.nonEmpty);
+		visitor.visitChild("constructor", this.constructor);
+	}
+
+	@Override
+	public void linkChildren(@NotNull ChildLinker linker) {
+		this.nonEmpty = linker.link(this.nonEmpty);
+		this.constructor = linker.link(this.constructor);
+	}
+
 	public static class EmptyArrayConstructor<T_Array> extends NamedConstructor<T_Array> {
 
 		public final @NotNull Class<?> componentClass;
@@ -122,6 +135,11 @@ public class DefaultEmptyCoder<T_Decoded> extends NamedCoder<T_Decoded> {
 
 		public static final Factory INSTANCE = new Factory();
 
+		@Override
+		public @NotNull FactoryApplicability getApplicability() {
+			return FactoryApplicability.annotatedWith(DefaultEmpty.class);
+		}
+
 		@Override
 		@OverrideOnly
 		public <T_HandledType> @Nullable AutoCoder<?> tryCreate(@NotNull FactoryContext<T_HandledType> context) throws FactoryException {
@@ -0,0 +1,94 @@
+package builderb0y.autocodec.coders;
+
+import java.util.stream.Stream;
+
+import org.jetbrains.annotations.ApiStatus.OverrideOnly;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import builderb0y.autocodec.common.DeferredHandler;
+import builderb0y.autocodec.common.FactoryContext;
+import builderb0y.autocodec.common.FactoryException;
+import builderb0y.autocodec.decoders.DecodeContext;
+import builderb0y.autocodec.decoders.DecodeException;
+import builderb0y.autocodec.decoders.DecodeSource;
+import builderb0y.autocodec.encoders.EncodeContext;
+import builderb0y.autocodec.encoders.EncodeException;
+import builderb0y.autocodec.encoders.EncodeSink;
+
+public class DeferredCoder<T> extends DeferredHandler<AutoCoder<T>> implements AutoCoder<T> {
+
+	public DeferredCoder(@NotNull CoderFactoryList coders, @NotNull FactoryContext<T> context) {
+		super(coders, context);
+	}
+
+	@Override
+	@OverrideOnly
+	public <T_Encoded> @Nullable T decode(@NotNull DecodeContext<T_Encoded> context) throws DecodeException {
+		AutoCoder<T> coder;
+		try {
+			coder = this.resolve();
+		}
+		catch (FactoryException exception) {
+			throw new DecodeException(() -> "Could not create deferred coder for " + this.type, exception);
+		}
+		//the context is already logging this task, so don't log it twice.
+		return coder.decode(context);
+	}
+
+	@Override
+	@OverrideOnly
+	public <T_Encoded> @Nullable T decodeFrom(@NotNull DecodeContext<T_Encoded> context, @NotNull DecodeSource<T_Encoded> source) throws DecodeException {
+		AutoCoder<T> coder;
+		try {
+			coder = this.resolve();
+		}
+		catch (FactoryException exception) {
+			throw new DecodeException(() -> "Could not create deferred coder for " + this.type, exception);
+		}
+		return coder.decodeFrom(context, source);
+	}
+
+	@Override
+	@OverrideOnly
+	public <T_Encoded> @NotNull T_Encoded encode(@NotNull EncodeContext<T_Encoded, T> context) throws EncodeException {
+		AutoCoder<T> coder;
+		try {
+			coder = this.resolve();
+		}
+		catch (FactoryException exception) {
+			throw new EncodeException(() -> "Could not create deferred coder for " + this.type, exception);
+		}
+		return coder.encode(context);
+	}
+
+	@Override
+	@OverrideOnly
+	public <T_Encoded> void encodeTo(@NotNull EncodeContext<T_Encoded, T> context, @NotNull EncodeSink<T_Encoded> sink) throws EncodeException {
+		AutoCoder<T> coder;
+		try {
+			coder = this.resolve();
+		}
+		catch (FactoryException exception) {
+			throw new EncodeException(() -> "Could not create deferred coder for " + this.type, exception);
+		}
+		coder.encodeTo(context, sink);
+	}
+
+	@Override
+	public @Nullable Stream<@NotNull String> getKeys() {
+		return this.resolve().getKeys();
+	}
+
+	@Override
+	public void visitChildren(@NotNull ChildVisitor visitor) {
+		AutoCoder<T> resolution = this.resolution;
+		if (resolution != null) visitor.visitChild("delegate", resolution);
+	}
+
+	@Override
+	public void linkChildren(@NotNull ChildLinker linker) {
+		AutoCoder<T> resolution = this.resolution;
+		if (resolution != null) this.resolution = linker.link(resolution);
+	}
+}
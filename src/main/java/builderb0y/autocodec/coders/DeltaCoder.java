@@ -0,0 +1,722 @@
+package builderb0y.autocodec.coders;
+
+import java.lang.invoke.MethodHandle;
+import java.util.*;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import builderb0y.autocodec.AutoCodec;
+import builderb0y.autocodec.common.AutoHandler;
+import builderb0y.autocodec.common.AutoHandler.ChildVisitor;
+import builderb0y.autocodec.common.FactoryContext;
+import builderb0y.autocodec.common.FactoryException;
+import builderb0y.autocodec.decoders.DecodeContext;
+import builderb0y.autocodec.decoders.DecodeException;
+import builderb0y.autocodec.encoders.AutoEncoder;
+import builderb0y.autocodec.encoders.EncodeContext;
+import builderb0y.autocodec.encoders.EncodeException;
+import builderb0y.autocodec.encoders.MultiFieldEncoder;
+import builderb0y.autocodec.imprinters.AutoImprinter;
+import builderb0y.autocodec.imprinters.DeltaImprinter;
+import builderb0y.autocodec.imprinters.MultiFieldImprinter;
+import builderb0y.autocodec.imprinters.MultiFieldImprinter.DecodingFieldStrategy;
+import builderb0y.autocodec.reflection.manipulators.InstanceReader;
+import builderb0y.autocodec.reflection.manipulators.InstanceWriter;
+import builderb0y.autocodec.reflection.reification.ReifiedType;
+import builderb0y.autocodec.util.ObjectArrayFactory;
+import builderb0y.autocodec.verifiers.AutoVerifier;
+
+/**
+encodes the differences between a baseline object and its current state,
+and applies those differences to another copy of the baseline object.
+this is useful for syncing large objects which change a little bit at a time.
+
+the encoded form of a delta depends on the type being diffed:
+<ul>
+	<li>
+		objects with fields (both mutable classes handled by {@link MultiFieldImprinter},
+		and records handled by {@link RecordCoder}) are diffed field by field:
+		{@code { "set": { "name": <delta>, ... }, "clear": [ "name", ... ] } }.
+	</li>
+	<li>
+		Lists are diffed element by element:
+		{@code { "size": <new size>, "set": { "index": <delta>, ... }, "clear": [ index, ... ] } }.
+	</li>
+	<li>
+		Maps are diffed value by value:
+		{@code { "set": [ { "key": <key>, "value": <delta> }, ... ], "remove": [ <key>, ... ] } }.
+	</li>
+	<li>
+		everything else is encoded in full with its regular coder when it changes.
+	</li>
+</ul>
+"set" and "clear" are omitted when they would be empty.
+when the baseline value of a member or element is null,
+the delta for it is the current value encoded in full.
+cleared fields and elements become null.
+
+equality is checked by encoding both the baseline and the current value
+and comparing the results, unless {@link AutoCodec#createDeltaEquality(ReifiedType)}
+provides a cheaper way to compare instances of that type.
+primitives, Strings, and enums are always compared with {@link Object#equals(Object)}.
+the baseline must be a separate snapshot of the object,
+since an object which is compared to itself has not changed.
+
+mutable objects, Lists which are {@link ArrayList}'s, and Maps which are {@link HashMap}'s
+are updated in place when applying a delta. records, other Lists, and other Maps are replaced.
+the apply side can also be used as an {@link AutoImprinter} via {@link DeltaImprinter}.
+
+delta coders should be created with {@link AutoCodec#createDeltaCoder(ReifiedType)},
+which caches them per type.
+*/
+public abstract class DeltaCoder<T_Decoded> {
+
+	public static final @NotNull String
+		SET    = "set",
+		CLEAR  = "clear",
+		SIZE   = "size",
+		REMOVE = "remove",
+		KEY    = "key",
+		VALUE  = "value";
+
+	public final @NotNull ReifiedType<T_Decoded> type;
+
+	public DeltaCoder(@NotNull ReifiedType<T_Decoded> type) {
+		this.type = type;
+	}
+
+	/**
+	returns the encoded differences between baseline and context's {@link EncodeContext#object},
+	or null if there are no differences. context's object must not be null.
+	if baseline is null, then context's object is encoded in full.
+	*/
+	public abstract <T_Encoded> @Nullable T_Encoded encodeDelta(@NotNull EncodeContext<T_Encoded, T_Decoded> context, @Nullable T_Decoded baseline) throws EncodeException;
+
+	/**
+	applies the differences in context's input to existing,
+	and returns the updated object. this may or may not be the same instance as existing.
+	if existing is null, then context's input is decoded in full.
+	*/
+	public abstract <T_Encoded> @Nullable T_Decoded applyDelta(@NotNull DecodeContext<T_Encoded> context, @Nullable T_Decoded existing) throws DecodeException;
+
+	/**
+	reports every handler this DeltaCoder uses, including the handlers used by nested DeltaCoder's.
+	nested handlers are prefixed with the name of the member they belong to.
+	this is used by {@link DeltaImprinter#visitChildren(ChildVisitor)}.
+	*/
+	public void visitChildren(@NotNull ChildVisitor visitor) {}
+
+	/** visits delta's children, prefixing their names with prefix and a dot. */
+	public static void visitNested(@NotNull ChildVisitor visitor, @NotNull String prefix, @NotNull DeltaCoder<?> delta) {
+		delta.visitChildren((String name, AutoHandler child) -> visitor.visitChild(prefix + '.' + name, child));
+	}
+
+	/**
+	decides whether or not two non-null instances of a type are equal for the purposes of delta encoding.
+	see {@link AutoCodec#createDeltaEquality(ReifiedType)}.
+	*/
+	@FunctionalInterface
+	public static interface Equality<T_Decoded> {
+
+		public abstract boolean equals(@NotNull T_Decoded baseline, @NotNull T_Decoded current);
+	}
+
+	@Override
+	public String toString() {
+		return this.getClass().getSimpleName() + ": " + this.type;
+	}
+
+	/**
+	used when a type references itself, either directly or indirectly.
+	the delegate is assigned once the actual DeltaCoder has been created.
+	*/
+	public static class DeferredDeltaCoder<T_Decoded> extends DeltaCoder<T_Decoded> {
+
+		public @Nullable DeltaCoder<T_Decoded> delegate;
+
+		public DeferredDeltaCoder(@NotNull ReifiedType<T_Decoded> type) {
+			super(type);
+		}
+
+		public @NotNull DeltaCoder<T_Decoded> getDelegate() {
+			DeltaCoder<T_Decoded> delegate = this.delegate;
+			if (delegate == null) throw new IllegalStateException(this + " used before being created.");
+			return delegate;
+		}
+
+		@Override
+		public <T_Encoded> @Nullable T_Encoded encodeDelta(@NotNull EncodeContext<T_Encoded, T_Decoded> context, @Nullable T_Decoded baseline) throws EncodeException {
+			return this.getDelegate().encodeDelta(context, baseline);
+		}
+
+		@Override
+		public <T_Encoded> @Nullable T_Decoded applyDelta(@NotNull DecodeContext<T_Encoded> context, @Nullable T_Decoded existing) throws DecodeException {
+			return this.getDelegate().applyDelta(context, existing);
+		}
+
+		//our delegate is always an ancestor of ours, so its children have already been visited.
+	}
+
+	/**
+	common logic for every DeltaCoder which is not deferred:
+	null baselines and null existing objects are handled with our {@link #coder},
+	and {@link #equality} is checked before looking for changes.
+	after changes have been applied, the result is checked with our {@link #verifier}.
+	*/
+	public static abstract class CodingDeltaCoder<T_Decoded> extends DeltaCoder<T_Decoded> {
+
+		public final @NotNull AutoCoder<T_Decoded> coder;
+		public final @Nullable Equality<T_Decoded> equality;
+		/**
+		the verifier which {@link #coder} would apply after decoding, if any.
+		our coder only verifies values which are decoded in full,
+		so values which had changes applied to them need to be verified separately.
+		*/
+		public final @Nullable AutoVerifier<T_Decoded> verifier;
+
+		public CodingDeltaCoder(
+			@NotNull ReifiedType<T_Decoded> type,
+			@NotNull AutoCoder<T_Decoded> coder,
+			@Nullable Equality<T_Decoded> equality,
+			@Nullable AutoVerifier<T_Decoded> verifier
+		) {
+			super(type);
+			this.coder = coder;
+			this.equality = equality;
+			this.verifier = verifier;
+		}
+
+		@Override
+		public <T_Encoded> @Nullable T_Encoded encodeDelta(@NotNull EncodeContext<T_Encoded, T_Decoded> context, @Nullable T_Decoded baseline) throws EncodeException {
+			if (baseline == null) return context.encodeWith(this.coder);
+			if (baseline == context.object) return null;
+			if (this.equality != null && this.equality.equals(baseline, context.object)) return null;
+			return this.encodeChanges(context, baseline);
+		}
+
+		@Override
+		public <T_Encoded> @Nullable T_Decoded applyDelta(@NotNull DecodeContext<T_Encoded> context, @Nullable T_Decoded existing) throws DecodeException {
+			if (existing == null) return context.decodeWith(this.coder);
+			T_Decoded result = this.applyChanges(context, existing);
+			if (this.verifier != null) context.verifyWith(this.verifier, result);
+			return result;
+		}
+
+		@Override
+		public void visitChildren(@NotNull ChildVisitor visitor) {
+			visitor.visitChild("coder", this.coder);
+			if (this.verifier != null) visitor.visitChild("verifier", this.verifier);
+		}
+
+		/** same as {@link #encodeDelta(EncodeContext, Object)}, but both objects are non-null. */
+		public abstract <T_Encoded> @Nullable T_Encoded encodeChanges(@NotNull EncodeContext<T_Encoded, T_Decoded> context, @NotNull T_Decoded baseline) throws EncodeException;
+
+		/** same as {@link #applyDelta(DecodeContext, Object)}, but existing is non-null. */
+		public abstract <T_Encoded> @NotNull T_Decoded applyChanges(@NotNull DecodeContext<T_Encoded> context, @NotNull T_Decoded existing) throws DecodeException;
+
+		/** returns the elements of context's input, or an empty List if context's input is empty. */
+		public static <T_Encoded> @NotNull List<@NotNull DecodeContext<T_Encoded>> listOrEmpty(@NotNull DecodeContext<T_Encoded> context) throws DecodeException {
+			return context.isEmpty() ? Collections.emptyList() : context.forceAsList(false);
+		}
+
+		/** creates a map containing only the entries whose values are non-null. */
+		public static <T_Encoded> @Nullable T_Encoded createChanges(@NotNull EncodeContext<T_Encoded, ?> context, @NotNull String key1, @Nullable T_Encoded value1, @NotNull String key2, @Nullable T_Encoded value2) {
+			if (value1 == null && value2 == null) return null;
+			Map<String, T_Encoded> map = new LinkedHashMap<>(4);
+			if (value1 != null) map.put(key1, value1);
+			if (value2 != null) map.put(key2, value2);
+			return context.createStringMap(map);
+		}
+	}
+
+	/** encodes the entire value whenever it changes. */
+	public static class LeafDeltaCoder<T_Decoded> extends CodingDeltaCoder<T_Decoded> {
+
+		/** true if {@link Object#equals(Object)} can be used instead of comparing encoded values. */
+		public final boolean valueLike;
+
+		public LeafDeltaCoder(@NotNull ReifiedType<T_Decoded> type, @NotNull AutoCoder<T_Decoded> coder, @Nullable Equality<T_Decoded> equality) {
+			//changes are decoded in full with our coder, which already verifies them.
+			super(type, coder, equality, null);
+			Class<?> rawClass = type.boxed().getRawClass();
+			this.valueLike = rawClass != null && (
+				rawClass == String.class ||
+				rawClass == Boolean.class ||
+				rawClass == Character.class ||
+				(Number.class.isAssignableFrom(rawClass) && rawClass.getName().startsWith("java.lang.")) ||
+				rawClass.isEnum()
+			);
+		}
+
+		@Override
+		public <T_Encoded> @Nullable T_Encoded encodeChanges(@NotNull EncodeContext<T_Encoded, T_Decoded> context, @NotNull T_Decoded baseline) throws EncodeException {
+			if (this.valueLike) {
+				return baseline.equals(context.object) ? null : context.encodeWith(this.coder);
+			}
+			T_Encoded current = context.encodeWith(this.coder);
+			//if we have an equality, then it already said the objects are different.
+			if (this.equality != null) return current;
+			return current.equals(context.object(baseline).encodeWith(this.coder)) ? null : current;
+		}
+
+		@Override
+		public <T_Encoded> @NotNull T_Decoded applyChanges(@NotNull DecodeContext<T_Encoded> context, @NotNull T_Decoded existing) throws DecodeException {
+			return context.decodeWith(this.coder);
+		}
+	}
+
+	public static class Member<T_Owner, T_Member> {
+
+		public static final @NotNull ObjectArrayFactory<Member<?, ?>> ARRAY_FACTORY = new ObjectArrayFactory<>(Member.class).generic();
+
+		public final @NotNull String name;
+		public final @NotNull InstanceReader<T_Owner, T_Member> reader;
+		/** null if the member can only be updated in place. */
+		public final @Nullable InstanceWriter<T_Owner, T_Member> writer;
+		public final @NotNull DeltaCoder<T_Member> delta;
+
+		public Member(
+			@NotNull String name,
+			@NotNull InstanceReader<T_Owner, T_Member> reader,
+			@Nullable InstanceWriter<T_Owner, T_Member> writer,
+			@NotNull DeltaCoder<T_Member> delta
+		) {
+			this.name   = name;
+			this.reader = reader;
+			this.writer = writer;
+			this.delta  = delta;
+		}
+
+		public <T_Encoded> @Nullable T_Encoded encodeDelta(@NotNull EncodeContext<T_Encoded, T_Owner> context, @NotNull T_Owner baseline) throws EncodeException {
+			return this.delta.encodeDelta(context.object(this.reader.get(context.object)), this.reader.get(baseline));
+		}
+
+		public <T_Encoded> @Nullable T_Member applyDelta(@NotNull DecodeContext<T_Encoded> context, @Nullable Object existing) throws DecodeException {
+			return this.delta.applyDelta(context, this.memberType(existing));
+		}
+
+		@SuppressWarnings("unchecked")
+		public @Nullable T_Member memberType(@Nullable Object member) {
+			return (T_Member)(member);
+		}
+	}
+
+	/** common logic for mutable objects and records. */
+	public static abstract class FieldsDeltaCoder<T_Decoded> extends CodingDeltaCoder<T_Decoded> {
+
+		public final @NotNull Member<T_Decoded, ?> @NotNull [] members;
+
+		public FieldsDeltaCoder(
+			@NotNull ReifiedType<T_Decoded> type,
+			@NotNull AutoCoder<T_Decoded> coder,
+			@Nullable Equality<T_Decoded> equality,
+			@NotNull Member<T_Decoded, ?> @NotNull [] members,
+			@Nullable AutoVerifier<T_Decoded> verifier
+		) {
+			super(type, coder, equality, verifier);
+			this.members = members;
+		}
+
+		@Override
+		public void visitChildren(@NotNull ChildVisitor visitor) {
+			super.visitChildren(visitor);
+			for (Member<T_Decoded, ?> member : this.members) {
+				visitNested(visitor, member.name, member.delta);
+			}
+		}
+
+		@Override
+		public <T_Encoded> @Nullable T_Encoded encodeChanges(@NotNull EncodeContext<T_Encoded, T_Decoded> context, @NotNull T_Decoded baseline) throws EncodeException {
+			Map<String, T_Encoded> set = null;
+			List<T_Encoded> clear = null;
+			for (Member<T_Decoded, ?> member : this.members) {
+				if (member.reader.get(context.object) == null) {
+					if (member.reader.get(baseline) != null) {
+						if (clear == null) clear = new ArrayList<>(4);
+						clear.add(context.createString(member.name));
+					}
+					continue;
+				}
+				T_Encoded delta = member.encodeDelta(context, baseline);
+				if (delta != null) {
+					if (set == null) set = new LinkedHashMap<>(8);
+					set.put(member.name, delta);
+				}
+			}
+			return createChanges(
+				context,
+				SET,   set   != null ? context.createStringMap(set) : null,
+				CLEAR, clear != null ? context.createList(clear)    : null
+			);
+		}
+
+		@Override
+		public <T_Encoded> @NotNull T_Decoded applyChanges(@NotNull DecodeContext<T_Encoded> context, @NotNull T_Decoded existing) throws DecodeException {
+			Map<String, DecodeContext<T_Encoded>> set = context.getMember(SET).asStringMapOrEmpty();
+			Set<String> clear = new HashSet<>(4);
+			for (DecodeContext<T_Encoded> name : listOrEmpty(context.getMember(CLEAR))) {
+				clear.add(name.forceAsString());
+			}
+			Member<T_Decoded, ?>[] members = this.members;
+			Object[] values = new Object[members.length];
+			boolean[] changed = new boolean[members.length];
+			for (int index = 0; index < members.length; index++) {
+				Member<T_Decoded, ?> member = members[index];
+				Object oldValue = member.reader.get(existing);
+				Object newValue = oldValue;
+				if (clear.contains(member.name)) {
+					newValue = null;
+				}
+				else {
+					DecodeContext<T_Encoded> delta = set.get(member.name);
+					if (delta != null) newValue = member.applyDelta(delta, oldValue);
+				}
+				values[index] = newValue;
+				changed[index] = newValue != oldValue;
+			}
+			return this.assemble(context, existing, values, changed);
+		}
+
+		/**
+		values[index] is the updated value of the member at that index,
+		and changed[index] is true if it is not the same instance as before.
+		*/
+		public abstract <T_Encoded> @NotNull T_Decoded assemble(
+			@NotNull DecodeContext<T_Encoded> context,
+			@NotNull T_Decoded existing,
+			@Nullable Object @NotNull [] values,
+			boolean @NotNull [] changed
+		)
+		throws DecodeException;
+	}
+
+	/** objects whose fields are assigned or imprinted after they are constructed. */
+	public static class ObjectDeltaCoder<T_Decoded> extends FieldsDeltaCoder<T_Decoded> {
+
+		public ObjectDeltaCoder(
+			@NotNull ReifiedType<T_Decoded> type,
+			@NotNull AutoCoder<T_Decoded> coder,
+			@Nullable Equality<T_Decoded> equality,
+			@NotNull Member<T_Decoded, ?> @NotNull [] members,
+			@Nullable AutoVerifier<T_Decoded> verifier
+		) {
+			super(type, coder, equality, members, verifier);
+		}
+
+		@Override
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		public <T_Encoded> @NotNull T_Decoded assemble(
+			@NotNull DecodeContext<T_Encoded> context,
+			@NotNull T_Decoded existing,
+			@Nullable Object @NotNull [] values,
+			boolean @NotNull [] changed
+		)
+		throws DecodeException {
+			for (int index = 0; index < values.length; index++) {
+				if (changed[index]) {
+					Member member = this.members[index];
+					if (member.writer == null) {
+						throw new DecodeException(() -> context.pathToString() + '.' + member.name + " cannot be replaced, and can only be updated in place.");
+					}
+					member.writer.set(existing, values[index]);
+				}
+			}
+			return existing;
+		}
+	}
+
+	/** records and other objects which are passed all their members in their constructor. */
+	public static class RecordDeltaCoder<T_Decoded> extends FieldsDeltaCoder<T_Decoded> {
+
+		/** (Object[]) -> T_Decoded */
+		public final @NotNull MethodHandle spreadConstructor;
+
+		public RecordDeltaCoder(
+			@NotNull ReifiedType<T_Decoded> type,
+			@NotNull AutoCoder<T_Decoded> coder,
+			@Nullable Equality<T_Decoded> equality,
+			@NotNull Member<T_Decoded, ?> @NotNull [] members,
+			@NotNull MethodHandle spreadConstructor,
+			@Nullable AutoVerifier<T_Decoded> verifier
+		) {
+			super(type, coder, equality, members, verifier);
+			this.spreadConstructor = spreadConstructor;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public <T_Encoded> @NotNull T_Decoded assemble(
+			@NotNull DecodeContext<T_Encoded> context,
+			@NotNull T_Decoded existing,
+			@Nullable Object @NotNull [] values,
+			boolean @NotNull [] changed
+		)
+		throws DecodeException {
+			boolean anyChanged = false;
+			for (boolean memberChanged : changed) anyChanged |= memberChanged;
+			if (!anyChanged) return existing;
+			try {
+				return (T_Decoded)(this.spreadConstructor.invokeExact(values));
+			}
+			catch (DecodeException | Error exception) {
+				throw exception;
+			}
+			catch (Throwable throwable) {
+				throw new DecodeException(throwable);
+			}
+		}
+	}
+
+	public static class ListDeltaCoder<T_Element> extends CodingDeltaCoder<List<T_Element>> {
+
+		public final @NotNull DeltaCoder<T_Element> elementDelta;
+
+		public ListDeltaCoder(
+			@NotNull ReifiedType<List<T_Element>> type,
+			@NotNull AutoCoder<List<T_Element>> coder,
+			@Nullable Equality<List<T_Element>> equality,
+			@NotNull DeltaCoder<T_Element> elementDelta,
+			@Nullable AutoVerifier<List<T_Element>> verifier
+		) {
+			super(type, coder, equality, verifier);
+			this.elementDelta = elementDelta;
+		}
+
+		@Override
+		public void visitChildren(@NotNull ChildVisitor visitor) {
+			super.visitChildren(visitor);
+			visitNested(visitor, "element", this.elementDelta);
+		}
+
+		@Override
+		public <T_Encoded> @Nullable T_Encoded encodeChanges(@NotNull EncodeContext<T_Encoded, List<T_Element>> context, @NotNull List<T_Element> baseline) throws EncodeException {
+			Map<String, T_Encoded> set = null;
+			List<T_Encoded> clear = null;
+			Iterator<T_Element> currentIterator = context.object.iterator();
+			Iterator<T_Element> baselineIterator = baseline.iterator();
+			for (int index = 0; currentIterator.hasNext(); index++) {
+				T_Element current = currentIterator.next();
+				T_Element old = baselineIterator.hasNext() ? baselineIterator.next() : null;
+				if (current == null) {
+					if (old != null) {
+						if (clear == null) clear = new ArrayList<>(4);
+						clear.add(context.createInt(index));
+					}
+					continue;
+				}
+				T_Encoded delta = this.elementDelta.encodeDelta(context.object(current), old);
+				if (delta != null) {
+					if (set == null) set = new LinkedHashMap<>(8);
+					set.put(Integer.toString(index), delta);
+				}
+			}
+			int size = context.object.size();
+			if (set == null && clear == null && size == baseline.size()) return null;
+			Map<String, T_Encoded> map = new LinkedHashMap<>(4);
+			map.put(SIZE, context.createInt(size));
+			if (set   != null) map.put(SET,   context.createStringMap(set));
+			if (clear != null) map.put(CLEAR, context.createList(clear));
+			return context.createStringMap(map);
+		}
+
+		@Override
+		public <T_Encoded> @NotNull List<T_Element> applyChanges(@NotNull DecodeContext<T_Encoded> context, @NotNull List<T_Element> existing) throws DecodeException {
+			List<T_Element> list = existing instanceof ArrayList<T_Element> ? existing : new ArrayList<>(existing);
+			int size = context.getMember(SIZE).forceAsNumber().intValue();
+			if (size < 0) throw new DecodeException(() -> context.getMember(SIZE).pathToString() + " must not be negative.");
+			while (list.size() > size) list.remove(list.size() - 1);
+			while (list.size() < size) list.add(null);
+			for (DecodeContext<T_Encoded> index : listOrEmpty(context.getMember(CLEAR))) {
+				list.set(this.checkIndex(index, index.forceAsNumber().intValue(), size), null);
+			}
+			for (Map.Entry<String, DecodeContext<T_Encoded>> entry : context.getMember(SET).asStringMapOrEmpty().entrySet()) {
+				int index;
+				try {
+					index = this.checkIndex(entry.getValue(), Integer.parseInt(entry.getKey()), size);
+				}
+				catch (NumberFormatException exception) {
+					throw new DecodeException(() -> entry.getValue().pathToString() + " is not a valid index.", exception);
+				}
+				list.set(index, this.elementDelta.applyDelta(entry.getValue(), list.get(index)));
+			}
+			return list;
+		}
+
+		public int checkIndex(@NotNull DecodeContext<?> context, int index, int size) throws DecodeException {
+			if (index >= 0 && index < size) return index;
+			throw new DecodeException(() -> context.pathToString() + " refers to index " + index + ", which is out of bounds for size " + size);
+		}
+	}
+
+	public static class MapDeltaCoder<T_Key, T_Value> extends CodingDeltaCoder<Map<T_Key, T_Value>> {
+
+		public final @NotNull AutoCoder<T_Key> keyCoder;
+		public final @NotNull DeltaCoder<T_Value> valueDelta;
+
+		public MapDeltaCoder(
+			@NotNull ReifiedType<Map<T_Key, T_Value>> type,
+			@NotNull AutoCoder<Map<T_Key, T_Value>> coder,
+			@Nullable Equality<Map<T_Key, T_Value>> equality,
+			@NotNull AutoCoder<T_Key> keyCoder,
+			@NotNull DeltaCoder<T_Value> valueDelta,
+			@Nullable AutoVerifier<Map<T_Key, T_Value>> verifier
+		) {
+			super(type, coder, equality, verifier);
+			this.keyCoder = keyCoder;
+			this.valueDelta = valueDelta;
+		}
+
+		@Override
+		public void visitChildren(@NotNull ChildVisitor visitor) {
+			super.visitChildren(visitor);
+			visitor.visitChild("keyCoder", this.keyCoder);
+			visitNested(visitor, VALUE, this.valueDelta);
+		}
+
+		@Override
+		public <T_Encoded> @Nullable T_Encoded encodeChanges(@NotNull EncodeContext<T_Encoded, Map<T_Key, T_Value>> context, @NotNull Map<T_Key, T_Value> baseline) throws EncodeException {
+			List<T_Encoded> set = null, remove = null;
+			for (Map.Entry<T_Key, T_Value> entry : context.object.entrySet()) {
+				if (entry.getValue() == null) continue;
+				T_Encoded delta = this.valueDelta.encodeDelta(context.object(entry.getValue()), baseline.get(entry.getKey()));
+				if (delta != null) {
+					if (set == null) set = new ArrayList<>(8);
+					Map<String, T_Encoded> pair = new LinkedHashMap<>(2);
+					pair.put(KEY, context.object(entry.getKey()).encodeWith(this.keyCoder));
+					pair.put(VALUE, delta);
+					set.add(context.createStringMap(pair));
+				}
+			}
+			for (Map.Entry<T_Key, T_Value> entry : baseline.entrySet()) {
+				if (entry.getValue() != null && context.object.get(entry.getKey()) == null) {
+					if (remove == null) remove = new ArrayList<>(4);
+					remove.add(context.object(entry.getKey()).encodeWith(this.keyCoder));
+				}
+			}
+			return createChanges(
+				context,
+				SET,    set    != null ? context.createList(set)    : null,
+				REMOVE, remove != null ? context.createList(remove) : null
+			);
+		}
+
+		@Override
+		public <T_Encoded> @NotNull Map<T_Key, T_Value> applyChanges(@NotNull DecodeContext<T_Encoded> context, @NotNull Map<T_Key, T_Value> existing) throws DecodeException {
+			Map<T_Key, T_Value> map = existing instanceof HashMap<T_Key, T_Value> ? existing : new LinkedHashMap<>(existing);
+			for (DecodeContext<T_Encoded> key : listOrEmpty(context.getMember(REMOVE))) {
+				map.remove(key.decodeWith(this.keyCoder));
+			}
+			for (DecodeContext<T_Encoded> pair : listOrEmpty(context.getMember(SET))) {
+				T_Key key = pair.getMember(KEY).decodeWith(this.keyCoder);
+				if (key == null) throw new DecodeException(() -> pair.getMember(KEY).pathToString() + " is missing.");
+				map.put(key, this.valueDelta.applyDelta(pair.getMember(VALUE), map.get(key)));
+			}
+			return map;
+		}
+	}
+
+	/**
+	creates DeltaCoder's for types and all the types they contain,
+	handling types which reference themselves.
+	the created DeltaCoder's are added to {@link AutoCodec#deltaCoders}
+	once the root DeltaCoder has been created successfully.
+	*/
+	public static class Builder {
+
+		public final @NotNull AutoCodec autoCodec;
+		public final @NotNull Map<@NotNull ReifiedType<?>, @NotNull DeltaCoder<?>> created = new HashMap<>(16);
+
+		public Builder(@NotNull AutoCodec autoCodec) {
+			this.autoCodec = autoCodec;
+		}
+
+		public <T_Decoded> @NotNull DeltaCoder<T_Decoded> build(@NotNull FactoryContext<T_Decoded> context) throws FactoryException {
+			DeltaCoder<T_Decoded> root = this.get(context);
+			for (Map.Entry<ReifiedType<?>, DeltaCoder<?>> entry : this.created.entrySet()) {
+				this.autoCodec.deltaCoders.putIfAbsent(entry.getKey(), entry.getValue());
+			}
+			return root;
+		}
+
+		@SuppressWarnings("unchecked")
+		public <T_Decoded> @NotNull DeltaCoder<T_Decoded> get(@NotNull FactoryContext<T_Decoded> context) throws FactoryException {
+			ReifiedType<T_Decoded> type = context.type.canonicalize();
+			DeltaCoder<?> existing = this.autoCodec.deltaCoders.get(type);
+			if (existing == null) existing = this.created.get(type);
+			if (existing != null) return (DeltaCoder<T_Decoded>)(existing);
+			DeferredDeltaCoder<T_Decoded> deferred = new DeferredDeltaCoder<>(type);
+			this.created.put(type, deferred);
+			DeltaCoder<T_Decoded> actual = this.create(context);
+			deferred.delegate = actual;
+			this.created.put(type, actual);
+			return actual;
+		}
+
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		public <T_Decoded> @NotNull DeltaCoder<T_Decoded> create(@NotNull FactoryContext<T_Decoded> context) throws FactoryException {
+			AutoCoder<T_Decoded> coder = context.forceCreateCoder();
+			Equality<T_Decoded> equality = this.autoCodec.createDeltaEquality(context.type);
+			AutoCoder<T_Decoded> unwrapped = coder;
+			AutoVerifier<T_Decoded> verifier = null;
+			if (unwrapped instanceof VerifyingCoder<T_Decoded> verifying) {
+				unwrapped = verifying.coder;
+				verifier = verifying.verifier;
+			}
+			Class<?> rawClass = context.type.getRawClass();
+			if (rawClass == List.class) {
+				ReifiedType<?> elementType = context.type.resolveParameter(List.class);
+				if (elementType != null) {
+					context.logger().logMessage("Diffing List element by element.");
+					return new ListDeltaCoder(context.type, coder, equality, this.get(context.type(elementType)), verifier);
+				}
+			}
+			if (rawClass == Map.class) {
+				ReifiedType<?>[] parameters = context.type.resolveParameters(Map.class);
+				if (parameters != null) {
+					context.logger().logMessage("Diffing Map value by value.");
+					return new MapDeltaCoder(context.type, coder, equality, context.type(parameters[0]).forceCreateCoder(), this.get(context.type(parameters[1])), verifier);
+				}
+			}
+			if (unwrapped instanceof RecordCoder<T_Decoded> record && record.spreadConstructor != null) {
+				context.logger().logMessage("Diffing record-like type component by component.");
+				Member<T_Decoded, ?>[] members = Member.ARRAY_FACTORY.applyGeneric(record.fields.length);
+				for (int index = 0; index < members.length; index++) {
+					MultiFieldEncoder.FieldStrategy<T_Decoded, ?> field = record.fields[index];
+					members[index] = new Member(field.field.getSerializedName(), field.getter, null, this.get(context.type(field.field.getType())));
+				}
+				return new RecordDeltaCoder<>(context.type, coder, equality, members, record.spreadConstructor, verifier);
+			}
+			AutoEncoder<T_Decoded> encoder = context.tryCreateEncoder();
+			AutoImprinter<T_Decoded> imprinter = context.tryCreateImprinter();
+			if (encoder != null && encoder.getClass() == MultiFieldEncoder.class && imprinter != null) {
+				MultiFieldEncoder<T_Decoded> multiFieldEncoder = (MultiFieldEncoder<T_Decoded>)(encoder);
+				MultiFieldImprinter.FieldStrategy<T_Decoded, ?>[] imprinterFields = (
+					imprinter instanceof MultiFieldImprinter<T_Decoded> multiFieldImprinter
+					? multiFieldImprinter.fields
+					: imprinter instanceof MultiFieldImprinter.FieldStrategy<T_Decoded, ?> single
+					? new MultiFieldImprinter.FieldStrategy[] { single }
+					: null
+				);
+				if (imprinterFields != null && Arrays.stream(multiFieldEncoder.fields).noneMatch((MultiFieldEncoder.FieldStrategy<T_Decoded, ?> field) -> field.inline)) {
+					context.logger().logMessage("Diffing mutable object field by field.");
+					Member<T_Decoded, ?>[] members = Member.ARRAY_FACTORY.applyGeneric(multiFieldEncoder.fields.length);
+					for (int index = 0; index < members.length; index++) {
+						MultiFieldEncoder.FieldStrategy<T_Decoded, ?> field = multiFieldEncoder.fields[index];
+						//final fields are imprinted instead of decoded, so they have no writer.
+						InstanceWriter<T_Decoded, ?> writer = null;
+						for (MultiFieldImprinter.FieldStrategy<T_Decoded, ?> imprinterField : imprinterFields) {
+							if (imprinterField instanceof DecodingFieldStrategy<T_Decoded, ?> decoding && imprinterField.field.getName().equals(field.field.getName())) {
+								writer = decoding.writer;
+							}
+						}
+						members[index] = new Member(field.field.getSerializedName(), field.getter, writer, this.get(context.type(field.field.getType())));
+					}
+					return new ObjectDeltaCoder<>(context.type, coder, equality, members, verifier);
+				}
+			}
+			context.logger().logMessage("Diffing entire value.");
+			return new LeafDeltaCoder<>(context.type, coder, equality);
+		}
+	}
+}
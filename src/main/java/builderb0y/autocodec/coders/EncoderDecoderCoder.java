@@ -11,9 +11,11 @@ import builderb0y.autocodec.common.FactoryException;
 import builderb0y.autocodec.decoders.AutoDecoder;
 import builderb0y.autocodec.decoders.DecodeContext;
 import builderb0y.autocodec.decoders.DecodeException;
+import builderb0y.autocodec.decoders.DecodeSource;
 import builderb0y.autocodec.encoders.AutoEncoder;
 import builderb0y.autocodec.encoders.EncodeContext;
 import builderb0y.autocodec.encoders.EncodeException;
+import builderb0y.autocodec.encoders.EncodeSink;
 
 /**
 basic implementation of {@link AutoCoder}
@@ -35,18 +37,36 @@ public record EncoderDecoderCoder<T_Decoded>(@NotNull AutoEncoder<T_Decoded> enc
 		return Stream.concat(encoderKeys, decoderKeys);
 	}
 
+	@Override
+	public void visitChildren(@NotNull ChildVisitor visitor) {
+		visitor.visitChild("encoder", this.encoder);
+		visitor.visitChild("decoder", this.decoder);
+	}
+
 	@Override
 	@OverrideOnly
 	public <T_Encoded> @NotNull T_Encoded encode(@NotNull EncodeContext<T_Encoded, T_Decoded> context) throws EncodeException {
 		return context.encodeWith(this.encoder);
 	}
 
+	@Override
+	@OverrideOnly
+	public <T_Encoded> void encodeTo(@NotNull EncodeContext<T_Encoded, T_Decoded> context, @NotNull EncodeSink<T_Encoded> sink) throws EncodeException {
+		context.encodeWith(this.encoder, sink);
+	}
+
 	@Override
 	@OverrideOnly
 	public <T_Encoded> @Nullable T_Decoded decode(@NotNull DecodeContext<T_Encoded> context) throws DecodeException {
 		return context.decodeWith(this.decoder);
 	}
 
+	@Override
+	@OverrideOnly
+	public <T_Encoded> @Nullable T_Decoded decodeFrom(@NotNull DecodeContext<T_Encoded> context, @NotNull DecodeSource<T_Encoded> source) throws DecodeException {
+		return context.decodeWith(this.decoder, source);
+	}
+
 	public static class Factory extends NamedCoderFactory {
 
 		public static final Factory INSTANCE = new Factory();
@@ -9,11 +9,14 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import builderb0y.autocodec.coders.AutoCoder.NamedCoder;
+import builderb0y.autocodec.common.AutoHandler.AutoFactory;
 import builderb0y.autocodec.common.EnumName;
+import builderb0y.autocodec.common.FactoryApplicability;
 import builderb0y.autocodec.common.FactoryContext;
 import builderb0y.autocodec.common.FactoryException;
 import builderb0y.autocodec.decoders.DecodeContext;
 import builderb0y.autocodec.decoders.DecodeException;
+import builderb0y.autocodec.decoders.DecodeSource;
 import builderb0y.autocodec.encoders.EncodeContext;
 import builderb0y.autocodec.encoders.EncodeException;
 import builderb0y.autocodec.reflection.reification.ReifiedType;
@@ -42,23 +45,40 @@ public class EnumCoder<T_DecodedEnum extends Enum<T_DecodedEnum>> extends NamedC
 		if (context.isEmpty()) return null;
 		//note: check ordinal first, as some ops will implicitly convert numbers to strings.
 		Number ordinal = context.tryAsNumber();
-		if (ordinal != null) {
-			int actualOrdinal = ordinal.intValue();
-			int length = this.valueArray.length;
-			if (actualOrdinal >= 0 && actualOrdinal < length) {
-				return this.valueArray[actualOrdinal];
-			}
-			else {
-				throw new DecodeException(() -> "Ordinal out of bounds: " + ordinal + " (there are only " + length + " enums to choose from)");
+		if (ordinal != null) return this.fromOrdinal(ordinal);
+		String name = context.tryAsString();
+		if (name != null) return this.fromName(name);
+		throw context.notA("string or number");
+	}
+
+	@Override
+	public <T_Encoded> @Nullable T_DecodedEnum decodeFrom(@NotNull DecodeContext<T_Encoded> context, @NotNull DecodeSource<T_Encoded> source) throws DecodeException {
+		return switch (source.peek()) {
+			case NUMBER, BOOLEAN -> this.fromOrdinal(source.readNumber(context));
+			case STRING -> this.fromName(source.readString(context));
+			case EMPTY -> {
+				source.tryReadEmpty();
+				yield null;
 			}
+			default -> throw source.notA(context, "string or number");
+		};
+	}
+
+	public @NotNull T_DecodedEnum fromOrdinal(@NotNull Number ordinal) throws DecodeException {
+		int actualOrdinal = ordinal.intValue();
+		int length = this.valueArray.length;
+		if (actualOrdinal >= 0 && actualOrdinal < length) {
+			return this.valueArray[actualOrdinal];
 		}
-		String name = context.tryAsString();
-		if (name != null) {
-			T_DecodedEnum value = this.valueMap.get(name);
-			if (value != null) return value;
-			else throw new DecodeException(() -> "Invalid name: " + name + " (valid names are: " + this.valueMap.keySet() + ')');
+		else {
+			throw new DecodeException(() -> "Ordinal out of bounds: " + ordinal + " (there are only " + length + " enums to choose from)");
 		}
-		throw context.notA("string or number");
+	}
+
+	public @NotNull T_DecodedEnum fromName(@NotNull String name) throws DecodeException {
+		T_DecodedEnum value = this.valueMap.get(name);
+		if (value != null) return value;
+		else throw new DecodeException(() -> "Invalid name: " + name + " (valid names are: " + this.valueMap.keySet() + ')');
 	}
 
 	@Override
@@ -84,6 +104,21 @@ public class EnumCoder<T_DecodedEnum extends Enum<T_DecodedEnum>> extends NamedC
 			this.nameGetter = nameGetter;
 		}
 
+		@Override
+		public @NotNull FactoryApplicability getApplicability() {
+			return FactoryApplicability.matching((ReifiedType<?> type) -> type.getRawClass() != null && type.getRawClass().isEnum());
+		}
+
+		@Override
+		public boolean isEquivalentTo(@NotNull AutoFactory<?> other) {
+			return this == other || (other.getClass() == this.getClass() && this.nameGetter == ((Factory)(other)).nameGetter);
+		}
+
+		@Override
+		public @NotNull String getDecisionState() {
+			return this.nameGetter.toString();
+		}
+
 		@Override
 		@OverrideOnly
 		@SuppressWarnings({ "unchecked", "rawtypes" })
@@ -0,0 +1,26 @@
+package builderb0y.autocodec.coders;
+
+import org.jetbrains.annotations.NotNull;
+
+import builderb0y.autocodec.annotations.GenerateCoder;
+import builderb0y.autocodec.common.FactoryContext;
+import builderb0y.autocodec.common.FactoryException;
+
+/**
+implemented by classes generated by the AutoCodec annotation processor
+for types annotated with {@link GenerateCoder}, and registered as a service
+in META-INF/services/builderb0y.autocodec.coders.GeneratedCoderProvider.
+see {@link GeneratedCoderRegistry}.
+*/
+public interface GeneratedCoderProvider {
+
+	/** the class which the coders created by {@link #create(FactoryContext)} handle. */
+	public abstract @NotNull Class<?> getHandledClass();
+
+	/**
+	creates a coder for the context's type.
+	the context's {@link FactoryContext#type} will always
+	have a raw class equal to {@link #getHandledClass()}.
+	*/
+	public abstract @NotNull AutoCoder<?> create(@NotNull FactoryContext<?> context) throws FactoryException;
+}
@@ -0,0 +1,90 @@
+package builderb0y.autocodec.coders;
+
+import java.util.Optional;
+import java.util.ServiceLoader;
+import java.util.ServiceLoader.Provider;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import builderb0y.autocodec.annotations.GenerateCoder;
+import builderb0y.autocodec.common.EnumName;
+import builderb0y.autocodec.common.FactoryContext;
+import builderb0y.autocodec.common.FactoryException;
+
+/**
+finds the {@link GeneratedCoderProvider}'s which the AutoCodec annotation processor
+generated for classes annotated with {@link GenerateCoder}.
+
+the processor registers every provider as a service,
+and names it after the class it handles (see {@link #getProviderClassName(Class)}),
+so that this registry can find the right provider without instantiating the others.
+classes which are not annotated with {@link GenerateCoder} are never looked up,
+so this registry adds no overhead for them.
+results are cached per class, and the cache does not prevent classes from being unloaded.
+*/
+public class GeneratedCoderRegistry {
+
+	public static final @NotNull GeneratedCoderRegistry INSTANCE = new GeneratedCoderRegistry();
+
+	public final @NotNull ClassValue<Optional<GeneratedCoderProvider>> providers = new ClassValue<>() {
+
+		@Override
+		public Optional<GeneratedCoderProvider> computeValue(Class<?> type) {
+			return Optional.ofNullable(GeneratedCoderRegistry.this.findProvider(type));
+		}
+	};
+
+	/**
+	returns the name of the provider class which the annotation processor generates for the provided class.
+	for example, the provider for com.example.Outer.Inner is com.example.Outer_Inner_GeneratedCoder.Provider,
+	whose binary name is com.example.Outer_Inner_GeneratedCoder$Provider.
+	*/
+	public static @NotNull String getProviderClassName(@NotNull Class<?> clazz) {
+		String packageName = clazz.getPackageName();
+		String flatName = clazz.getName().substring(packageName.isEmpty() ? 0 : packageName.length() + 1).replace('$', '_');
+		return (packageName.isEmpty() ? "" : packageName + '.') + flatName + "_GeneratedCoder$Provider";
+	}
+
+	public @Nullable GeneratedCoderProvider getProvider(@NotNull Class<?> clazz) {
+		return this.providers.get(clazz).orElse(null);
+	}
+
+	public @Nullable GeneratedCoderProvider findProvider(@NotNull Class<?> clazz) {
+		if (!clazz.isAnnotationPresent(GenerateCoder.class)) return null;
+		String providerName = getProviderClassName(clazz);
+		return (
+			ServiceLoader
+			.load(GeneratedCoderProvider.class, clazz.getClassLoader())
+			.stream()
+			.filter((Provider<GeneratedCoderProvider> provider) -> provider.type().getName().equals(providerName))
+			.map(Provider::get)
+			.filter((GeneratedCoderProvider provider) -> provider.getHandledClass() == clazz)
+			.findFirst()
+			.orElse(null)
+		);
+	}
+
+	/**
+	returns a generated coder for the context's type,
+	or null if no coder was generated for the context's type.
+	*/
+	public @Nullable AutoCoder<?> tryCreate(@NotNull FactoryContext<?> context) throws FactoryException {
+		Class<?> rawClass = context.type.getRawClass();
+		if (rawClass == null) return null;
+		GeneratedCoderProvider provider = this.getProvider(rawClass);
+		if (provider == null) return null;
+		context.logger().logMessageLazy(() -> "Using generated coder from " + provider.getClass().getName());
+		return provider.create(context);
+	}
+
+	/** used by generated coders for enums. */
+	public static <T_DecodedEnum extends Enum<T_DecodedEnum>> @NotNull EnumCoder<T_DecodedEnum> createEnumCoder(
+		@NotNull FactoryContext<?> context,
+		@NotNull Class<T_DecodedEnum> enumClass
+	) {
+		CoderFactoryList coders = context.autoCodec.coders;
+		EnumCoder.Factory factory = coders.factories.stream().filter(EnumCoder.Factory.class::isInstance).map(EnumCoder.Factory.class::cast).findFirst().orElse(null);
+		return new EnumCoder<>(enumClass, factory != null ? factory.nameGetter : EnumName.DEFAULT);
+	}
+}
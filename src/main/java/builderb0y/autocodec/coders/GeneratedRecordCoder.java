@@ -0,0 +1,253 @@
+package builderb0y.autocodec.coders;
+
+import java.lang.reflect.RecordComponent;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import org.jetbrains.annotations.ApiStatus.OverrideOnly;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import builderb0y.autocodec.annotations.Alias;
+import builderb0y.autocodec.annotations.EncodeInline;
+import builderb0y.autocodec.annotations.GenerateCoder;
+import builderb0y.autocodec.annotations.UseName;
+import builderb0y.autocodec.coders.AutoCoder.NamedCoder;
+import builderb0y.autocodec.common.FactoryContext;
+import builderb0y.autocodec.common.FactoryException;
+import builderb0y.autocodec.decoders.DecodeContext;
+import builderb0y.autocodec.decoders.DecodeException;
+import builderb0y.autocodec.decoders.DecodeSource;
+import builderb0y.autocodec.decoders.DecodeSource.Token;
+import builderb0y.autocodec.decoders.MemberDispatcher;
+import builderb0y.autocodec.encoders.EncodeContext;
+import builderb0y.autocodec.encoders.EncodeException;
+import builderb0y.autocodec.encoders.EncodeSink;
+import builderb0y.autocodec.encoders.MultiFieldEncoder.FieldStrategy;
+import builderb0y.autocodec.reflection.reification.ReifiedType;
+import builderb0y.autocodec.util.ObjectArrayFactory;
+
+/**
+common superclass of the coders which the AutoCodec annotation processor
+generates for records annotated with {@link GenerateCoder}.
+the generated subclasses implement {@link #getComponent(Object, int)}
+by calling the record's accessors directly,
+and {@link #construct(Object[])} by calling the record's
+canonical constructor directly, so unlike {@link RecordCoder},
+no MethodHandle's or private members are involved.
+this class handles everything else, including streaming
+via {@link #encodeTo(EncodeContext, EncodeSink)} and
+{@link #decodeFrom(DecodeContext, DecodeSource)},
+and behaves the same way as {@link RecordCoder} would otherwise.
+*/
+public abstract class GeneratedRecordCoder<T_DecodedRecord> extends NamedCoder<T_DecodedRecord> {
+
+	public final @NotNull Component<?> @NotNull [] components;
+	/** the serialized names of our components which are not inline, in order. */
+	public final @NotNull String @NotNull [] schema;
+	/** used by decodeFrom(). null if any component is inline, since those can't be dispatched by name. */
+	public final @Nullable MemberDispatcher dispatcher;
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public GeneratedRecordCoder(@NotNull FactoryContext<T_DecodedRecord> context, @NotNull Class<?> recordClass) throws FactoryException {
+		super(context.type);
+		RecordComponent[] recordComponents = recordClass.getRecordComponents();
+		if (recordComponents == null) throw new FactoryException(recordClass + " is not a record.");
+		int length = recordComponents.length;
+		this.components = Component.ARRAY_FACTORY.applyGeneric(length);
+		for (int index = 0; index < length; index++) {
+			//see RecordComponentView.getAnnotatedType() for why we use the accessor here.
+			ReifiedType<?> type = context.type.resolveDeclaration(recordComponents[index].getAccessor().getAnnotatedReturnType());
+			this.components[index] = new Component(recordComponents[index].getName(), type, context.type(type).forceCreateCoder());
+		}
+		this.schema = Arrays.stream(this.components).filter((Component<?> component) -> !component.inline).map((Component<?> component) -> component.serializedName).toArray(String[]::new);
+		this.dispatcher = (
+			this.schema.length == length
+			? new MemberDispatcher(Arrays.stream(this.components).map((Component<?> component) -> component.aliases).toArray(String[][]::new))
+			: null
+		);
+	}
+
+	/**
+	invokes the record's canonical constructor with the
+	provided arguments, which are in component order.
+	implemented by generated subclasses.
+	*/
+	@OverrideOnly
+	public abstract @NotNull T_DecodedRecord construct(@Nullable Object @NotNull [] arguments);
+
+	/**
+	returns the value of the component at the provided index.
+	implemented by generated subclasses.
+	*/
+	@OverrideOnly
+	public abstract @Nullable Object getComponent(@NotNull T_DecodedRecord record, int index);
+
+	/** same as {@link #construct(Object[])}, but wraps any exceptions the constructor throws. */
+	public @NotNull T_DecodedRecord constructChecked(@Nullable Object @NotNull [] arguments) throws DecodeException {
+		try {
+			return this.construct(arguments);
+		}
+		catch (RuntimeException exception) {
+			throw new DecodeException(exception);
+		}
+	}
+
+	@Override
+	@OverrideOnly
+	public <T_Encoded> @Nullable T_DecodedRecord decode(@NotNull DecodeContext<T_Encoded> context) throws DecodeException {
+		if (context.isEmpty()) return null;
+		Component<?>[] components = this.components;
+		Object[] arguments = new Object[components.length];
+		for (int index = 0; index < components.length; index++) {
+			arguments[index] = components[index].decode(context);
+		}
+		return this.constructChecked(arguments);
+	}
+
+	@Override
+	@OverrideOnly
+	public <T_Encoded> @Nullable T_DecodedRecord decodeFrom(@NotNull DecodeContext<T_Encoded> context, @NotNull DecodeSource<T_Encoded> source) throws DecodeException {
+		if (this.dispatcher == null || source.peek() != Token.MAP) {
+			return this.decode(context.input(source.readEncoded()));
+		}
+		Component<?>[] components = this.components;
+		Object[] arguments = new Object[components.length];
+		this.dispatcher.dispatch(context, source, new MemberDispatcher.Handler<>() {
+
+			@Override
+			public void member(int index, @NotNull DecodeContext<T_Encoded> memberContext, @NotNull DecodeSource<T_Encoded> source) throws DecodeException {
+				arguments[index] = memberContext.decodeWith(components[index].coder, source);
+			}
+
+			@Override
+			public void buffered(int index, @NotNull DecodeContext<T_Encoded> memberContext) throws DecodeException {
+				arguments[index] = memberContext.decodeWith(components[index].coder);
+			}
+
+			@Override
+			public void missing(int index) throws DecodeException {
+				arguments[index] = components[index].decode(context);
+			}
+		});
+		return this.constructChecked(arguments);
+	}
+
+	@Override
+	@OverrideOnly
+	@SuppressWarnings("unchecked")
+	public <T_Encoded> @NotNull T_Encoded encode(@NotNull EncodeContext<T_Encoded, T_DecodedRecord> context) throws EncodeException {
+		T_DecodedRecord object = context.object;
+		if (object == null) return context.empty();
+		Component<?>[] components = this.components;
+		Map<T_Encoded, T_Encoded> map = new LinkedHashMap<>(components.length);
+		for (int index = 0; index < components.length; index++) {
+			Component<Object> component = (Component<Object>)(components[index]);
+			FieldStrategy.encodeMemberOnto(context, map, this.getComponent(object, index), component.coder, component.inline, component.serializedName);
+		}
+		return context.createGenericMap(map);
+	}
+
+	@Override
+	@OverrideOnly
+	@SuppressWarnings("unchecked")
+	public <T_Encoded> void encodeTo(@NotNull EncodeContext<T_Encoded, T_DecodedRecord> context, @NotNull EncodeSink<T_Encoded> sink) throws EncodeException {
+		T_DecodedRecord object = context.object;
+		if (object == null) {
+			sink.writeEmpty();
+			return;
+		}
+		Component<?>[] components = this.components;
+		sink.beginMap(this.schema);
+		for (int index = 0; index < components.length; index++) {
+			Component<Object> component = (Component<Object>)(components[index]);
+			FieldStrategy.encodeMemberOnto(context, sink, this.getComponent(object, index), component.coder, component.inline, component.serializedName);
+		}
+		sink.endMap();
+	}
+
+	@Override
+	public @Nullable Stream<@NotNull String> getKeys() {
+		//same logic as MultiFieldEncoder.getKeys().
+		int length = this.components.length;
+		@SuppressWarnings("unchecked")
+		Stream<String>[] streams = new Stream[length];
+		for (int index = 0; index < length; index++) {
+			if ((streams[index] = this.components[index].getKeys()) == null) {
+				for (int index2 = 0; index2 < index; index2++) {
+					streams[index2].close();
+				}
+				return null;
+			}
+		}
+		return Arrays.stream(streams).flatMap(Function.identity());
+	}
+
+	@Override
+	public void visitChildren(@NotNull ChildVisitor visitor) {
+		for (Component<?> component : this.components) {
+			visitor.visitChild(component.serializedName, component.coder);
+		}
+	}
+
+	@Override
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public void linkChildren(@NotNull ChildLinker linker) {
+		for (Component component : this.components) {
+			component.coder = linker.link(component.coder);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return super.toString() + " (generated, " + this.components.length + " components)";
+	}
+
+	/** equivalent to {@link FieldStrategy}, but for components which are accessed directly. */
+	public static class Component<T_Member> {
+
+		public static final @NotNull ObjectArrayFactory<Component<?>> ARRAY_FACTORY = new ObjectArrayFactory<>(Component.class).generic();
+
+		public final @NotNull String name;
+		public final @NotNull ReifiedType<T_Member> type;
+		public final @NotNull String serializedName;
+		public final @NotNull String @NotNull [] aliases;
+		public final boolean inline;
+		public @NotNull AutoCoder<T_Member> coder;
+
+		public Component(@NotNull String name, @NotNull ReifiedType<T_Member> type, @NotNull AutoCoder<T_Member> coder) {
+			this.name = name;
+			this.type = type;
+			UseName useName = type.getAnnotations().getFirst(UseName.class);
+			this.serializedName = useName != null ? useName.value() : name;
+			Alias alias = type.getAnnotations().getFirst(Alias.class);
+			if (alias != null) {
+				this.aliases = new String[alias.value().length + 1];
+				this.aliases[0] = this.serializedName;
+				System.arraycopy(alias.value(), 0, this.aliases, 1, alias.value().length);
+			}
+			else {
+				this.aliases = new String[] { this.serializedName };
+			}
+			this.inline = type.getAnnotations().has(EncodeInline.class);
+			this.coder = coder;
+		}
+
+		@OverrideOnly
+		public <T_Encoded> @Nullable T_Member decode(@NotNull DecodeContext<T_Encoded> context) throws DecodeException {
+			return (this.inline ? context : context.getFirstMember(this.aliases)).decodeWith(this.coder);
+		}
+
+		public @Nullable Stream<@NotNull String> getKeys() {
+			return this.inline ? this.coder.getKeys() : Arrays.stream(this.aliases);
+		}
+
+		@Override
+		public String toString() {
+			return this.name + ": " + this.type;
+		}
+	}
+}
@@ -6,6 +6,7 @@ import org.jetbrains.annotations.Nullable;
 
 import builderb0y.autocodec.annotations.Intern;
 import builderb0y.autocodec.coders.AutoCoder.NamedCoder;
+import builderb0y.autocodec.common.FactoryApplicability;
 import builderb0y.autocodec.common.FactoryContext;
 import builderb0y.autocodec.common.FactoryException;
 import builderb0y.autocodec.decoders.DecodeContext;
@@ -16,7 +17,7 @@ import builderb0y.autocodec.reflection.reification.ReifiedType;
 
 public class InternedStringCoder extends NamedCoder<String> {
 
-	public final @NotNull AutoCoder<String> fallback;
+	public @NotNull AutoCoder<String> fallback;
 
 	public InternedStringCoder(@NotNull ReifiedType<String> handledType, @NotNull AutoCoder<String> fallback) {
 		super(handledType);
@@ -36,10 +37,25 @@ public class InternedStringCoder extends NamedCoder<String> {
 		return context.encodeWith(this.fallback);
 	}
 
+	@Override
+	public void visitChildren(@NotNull ChildVisitor visitor) {
+		visitor.visitChild("fallback", this.fallback);
+	}
+
+	@Override
+	public void linkChildren(@NotNull ChildLinker linker) {
+		this.fallback = linker.link(this.fallback);
+	}
+
 	public static class Factory extends NamedCoderFactory {
 
 		public static final Factory INSTANCE = new Factory();
 
+		@Override
+		public @NotNull FactoryApplicability getApplicability() {
+			return FactoryApplicability.annotatedWith(Intern.class).withRawClass(String.class);
+		}
+
 		@Override
 		@OverrideOnly
 		@SuppressWarnings("unchecked")
@@ -1,14 +1,20 @@
 package builderb0y.autocodec.coders;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.function.Function;
 
+import com.mojang.datafixers.util.Pair;
 import com.mojang.serialization.Codec;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import builderb0y.autocodec.coders.AutoCoder.NamedCoder;
 import builderb0y.autocodec.decoders.DecodeContext;
+import builderb0y.autocodec.decoders.DecodeContext.ObjectDecodePath;
 import builderb0y.autocodec.decoders.DecodeException;
+import builderb0y.autocodec.decoders.DecodeSource;
+import builderb0y.autocodec.decoders.DecodeSource.Token;
 import builderb0y.autocodec.encoders.EncodeContext;
 import builderb0y.autocodec.encoders.EncodeException;
 import builderb0y.autocodec.reflection.reification.ReifiedType;
@@ -33,7 +39,7 @@ and merged with the encoded object.
 */
 public abstract class KeyDispatchCoder<T_Key, T_Decoded> extends NamedCoder<T_Decoded> {
 
-	public final @NotNull AutoCoder<T_Key> keyCoder;
+	public @NotNull AutoCoder<T_Key> keyCoder;
 	public final @NotNull String keyName;
 
 	public KeyDispatchCoder(@NotNull ReifiedType<T_Decoded> type, @NotNull AutoCoder<T_Key> keyCoder, @NotNull String keyName) {
@@ -64,12 +70,45 @@ public abstract class KeyDispatchCoder<T_Key, T_Decoded> extends NamedCoder<T_De
 	@Override
 	public <T_Encoded> @Nullable T_Decoded decode(@NotNull DecodeContext<T_Encoded> context) throws DecodeException {
 		if (context.isEmpty()) return null;
-		DecodeContext<T_Encoded> type = context.getMember(this.keyName);
+		AutoCoder<? extends T_Decoded> coder = this.decodeCoder(context.getMember(this.keyName));
+		return context.removeMember(this.keyName).decodeWith(coder);
+	}
+
+	/**
+	if our {@link #keyName} is the first entry in the map, then the key is read
+	on its own, and the rest of the map is decoded directly from source.
+	otherwise, the map needs to be read into a subtree,
+	since the key is required before anything else can be decoded.
+	*/
+	@Override
+	public <T_Encoded> @Nullable T_Decoded decodeFrom(@NotNull DecodeContext<T_Encoded> context, @NotNull DecodeSource<T_Encoded> source) throws DecodeException {
+		if (source.peek() != Token.MAP) return this.decode(context.input(source.readEncoded()));
+		source.beginMap();
+		String firstKey = source.hasNext() ? source.nextKey() : null;
+		if (this.keyName.equals(firstKey)) {
+			AutoCoder<? extends T_Decoded> coder = this.decodeCoder(context.input(source.readEncoded(), new ObjectDecodePath(this.keyName)));
+			source.resumeMap();
+			return context.decodeWith(coder, source);
+		}
+		List<Pair<T_Encoded, T_Encoded>> entries = new ArrayList<>(8);
+		if (firstKey != null) {
+			entries.add(Pair.of(context.createString(firstKey), source.readEncoded()));
+			while (source.hasNext()) {
+				T_Encoded key = context.createString(source.nextKey());
+				entries.add(Pair.of(key, source.readEncoded()));
+			}
+		}
+		source.endMap();
+		return this.decode(context.input(context.ops.createMap(entries.stream())));
+	}
+
+	/** decodes the key stored in type, and returns the coder for it. */
+	public <T_Encoded> @NotNull AutoCoder<? extends T_Decoded> decodeCoder(@NotNull DecodeContext<T_Encoded> type) throws DecodeException {
 		T_Key key = type.decodeWith(this.keyCoder);
 		if (key == null) throw new DecodeException(() -> "No such key for " + this.keyName + ' ' + type);
 		AutoCoder<? extends T_Decoded> coder = this.getCoder(key);
 		if (coder == null) throw new DecodeException(() -> "No such coder for " + this.keyName + ' ' + key);
-		return context.removeMember(this.keyName).decodeWith(coder);
+		return coder;
 	}
 
 	@Override
@@ -84,6 +123,16 @@ public abstract class KeyDispatchCoder<T_Key, T_Decoded> extends NamedCoder<T_De
 		return context.addToStringMap(context.encodeWith(coder), this.keyName, context.object(key).encodeWith(this.keyCoder));
 	}
 
+	@Override
+	public void visitChildren(@NotNull ChildVisitor visitor) {
+		visitor.visitChild("keyCoder", this.keyCoder);
+	}
+
+	@Override
+	public void linkChildren(@NotNull ChildLinker linker) {
+		this.keyCoder = linker.link(this.keyCoder);
+	}
+
 	/**
 	the root of all objects which know how to code themselves.
 	typically, there will be many abstract classes, D, which implement
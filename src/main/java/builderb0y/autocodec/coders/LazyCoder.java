@@ -9,12 +9,14 @@ import org.jetbrains.annotations.Nullable;
 import builderb0y.autocodec.common.LazyHandler;
 import builderb0y.autocodec.decoders.DecodeContext;
 import builderb0y.autocodec.decoders.DecodeException;
+import builderb0y.autocodec.decoders.DecodeSource;
 import builderb0y.autocodec.encoders.EncodeContext;
 import builderb0y.autocodec.encoders.EncodeException;
+import builderb0y.autocodec.encoders.EncodeSink;
 
 public class LazyCoder<T> extends LazyHandler<AutoCoder<T>> implements AutoCoder<T> {
 
-	public @Nullable AutoCoder<T> resolution;
+	public volatile @Nullable AutoCoder<T> resolution;
 
 	@Override
 	public @Nullable AutoCoder<T> getNullableDelegateHandler() {
@@ -32,14 +34,38 @@ public class LazyCoder<T> extends LazyHandler<AutoCoder<T>> implements AutoCoder
 		return context.decodeWith(this.getDelegateHandler());
 	}
 
+	@Override
+	@OverrideOnly
+	public <T_Encoded> @Nullable T decodeFrom(@NotNull DecodeContext<T_Encoded> context, @NotNull DecodeSource<T_Encoded> source) throws DecodeException {
+		return context.decodeWith(this.getDelegateHandler(), source);
+	}
+
 	@Override
 	@OverrideOnly
 	public <T_Encoded> @NotNull T_Encoded encode(@NotNull EncodeContext<T_Encoded, T> context) throws EncodeException {
 		return context.encodeWith(this.getDelegateHandler());
 	}
 
+	@Override
+	@OverrideOnly
+	public <T_Encoded> void encodeTo(@NotNull EncodeContext<T_Encoded, T> context, @NotNull EncodeSink<T_Encoded> sink) throws EncodeException {
+		context.encodeWith(this.getDelegateHandler(), sink);
+	}
+
 	@Override
 	public @Nullable Stream<@NotNull String> getKeys() {
 		return this.getDelegateHandler().getKeys();
 	}
+
+	@Override
+	public void visitChildren(@NotNull ChildVisitor visitor) {
+		AutoCoder<T> resolution = this.resolution;
+		if (resolution != null) visitor.visitChild("delegate", resolution);
+	}
+
+	@Override
+	public void linkChildren(@NotNull ChildLinker linker) {
+		AutoCoder<T> resolution = this.resolution;
+		if (resolution != null) this.resolution = linker.link(resolution);
+	}
 }
\ No newline at end of file
@@ -0,0 +1,225 @@
+package builderb0y.autocodec.coders;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.stream.IntStream;
+
+import org.jetbrains.annotations.ApiStatus.OverrideOnly;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import builderb0y.autocodec.annotations.DecodeLazily;
+import builderb0y.autocodec.annotations.SingletonArray;
+import builderb0y.autocodec.coders.AutoCoder.NamedCoder;
+import builderb0y.autocodec.common.FactoryApplicability;
+import builderb0y.autocodec.common.FactoryContext;
+import builderb0y.autocodec.common.FactoryException;
+import builderb0y.autocodec.decoders.AutoDecoder;
+import builderb0y.autocodec.decoders.DecodeContext;
+import builderb0y.autocodec.decoders.DecodeException;
+import builderb0y.autocodec.decoders.LazyDecodeException;
+import builderb0y.autocodec.encoders.EncodeContext;
+import builderb0y.autocodec.encoders.EncodeException;
+import builderb0y.autocodec.encoders.EncodeSink;
+import builderb0y.autocodec.reflection.reification.ReifiedType;
+
+/**
+the coder used for {@link List}s annotated with {@link DecodeLazily}.
+decoding only splits the input into its elements,
+and wraps them in a {@link LazyDecodedList},
+which decodes each element when it is accessed for the first time.
+*/
+public class LazyListCoder<T_Element> extends NamedCoder<List<T_Element>> {
+
+	public @NotNull AutoCoder<T_Element> elementCoder;
+	public final boolean singleton;
+
+	public LazyListCoder(@NotNull ReifiedType<List<T_Element>> handledType, @NotNull AutoCoder<T_Element> elementCoder, boolean singleton) {
+		super(handledType);
+		this.elementCoder = elementCoder;
+		this.singleton = singleton;
+	}
+
+	@Override
+	@OverrideOnly
+	public <T_Encoded> @Nullable List<T_Element> decode(@NotNull DecodeContext<T_Encoded> context) throws DecodeException {
+		if (context.isEmpty()) return null;
+		return new LazyDecodedList<>(context, context.forceAsList(this.singleton), this.elementCoder);
+	}
+
+	/**
+	returns list as a LazyDecodedList whose encoded elements can be re-used
+	as-is by the provided context, or null if this is not possible.
+	*/
+	@SuppressWarnings("unchecked")
+	public static <T_Encoded, T_Element> @Nullable LazyDecodedList<T_Encoded, T_Element> reusable(@NotNull EncodeContext<T_Encoded, ?> context, @NotNull List<T_Element> list) {
+		return list instanceof LazyDecodedList<?, ?> lazy && lazy.context.ops == context.ops ? (LazyDecodedList<T_Encoded, T_Element>)(lazy) : null;
+	}
+
+	@Override
+	@OverrideOnly
+	public <T_Encoded> @NotNull T_Encoded encode(@NotNull EncodeContext<T_Encoded, List<T_Element>> context) throws EncodeException {
+		if (context.object == null) return context.empty();
+		AutoCoder<T_Element> coder = this.elementCoder;
+		LazyDecodedList<T_Encoded, T_Element> lazy = reusable(context, context.object);
+		if (lazy != null) {
+			if (!lazy.touched) return lazy.context.input;
+			return context.createList(
+				IntStream.range(0, lazy.size()).mapToObj((int index) -> {
+					Object decoded = lazy.decoded.get(index);
+					return decoded == LazyDecodedList.UNDECODED ? lazy.elements.get(index).input : context.object(lazy.elementType(decoded)).encodeWith(coder);
+				})
+			);
+		}
+		return context.createList(context.object.stream().map((T_Element element) -> context.object(element).encodeWith(coder)));
+	}
+
+	@Override
+	@OverrideOnly
+	public <T_Encoded> void encodeTo(@NotNull EncodeContext<T_Encoded, List<T_Element>> context, @NotNull EncodeSink<T_Encoded> sink) throws EncodeException {
+		if (context.object == null) {
+			sink.writeEmpty();
+			return;
+		}
+		AutoCoder<T_Element> coder = this.elementCoder;
+		LazyDecodedList<T_Encoded, T_Element> lazy = reusable(context, context.object);
+		if (lazy != null) {
+			if (!lazy.touched) {
+				sink.writeEncoded(lazy.context.input);
+				return;
+			}
+			sink.beginList();
+			for (int index = 0, size = lazy.size(); index < size; index++) {
+				Object decoded = lazy.decoded.get(index);
+				if (decoded == LazyDecodedList.UNDECODED) sink.writeEncoded(lazy.elements.get(index).input);
+				else context.object(lazy.elementType(decoded)).encodeWith(coder, sink);
+			}
+			sink.endList();
+			return;
+		}
+		sink.beginList();
+		for (T_Element element : context.object) {
+			context.object(element).encodeWith(coder, sink);
+		}
+		sink.endList();
+	}
+
+	@Override
+	public void visitChildren(@NotNull ChildVisitor visitor) {
+		visitor.visitChild("elementCoder", this.elementCoder);
+	}
+
+	@Override
+	public void linkChildren(@NotNull ChildLinker linker) {
+		this.elementCoder = linker.link(this.elementCoder);
+	}
+
+	/**
+	an unmodifiable List whose elements are decoded on first access, and then cached.
+	it is safe to access elements from multiple threads concurrently.
+	if two threads decode the same element at the same time,
+	only one of the results is kept, and both threads will return it.
+	*/
+	public static class LazyDecodedList<T_Encoded, T_Element> extends AbstractList<T_Element> implements RandomAccess {
+
+		/** marks elements in {@link #decoded} which have not been decoded yet. */
+		public static final Object UNDECODED = new Object();
+
+		/** the context which contains the entire encoded List. */
+		public final @NotNull DecodeContext<T_Encoded> context;
+		public final @NotNull List<@NotNull DecodeContext<T_Encoded>> elements;
+		public final @NotNull AutoDecoder<T_Element> decoder;
+		public final @NotNull AtomicReferenceArray<Object> decoded;
+		/** true once any element has been decoded. */
+		public volatile boolean touched;
+
+		public LazyDecodedList(
+			@NotNull DecodeContext<T_Encoded> context,
+			@NotNull List<@NotNull DecodeContext<T_Encoded>> elements,
+			@NotNull AutoDecoder<T_Element> decoder
+		) {
+			this.context  = context;
+			this.elements = elements;
+			this.decoder  = decoder;
+			int size = elements.size();
+			this.decoded  = new AtomicReferenceArray<>(size);
+			for (int index = 0; index < size; index++) {
+				this.decoded.setPlain(index, UNDECODED);
+			}
+		}
+
+		@SuppressWarnings("unchecked")
+		public T_Element elementType(Object decoded) {
+			return (T_Element)(decoded);
+		}
+
+		public boolean isDecoded(int index) {
+			return this.decoded.get(index) != UNDECODED;
+		}
+
+		@Override
+		public T_Element get(int index) {
+			Object value = this.decoded.get(index);
+			if (value == UNDECODED) {
+				try {
+					value = this.elements.get(index).decodeWith(this.decoder);
+				}
+				catch (DecodeException exception) {
+					throw new LazyDecodeException(exception);
+				}
+				this.touched = true;
+				if (!this.decoded.compareAndSet(index, UNDECODED, value)) {
+					value = this.decoded.get(index);
+				}
+			}
+			return this.elementType(value);
+		}
+
+		@Override
+		public int size() {
+			return this.elements.size();
+		}
+
+		/**
+		loggers print decoded values, so toString() must not decode anything.
+		elements which have not been decoded yet are shown in their encoded form.
+		*/
+		@Override
+		public String toString() {
+			StringBuilder builder = new StringBuilder("[");
+			for (int index = 0, size = this.size(); index < size; index++) {
+				if (index != 0) builder.append(", ");
+				Object decoded = this.decoded.get(index);
+				if (decoded == UNDECODED) builder.append("<not decoded: ").append(this.elements.get(index).input).append('>');
+				else builder.append(decoded);
+			}
+			return builder.append(']').toString();
+		}
+	}
+
+	public static class Factory extends NamedCoderFactory {
+
+		public static final Factory INSTANCE = new Factory();
+
+		@Override
+		public @NotNull FactoryApplicability getApplicability() {
+			return FactoryApplicability.annotatedWith(DecodeLazily.class).withRawClass(List.class);
+		}
+
+		@Override
+		@OverrideOnly
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		public <T_HandledType> @Nullable AutoCoder<?> tryCreate(@NotNull FactoryContext<T_HandledType> context) throws FactoryException {
+			if (context.type.getRawClass() == List.class && context.type.getAnnotations().has(DecodeLazily.class)) {
+				ReifiedType<?> elementType = context.type.resolveParameter(List.class);
+				if (elementType != null) {
+					boolean singleton = context.type.getAnnotations().has(SingletonArray.class);
+					return new LazyListCoder(context.type, context.type(elementType).forceCreateCoder(), singleton);
+				}
+			}
+			return null;
+		}
+	}
+}
@@ -19,7 +19,7 @@ mapping its inputs and outputs via a 2-way Map lookup.
 */
 public class LookupCoder<T_Key, T_Value> extends NamedCoder<T_Value> {
 
-	public final @NotNull AutoCoder<T_Key> keyCoder;
+	public @NotNull AutoCoder<T_Key> keyCoder;
 	public final @NotNull Map<@NotNull T_Key, @NotNull T_Value> decode;
 	public final @NotNull Map<@NotNull T_Value, @NotNull T_Key> encode;
 
@@ -88,4 +88,14 @@ public class LookupCoder<T_Key, T_Value> extends NamedCoder<T_Value> {
 		if (key == null) throw new EncodeException(() -> "Unknown value: " + object);
 		return context.object(key).encodeWith(this.keyCoder);
 	}
+
+	@Override
+	public void visitChildren(@NotNull ChildVisitor visitor) {
+		visitor.visitChild("keyCoder", this.keyCoder);
+	}
+
+	@Override
+	public void linkChildren(@NotNull ChildLinker linker) {
+		this.keyCoder = linker.link(this.keyCoder);
+	}
 }
\ No newline at end of file
@@ -7,14 +7,27 @@ import java.util.OptionalDouble;
 import java.util.OptionalInt;
 import java.util.OptionalLong;
 
+import org.jetbrains.annotations.ApiStatus.OverrideOnly;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import builderb0y.autocodec.annotations.GenerateCoder;
 import builderb0y.autocodec.coders.AutoCoder.CoderFactory;
+import builderb0y.autocodec.common.AutoHandler.AutoFactory;
+import builderb0y.autocodec.common.FactoryContext;
+import builderb0y.autocodec.common.FactoryException;
 import builderb0y.autocodec.common.LookupFactory;
 import builderb0y.autocodec.reflection.reification.ReifiedType;
 
 public class LookupCoderFactory extends LookupFactory<AutoCoder<?>> implements CoderFactory {
 
+	/**
+	consulted before any of our lookup maps, to find coders which were
+	generated at compile time for classes annotated with {@link GenerateCoder}.
+	can be set to null to ignore generated coders.
+	*/
+	public @Nullable GeneratedCoderRegistry generatedCoders = GeneratedCoderRegistry.INSTANCE;
+
 	@Override
 	public void setup() {
 		//java.lang
@@ -60,6 +73,28 @@ public class LookupCoderFactory extends LookupFactory<AutoCoder<?>> implements C
 		this.addRaw(OptionalDouble.class, PrimitiveCoders.OPTIONAL_DOUBLE);
 	}
 
+	@Override
+	@OverrideOnly
+	public <T_HandledType> @Nullable AutoCoder<?> tryCreate(@NotNull FactoryContext<T_HandledType> context) throws FactoryException {
+		GeneratedCoderRegistry generatedCoders = this.generatedCoders;
+		if (generatedCoders != null) {
+			AutoCoder<?> coder = generatedCoders.tryCreate(context);
+			if (coder != null) return coder;
+		}
+		return super.tryCreate(context);
+	}
+
+	@Override
+	public boolean isEquivalentTo(@NotNull AutoFactory<?> other) {
+		return super.isEquivalentTo(other) && this.generatedCoders == ((LookupCoderFactory)(other)).generatedCoders;
+	}
+
+	@Override
+	public @NotNull String getDecisionState() {
+		GeneratedCoderRegistry generatedCoders = this.generatedCoders;
+		return super.getDecisionState() + " generated: " + (generatedCoders != null ? generatedCoders.getClass().getName() : "none");
+	}
+
 	public <T_Decoded> void addGeneric(@NotNull ReifiedType<T_Decoded> type, @NotNull AutoCoder<T_Decoded> constructor) {
 		this.doAddGeneric(type, constructor);
 	}
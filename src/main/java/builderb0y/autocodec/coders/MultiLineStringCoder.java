@@ -9,6 +9,7 @@ import org.jetbrains.annotations.Nullable;
 
 import builderb0y.autocodec.annotations.MultiLine;
 import builderb0y.autocodec.coders.AutoCoder.NamedCoder;
+import builderb0y.autocodec.common.FactoryApplicability;
 import builderb0y.autocodec.common.FactoryContext;
 import builderb0y.autocodec.common.FactoryException;
 import builderb0y.autocodec.decoders.DecodeContext;
@@ -21,7 +22,7 @@ import builderb0y.autocodec.util.AutoCodecUtil;
 public class MultiLineStringCoder extends NamedCoder<@MultiLine String> {
 
 	public final @NotNull String lineSeparator;
-	public final @NotNull AutoCoder<String> fallback;
+	public @NotNull AutoCoder<String> fallback;
 
 	public MultiLineStringCoder(@NotNull ReifiedType<@MultiLine String> handledType, @NotNull String lineSeparator, @NotNull AutoCoder<String> fallback) {
 		super(handledType);
@@ -71,10 +72,25 @@ public class MultiLineStringCoder extends NamedCoder<@MultiLine String> {
 		return context.createList(lines.build().map((String line) -> context.object(line).encodeWith(this.fallback)));
 	}
 
+	@Override
+	public void visitChildren(@NotNull ChildVisitor visitor) {
+		visitor.visitChild("fallback", this.fallback);
+	}
+
+	@Override
+	public void linkChildren(@NotNull ChildLinker linker) {
+		this.fallback = linker.link(this.fallback);
+	}
+
 	public static class Factory extends NamedCoderFactory {
 
 		public static final @NotNull Factory INSTANCE = new Factory();
 
+		@Override
+		public @NotNull FactoryApplicability getApplicability() {
+			return FactoryApplicability.annotatedWith(MultiLine.class).withRawClass(String.class);
+		}
+
 		@Override
 		@OverrideOnly
 		@SuppressWarnings("unchecked")
@@ -7,6 +7,7 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import builderb0y.autocodec.coders.AutoCoder.NamedCoder;
+import builderb0y.autocodec.common.FactoryApplicability;
 import builderb0y.autocodec.common.FactoryContext;
 import builderb0y.autocodec.common.FactoryException;
 import builderb0y.autocodec.decoders.DecodeContext;
@@ -17,7 +18,7 @@ import builderb0y.autocodec.reflection.reification.ReifiedType;
 
 public class OptionalCoder<T> extends NamedCoder<Optional<T>> {
 
-	public final @NotNull AutoCoder<T> coder;
+	public @NotNull AutoCoder<T> coder;
 
 	public OptionalCoder(@NotNull ReifiedType<Optional<T>> handledType, @NotNull AutoCoder<T> coder) {
 		super(handledType);
@@ -38,10 +39,25 @@ public class OptionalCoder<T> extends NamedCoder<Optional<T>> {
 		return context.object(optional.get()).encodeWith(this.coder);
 	}
 
+	@Override
+	public void visitChildren(@NotNull ChildVisitor visitor) {
+		visitor.visitChild("coder", this.coder);
+	}
+
+	@Override
+	public void linkChildren(@NotNull ChildLinker linker) {
+		this.coder = linker.link(this.coder);
+	}
+
 	public static class Factory extends NamedCoderFactory {
 
 		public static final Factory INSTANCE = new Factory();
 
+		@Override
+		public @NotNull FactoryApplicability getApplicability() {
+			return FactoryApplicability.rawClass(Optional.class);
+		}
+
 		@Override
 		@OverrideOnly
 		@SuppressWarnings({ "unchecked", "rawtypes" })
@@ -11,6 +11,7 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import builderb0y.autocodec.coders.AutoCoder.NamedCoder;
+import builderb0y.autocodec.common.FactoryApplicability;
 import builderb0y.autocodec.common.FactoryContext;
 import builderb0y.autocodec.common.FactoryException;
 import builderb0y.autocodec.common.PatternFlags;
@@ -21,7 +22,7 @@ import builderb0y.autocodec.encoders.EncodeException;
 
 public class PatternCoder extends NamedCoder<Pattern> {
 
-	public final @NotNull AutoCoder<PatternFlags> flagsCoder;
+	public @NotNull AutoCoder<PatternFlags> flagsCoder;
 
 	public PatternCoder(@NotNull AutoCoder<PatternFlags> flagsCoder) {
 		super("PatternCoder");
@@ -80,10 +81,25 @@ public class PatternCoder extends NamedCoder<Pattern> {
 		return super.toString() + ": { flagsCoder: " + this.flagsCoder + " }";
 	}
 
+	@Override
+	public void visitChildren(@NotNull ChildVisitor visitor) {
+		visitor.visitChild("flagsCoder", this.flagsCoder);
+	}
+
+	@Override
+	public void linkChildren(@NotNull ChildLinker linker) {
+		this.flagsCoder = linker.link(this.flagsCoder);
+	}
+
 	public static class Factory extends NamedCoderFactory {
 
 		public static final @NotNull Factory INSTANCE = new Factory();
 
+		@Override
+		public @NotNull FactoryApplicability getApplicability() {
+			return FactoryApplicability.rawClass(Pattern.class);
+		}
+
 		@Override
 		@OverrideOnly
 		public @Nullable <T_HandledType> AutoCoder<?> tryCreate(@NotNull FactoryContext<T_HandledType> context) throws FactoryException {
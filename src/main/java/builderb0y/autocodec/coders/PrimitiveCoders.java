@@ -15,8 +15,10 @@ import org.jetbrains.annotations.Nullable;
 import builderb0y.autocodec.coders.AutoCoder.NamedCoder;
 import builderb0y.autocodec.decoders.DecodeContext;
 import builderb0y.autocodec.decoders.DecodeException;
+import builderb0y.autocodec.decoders.DecodeSource;
 import builderb0y.autocodec.encoders.EncodeContext;
 import builderb0y.autocodec.encoders.EncodeException;
+import builderb0y.autocodec.encoders.EncodeSink;
 
 public class PrimitiveCoders {
 
@@ -33,11 +35,27 @@ public class PrimitiveCoders {
 			return Byte.valueOf(number.byteValue());
 		}
 
+		@Override
+		@OverrideOnly
+		public <T_Encoded> @Nullable Byte decodeFrom(@NotNull DecodeContext<T_Encoded> context, @NotNull DecodeSource<T_Encoded> source) throws DecodeException {
+			if (source.tryReadEmpty()) return null;
+			Number number = source.readNumber(context);
+			if (number instanceof Byte b) return b;
+			return Byte.valueOf(number.byteValue());
+		}
+
 		@Override
 		@OverrideOnly
 		public <T_Encoded> @NotNull T_Encoded encode(@NotNull EncodeContext<T_Encoded, Byte> context) throws EncodeException {
 			return context.object == null ? context.empty() : context.createByte(context.object.byteValue());
 		}
+
+		@Override
+		@OverrideOnly
+		public <T_Encoded> void encodeTo(@NotNull EncodeContext<T_Encoded, Byte> context, @NotNull EncodeSink<T_Encoded> sink) throws EncodeException {
+			if (context.object == null) sink.writeEmpty();
+			else sink.writeByte(context.object.byteValue());
+		}
 	};
 
 	public static final AutoCoder<Short> SHORT = new NamedCoder<>("PrimitiveCoders.SHORT") {
@@ -51,11 +69,27 @@ public class PrimitiveCoders {
 			return Short.valueOf(number.shortValue());
 		}
 
+		@Override
+		@OverrideOnly
+		public <T_Encoded> @Nullable Short decodeFrom(@NotNull DecodeContext<T_Encoded> context, @NotNull DecodeSource<T_Encoded> source) throws DecodeException {
+			if (source.tryReadEmpty()) return null;
+			Number number = source.readNumber(context);
+			if (number instanceof Short s) return s;
+			return Short.valueOf(number.shortValue());
+		}
+
 		@Override
 		@OverrideOnly
 		public <T_Encoded> @NotNull T_Encoded encode(@NotNull EncodeContext<T_Encoded, Short> context) throws EncodeException {
 			return context.object == null ? context.empty() : context.createShort(context.object.shortValue());
 		}
+
+		@Override
+		@OverrideOnly
+		public <T_Encoded> void encodeTo(@NotNull EncodeContext<T_Encoded, Short> context, @NotNull EncodeSink<T_Encoded> sink) throws EncodeException {
+			if (context.object == null) sink.writeEmpty();
+			else sink.writeShort(context.object.shortValue());
+		}
 	};
 
 	public static final AutoCoder<Integer> INT = new NamedCoder<>("PrimitiveCoders.INT") {
@@ -69,11 +103,27 @@ public class PrimitiveCoders {
 			return Integer.valueOf(number.intValue());
 		}
 
+		@Override
+		@OverrideOnly
+		public <T_Encoded> @Nullable Integer decodeFrom(@NotNull DecodeContext<T_Encoded> context, @NotNull DecodeSource<T_Encoded> source) throws DecodeException {
+			if (source.tryReadEmpty()) return null;
+			Number number = source.readNumber(context);
+			if (number instanceof Integer i) return i;
+			return Integer.valueOf(number.intValue());
+		}
+
 		@Override
 		@OverrideOnly
 		public <T_Encoded> @NotNull T_Encoded encode(@NotNull EncodeContext<T_Encoded, Integer> context) throws EncodeException {
 			return context.object == null ? context.empty() : context.createInt(context.object.intValue());
 		}
+
+		@Override
+		@OverrideOnly
+		public <T_Encoded> void encodeTo(@NotNull EncodeContext<T_Encoded, Integer> context, @NotNull EncodeSink<T_Encoded> sink) throws EncodeException {
+			if (context.object == null) sink.writeEmpty();
+			else sink.writeInt(context.object.intValue());
+		}
 	};
 
 	public static final AutoCoder<Long> LONG = new NamedCoder<>("PrimitiveCoders.LONG") {
@@ -87,11 +137,27 @@ public class PrimitiveCoders {
 			return Long.valueOf(number.longValue());
 		}
 
+		@Override
+		@OverrideOnly
+		public <T_Encoded> @Nullable Long decodeFrom(@NotNull DecodeContext<T_Encoded> context, @NotNull DecodeSource<T_Encoded> source) throws DecodeException {
+			if (source.tryReadEmpty()) return null;
+			Number number = source.readNumber(context);
+			if (number instanceof Long l) return l;
+			return Long.valueOf(number.longValue());
+		}
+
 		@Override
 		@OverrideOnly
 		public <T_Encoded> @NotNull T_Encoded encode(@NotNull EncodeContext<T_Encoded, Long> context) throws EncodeException {
 			return context.object == null ? context.empty() : context.createLong(context.object.longValue());
 		}
+
+		@Override
+		@OverrideOnly
+		public <T_Encoded> void encodeTo(@NotNull EncodeContext<T_Encoded, Long> context, @NotNull EncodeSink<T_Encoded> sink) throws EncodeException {
+			if (context.object == null) sink.writeEmpty();
+			else sink.writeLong(context.object.longValue());
+		}
 	};
 
 	public static final AutoCoder<Float> FLOAT = new NamedCoder<>("PrimitiveCoders.FLOAT") {
@@ -105,11 +171,27 @@ public class PrimitiveCoders {
 			return Float.valueOf(number.floatValue());
 		}
 
+		@Override
+		@OverrideOnly
+		public <T_Encoded> @Nullable Float decodeFrom(@NotNull DecodeContext<T_Encoded> context, @NotNull DecodeSource<T_Encoded> source) throws DecodeException {
+			if (source.tryReadEmpty()) return null;
+			Number number = source.readNumber(context);
+			if (number instanceof Float f) return f;
+			return Float.valueOf(number.floatValue());
+		}
+
 		@Override
 		@OverrideOnly
 		public <T_Encoded> @NotNull T_Encoded encode(@NotNull EncodeContext<T_Encoded, Float> context) throws EncodeException {
 			return context.object == null ? context.empty() : context.createFloat(context.object.floatValue());
 		}
+
+		@Override
+		@OverrideOnly
+		public <T_Encoded> void encodeTo(@NotNull EncodeContext<T_Encoded, Float> context, @NotNull EncodeSink<T_Encoded> sink) throws EncodeException {
+			if (context.object == null) sink.writeEmpty();
+			else sink.writeFloat(context.object.floatValue());
+		}
 	};
 
 	public static final AutoCoder<Double> DOUBLE = new NamedCoder<>("PrimitiveCoders.DOUBLE") {
@@ -123,11 +205,27 @@ public class PrimitiveCoders {
 			return Double.valueOf(number.doubleValue());
 		}
 
+		@Override
+		@OverrideOnly
+		public <T_Encoded> @Nullable Double decodeFrom(@NotNull DecodeContext<T_Encoded> context, @NotNull DecodeSource<T_Encoded> source) throws DecodeException {
+			if (source.tryReadEmpty()) return null;
+			Number number = source.readNumber(context);
+			if (number instanceof Double d) return d;
+			return Double.valueOf(number.doubleValue());
+		}
+
 		@Override
 		@OverrideOnly
 		public <T_Encoded> @NotNull T_Encoded encode(@NotNull EncodeContext<T_Encoded, Double> context) throws EncodeException {
 			return context.object == null ? context.empty() : context.createDouble(context.object.doubleValue());
 		}
+
+		@Override
+		@OverrideOnly
+		public <T_Encoded> void encodeTo(@NotNull EncodeContext<T_Encoded, Double> context, @NotNull EncodeSink<T_Encoded> sink) throws EncodeException {
+			if (context.object == null) sink.writeEmpty();
+			else sink.writeDouble(context.object.doubleValue());
+		}
 	};
 
 	public static final AutoCoder<Number> NUMBER = new NamedCoder<>("PrimitiveCoders.NUMBER") {
@@ -139,11 +237,25 @@ public class PrimitiveCoders {
 			return context.forceAsNumber();
 		}
 
+		@Override
+		@OverrideOnly
+		public <T_Encoded> @Nullable Number decodeFrom(@NotNull DecodeContext<T_Encoded> context, @NotNull DecodeSource<T_Encoded> source) throws DecodeException {
+			if (source.tryReadEmpty()) return null;
+			return source.readNumber(context);
+		}
+
 		@Override
 		@OverrideOnly
 		public <T_Encoded> @NotNull T_Encoded encode(@NotNull EncodeContext<T_Encoded, Number> context) throws EncodeException {
 			return context.object == null ? context.empty() : context.createNumber(context.object);
 		}
+
+		@Override
+		@OverrideOnly
+		public <T_Encoded> void encodeTo(@NotNull EncodeContext<T_Encoded, Number> context, @NotNull EncodeSink<T_Encoded> sink) throws EncodeException {
+			if (context.object == null) sink.writeEmpty();
+			else sink.writeNumber(context.object);
+		}
 	};
 
 	public static final AutoCoder<Character> CHAR = new NamedCoder<>("PrimitiveCoders.CHAR") {
@@ -159,6 +271,21 @@ public class PrimitiveCoders {
 			throw new DecodeException(() -> context.pathToStringBuilder().append(" is not a char: ").append(context.input).toString());
 		}
 
+		@Override
+		@OverrideOnly
+		public <T_Encoded> @Nullable Character decodeFrom(@NotNull DecodeContext<T_Encoded> context, @NotNull DecodeSource<T_Encoded> source) throws DecodeException {
+			if (source.tryReadEmpty()) return null;
+			return switch (source.peek()) {
+				case NUMBER, BOOLEAN -> (char)(source.readNumber(context).shortValue());
+				case STRING -> {
+					String string = source.readString(context);
+					if (string.length() == 1) yield string.charAt(0);
+					else throw new DecodeException(() -> context.pathToStringBuilder().append(" is not a char: ").append(string).toString());
+				}
+				default -> throw source.notA(context, "char");
+			};
+		}
+
 		@Override
 		@OverrideOnly
 		public <T_Encoded> @NotNull T_Encoded encode(@NotNull EncodeContext<T_Encoded, Character> context) throws EncodeException {
@@ -168,6 +295,14 @@ public class PrimitiveCoders {
 				: context.createString(String.valueOf(context.object.charValue()))
 			);
 		}
+
+		@Override
+		@OverrideOnly
+		public <T_Encoded> void encodeTo(@NotNull EncodeContext<T_Encoded, Character> context, @NotNull EncodeSink<T_Encoded> sink) throws EncodeException {
+			if (context.object == null) sink.writeEmpty();
+			else if (context.isCompressed()) sink.writeShort((short)(context.object.charValue()));
+			else sink.writeString(String.valueOf(context.object.charValue()));
+		}
 	};
 
 	public static final AutoCoder<String> STRING = new NamedCoder<>("PrimitiveCoders.STRING") {
@@ -179,11 +314,25 @@ public class PrimitiveCoders {
 			return context.forceAsString();
 		}
 
+		@Override
+		@OverrideOnly
+		public <T_Encoded> @Nullable String decodeFrom(@NotNull DecodeContext<T_Encoded> context, @NotNull DecodeSource<T_Encoded> source) throws DecodeException {
+			if (source.tryReadEmpty()) return null;
+			return source.readString(context);
+		}
+
 		@Override
 		@OverrideOnly
 		public <T_Encoded> @NotNull T_Encoded encode(@NotNull EncodeContext<T_Encoded, String> context) throws EncodeException {
 			return context.object == null ? context.empty() : context.createString(context.object);
 		}
+
+		@Override
+		@OverrideOnly
+		public <T_Encoded> void encodeTo(@NotNull EncodeContext<T_Encoded, String> context, @NotNull EncodeSink<T_Encoded> sink) throws EncodeException {
+			if (context.object == null) sink.writeEmpty();
+			else sink.writeString(context.object);
+		}
 	};
 
 	public static final AutoCoder<Boolean> BOOLEAN = new NamedCoder<>("PrimitiveCoders.BOOLEAN") {
@@ -195,11 +344,25 @@ public class PrimitiveCoders {
 			return context.forceAsBoolean();
 		}
 
+		@Override
+		@OverrideOnly
+		public <T_Encoded> @Nullable Boolean decodeFrom(@NotNull DecodeContext<T_Encoded> context, @NotNull DecodeSource<T_Encoded> source) throws DecodeException {
+			if (source.tryReadEmpty()) return null;
+			return source.readBoolean(context);
+		}
+
 		@Override
 		@OverrideOnly
 		public <T_Encoded> @NotNull T_Encoded encode(@NotNull EncodeContext<T_Encoded, Boolean> context) throws EncodeException {
 			return context.object == null ? context.empty() : context.createBoolean(context.object.booleanValue());
 		}
+
+		@Override
+		@OverrideOnly
+		public <T_Encoded> void encodeTo(@NotNull EncodeContext<T_Encoded, Boolean> context, @NotNull EncodeSink<T_Encoded> sink) throws EncodeException {
+			if (context.object == null) sink.writeEmpty();
+			else sink.writeBoolean(context.object.booleanValue());
+		}
 	};
 
 	//////////////////////////////// java.math ////////////////////////////////
@@ -235,6 +398,13 @@ public class PrimitiveCoders {
 			return OptionalInt.of(context.forceAsNumber().intValue());
 		}
 
+		@Override
+		@OverrideOnly
+		public <T_Encoded> @Nullable OptionalInt decodeFrom(@NotNull DecodeContext<T_Encoded> context, @NotNull DecodeSource<T_Encoded> source) throws DecodeException {
+			if (source.tryReadEmpty()) return OptionalInt.empty();
+			return OptionalInt.of(source.readNumber(context).intValue());
+		}
+
 		@Override
 		@OverrideOnly
 		public <T_Encoded> @NotNull T_Encoded encode(@NotNull EncodeContext<T_Encoded, OptionalInt> context) throws EncodeException {
@@ -244,6 +414,14 @@ public class PrimitiveCoders {
 			}
 			return context.createInt(optionalInt.getAsInt());
 		}
+
+		@Override
+		@OverrideOnly
+		public <T_Encoded> void encodeTo(@NotNull EncodeContext<T_Encoded, OptionalInt> context, @NotNull EncodeSink<T_Encoded> sink) throws EncodeException {
+			OptionalInt optionalInt = context.object;
+			if (optionalInt == null || optionalInt.isEmpty()) sink.writeEmpty();
+			else sink.writeInt(optionalInt.getAsInt());
+		}
 	};
 	public static final AutoCoder<OptionalLong> OPTIONAL_LONG = new NamedCoder<>("PrimitiveCoders.OPTIONAL_LONG") {
 
@@ -254,6 +432,13 @@ public class PrimitiveCoders {
 			return OptionalLong.of(context.forceAsNumber().longValue());
 		}
 
+		@Override
+		@OverrideOnly
+		public <T_Encoded> @Nullable OptionalLong decodeFrom(@NotNull DecodeContext<T_Encoded> context, @NotNull DecodeSource<T_Encoded> source) throws DecodeException {
+			if (source.tryReadEmpty()) return OptionalLong.empty();
+			return OptionalLong.of(source.readNumber(context).longValue());
+		}
+
 		@Override
 		@OverrideOnly
 		public <T_Encoded> @NotNull T_Encoded encode(@NotNull EncodeContext<T_Encoded, OptionalLong> context) throws EncodeException {
@@ -263,6 +448,14 @@ public class PrimitiveCoders {
 			}
 			return context.createLong(optionalLong.getAsLong());
 		}
+
+		@Override
+		@OverrideOnly
+		public <T_Encoded> void encodeTo(@NotNull EncodeContext<T_Encoded, OptionalLong> context, @NotNull EncodeSink<T_Encoded> sink) throws EncodeException {
+			OptionalLong optionalLong = context.object;
+			if (optionalLong == null || optionalLong.isEmpty()) sink.writeEmpty();
+			else sink.writeLong(optionalLong.getAsLong());
+		}
 	};
 	public static final AutoCoder<OptionalDouble> OPTIONAL_DOUBLE = new NamedCoder<>("PrimitiveCoders.OPTIONAL_DOUBLE") {
 
@@ -273,6 +466,13 @@ public class PrimitiveCoders {
 			return OptionalDouble.of(context.forceAsNumber().doubleValue());
 		}
 
+		@Override
+		@OverrideOnly
+		public <T_Encoded> @Nullable OptionalDouble decodeFrom(@NotNull DecodeContext<T_Encoded> context, @NotNull DecodeSource<T_Encoded> source) throws DecodeException {
+			if (source.tryReadEmpty()) return OptionalDouble.empty();
+			return OptionalDouble.of(source.readNumber(context).doubleValue());
+		}
+
 		@Override
 		@OverrideOnly
 		public <T_Encoded> @NotNull T_Encoded encode(@NotNull EncodeContext<T_Encoded, OptionalDouble> context) throws EncodeException {
@@ -282,6 +482,14 @@ public class PrimitiveCoders {
 			}
 			return context.createDouble(optionalDouble.getAsDouble());
 		}
+
+		@Override
+		@OverrideOnly
+		public <T_Encoded> void encodeTo(@NotNull EncodeContext<T_Encoded, OptionalDouble> context, @NotNull EncodeSink<T_Encoded> sink) throws EncodeException {
+			OptionalDouble optionalDouble = context.object;
+			if (optionalDouble == null || optionalDouble.isEmpty()) sink.writeEmpty();
+			else sink.writeDouble(optionalDouble.getAsDouble());
+		}
 	};
 
 	public static <T_Decoded> @NotNull AutoCoder<T_Decoded> stringBased(@NotNull String name, @NotNull Function<@NotNull String, @NotNull T_Decoded> constructor, @NotNull Function<@NotNull T_Decoded, @NotNull String> destructor) {
@@ -302,6 +510,21 @@ public class PrimitiveCoders {
 				}
 			}
 
+			@Override
+			@OverrideOnly
+			public <T_Encoded> @Nullable T_Decoded decodeFrom(@NotNull DecodeContext<T_Encoded> context, @NotNull DecodeSource<T_Encoded> source) throws DecodeException {
+				if (source.tryReadEmpty()) return null;
+				try {
+					return constructor.apply(source.readString(context));
+				}
+				catch (DecodeException exception) {
+					throw exception;
+				}
+				catch (Exception exception) {
+					throw new DecodeException(exception);
+				}
+			}
+
 			@Override
 			@OverrideOnly
 			public <T_Encoded> @NotNull T_Encoded encode(@NotNull EncodeContext<T_Encoded, T_Decoded> context) throws EncodeException {
@@ -316,6 +539,26 @@ public class PrimitiveCoders {
 					throw new EncodeException(exception);
 				}
 			}
+
+			@Override
+			@OverrideOnly
+			public <T_Encoded> void encodeTo(@NotNull EncodeContext<T_Encoded, T_Decoded> context, @NotNull EncodeSink<T_Encoded> sink) throws EncodeException {
+				if (context.object == null) {
+					sink.writeEmpty();
+					return;
+				}
+				String string;
+				try {
+					string = destructor.apply(context.object);
+				}
+				catch (EncodeException exception) {
+					throw exception;
+				}
+				catch (Exception exception) {
+					throw new EncodeException(exception);
+				}
+				sink.writeString(string);
+			}
 		};
 	}
 }
\ No newline at end of file
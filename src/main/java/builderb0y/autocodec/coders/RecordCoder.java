@@ -20,6 +20,9 @@ import builderb0y.autocodec.common.FactoryException;
 import builderb0y.autocodec.decoders.AutoDecoder;
 import builderb0y.autocodec.decoders.DecodeContext;
 import builderb0y.autocodec.decoders.DecodeException;
+import builderb0y.autocodec.decoders.DecodeSource;
+import builderb0y.autocodec.decoders.DecodeSource.Token;
+import builderb0y.autocodec.decoders.MemberDispatcher;
 import builderb0y.autocodec.encoders.MultiFieldEncoder;
 import builderb0y.autocodec.reflection.FieldPredicate;
 import builderb0y.autocodec.reflection.MemberCollector;
@@ -40,10 +43,34 @@ public class RecordCoder<T_DecodedRecord> extends MultiFieldEncoder<T_DecodedRec
 	//permute arguments:
 	//	(DecodeContext<T_DecodedRecord>) -> T_DecodedRecord
 	public final @NotNull MethodHandle decoder;
+	//constructor, but spread:
+	//	(Object[]) -> T_DecodedRecord
+	//used by decodeFrom() when the arguments are read in whatever order they appear in.
+	//null if decodeFrom() should always read a subtree and decode it as usual.
+	public final @Nullable MethodHandle spreadConstructor;
+	public final @Nullable MemberDispatcher dispatcher;
 
 	public RecordCoder(@NotNull ReifiedType<T_DecodedRecord> handledType, @NotNull MethodHandle decoder, @NotNull FieldStrategy<T_DecodedRecord, ?> @NotNull [] fields) {
+		this(handledType, decoder, null, fields);
+	}
+
+	public RecordCoder(
+		@NotNull ReifiedType<T_DecodedRecord> handledType,
+		@NotNull MethodHandle decoder,
+		@Nullable MethodHandle spreadConstructor,
+		@NotNull FieldStrategy<T_DecodedRecord, ?> @NotNull [] fields
+	) {
 		super(handledType, fields);
 		this.decoder = decoder.asType(MethodType.methodType(Object.class, DecodeContext.class));
+		//inline fields read entries from the whole map, so they can't be dispatched by name.
+		if (spreadConstructor != null && Arrays.stream(fields).noneMatch((FieldStrategy<T_DecodedRecord, ?> field) -> field.inline)) {
+			this.spreadConstructor = spreadConstructor.asType(MethodType.methodType(Object.class, Object[].class));
+			this.dispatcher = new MemberDispatcher(Arrays.stream(fields).map((FieldStrategy<T_DecodedRecord, ?> field) -> field.field.getAliases()).toArray(String[][]::new));
+		}
+		else {
+			this.spreadConstructor = null;
+			this.dispatcher = null;
+		}
 	}
 
 	@Override
@@ -62,6 +89,42 @@ public class RecordCoder<T_DecodedRecord> extends MultiFieldEncoder<T_DecodedRec
 		}
 	}
 
+	@Override
+	@OverrideOnly
+	@SuppressWarnings("unchecked")
+	public <T_Encoded> @Nullable T_DecodedRecord decodeFrom(@NotNull DecodeContext<T_Encoded> context, @NotNull DecodeSource<T_Encoded> source) throws DecodeException {
+		if (this.spreadConstructor == null || this.dispatcher == null || source.peek() != Token.MAP) {
+			return this.decode(context.input(source.readEncoded()));
+		}
+		Object[] arguments = new Object[this.fields.length];
+		this.dispatcher.dispatch(context, source, new MemberDispatcher.Handler<>() {
+
+			@Override
+			public void member(int index, @NotNull DecodeContext<T_Encoded> memberContext, @NotNull DecodeSource<T_Encoded> source) throws DecodeException {
+				arguments[index] = memberContext.decodeWith(RecordCoder.this.fields[index].coder, source);
+			}
+
+			@Override
+			public void buffered(int index, @NotNull DecodeContext<T_Encoded> memberContext) throws DecodeException {
+				arguments[index] = memberContext.decodeWith(RecordCoder.this.fields[index].coder);
+			}
+
+			@Override
+			public void missing(int index) throws DecodeException {
+				arguments[index] = context.decodeWith(RecordCoder.this.fields[index]);
+			}
+		});
+		try {
+			return (T_DecodedRecord)(this.spreadConstructor.invokeExact(arguments));
+		}
+		catch (DecodeException | Error exception) {
+			throw exception;
+		}
+		catch (Throwable throwable) {
+			throw new DecodeException(throwable);
+		}
+	}
+
 	public static class Factory extends NamedCoderFactory {
 
 		public static final @NotNull MethodHandle DECODE_CONTEXT_DECODE_WITH;
@@ -167,6 +230,8 @@ public class RecordCoder<T_DecodedRecord> extends MultiFieldEncoder<T_DecodedRec
 						.asType(MethodType.methodType(constructorHandle.type().parameterType(index), DecodeContext.class))
 					);
 				}
+				//(Object[]) -> T_RecordType
+				MethodHandle spreadConstructor = constructorHandle.asSpreader(Object[].class, length);
 				//(DecodeContext, DecodeContext, DecodeContext, ...) -> T_RecordType
 				constructorHandle = MethodHandles.filterArguments(
 					constructorHandle,
@@ -182,7 +247,7 @@ public class RecordCoder<T_DecodedRecord> extends MultiFieldEncoder<T_DecodedRec
 					),
 					new int[length]
 				);
-				return new RecordCoder(context.type, constructorHandle, strategies);
+				return new RecordCoder(context.type, constructorHandle, spreadConstructor, strategies);
 			}
 			catch (FactoryException exception) {
 				throw exception;
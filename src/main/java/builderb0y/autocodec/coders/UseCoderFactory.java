@@ -7,8 +7,10 @@ import org.jetbrains.annotations.ApiStatus.OverrideOnly;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import builderb0y.autocodec.annotations.UseCoder;
 import builderb0y.autocodec.coders.AutoCoder.CoderFactory;
 import builderb0y.autocodec.coders.AutoCoder.NamedCoder;
+import builderb0y.autocodec.common.FactoryApplicability;
 import builderb0y.autocodec.common.FactoryContext;
 import builderb0y.autocodec.common.UseHandlerFactory0;
 import builderb0y.autocodec.common.UseSpec;
@@ -28,6 +30,11 @@ public class UseCoderFactory extends UseHandlerFactory0<AutoCoder<?>> implements
 		super(AutoCoder.class, CoderFactory.class);
 	}
 
+	@Override
+	public @NotNull FactoryApplicability getApplicability() {
+		return FactoryApplicability.annotatedWith(UseCoder.class);
+	}
+
 	@Override
 	public @Nullable <T_HandledType> UseSpec getSpec(@NotNull FactoryContext<T_HandledType> context) {
 		return UseSpec.fromUseCoder(context.type);
@@ -8,15 +8,17 @@ import org.jetbrains.annotations.Nullable;
 import builderb0y.autocodec.coders.AutoCoder.NamedCoder;
 import builderb0y.autocodec.decoders.DecodeContext;
 import builderb0y.autocodec.decoders.DecodeException;
+import builderb0y.autocodec.decoders.DecodeSource;
 import builderb0y.autocodec.encoders.EncodeContext;
 import builderb0y.autocodec.encoders.EncodeException;
+import builderb0y.autocodec.encoders.EncodeSink;
 import builderb0y.autocodec.reflection.reification.ReifiedType;
 import builderb0y.autocodec.verifiers.AutoVerifier;
 
 public class VerifyingCoder<T_Decoded> extends NamedCoder<T_Decoded> {
 
-	public final @NotNull AutoCoder<T_Decoded> coder;
-	public final @NotNull AutoVerifier<T_Decoded> verifier;
+	public @NotNull AutoCoder<T_Decoded> coder;
+	public @NotNull AutoVerifier<T_Decoded> verifier;
 
 	public VerifyingCoder(
 		@NotNull ReifiedType<T_Decoded> handledType,
@@ -38,6 +40,11 @@ public class VerifyingCoder<T_Decoded> extends NamedCoder<T_Decoded> {
 		return context.encodeWith(this.coder);
 	}
 
+	@Override
+	public <T_Encoded> void encodeTo(@NotNull EncodeContext<T_Encoded, T_Decoded> context, @NotNull EncodeSink<T_Encoded> sink) throws EncodeException {
+		context.encodeWith(this.coder, sink);
+	}
+
 	@Override
 	public <T_Encoded> @Nullable T_Decoded decode(@NotNull DecodeContext<T_Encoded> context) throws DecodeException {
 		T_Decoded result = context.decodeWith(this.coder);
@@ -45,8 +52,27 @@ public class VerifyingCoder<T_Decoded> extends NamedCoder<T_Decoded> {
 		return result;
 	}
 
+	@Override
+	public <T_Encoded> @Nullable T_Decoded decodeFrom(@NotNull DecodeContext<T_Encoded> context, @NotNull DecodeSource<T_Encoded> source) throws DecodeException {
+		T_Decoded result = context.decodeWith(this.coder, source);
+		context.verifyWith(this.verifier, result);
+		return result;
+	}
+
 	@Override
 	public String toString() {
 		return super.toString() + ": { coder: " + this.coder + ", verifier: " + this.verifier + " }";
 	}
+
+	@Override
+	public void visitChildren(@NotNull ChildVisitor visitor) {
+		visitor.visitChild("coder", this.coder);
+		visitor.visitChild("verifier", this.verifier);
+	}
+
+	@Override
+	public void linkChildren(@NotNull ChildLinker linker) {
+		this.coder = linker.link(this.coder);
+		this.verifier = linker.link(this.verifier);
+	}
 }
\ No newline at end of file
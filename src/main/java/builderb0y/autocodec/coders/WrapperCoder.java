@@ -11,15 +11,20 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import builderb0y.autocodec.annotations.VerifyNullable;
+import builderb0y.autocodec.annotations.Wrapper;
 import builderb0y.autocodec.coders.AutoCoder.NamedCoder;
+import builderb0y.autocodec.common.FactoryApplicability;
+import builderb0y.autocodec.common.AutoHandler.AutoFactory;
 import builderb0y.autocodec.common.FactoryContext;
 import builderb0y.autocodec.common.FactoryException;
 import builderb0y.autocodec.common.WrapperSpec;
 import builderb0y.autocodec.decoders.DecodeContext;
 import builderb0y.autocodec.decoders.DecodeException;
+import builderb0y.autocodec.decoders.DecodeSource;
 import builderb0y.autocodec.decoders.DecoderFactoryList;
 import builderb0y.autocodec.encoders.EncodeContext;
 import builderb0y.autocodec.encoders.EncodeException;
+import builderb0y.autocodec.encoders.EncodeSink;
 import builderb0y.autocodec.reflection.manipulators.InstanceReader;
 
 public class WrapperCoder<T_Wrapper, T_Wrapped> extends NamedCoder<T_Wrapper> {
@@ -27,7 +32,7 @@ public class WrapperCoder<T_Wrapper, T_Wrapped> extends NamedCoder<T_Wrapper> {
 	public final @NotNull WrapperSpec<T_Wrapper, T_Wrapped> spec;
 	public final @NotNull MethodHandle constructorHandle;
 	public final @NotNull InstanceReader<T_Wrapper, T_Wrapped> getter;
-	public final @NotNull AutoCoder<T_Wrapped> wrappedCoder;
+	public @NotNull AutoCoder<T_Wrapped> wrappedCoder;
 
 	public WrapperCoder(
 		@NotNull WrapperSpec<T_Wrapper, T_Wrapped> spec,
@@ -44,10 +49,19 @@ public class WrapperCoder<T_Wrapper, T_Wrapped> extends NamedCoder<T_Wrapper> {
 
 	@Override
 	@OverrideOnly
-	@SuppressWarnings("unchecked")
 	public <T_Encoded> @Nullable T_Wrapper decode(@NotNull DecodeContext<T_Encoded> context) throws DecodeException {
+		return this.wrap(context.decodeWith(this.wrappedCoder));
+	}
+
+	@Override
+	@OverrideOnly
+	public <T_Encoded> @Nullable T_Wrapper decodeFrom(@NotNull DecodeContext<T_Encoded> context, @NotNull DecodeSource<T_Encoded> source) throws DecodeException {
+		return this.wrap(context.decodeWith(this.wrappedCoder, source));
+	}
+
+	@SuppressWarnings("unchecked")
+	public @Nullable T_Wrapper wrap(@Nullable T_Wrapped wrapped) throws DecodeException {
 		try {
-			T_Wrapped wrapped = context.decodeWith(this.wrappedCoder);
 			if (wrapped == null) {
 				if (this.spec.wrapNull()) {
 					return (T_Wrapper)(this.constructorHandle.invokeExact((Object)(null)));
@@ -76,11 +90,29 @@ public class WrapperCoder<T_Wrapper, T_Wrapped> extends NamedCoder<T_Wrapper> {
 		return context.object(this.getter.get(wrapper)).encodeWith(this.wrappedCoder);
 	}
 
+	@Override
+	@OverrideOnly
+	public <T_Encoded> void encodeTo(@NotNull EncodeContext<T_Encoded, T_Wrapper> context, @NotNull EncodeSink<T_Encoded> sink) throws EncodeException {
+		T_Wrapper wrapper = context.object;
+		if (wrapper == null) sink.writeEmpty();
+		else context.object(this.getter.get(wrapper)).encodeWith(this.wrappedCoder, sink);
+	}
+
 	@Override
 	public String toString() {
 		return super.toString() + ": { wrappedCodec: " + this.wrappedCoder + " }";
 	}
 
+	@Override
+	public void visitChildren(@NotNull ChildVisitor visitor) {
+		visitor.visitChild("wrappedCoder", this.wrappedCoder);
+	}
+
+	@Override
+	public void linkChildren(@NotNull ChildLinker linker) {
+		this.wrappedCoder = linker.link(this.wrappedCoder);
+	}
+
 	public static class Factory extends NamedCoderFactory {
 
 		/**
@@ -106,6 +138,21 @@ public class WrapperCoder<T_Wrapper, T_Wrapped> extends NamedCoder<T_Wrapper> {
 			this.annotationsToDisableVerification.add(VerifyNullable.INSTANCE);
 		}
 
+		@Override
+		public @NotNull FactoryApplicability getApplicability() {
+			return FactoryApplicability.annotatedWith(Wrapper.class);
+		}
+
+		@Override
+		public boolean isEquivalentTo(@NotNull AutoFactory<?> other) {
+			return this == other || (other.getClass() == this.getClass() && this.annotationsToDisableVerification.equals(((Factory)(other)).annotationsToDisableVerification));
+		}
+
+		@Override
+		public @NotNull String getDecisionState() {
+			return this.annotationsToDisableVerification.toString();
+		}
+
 		@Override
 		@OverrideOnly
 		@SuppressWarnings({ "unchecked", "rawtypes" })
@@ -4,9 +4,12 @@ import org.jetbrains.annotations.ApiStatus.OverrideOnly;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import builderb0y.autocodec.coders.AutoCoder;
 import builderb0y.autocodec.constructors.AutoConstructor;
 import builderb0y.autocodec.decoders.AutoDecoder;
 import builderb0y.autocodec.encoders.AutoEncoder;
+import builderb0y.autocodec.graph.HandlerGraph;
+import builderb0y.autocodec.graph.LazyLinker;
 import builderb0y.autocodec.imprinters.AutoImprinter;
 import builderb0y.autocodec.reflection.reification.ReifiedType;
 import builderb0y.autocodec.util.ObjectArrayFactory;
@@ -35,6 +38,58 @@ public interface AutoHandler {
 	@Override
 	public abstract String toString();
 
+	/**
+	passes every handler which this handler delegates to into the provided visitor,
+	along with a name describing what this handler uses it for
+	(usually the name of the field the child handler is stored in).
+	the default implementation does nothing, which is correct
+	for handlers which do not delegate to any other handlers.
+	handlers which DO delegate to other handlers are encouraged
+	to override this method, so that tools like {@link HandlerGraph}
+	can see the full tree of handlers which was created for a type.
+
+	note that lazy handlers (see {@link LazyHandler}) will only
+	report their delegate once it has been resolved,
+	and that the structure of handlers may contain cycles.
+	this method only reports direct children;
+	it is up to the caller to recurse and to handle cycles.
+	*/
+	public default void visitChildren(@NotNull ChildVisitor visitor) {}
+
+	@FunctionalInterface
+	public static interface ChildVisitor {
+
+		public abstract void visitChild(@NotNull String name, @NotNull AutoHandler child);
+	}
+
+	/**
+	replaces every child handler of this handler (see {@link #visitChildren(ChildVisitor)})
+	with the handler returned by {@link ChildLinker#link(AutoHandler)}.
+	this is used by {@link LazyLinker} to replace {@link LazyHandler}'s
+	with their delegates once they have been resolved,
+	which removes a layer of indirection from every call.
+	as such, fields which store child handlers are typically non-final.
+	the default implementation does nothing, which is correct
+	for handlers which do not delegate to any other handlers,
+	and acceptable (albeit slower) for handlers which can't update their children.
+
+	this method only replaces direct children;
+	it is up to the caller to recurse and to handle cycles.
+	*/
+	public default void linkChildren(@NotNull ChildLinker linker) {}
+
+	public static interface ChildLinker {
+
+		/**
+		returns the handler which should be used in place of child.
+		the returned handler must behave identically to child,
+		and must be an instance of the same handler interface as child
+		(for example, if child is an {@link AutoCoder}, the returned
+		handler must also be an {@link AutoCoder} of the same type).
+		*/
+		public abstract <T_Handler extends AutoHandler> @NotNull T_Handler link(@NotNull T_Handler child);
+	}
+
 	/**
 	bare bones implementation of AutoHandler which overrides {@link #toString()}
 	to delegate to a field initialized in the constructor.
@@ -95,6 +150,46 @@ public interface AutoHandler {
 			else throw new FactoryException(this + " cannot create handler for " + context);
 		}
 
+		/**
+		returns cheap metadata describing which types this factory could possibly handle,
+		or null if this factory might handle any type.
+		{@link FactoryList} uses this metadata to skip factories which
+		can't handle the requested type without calling {@link #tryCreate(FactoryContext)}.
+		see {@link FactoryApplicability} for the rules this metadata must follow.
+		subclasses which override {@link #tryCreate(FactoryContext)}
+		to accept more types must override this method too.
+		*/
+		public default @Nullable FactoryApplicability getApplicability() {
+			return null;
+		}
+
+		/**
+		returns true if this factory is guaranteed to create the same handlers as other.
+		this is used by {@link FactoryList#hasSameCandidates(FactoryList, ReifiedType)}
+		to decide whether or not a derived AutoCodec can share handlers with its parent.
+		the default implementation only considers a factory to be equivalent to itself.
+		factories which are created separately for every AutoCodec
+		should override this method if they have no configurable state,
+		or compare their state if they do.
+		*/
+		public default boolean isEquivalentTo(@NotNull AutoFactory<?> other) {
+			return this == other;
+		}
+
+		/**
+		returns a String which describes the state that {@link #isEquivalentTo(AutoFactory)} compares,
+		or null if this factory has no configurable state.
+		this is used by {@link FactoryDecisionCache},
+		so that decisions which were made by a differently configured factory are not trusted.
+		the returned String should be the same in every JVM run
+		for factories which are configured the same way.
+		factories which override {@link #isEquivalentTo(AutoFactory)}
+		to compare their state should override this method too.
+		*/
+		public default @Nullable String getDecisionState() {
+			return null;
+		}
+
 		@Override
 		public abstract String toString();
 	}
@@ -42,6 +42,19 @@ public record DefaultSpec(
 		else throw new IllegalStateException("requested decoded value from non-decoded DefaultSpec");
 	}
 
+	/** {@link #from(FactoryContext)} returns null for any type which this applicability rejects. */
+	public static final @NotNull FactoryApplicability APPLICABILITY = FactoryApplicability.annotatedWith(
+		DefaultByte   .class,
+		DefaultShort  .class,
+		DefaultInt    .class,
+		DefaultLong   .class,
+		DefaultFloat  .class,
+		DefaultDouble .class,
+		DefaultString .class,
+		DefaultBoolean.class,
+		DefaultObject .class
+	);
+
 	public static @Nullable DefaultSpec from(@NotNull FactoryContext<?> context) {
 		Annotation annotation = context.type.getAnnotations().getFirst(
 			DefaultByte   .class,
@@ -0,0 +1,93 @@
+package builderb0y.autocodec.common;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import builderb0y.autocodec.AutoCodec;
+import builderb0y.autocodec.reflection.reification.ReifiedType;
+
+/**
+a placeholder which {@link FactoryList} hands out instead of creating child handlers
+when {@link AutoCodec#shouldDeferChildren(FactoryList)} returns true.
+the actual handler is created the first time this handler is used,
+or when {@link FactoryList#validateAll()} is called, whichever comes first.
+the handler is created at most once, even if multiple threads use this handler at the same time.
+if creating the handler fails, the same exception is re-thrown on every subsequent use.
+
+subclasses should call {@link #resolve()} to obtain the actual handler,
+and convert any {@link FactoryException} it throws into
+whatever exception type is appropriate for the operation being performed.
+*/
+public abstract class DeferredHandler<T_Handler> extends LazyHandler<T_Handler> {
+
+	public final @NotNull FactoryList<?, ?> factoryList;
+	public final @NotNull ReifiedType<?> type;
+	/** set to null once this handler has been resolved, or has failed to resolve. */
+	public @Nullable FactoryContext<?> context;
+	public volatile @Nullable T_Handler resolution;
+	public volatile @Nullable FactoryException failure;
+
+	public DeferredHandler(@NotNull FactoryList<?, ?> factoryList, @NotNull FactoryContext<?> context) {
+		this.factoryList = factoryList;
+		this.type = context.type;
+		this.context = context;
+	}
+
+	@Override
+	public @Nullable T_Handler getNullableDelegateHandler() {
+		return this.resolution;
+	}
+
+	/** resolves this handler if it hasn't been resolved yet. */
+	@Override
+	public @NotNull T_Handler getDelegateHandler() {
+		return this.resolve();
+	}
+
+	@Override
+	public void setDelegateHandler(@NotNull T_Handler handler) {
+		this.resolution = handler;
+	}
+
+	/**
+	returns the actual handler, creating it first if necessary.
+	throws {@link FactoryException} if the actual handler could not be created.
+	*/
+	@SuppressWarnings("unchecked")
+	public @NotNull T_Handler resolve() throws FactoryException {
+		T_Handler resolution = this.resolution;
+		if (resolution != null) return resolution;
+		synchronized (this) {
+			if ((resolution = this.resolution) != null) return resolution;
+			FactoryException failure = this.failure;
+			if (failure != null) throw failure;
+			FactoryContext<?> context = this.context;
+			try {
+				//bypass FactoryList.forceCreate(), because that would just defer again.
+				resolution = (T_Handler)(context.logger().tryCreateHandler(this.factoryList, context));
+				if (resolution == null) throw new FactoryException(this.factoryList + " cannot create handler for " + context);
+				this.resolution = resolution;
+				return resolution;
+			}
+			catch (FactoryException exception) {
+				this.failure = exception;
+				throw exception;
+			}
+			finally {
+				this.context = null;
+				this.factoryList.deferred.remove(this.type, this);
+			}
+		}
+	}
+
+	public boolean isResolved() {
+		return this.resolution != null;
+	}
+
+	@Override
+	public String toString() {
+		T_Handler resolution = this.resolution;
+		if (resolution != null) return resolution.toString();
+		else return "Deferred " + this.getClass().getSimpleName() + " for " + this.type;
+	}
+}
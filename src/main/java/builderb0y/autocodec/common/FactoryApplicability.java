@@ -0,0 +1,102 @@
+package builderb0y.autocodec.common;
+
+import java.lang.annotation.Annotation;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import builderb0y.autocodec.common.AutoHandler.AutoFactory;
+import builderb0y.autocodec.reflection.reification.ReifiedType;
+import builderb0y.autocodec.reflection.reification.TypeClassification;
+
+/**
+cheap metadata describing which types an {@link AutoFactory} could possibly handle.
+see {@link AutoFactory#getApplicability()}.
+
+a factory is only tried for a type if ALL of the following are true:
+	the type has at least one of the {@link #annotations}, or {@link #annotations} is empty.
+	the type's {@link ReifiedType#getRawClass()} is one of the {@link #rawClasses}, or {@link #rawClasses} is empty.
+	the type matches the {@link #predicate}, or {@link #predicate} is null.
+
+this metadata must be conservative: if it says a factory
+does not apply to a type, then the factory's tryCreate()
+method MUST return null for that type.
+the reverse is not required: factories are still allowed
+to return null for types which this metadata accepts.
+
+{@link FactoryIndex} uses the annotations and raw classes to
+look up candidate factories in a map, so they are cheaper than
+the predicate, which needs to be tested on every request.
+*/
+public class FactoryApplicability {
+
+	public final @NotNull Set<@NotNull Class<? extends Annotation>> annotations;
+	public final @NotNull Set<@NotNull Class<?>> rawClasses;
+	public final @Nullable Predicate<@NotNull ReifiedType<?>> predicate;
+
+	public FactoryApplicability(
+		@NotNull Set<@NotNull Class<? extends Annotation>> annotations,
+		@NotNull Set<@NotNull Class<?>> rawClasses,
+		@Nullable Predicate<@NotNull ReifiedType<?>> predicate
+	) {
+		this.annotations = annotations;
+		this.rawClasses = rawClasses;
+		this.predicate = predicate;
+	}
+
+	/** the factory only applies to types which have at least one of the provided annotations. */
+	@SafeVarargs
+	public static @NotNull FactoryApplicability annotatedWith(@NotNull Class<? extends Annotation> @NotNull ... annotations) {
+		return new FactoryApplicability(Set.of(annotations), Set.of(), null);
+	}
+
+	/** the factory only applies to types whose raw class is exactly one of the provided classes. */
+	public static @NotNull FactoryApplicability rawClass(@NotNull Class<?> @NotNull ... rawClasses) {
+		return new FactoryApplicability(Set.of(), Set.of(rawClasses), null);
+	}
+
+	/** the factory only applies to types which match the provided predicate. */
+	public static @NotNull FactoryApplicability matching(@NotNull Predicate<@NotNull ReifiedType<?>> predicate) {
+		return new FactoryApplicability(Set.of(), Set.of(), predicate);
+	}
+
+	/** the factory only applies to types with the provided classification. */
+	public static @NotNull FactoryApplicability classification(@NotNull TypeClassification classification) {
+		return matching((ReifiedType<?> type) -> type.getClassification() == classification);
+	}
+
+	/** returns a copy of this FactoryApplicability which additionally requires one of the provided raw classes. */
+	public @NotNull FactoryApplicability withRawClass(@NotNull Class<?> @NotNull ... rawClasses) {
+		return new FactoryApplicability(this.annotations, Set.of(rawClasses), this.predicate);
+	}
+
+	/** returns a copy of this FactoryApplicability which additionally requires the provided predicate to match. */
+	public @NotNull FactoryApplicability withPredicate(@NotNull Predicate<@NotNull ReifiedType<?>> predicate) {
+		return new FactoryApplicability(this.annotations, this.rawClasses, this.predicate != null ? this.predicate.and(predicate) : predicate);
+	}
+
+	/** returns true if the factory this FactoryApplicability belongs to could handle the provided type. */
+	public boolean test(@NotNull ReifiedType<?> type) {
+		if (!this.rawClasses.isEmpty()) {
+			//Set.of().contains(null) throws NullPointerException.
+			Class<?> rawClass = type.getRawClass();
+			if (rawClass == null || !this.rawClasses.contains(rawClass)) return false;
+		}
+		if (!this.annotations.isEmpty() && !this.hasAnyAnnotation(type)) return false;
+		return this.predicate == null || this.predicate.test(type);
+	}
+
+	public boolean hasAnyAnnotation(@NotNull ReifiedType<?> type) {
+		for (Class<? extends Annotation> annotation : this.annotations) {
+			if (type.getAnnotations().has(annotation)) return true;
+		}
+		return false;
+	}
+
+	@Override
+	public String toString() {
+		return "FactoryApplicability: { annotations: " + this.annotations + ", rawClasses: " + this.rawClasses + ", predicate: " + this.predicate + " }";
+	}
+}
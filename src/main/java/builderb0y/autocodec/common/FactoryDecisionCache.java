@@ -0,0 +1,314 @@
+package builderb0y.autocodec.common;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import builderb0y.autocodec.AutoCodec;
+import builderb0y.autocodec.common.AutoHandler.AutoFactory;
+import builderb0y.autocodec.reflection.reification.ReifiedType;
+import builderb0y.autocodec.util.TypeFormatter;
+
+/**
+remembers which factory created the handler for a given type,
+so that the next time the same type is requested (usually in a later JVM run),
+the {@link FactoryList} can try that factory directly,
+instead of trying every factory before it first.
+
+every decision is tied to a fingerprint of the class files
+of all the classes the type references (see {@link #fingerprint(ReifiedType)}),
+and to the list of factories which made the decision,
+including their configuration (see {@link AutoFactory#getDecisionState()}).
+if either of these has changed since the decision was recorded,
+the decision is ignored, and the FactoryList falls back to
+trying every factory, after which a new decision is recorded.
+
+decisions are only used to skip factories which previously returned null.
+the chosen factory is still responsible for creating the handler,
+including selecting which constructor, fields, or methods to use.
+those selections are not replayed, because the factory needs to
+look up the same members anyway in order to create the handler,
+and a replayed member could not be checked without looking it up again.
+if the chosen factory returns null, the FactoryList
+also falls back to trying every factory.
+
+this cache is opt-in. to enable it, override {@link AutoCodec#createDecisionCache()}: {@code
+	public static final AutoCodec AUTO_CODEC = new AutoCodec() {
+
+		@Override
+		public @Nullable FactoryDecisionCache createDecisionCache() {
+			return FactoryDecisionCache.loadOrEmpty(Path.of("autocodec-decisions.txt"));
+		}
+	};
+}
+and then call {@link #save()} once all of your handlers have been created.
+*/
+public class FactoryDecisionCache {
+
+	public static final @NotNull String HEADER = "AutoCodec factory decisions v1";
+
+	/** the file this cache is {@link #save()}'d to, or null if this cache is not associated with a file. */
+	public final @Nullable Path file;
+	/** keyed by {@link #key(FactoryList, ReifiedType)}. */
+	public final @NotNull Map<@NotNull String, @NotNull Decision> decisions = new ConcurrentHashMap<>(64);
+	/** keyed by {@link FactoryList#toString()}, values are {@link #signature(List)}. */
+	public final @NotNull Map<@NotNull String, @NotNull String> signatures = new ConcurrentHashMap<>(8);
+	/** values are empty if the class file could not be found. */
+	public final @NotNull ClassValue<Optional<String>> classHashes = new ClassValue<>() {
+
+		@Override
+		public Optional<String> computeValue(Class<?> clazz) {
+			return Optional.ofNullable(hashClass(clazz));
+		}
+	};
+	/** true if decisions have been recorded since the last time this cache was loaded or saved. */
+	public volatile boolean dirty;
+
+	public FactoryDecisionCache(@Nullable Path file) {
+		this.file = file;
+	}
+
+	/**
+	reads a previously {@link #save()}'d cache from the provided file.
+	if the file does not exist, returns an empty cache instead.
+	*/
+	public static @NotNull FactoryDecisionCache load(@NotNull Path file) throws IOException {
+		FactoryDecisionCache cache = new FactoryDecisionCache(file);
+		try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+			if (!HEADER.equals(reader.readLine())) return cache;
+			for (String line; (line = reader.readLine()) != null;) {
+				String[] split = line.split("\t", -1);
+				switch (split[0]) {
+					case "list" -> {
+						if (split.length == 3) cache.signatures.put(split[1], split[2]);
+					}
+					case "decision" -> {
+						if (split.length == 6) try {
+							Decision decision = new Decision(split[1], split[5], Integer.parseInt(split[2]), split[3], split[4]);
+							cache.decisions.put(decision.key(), decision);
+						}
+						catch (NumberFormatException ignored) {}
+					}
+					default -> {}
+				}
+			}
+		}
+		catch (NoSuchFileException ignored) {}
+		return cache;
+	}
+
+	/**
+	same as {@link #load(Path)}, but returns an empty cache if the file could not be read.
+	the returned cache will still be {@link #save()}'d to the provided file.
+	*/
+	public static @NotNull FactoryDecisionCache loadOrEmpty(@NotNull Path file) {
+		try {
+			return load(file);
+		}
+		catch (IOException | RuntimeException exception) {
+			return new FactoryDecisionCache(file);
+		}
+	}
+
+	/**
+	writes all decisions to our {@link #file}, if they have changed since they were loaded.
+	the file is written to a temporary file first, and then moved into place,
+	so that other JVM's reading the file at the same time will not see a partial file.
+	*/
+	public void save() throws IOException {
+		if (this.file == null) throw new IllegalStateException("No file to save to.");
+		if (!this.dirty) return;
+		this.dirty = false;
+		Path parent = this.file.toAbsolutePath().getParent();
+		if (parent != null) Files.createDirectories(parent);
+		Path temp = this.file.resolveSibling(this.file.getFileName() + ".tmp");
+		try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+			writer.write(HEADER);
+			writer.newLine();
+			for (Map.Entry<String, String> entry : new TreeMap<>(this.signatures).entrySet()) {
+				writer.write("list\t" + entry.getKey() + '\t' + entry.getValue());
+				writer.newLine();
+			}
+			for (Decision decision : new TreeMap<>(this.decisions).values()) {
+				writer.write("decision\t" + decision.list + '\t' + decision.factoryIndex + '\t' + decision.factoryClass + '\t' + decision.fingerprint + '\t' + decision.type);
+				writer.newLine();
+			}
+		}
+		catch (IOException | RuntimeException exception) {
+			this.dirty = true;
+			throw exception;
+		}
+		Files.move(temp, this.file, StandardCopyOption.REPLACE_EXISTING);
+	}
+
+	/**
+	returns the factory which created the handler for the provided type last time,
+	or null if there is no decision for the type, or the decision is out of date.
+	*/
+	public <T_Factory extends AutoFactory<?>> @Nullable T_Factory getFactory(
+		@NotNull FactoryList<?, ?> list,
+		@NotNull FactoryIndex<T_Factory> index,
+		@NotNull ReifiedType<?> type
+	) {
+		Decision decision = this.decisions.get(key(list, type));
+		if (decision == null) return null;
+		//only fingerprint the type once we know there is a decision to check.
+		if (!decision.fingerprint.equals(this.fingerprint(type))) return null;
+		if (!signature(index.factories).equals(this.signatures.get(decision.list))) return null;
+		if (decision.factoryIndex < 0 || decision.factoryIndex >= index.factories.size()) return null;
+		T_Factory factory = index.factories.get(decision.factoryIndex);
+		return factory.getClass().getName().equals(decision.factoryClass) ? factory : null;
+	}
+
+	/**
+	records that the factory at factoryIndex in the provided index
+	created the handler for the provided type.
+	if the list's factories have changed since the last decision,
+	all of the list's previous decisions are discarded first.
+	does nothing if the type can't be {@link #fingerprint(ReifiedType)}'d.
+	*/
+	public void record(
+		@NotNull FactoryList<?, ?> list,
+		@NotNull FactoryIndex<?> index,
+		@NotNull ReifiedType<?> type,
+		int factoryIndex
+	) {
+		String fingerprint = this.fingerprint(type);
+		if (fingerprint == null) return;
+		String listName = list.toString();
+		String signature = signature(index.factories);
+		String oldSignature = this.signatures.put(listName, signature);
+		if (oldSignature != null && !oldSignature.equals(signature)) {
+			this.decisions.values().removeIf((Decision decision) -> decision.list.equals(listName));
+		}
+		Decision decision = new Decision(listName, formatType(type), factoryIndex, index.factories.get(factoryIndex).getClass().getName(), fingerprint);
+		if (!decision.equals(this.decisions.put(decision.key(), decision))) {
+			this.dirty = true;
+		}
+	}
+
+	public static @NotNull String key(@NotNull FactoryList<?, ?> list, @NotNull ReifiedType<?> type) {
+		return list.toString() + '\t' + formatType(type);
+	}
+
+	/**
+	returns a String which uniquely identifies the provided type.
+	unlike {@link ReifiedType#toString()}, this uses fully qualified
+	class names, so that classes with the same simple name are not confused.
+	*/
+	public static @NotNull String formatType(@NotNull ReifiedType<?> type) {
+		return new TypeFormatter(64).annotations(true).simplify(false).append(type).toString().replace('\t', ' ').replace('\n', ' ');
+	}
+
+	/**
+	returns a String which identifies the classes of the provided factories,
+	and their {@link AutoFactory#getDecisionState()}, in order.
+	*/
+	public static @NotNull String signature(@NotNull List<? extends AutoFactory<?>> factories) {
+		CRC32 crc = new CRC32();
+		for (AutoFactory<?> factory : factories) {
+			crc.update(factory.getClass().getName().getBytes(StandardCharsets.UTF_8));
+			crc.update(0);
+			String state = factory.getDecisionState();
+			if (state != null) crc.update(state.getBytes(StandardCharsets.UTF_8));
+			crc.update(0);
+		}
+		return factories.size() + ":" + Long.toHexString(crc.getValue());
+	}
+
+	/**
+	returns a hash of the class files of every class which the provided type references,
+	including their superclasses and interfaces, or null if any of those class files
+	could not be found, in which case decisions for the type should not be cached.
+	the hash is computed once per {@link ReifiedType#canonicalize()}'d type,
+	and stored as an {@link ReifiedType#getAttachment(Object, java.util.function.Function)}
+	keyed by this cache, since class files do not change while their classes are loaded.
+	*/
+	public @Nullable String fingerprint(@NotNull ReifiedType<?> type) {
+		ReifiedType<?> canonical = type.canonicalize();
+		return canonical.getAttachment(this, (FactoryDecisionCache cache) -> Optional.ofNullable(cache.computeFingerprint(canonical))).orElse(null);
+	}
+
+	/** computes the {@link #fingerprint(ReifiedType)} of the provided type without caching it. */
+	public @Nullable String computeFingerprint(@NotNull ReifiedType<?> type) {
+		Set<Class<?>> classes = new LinkedHashSet<>(8);
+		HandlerCache.forEachClass(type, (Class<?> clazz) -> addHierarchy(clazz, classes));
+		CRC32 crc = new CRC32();
+		for (Class<?> clazz : classes) {
+			String hash = this.classHashes.get(clazz).orElse(null);
+			if (hash == null) return null;
+			crc.update(hash.getBytes(StandardCharsets.UTF_8));
+			crc.update(0);
+		}
+		return classes.size() + ":" + Long.toHexString(crc.getValue());
+	}
+
+	public static void addHierarchy(@Nullable Class<?> clazz, @NotNull Set<Class<?>> classes) {
+		while (clazz != null && clazz.isArray()) clazz = clazz.getComponentType();
+		if (clazz == null || !classes.add(clazz)) return;
+		addHierarchy(clazz.getSuperclass(), classes);
+		for (Class<?> interfaceClass : clazz.getInterfaces()) {
+			addHierarchy(interfaceClass, classes);
+		}
+	}
+
+	/**
+	returns a hash of the provided class's class file,
+	or null if the class file could not be found.
+	classes loaded by the bootstrap loader are hashed
+	by the java version instead of their class file.
+	*/
+	public static @Nullable String hashClass(@NotNull Class<?> clazz) {
+		if (clazz.isPrimitive()) return "primitive";
+		ClassLoader loader = clazz.getClassLoader();
+		if (loader == null) return "java " + Runtime.version();
+		if (clazz.isHidden()) return null;
+		try (InputStream stream = loader.getResourceAsStream(clazz.getName().replace('.', '/') + ".class")) {
+			if (stream == null) return null;
+			byte[] bytes = stream.readAllBytes();
+			CRC32 crc = new CRC32();
+			crc.update(bytes);
+			return bytes.length + ":" + Long.toHexString(crc.getValue());
+		}
+		catch (IOException exception) {
+			return null;
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "FactoryDecisionCache: { file: " + this.file + ", decisions: " + this.decisions.size() + " }";
+	}
+
+	/**
+	@param list the {@link FactoryList#toString()} of the list which made this decision.
+	@param type the {@link #formatType(ReifiedType)} of the type which was requested.
+	@param factoryIndex the index of the chosen factory in {@link FactoryList#factories}.
+	@param factoryClass the fully qualified class name of the chosen factory.
+	@param fingerprint the {@link #fingerprint(ReifiedType)} of the requested type.
+	*/
+	public static record Decision(
+		@NotNull String list,
+		@NotNull String type,
+		int factoryIndex,
+		@NotNull String factoryClass,
+		@NotNull String fingerprint
+	) {
+
+		public @NotNull String key() {
+			return this.list + '\t' + this.type;
+		}
+	}
+}
@@ -0,0 +1,114 @@
+package builderb0y.autocodec.common;
+
+import java.lang.annotation.Annotation;
+import java.util.*;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import builderb0y.autocodec.common.AutoHandler.AutoFactory;
+import builderb0y.autocodec.reflection.AnnotationContainer;
+import builderb0y.autocodec.reflection.reification.ReifiedType;
+
+/**
+an immutable snapshot of a {@link FactoryList}'s {@link FactoryList#factories},
+organized by their {@link AutoFactory#getApplicability()},
+which can quickly select the factories which could possibly handle a given type.
+candidates are always returned in the same order as they appear in the factory list,
+so using the index does not change which factory "wins".
+
+factories without any applicability metadata are candidates for every type.
+factories which require specific annotations are looked up
+by the annotations which are actually present on the type.
+factories which require specific raw classes (but no annotations)
+are looked up by the type's raw class.
+in all cases, the full {@link FactoryApplicability#test(ReifiedType)}
+is performed on the candidates before they are returned.
+*/
+public class FactoryIndex<T_Factory extends AutoFactory<?>> {
+
+	/** an immutable copy of the factory list which this index was built from. */
+	public final @NotNull List<@NotNull T_Factory> factories;
+	public final @Nullable FactoryApplicability @NotNull [] applicabilities;
+	/** factories which are not in {@link #byAnnotation} or {@link #byRawClass}. */
+	public final @NotNull BitSet unrestricted;
+	public final @NotNull Map<@NotNull Class<? extends Annotation>, @NotNull BitSet> byAnnotation;
+	public final @NotNull Map<@NotNull Class<?>, @NotNull BitSet> byRawClass;
+
+	public FactoryIndex(@NotNull List<T_Factory> factories) {
+		int size = factories.size();
+		this.factories = List.copyOf(factories);
+		this.applicabilities = new FactoryApplicability[size];
+		this.unrestricted = new BitSet(size);
+		Map<Class<? extends Annotation>, BitSet> byAnnotation = new HashMap<>(16);
+		Map<Class<?>, BitSet> byRawClass = new HashMap<>(16);
+		for (int index = 0; index < size; index++) {
+			FactoryApplicability applicability = this.applicabilities[index] = this.factories.get(index).getApplicability();
+			if (applicability != null && !applicability.annotations.isEmpty()) {
+				for (Class<? extends Annotation> annotation : applicability.annotations) {
+					byAnnotation.computeIfAbsent(annotation, (Class<? extends Annotation> $) -> new BitSet(size)).set(index);
+				}
+			}
+			else if (applicability != null && !applicability.rawClasses.isEmpty()) {
+				for (Class<?> rawClass : applicability.rawClasses) {
+					byRawClass.computeIfAbsent(rawClass, (Class<?> $) -> new BitSet(size)).set(index);
+				}
+			}
+			else {
+				this.unrestricted.set(index);
+			}
+		}
+		this.byAnnotation = Map.copyOf(byAnnotation);
+		this.byRawClass = Map.copyOf(byRawClass);
+	}
+
+	/** returns true if this index was built from exactly the provided factories, in the same order. */
+	public boolean isUpToDate(@NotNull List<T_Factory> factories) {
+		List<T_Factory> snapshot = this.factories;
+		int size = snapshot.size();
+		if (factories.size() != size) return false;
+		for (int index = 0; index < size; index++) {
+			if (factories.get(index) != snapshot.get(index)) return false;
+		}
+		return true;
+	}
+
+	/**
+	returns the indexes (in {@link #factories}) of all the
+	factories which could possibly handle the provided type.
+	the returned BitSet is freshly allocated, and may be modified by the caller.
+	*/
+	public @NotNull BitSet getCandidates(@NotNull ReifiedType<?> type) {
+		BitSet candidates = (BitSet)(this.unrestricted.clone());
+		if (!this.byAnnotation.isEmpty()) {
+			AnnotationContainer annotations = type.getAnnotations();
+			if (annotations.hasAny()) {
+				for (Class<? extends Annotation> annotationType : annotations.index().byType.keySet()) {
+					BitSet factories = this.byAnnotation.get(annotationType);
+					if (factories != null) candidates.or(factories);
+				}
+			}
+		}
+		if (!this.byRawClass.isEmpty()) {
+			Class<?> rawClass = type.getRawClass();
+			if (rawClass != null) {
+				BitSet factories = this.byRawClass.get(rawClass);
+				if (factories != null) candidates.or(factories);
+			}
+		}
+		for (int index = candidates.nextSetBit(0); index >= 0; index = candidates.nextSetBit(index + 1)) {
+			FactoryApplicability applicability = this.applicabilities[index];
+			if (applicability != null && !applicability.test(type)) candidates.clear(index);
+		}
+		return candidates;
+	}
+
+	/** returns the index of the provided factory in {@link #factories}, compared by identity. */
+	public int indexOf(@NotNull T_Factory factory) {
+		List<T_Factory> factories = this.factories;
+		for (int index = 0, size = factories.size(); index < size; index++) {
+			if (factories.get(index) == factory) return index;
+		}
+		throw new IllegalStateException("Factory not present: " + factory);
+	}
+}
@@ -2,8 +2,13 @@ package builderb0y.autocodec.common;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
 
 import it.unimi.dsi.fastutil.objects.Object2ObjectOpenCustomHashMap;
 import org.jetbrains.annotations.ApiStatus.OverrideOnly;
@@ -13,6 +18,7 @@ import org.jetbrains.annotations.Nullable;
 import builderb0y.autocodec.AutoCodec;
 import builderb0y.autocodec.common.AutoHandler.AutoFactory;
 import builderb0y.autocodec.common.AutoHandler.NamedFactory;
+import builderb0y.autocodec.graph.LazyLinker;
 import builderb0y.autocodec.reflection.reification.ReifiedType;
 
 public abstract class FactoryList<
@@ -23,9 +29,29 @@ extends NamedFactory<T_Handler> {
 
 	public final @NotNull AutoCodec autoCodec;
 	public final @NotNull List<T_Factory> factories = new ArrayList<>(16);
+	/** lazy-initialized. see {@link #getIndex()}. */
+	public @Nullable FactoryIndex<T_Factory> index;
+	/**
+	if true, requests for child handlers made while another handler is being
+	created will receive a {@link DeferredHandler} instead of the actual handler.
+	see {@link AutoCodec#shouldDeferChildren(FactoryList)}.
+	*/
+	public final boolean deferChildren;
+	/**
+	every {@link DeferredHandler} which this FactoryList has
+	handed out, and which has not been resolved yet,
+	keyed by their {@link ReifiedType#canonicalize()}'d type.
+	every request for the same type receives the same placeholder
+	until it is resolved. see {@link #validateAll()}.
+	*/
+	public final @NotNull Map<@NotNull ReifiedType<?>, @NotNull DeferredHandler<T_Handler>> deferred = new ConcurrentHashMap<>(16);
+	/** see {@link #freeze()}. */
+	public volatile boolean frozen;
 
 	public FactoryList(@NotNull AutoCodec autoCodec) {
 		this.autoCodec = autoCodec;
+		this.cache = this.createCache();
+		this.deferChildren = autoCodec.shouldDeferChildren(this);
 		this.setup();
 	}
 
@@ -54,6 +80,20 @@ extends NamedFactory<T_Handler> {
 	@OverrideOnly
 	public abstract @NotNull T_Factory createLookupFactory();
 
+	/**
+	prevents factories from being added, removed, or replaced from now on.
+	usually called by {@link AutoCodec#freeze()}.
+	note that modifying {@link #factories} directly is not prevented,
+	but should not be done on a frozen FactoryList either.
+	*/
+	public void freeze() {
+		this.frozen = true;
+	}
+
+	public void checkNotFrozen() {
+		if (this.frozen) throw new IllegalStateException(this + " is frozen.");
+	}
+
 	public int indexOf(@NotNull T_Factory factory) {
 		int index = this.factories.indexOf(factory);
 		if (index >= 0) return index;
@@ -71,72 +111,88 @@ extends NamedFactory<T_Handler> {
 	}
 
 	public void addFactoryToStart(@NotNull T_Factory start) {
+		this.checkNotFrozen();
 		this.factories.add(0, start);
 	}
 
 	public void addFactoryToEnd(@NotNull T_Factory end) {
+		this.checkNotFrozen();
 		this.factories.add(end);
 	}
 
 	public void addFactoryAfter(@NotNull T_Factory before, @NotNull T_Factory after) {
+		this.checkNotFrozen();
 		this.factories.add(this.indexOf(before) + 1, after);
 	}
 
 	public void addFactoryBefore(@NotNull T_Factory after, @NotNull T_Factory before) {
+		this.checkNotFrozen();
 		this.factories.add(this.indexOf(after), before);
 	}
 
 	public void addFactoryAfter(@NotNull Class<? extends T_Factory> beforeClass, @NotNull T_Factory after) {
+		this.checkNotFrozen();
 		this.factories.add(this.indexOf(beforeClass) + 1, after);
 	}
 
 	public void addFactoryBefore(@NotNull Class<? extends T_Factory> afterClass, @NotNull T_Factory before) {
+		this.checkNotFrozen();
 		this.factories.add(this.indexOf(afterClass), before);
 	}
 
 	@SafeVarargs
 	public final void addFactoriesToStart(@NotNull T_Factory @NotNull ... start) {
+		this.checkNotFrozen();
 		this.factories.addAll(0, Arrays.asList(start));
 	}
 
 	@SafeVarargs
 	public final void addFactoriesToEnd(@NotNull T_Factory @NotNull ... end) {
+		this.checkNotFrozen();
 		this.factories.addAll(Arrays.asList(end));
 	}
 
 	@SafeVarargs
 	public final void addFactoriesAfter(@NotNull T_Factory before, @NotNull T_Factory @NotNull ... after) {
+		this.checkNotFrozen();
 		this.factories.addAll(this.indexOf(before) + 1, Arrays.asList(after));
 	}
 
 	@SafeVarargs
 	public final void addFactoriesBefore(@NotNull T_Factory after, @NotNull T_Factory @NotNull ... before) {
+		this.checkNotFrozen();
 		this.factories.addAll(this.indexOf(after), Arrays.asList(before));
 	}
 
 	@SafeVarargs
 	public final void addFactoriesAfter(@NotNull Class<? extends T_Factory> beforeClass, @NotNull T_Factory @NotNull ... after) {
+		this.checkNotFrozen();
 		this.factories.addAll(this.indexOf(beforeClass) + 1, Arrays.asList(after));
 	}
 
 	@SafeVarargs
 	public final void addFactoriesBefore(@NotNull Class<? extends T_Factory> afterClass, @NotNull T_Factory @NotNull ... before) {
+		this.checkNotFrozen();
 		this.factories.addAll(this.indexOf(afterClass), Arrays.asList(before));
 	}
 
 	public void removeFactory(@NotNull T_Factory factory) {
+		this.checkNotFrozen();
 		this.factories.remove(this.indexOf(factory));
 	}
 
 	public void removeFactory(@NotNull Class<? extends T_Factory> factoryClass) {
+		this.checkNotFrozen();
 		this.factories.remove(this.indexOf(factoryClass));
 	}
 
 	public void replaceFactory(@NotNull T_Factory oldFactory, @NotNull T_Factory newFactory) {
+		this.checkNotFrozen();
 		this.factories.set(this.indexOf(oldFactory), newFactory);
 	}
 
 	public void replaceFactory(@NotNull Class<? extends T_Factory> oldFactoryClass, @NotNull T_Factory newFactory) {
+		this.checkNotFrozen();
 		this.factories.set(this.indexOf(oldFactoryClass), newFactory);
 	}
 
@@ -147,7 +203,12 @@ extends NamedFactory<T_Handler> {
 
 	//////////////////////////////// request handling ////////////////////////////////
 
-	public final @NotNull Map<@NotNull ReifiedType<?>, @NotNull T_Handler> cache = new Object2ObjectOpenCustomHashMap<>(256, ReifiedType.ORDERED_ANNOTATIONS_STRATEGY);
+	/**
+	keys in this cache are always {@link ReifiedType#canonicalize()}'d,
+	so they have cached hash codes, and can be compared by identity.
+	the eviction policy is decided by {@link #createCache()}.
+	*/
+	public final @NotNull HandlerCache<T_Handler> cache;
 
 	/**
 	used to create handlers which self-reference. for example: {@code
@@ -171,11 +232,59 @@ extends NamedFactory<T_Handler> {
 	that request will simply receive the lazy handler.
 	that way, as soon as the first request has been fulfilled,
 	both requests will automatically work.
+
+	every thread has its own request stack, so that multiple threads
+	can create handlers at the same time (see {@link AutoCodec#warmUp(Collection)}).
+	if two threads request the same type at the same time,
+	they will each create their own handler for it,
+	but only the first one to finish will be cached,
+	and both threads will return the cached handler.
+	handlers are not cached until the outermost request
+	on their thread has finished; see {@link PendingHandlers}.
 	*/
-	public final @NotNull Map<@NotNull ReifiedType<?>, @NotNull LazyHandler<T_Handler>> requestStack = new Object2ObjectOpenCustomHashMap<>(16, ReifiedType.ORDERED_ANNOTATIONS_STRATEGY);
+	public final @NotNull ThreadLocal<@NotNull Map<@NotNull ReifiedType<?>, @NotNull LazyHandler<T_Handler>>> requestStack = ThreadLocal.withInitial(() -> new Object2ObjectOpenCustomHashMap<>(16, ReifiedType.ORDERED_ANNOTATIONS_STRATEGY));
 
 	public abstract @NotNull LazyHandler<T_Handler> createLazyHandler();
 
+	/**
+	creates the {@link #cache} for this FactoryList.
+	the default implementation delegates to {@link AutoCodec#createHandlerCache(FactoryList)},
+	so that the same policy can be applied to all of an AutoCodec's factory lists at once.
+	note that this method is called before {@link #setup()}.
+	*/
+	@OverrideOnly
+	public @NotNull HandlerCache<T_Handler> createCache() {
+		return this.autoCodec.createHandlerCache(this);
+	}
+
+	/**
+	removes all cached handlers whose type matches the provided predicate.
+	unresolved {@link #deferred} handlers and {@link #dependencies}
+	for those types are forgotten too, so {@link #validateAll()}
+	will no longer resolve them.
+	handlers which have already been handed out remain usable.
+	returns the number of cached handlers which were removed.
+	*/
+	public int invalidate(@NotNull Predicate<? super ReifiedType<?>> predicate) {
+		this.deferred.keySet().removeIf(predicate);
+		this.dependencies.keySet().removeIf(predicate);
+		return this.cache.invalidate(predicate);
+	}
+
+	/**
+	removes all cached handlers whose type references a class
+	which was loaded by the provided loader, or one of its descendants.
+	unresolved {@link #deferred} handlers and {@link #dependencies}
+	for those types are forgotten too.
+	returns the number of cached handlers which were removed.
+	*/
+	public int invalidate(@NotNull ClassLoader loader) {
+		Predicate<ReifiedType<?>> predicate = (ReifiedType<?> type) -> HandlerCache.references(type, loader);
+		this.deferred.keySet().removeIf(predicate);
+		this.dependencies.keySet().removeIf(predicate);
+		return this.cache.invalidate(loader);
+	}
+
 	/**
 	attempts to create a handler from our list of {@link #factories}.
 	the exact way in which this works depends on {@link #doCreate(FactoryContext)},
@@ -184,46 +293,318 @@ extends NamedFactory<T_Handler> {
 	*/
 	@Override
 	@OverrideOnly
+	@SuppressWarnings("unchecked")
 	public <T_HandledType> @Nullable T_Handler tryCreate(@NotNull FactoryContext<T_HandledType> context) throws FactoryException {
-		ReifiedType<?> type = context.type;
+		ReifiedType<?> type = context.type.canonicalize();
+		AutoCodec autoCodec = this.autoCodec;
+		autoCodec.noteRequest(this, type);
+		PendingHandlers pending = autoCodec.pendingHandlers.get();
 		T_Handler handler = this.cache.get(type);
 		if (handler != null) {
 			context.logger().logMessage("Found cached handler.");
+			pending.addExisting(handler);
+			return handler;
+		}
+		handler = pending.get(this, type);
+		if (handler != null) {
+			context.logger().logMessage("Found handler created earlier in this request.");
 			return handler;
 		}
-		LazyHandler<T_Handler> lazy = this.requestStack.get(type);
+		Map<ReifiedType<?>, LazyHandler<T_Handler>> requestStack = this.requestStack.get();
+		LazyHandler<T_Handler> lazy = requestStack.get(type);
 		if (lazy != null) {
 			context.logger().logMessage("Recursive request. Using lazy handler.");
 			return lazy.getThisHandler();
 		}
+		if (autoCodec.parent != null) {
+			handler = this.getSharedHandler(type);
+			if (handler != null) {
+				context.logger().logMessage("Using handler shared by parent AutoCodec.");
+				handler = this.cache.putIfAbsent(type, handler);
+				pending.addExisting(handler);
+				return handler;
+			}
+		}
 		lazy = this.createLazyHandler();
-		this.requestStack.put(type, lazy);
+		requestStack.put(type, lazy);
+		pending.lazies.add(lazy);
+		HandlerDependencies dependencies = autoCodec.frozen ? new HandlerDependencies() : null;
+		if (dependencies != null) autoCodec.dependencyFrames.get().push(dependencies);
+		int mark = pending.entries.size();
+		pending.depth++;
 		try {
 			context.logger().logMessage("No cached or lazy handler found. Creating a new handler...");
 			handler = this.doCreate(context);
 			if (handler != null) {
 				lazy.setDelegateHandler(handler);
-				this.cache.put(type, handler);
+				pending.add(this, type, handler, dependencies);
 			}
-			return handler;
 		}
 		finally {
-			this.requestStack.remove(type);
+			requestStack.remove(type);
+			if (dependencies != null) autoCodec.dependencyFrames.get().pop();
+			pending.depth--;
+			//anything created since this request started may reference our lazy handler,
+			//which will never be resolved now.
+			if (handler == null) {
+				if (pending.depth == 0) pending.clear();
+				else pending.truncate(mark);
+			}
+		}
+		if (handler != null && pending.depth == 0) {
+			//every lazy handler handed out during this request has been resolved now,
+			//so the handlers we created are safe for other threads to use.
+			handler = (T_Handler)(pending.publish());
+		}
+		return handler;
+	}
+
+	/**
+	caches a handler which was created by a request to this FactoryList,
+	once the outermost request which it was created during has finished.
+	see {@link PendingHandlers}. returns the handler which is cached
+	for the provided type after this method returns.
+	*/
+	@SuppressWarnings("unchecked")
+	public @NotNull T_Handler publish(@NotNull ReifiedType<?> canonicalType, @NotNull AutoHandler handler, @Nullable HandlerDependencies dependencies) {
+		//another thread may have cached a handler for
+		//the same type while we were creating ours.
+		T_Handler published = this.cache.putIfAbsent(canonicalType, (T_Handler)(handler));
+		if (dependencies != null) this.setDependencies(canonicalType, dependencies);
+		return published;
+	}
+
+	/**
+	same as {@link #tryCreate(FactoryContext)}, but throws a {@link FactoryException} instead of returning null.
+	if {@link #deferChildren} is true and this is not the outermost request to this FactoryList,
+	returns a {@link DeferredHandler} instead, which will create the handler on first use.
+	requests which can be satisfied immediately (because the handler is
+	cached, or the request is recursive) are never deferred.
+	*/
+	@Override
+	@OverrideOnly
+	public <T_HandledType> @NotNull T_Handler forceCreate(@NotNull FactoryContext<T_HandledType> context) throws FactoryException {
+		if (this.deferChildren) {
+			Map<ReifiedType<?>, LazyHandler<T_Handler>> requestStack = this.requestStack.get();
+			if (!requestStack.isEmpty()) {
+				ReifiedType<?> type = context.type.canonicalize();
+				PendingHandlers pending = this.autoCodec.pendingHandlers.get();
+				if (this.cache.get(type) == null && !requestStack.containsKey(type) && pending.get(this, type) == null) {
+					DeferredHandler<T_Handler> deferred = this.deferred.get(type);
+					if (deferred == null && (deferred = this.createDeferredHandler(context)) != null) {
+						DeferredHandler<T_Handler> existing = this.deferred.putIfAbsent(type, deferred);
+						if (existing != null) deferred = existing;
+					}
+					if (deferred != null) {
+						this.autoCodec.noteRequest(this, type);
+						context.logger().logMessage("Deferring creation until first use.");
+						pending.addExisting((AutoHandler)(deferred));
+						return deferred.getThisHandler();
+					}
+				}
+			}
+		}
+		T_Handler handler = this.tryCreate(context);
+		if (handler != null) return handler;
+		else throw new FactoryException(this + " cannot create handler for " + context);
+	}
+
+	/**
+	creates a {@link DeferredHandler} for the context's type,
+	or returns null if this FactoryList does not support deferring handlers,
+	in which case they will always be created immediately.
+	the default implementation returns null.
+	*/
+	@OverrideOnly
+	public @Nullable DeferredHandler<T_Handler> createDeferredHandler(@NotNull FactoryContext<?> context) {
+		return null;
+	}
+
+	/**
+	resolves every {@link DeferredHandler} which this FactoryList
+	has handed out so far, including ones which are handed out
+	while resolving others, so that creation errors are reported now
+	instead of on first use. if any of them fail to resolve,
+	the rest are still resolved, and then a FactoryException is thrown
+	which has all the failures attached as suppressed exceptions.
+	*/
+	public void validateAll() throws FactoryException {
+		FactoryException failure = null;
+		while (!this.deferred.isEmpty()) {
+			//resolving a handler removes it from our set, whether it succeeds or not.
+			for (DeferredHandler<?> handler : new ArrayList<>(this.deferred.values())) {
+				try {
+					handler.resolve();
+				}
+				catch (FactoryException exception) {
+					if (failure == null) failure = new FactoryException(this + " could not create some deferred handlers.");
+					failure.addSuppressed(exception);
+				}
+			}
+		}
+		if (failure != null) throw failure;
+	}
+
+	//////////////////////////////// sharing ////////////////////////////////
+
+	/**
+	the {@link HandlerDependencies} of every handler which this FactoryList created
+	after our {@link #autoCodec} was {@link AutoCodec#freeze() frozen},
+	keyed by the {@link ReifiedType#canonicalize()}'d type of the handler.
+	entries are removed by {@link #invalidate(Predicate)}
+	along with the handlers they describe.
+	*/
+	public final @NotNull Map<@NotNull ReifiedType<?>, @NotNull HandlerDependencies> dependencies = new ConcurrentHashMap<>(16);
+
+	/**
+	returns the {@link HandlerDependencies} of the handler which this FactoryList
+	created for the provided {@link ReifiedType#canonicalize()}'d type,
+	or null if this FactoryList has not created a handler for that type,
+	or it did so before our {@link #autoCodec} was {@link AutoCodec#freeze() frozen}.
+	*/
+	public @Nullable HandlerDependencies getDependencies(@NotNull ReifiedType<?> canonicalType) {
+		return this.dependencies.get(canonicalType);
+	}
+
+	public void setDependencies(@NotNull ReifiedType<?> canonicalType, @NotNull HandlerDependencies dependencies) {
+		this.dependencies.put(canonicalType, dependencies);
+	}
+
+	/**
+	returns the factory list at the same position as this one in our
+	{@link AutoCodec#parent}, or null if our AutoCodec has no parent.
+	*/
+	public @Nullable FactoryList<?, ?> getParentList() {
+		AutoCodec parent = this.autoCodec.parent;
+		return parent != null ? parent.getFactoryLists()[this.autoCodec.getFactoryListIndex(this)] : null;
+	}
+
+	/**
+	returns our parent list's handler for the provided {@link ReifiedType#canonicalize()}'d type,
+	if we would create the exact same handler ourselves.
+	otherwise, returns null. see {@link AutoCodec#AutoCodec(AutoCodec)}.
+	*/
+	@SuppressWarnings("unchecked")
+	public @Nullable T_Handler getSharedHandler(@NotNull ReifiedType<?> canonicalType) {
+		FactoryList<?, ?> parentList = this.getParentList();
+		if (parentList == null) return null;
+		T_Handler handler = (T_Handler)(parentList.cache.get(canonicalType));
+		if (handler == null) return null;
+		int index = this.autoCodec.getFactoryListIndex(this);
+		if (!HandlerDependencies.isShareable(this.autoCodec, index, canonicalType, new HashSet<>(16))) return null;
+		if (this.autoCodec.frozen) {
+			//so that AutoCodecs derived from our AutoCodec can share it too.
+			HandlerDependencies dependencies = parentList.getDependencies(canonicalType);
+			if (dependencies != null) this.setDependencies(canonicalType, dependencies);
+		}
+		return handler;
+	}
+
+	/**
+	returns true if this FactoryList and other would try equivalent factories
+	(see {@link AutoFactory#isEquivalentTo(AutoFactory)}) in the same order for type.
+	*/
+	public boolean hasSameCandidates(@NotNull FactoryList<?, ?> other, @NotNull ReifiedType<?> type) {
+		FactoryIndex<T_Factory> index = this.getIndex();
+		FactoryIndex<?> otherIndex = other.getIndex();
+		List<T_Factory> factories = index.factories;
+		List<?> otherFactories = otherIndex.factories;
+		if (factories.size() == otherFactories.size()) {
+			boolean same = true;
+			for (int factory = 0, size = factories.size(); factory < size; factory++) {
+				if (!factories.get(factory).isEquivalentTo((AutoFactory<?>)(otherFactories.get(factory)))) {
+					same = false;
+					break;
+				}
+			}
+			if (same) return true;
+		}
+		BitSet candidates = index.getCandidates(type), otherCandidates = otherIndex.getCandidates(type);
+		int factory = candidates.nextSetBit(0), otherFactory = otherCandidates.nextSetBit(0);
+		while (factory >= 0 && otherFactory >= 0) {
+			if (!factories.get(factory).isEquivalentTo((AutoFactory<?>)(otherFactories.get(otherFactory)))) return false;
+			factory = candidates.nextSetBit(factory + 1);
+			otherFactory = otherCandidates.nextSetBit(otherFactory + 1);
+		}
+		return factory < 0 && otherFactory < 0;
+	}
+
+	/**
+	called for every handler which this FactoryList created during the outermost request
+	on the current thread (see {@link PendingHandlers}), after that request has finished,
+	but before any of those handlers are cached. at this point, all the lazy handlers
+	which were handed out during that request have been resolved.
+	the default implementation uses {@link LazyLinker} to make the handlers
+	created during that request which delegate to those lazy handlers
+	delegate directly to the resolved handlers instead,
+	which removes a layer of indirection from recursive types.
+	handlers which were created before the request are never modified,
+	since other threads may already be using them.
+	subclasses can override this method to do nothing
+	if they would prefer to keep the lazy handlers around.
+	*/
+	@OverrideOnly
+	public void link(@NotNull T_Handler handler) {
+		PendingHandlers pending = this.autoCodec.pendingHandlers.get();
+		LazyLinker.linkReferencing(handler, pending.lazies, pending.linked);
+	}
+
+	@SuppressWarnings("unchecked")
+	public void linkUnchecked(@NotNull AutoHandler handler) {
+		this.link((T_Handler)(handler));
+	}
+
+	/**
+	returns a {@link FactoryIndex} for our current {@link #factories}.
+	the index is rebuilt whenever the factories list has changed.
+	*/
+	public @NotNull FactoryIndex<T_Factory> getIndex() {
+		FactoryIndex<T_Factory> index = this.index;
+		if (index == null || !index.isUpToDate(this.factories)) {
+			//racy, but FactoryIndex only has final fields.
+			this.index = index = new FactoryIndex<>(this.factories);
 		}
+		return index;
 	}
 
+	/**
+	tries every factory which could possibly handle the context's type, in order,
+	as decided by {@link #getIndex()}, and returns the first non-null handler.
+	if our {@link AutoCodec#decisionCache} knows which factory
+	created the handler for this type last time, that factory is tried first.
+	*/
 	public @Nullable T_Handler doCreate(@NotNull FactoryContext<?> context) throws FactoryException {
-		for (T_Factory factory : this.factories) {
-			T_Handler handler = context.logger().tryCreateHandler(factory, context);
-			if (handler != null) return handler;
+		FactoryIndex<T_Factory> index = this.getIndex();
+		FactoryDecisionCache decisions = this.autoCodec.decisionCache;
+		if (decisions != null) {
+			T_Factory factory = decisions.getFactory(this, index, context.type);
+			if (factory != null) {
+				context.logger().logMessage("Using cached decision.");
+				T_Handler handler = context.logger().tryCreateHandler(factory, context);
+				if (handler != null) return handler;
+				context.logger().logMessage("Cached decision returned null. Trying all factories...");
+			}
+		}
+		BitSet candidates = index.getCandidates(context.type);
+		for (int factory = candidates.nextSetBit(0); factory >= 0; factory = candidates.nextSetBit(factory + 1)) {
+			T_Handler handler = context.logger().tryCreateHandler(index.factories.get(factory), context);
+			if (handler != null) {
+				if (decisions != null) decisions.record(this, index, context.type, factory);
+				return handler;
+			}
 		}
 		return null;
 	}
 
+	/**
+	same as {@link #doCreate(FactoryContext)}, but only
+	tries the factories which come after the caller.
+	*/
 	public @Nullable T_Handler tryCreateFallback(@NotNull FactoryContext<?> context, @NotNull T_Factory caller) throws FactoryException {
-		List<T_Factory> factories = this.factories;
-		for (int index = this.indexOf(caller), length = factories.size(); ++index < length;) {
-			T_Handler handler = context.logger().tryCreateHandler(factories.get(index), context);
+		FactoryIndex<T_Factory> index = this.getIndex();
+		BitSet candidates = index.getCandidates(context.type);
+		for (int factory = candidates.nextSetBit(index.indexOf(caller) + 1); factory >= 0; factory = candidates.nextSetBit(factory + 1)) {
+			T_Handler handler = context.logger().tryCreateHandler(index.factories.get(factory), context);
 			if (handler != null) return handler;
 		}
 		return null;
@@ -0,0 +1,508 @@
+package builderb0y.autocodec.common;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.*;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenCustomHashMap;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import builderb0y.autocodec.AutoCodec;
+import builderb0y.autocodec.reflection.reification.ReifiedType;
+import builderb0y.autocodec.reflection.reification.TypeClassification;
+
+/**
+the storage used by {@link FactoryList#cache}.
+the cache is never required for correctness:
+if a handler is evicted, the next request for its type will simply create a new one.
+handlers which were created while the evicted handler was still cached
+keep their direct reference to it, and any {@link LazyHandler}'s
+which were handed out for it remain resolved,
+so evicting a handler from the middle of a recursive
+structure will not break that structure.
+
+all keys are {@link ReifiedType#canonicalize()}'d by the caller,
+so implementations which compare keys with
+{@link ReifiedType#ORDERED_ANNOTATIONS_STRATEGY}
+(or {@link ReifiedType#equals(Object)}) are effectively identity-based.
+
+the policy used by an {@link AutoCodec} can be configured by
+overriding {@link AutoCodec#createHandlerCache(FactoryList)}.
+
+implementations must be thread-safe, because handlers
+may be requested from multiple threads at once.
+see {@link AutoCodec#warmUp(Collection)}.
+*/
+public interface HandlerCache<T_Handler extends AutoHandler> {
+
+	public abstract @Nullable T_Handler get(@NotNull ReifiedType<?> type);
+
+	public abstract void put(@NotNull ReifiedType<?> type, @NotNull T_Handler handler);
+
+	/**
+	if no handler is cached for the provided type, caches the provided handler.
+	returns the handler which is cached for the type after this method returns.
+	this is used when two threads create a handler for the same type at the same time,
+	so that both threads end up using the same handler.
+	the default implementation synchronizes on this cache,
+	which is sufficient for implementations whose
+	other methods also synchronize on this cache.
+	*/
+	public default @NotNull T_Handler putIfAbsent(@NotNull ReifiedType<?> type, @NotNull T_Handler handler) {
+		synchronized (this) {
+			T_Handler existing = this.get(type);
+			if (existing != null) return existing;
+			this.put(type, handler);
+			return handler;
+		}
+	}
+
+	/**
+	removes every handler whose type matches the provided predicate.
+	returns the number of handlers which were removed.
+	*/
+	public abstract int invalidate(@NotNull Predicate<? super ReifiedType<?>> predicate);
+
+	/**
+	removes every handler whose type references a class which was
+	loaded by the provided loader, or by one of its descendants.
+	this should be called before the loader is discarded,
+	otherwise the cached handlers will keep it from being unloaded.
+	returns the number of handlers which were removed.
+	*/
+	public default int invalidate(@NotNull ClassLoader loader) {
+		return this.invalidate((ReifiedType<?> type) -> references(type, loader));
+	}
+
+	public abstract int size();
+
+	/**
+	calls action on every class which type references,
+	including its raw class, its parameters, its owner,
+	its component type, and its bounds, recursively.
+	the annotations on all of these types are included too,
+	see {@link #forEachClass(Annotation, Consumer)}.
+	for unresolvable type variables, the class which declares
+	the variable is used instead of the variable's bound,
+	because the bound may reference the variable itself.
+	classes may be reported more than once.
+	*/
+	public static void forEachClass(@Nullable ReifiedType<?> type, @NotNull Consumer<? super Class<?>> action) {
+		if (type == null) return;
+		for (Annotation annotation : type.getAnnotations().getAll()) {
+			forEachClass(annotation, action);
+		}
+		if (type.getClassification() == TypeClassification.UNRESOLVABLE_VARIABLE) {
+			TypeVariable<?> variable = type.unresolvableVariable;
+			if (variable != null) {
+				GenericDeclaration declaration = variable.getGenericDeclaration();
+				if (declaration instanceof Class<?> clazz) action.accept(clazz);
+				else if (declaration instanceof Executable executable) action.accept(executable.getDeclaringClass());
+			}
+			return;
+		}
+		Class<?> rawClass = type.getRawClass();
+		if (rawClass != null) action.accept(rawClass);
+		ReifiedType<?>[] parameters = type.parameters;
+		if (parameters != null) {
+			for (ReifiedType<?> parameter : parameters) {
+				forEachClass(parameter, action);
+			}
+		}
+		forEachClass(type.sharedType, action);
+	}
+
+	/**
+	calls action on the type of annotation, and on every class which its members reference.
+	this includes Class-valued members (for example, {@code @UseCoder(in = PluginCoders.class)}),
+	enum-valued members, and nested annotations, recursively.
+	members which can't be accessed are skipped.
+	*/
+	public static void forEachClass(@NotNull Annotation annotation, @NotNull Consumer<? super Class<?>> action) {
+		Class<? extends Annotation> annotationType = annotation.annotationType();
+		action.accept(annotationType);
+		for (Method member : ANNOTATION_MEMBERS.get(annotationType)) {
+			Object value;
+			try {
+				value = member.invoke(annotation);
+			}
+			catch (ReflectiveOperationException | RuntimeException ignored) {
+				continue;
+			}
+			forEachClassInMember(value, action);
+		}
+	}
+
+	public static void forEachClassInMember(@NotNull Object value, @NotNull Consumer<? super Class<?>> action) {
+		if (value instanceof Class<?> clazz) {
+			action.accept(clazz);
+		}
+		else if (value instanceof Enum<?> constant) {
+			action.accept(constant.getDeclaringClass());
+		}
+		else if (value instanceof Annotation nested) {
+			forEachClass(nested, action);
+		}
+		else if (value instanceof Object[] array) {
+			for (Object element : array) {
+				forEachClassInMember(element, action);
+			}
+		}
+		//primitives, primitive arrays, and strings can't reference any classes.
+	}
+
+	/**
+	the members of every annotation type which {@link #forEachClass(Annotation, Consumer)}
+	needs to inspect, made accessible if possible.
+	members which return primitives or strings are excluded, since they can't reference any classes.
+	*/
+	public static final @NotNull ClassValue<@NotNull Method @NotNull []> ANNOTATION_MEMBERS = new ClassValue<>() {
+
+		@Override
+		public Method[] computeValue(Class<?> type) {
+			List<Method> members = new ArrayList<>(4);
+			for (Method method : type.getDeclaredMethods()) {
+				if (method.getParameterCount() != 0 || Modifier.isStatic(method.getModifiers())) continue;
+				Class<?> returnType = method.getReturnType();
+				while (returnType.isArray()) returnType = returnType.getComponentType();
+				if (returnType.isPrimitive() || returnType == String.class) continue;
+				method.trySetAccessible();
+				members.add(method);
+			}
+			return members.toArray(new Method[members.size()]);
+		}
+	};
+
+	/**
+	returns true if type references any class which was
+	loaded by the provided loader, or one of its descendants.
+	*/
+	public static boolean references(@NotNull ReifiedType<?> type, @NotNull ClassLoader loader) {
+		boolean[] found = new boolean[1];
+		forEachClass(type, (Class<?> clazz) -> {
+			if (!found[0] && isAncestor(loader, clazz.getClassLoader())) found[0] = true;
+		});
+		return found[0];
+	}
+
+	/**
+	returns true if ancestor is descendant, or one of its parents.
+	the bootstrap loader is represented by null, and is an ancestor of every loader.
+	*/
+	public static boolean isAncestor(@Nullable ClassLoader ancestor, @Nullable ClassLoader descendant) {
+		if (ancestor == null) return true;
+		for (ClassLoader loader = descendant; loader != null; loader = loader.getParent()) {
+			if (loader == ancestor) return true;
+		}
+		return false;
+	}
+
+	/**
+	returns the class referenced by type which was loaded by the "most specific" loader.
+	in other words, the class whose loader has all the other classes' loaders as ancestors.
+	if there is no such class, because the referenced classes come
+	from unrelated loaders, the first class found which is not
+	loaded by an ancestor of another class's loader is returned.
+	if type does not reference any classes, Object.class is returned.
+	*/
+	public static @NotNull Class<?> mostSpecificClass(@NotNull ReifiedType<?> type) {
+		Class<?>[] best = { Object.class };
+		forEachClass(type, (Class<?> clazz) -> {
+			ClassLoader bestLoader = best[0].getClassLoader();
+			ClassLoader loader = clazz.getClassLoader();
+			if (loader != bestLoader && isAncestor(bestLoader, loader)) best[0] = clazz;
+		});
+		return best[0];
+	}
+
+	/** today's default: handlers are cached forever, or until they are {@link #invalidate(Predicate)}'d. */
+	public static class Unbounded<T_Handler extends AutoHandler> implements HandlerCache<T_Handler> {
+
+		public final @NotNull Map<@NotNull ReifiedType<?>, @NotNull T_Handler> map;
+
+		public Unbounded(int initialCapacity) {
+			this.map = new Object2ObjectOpenCustomHashMap<>(initialCapacity, ReifiedType.ORDERED_ANNOTATIONS_STRATEGY);
+		}
+
+		public Unbounded() {
+			this(256);
+		}
+
+		@Override
+		public synchronized @Nullable T_Handler get(@NotNull ReifiedType<?> type) {
+			return this.map.get(type);
+		}
+
+		@Override
+		public synchronized void put(@NotNull ReifiedType<?> type, @NotNull T_Handler handler) {
+			this.map.put(type, handler);
+		}
+
+		@Override
+		public synchronized int invalidate(@NotNull Predicate<? super ReifiedType<?>> predicate) {
+			int oldSize = this.map.size();
+			this.map.keySet().removeIf(predicate);
+			return oldSize - this.map.size();
+		}
+
+		@Override
+		public synchronized int size() {
+			return this.map.size();
+		}
+
+		@Override
+		public String toString() {
+			return "HandlerCache.Unbounded: { size: " + this.map.size() + " }";
+		}
+	}
+
+	/**
+	holds at most {@link #maxSize} handlers.
+	when a new handler is added and the cache is full,
+	the handler which was least recently returned
+	by {@link #get(ReifiedType)} is evicted.
+	*/
+	public static class LeastRecentlyUsed<T_Handler extends AutoHandler> implements HandlerCache<T_Handler> {
+
+		public final int maxSize;
+		public final @NotNull LinkedHashMap<@NotNull ReifiedType<?>, @NotNull T_Handler> map;
+
+		public LeastRecentlyUsed(int maxSize) {
+			if (maxSize <= 0) throw new IllegalArgumentException("maxSize must be positive: " + maxSize);
+			this.maxSize = maxSize;
+			//ReifiedType.equals() and hashCode() use ORDERED_ANNOTATIONS_STRATEGY.
+			this.map = new LinkedHashMap<>(Math.min(maxSize, 256), 0.75F, true) {
+
+				@Override
+				public boolean removeEldestEntry(Map.Entry<ReifiedType<?>, T_Handler> eldest) {
+					return this.size() > LeastRecentlyUsed.this.maxSize;
+				}
+			};
+		}
+
+		@Override
+		public synchronized @Nullable T_Handler get(@NotNull ReifiedType<?> type) {
+			return this.map.get(type);
+		}
+
+		@Override
+		public synchronized void put(@NotNull ReifiedType<?> type, @NotNull T_Handler handler) {
+			this.map.put(type, handler);
+		}
+
+		@Override
+		public synchronized int invalidate(@NotNull Predicate<? super ReifiedType<?>> predicate) {
+			int oldSize = this.map.size();
+			this.map.keySet().removeIf(predicate);
+			return oldSize - this.map.size();
+		}
+
+		@Override
+		public synchronized int size() {
+			return this.map.size();
+		}
+
+		@Override
+		public String toString() {
+			return "HandlerCache.LeastRecentlyUsed: { size: " + this.map.size() + ", maxSize: " + this.maxSize + " }";
+		}
+	}
+
+	/**
+	holds at most {@link #maxSize} handlers.
+	when a new handler is added and the cache is full,
+	the handler which has been returned by {@link #get(ReifiedType)}
+	the fewest number of times is evicted.
+	ties are broken arbitrarily.
+
+	eviction scans the whole cache, but it only happens when
+	a new handler is created, which is far more expensive anyway.
+	to prevent handlers which were popular a long time ago from
+	staying in the cache forever, all hit counts are halved on every eviction.
+	*/
+	public static class LeastFrequentlyUsed<T_Handler extends AutoHandler> implements HandlerCache<T_Handler> {
+
+		public final int maxSize;
+		public final @NotNull Map<@NotNull ReifiedType<?>, @NotNull Entry<T_Handler>> map;
+
+		public LeastFrequentlyUsed(int maxSize) {
+			if (maxSize <= 0) throw new IllegalArgumentException("maxSize must be positive: " + maxSize);
+			this.maxSize = maxSize;
+			this.map = new Object2ObjectOpenCustomHashMap<>(Math.min(maxSize, 256), ReifiedType.ORDERED_ANNOTATIONS_STRATEGY);
+		}
+
+		@Override
+		public synchronized @Nullable T_Handler get(@NotNull ReifiedType<?> type) {
+			Entry<T_Handler> entry = this.map.get(type);
+			if (entry == null) return null;
+			entry.hits++;
+			return entry.handler;
+		}
+
+		@Override
+		public synchronized void put(@NotNull ReifiedType<?> type, @NotNull T_Handler handler) {
+			if (this.map.size() >= this.maxSize && !this.map.containsKey(type)) {
+				this.evict();
+			}
+			this.map.put(type, new Entry<>(handler));
+		}
+
+		public synchronized void evict() {
+			ReifiedType<?> leastType = null;
+			long leastHits = Long.MAX_VALUE;
+			for (Map.Entry<ReifiedType<?>, Entry<T_Handler>> entry : this.map.entrySet()) {
+				Entry<T_Handler> value = entry.getValue();
+				if (value.hits < leastHits) {
+					leastHits = value.hits;
+					leastType = entry.getKey();
+				}
+				value.hits >>>= 1;
+			}
+			if (leastType != null) this.map.remove(leastType);
+		}
+
+		@Override
+		public synchronized int invalidate(@NotNull Predicate<? super ReifiedType<?>> predicate) {
+			int oldSize = this.map.size();
+			this.map.keySet().removeIf(predicate);
+			return oldSize - this.map.size();
+		}
+
+		@Override
+		public synchronized int size() {
+			return this.map.size();
+		}
+
+		@Override
+		public String toString() {
+			return "HandlerCache.LeastFrequentlyUsed: { size: " + this.map.size() + ", maxSize: " + this.maxSize + " }";
+		}
+
+		public static class Entry<T_Handler extends AutoHandler> {
+
+			public final @NotNull T_Handler handler;
+			public long hits;
+
+			public Entry(@NotNull T_Handler handler) {
+				this.handler = handler;
+			}
+		}
+	}
+
+	/**
+	stores every handler alongside the {@link #mostSpecificClass(ReifiedType)} of its type,
+	using a {@link ClassValue}. this means that once that class's loader is unloaded,
+	all the handlers for types which reference it are released too,
+	without needing to call {@link #invalidate(ClassLoader)} first.
+	if the loader is never unloaded, handlers are cached forever, like {@link Unbounded}.
+
+	this policy does not help with types whose classes come from
+	unrelated loaders, since only one of those loaders can own the handler.
+	*/
+	public static class ClassScoped<T_Handler extends AutoHandler> implements HandlerCache<T_Handler> {
+
+		/**
+		the key which {@link #ownerOf(ReifiedType)} uses
+		to {@link ReifiedType#getAttachment(Object, java.util.function.Function)}
+		the owner of canonical types.
+		*/
+		public static final @NotNull Object OWNER_ATTACHMENT = new Object();
+
+		/** every bucket must only be accessed while synchronized on that bucket. */
+		public final @NotNull ClassValue<@NotNull Map<@NotNull ReifiedType<?>, @NotNull T_Handler>> buckets = new ClassValue<>() {
+
+			@Override
+			public Map<ReifiedType<?>, T_Handler> computeValue(Class<?> type) {
+				synchronized (ClassScoped.this.owners) {
+					ClassScoped.this.owners.put(type, Boolean.TRUE);
+				}
+				return new Object2ObjectOpenCustomHashMap<>(4, ReifiedType.ORDERED_ANNOTATIONS_STRATEGY);
+			}
+		};
+		/**
+		every class which has a bucket, so that {@link #invalidate(Predicate)} can find them.
+		classes are only referenced weakly, so this map does not prevent unloading.
+		*/
+		public final @NotNull WeakHashMap<@NotNull Class<?>, @NotNull Boolean> owners = new WeakHashMap<>(64);
+
+		@Override
+		public @Nullable T_Handler get(@NotNull ReifiedType<?> type) {
+			Map<ReifiedType<?>, T_Handler> bucket = this.buckets.get(ownerOf(type));
+			synchronized (bucket) {
+				return bucket.get(type);
+			}
+		}
+
+		@Override
+		public void put(@NotNull ReifiedType<?> type, @NotNull T_Handler handler) {
+			Map<ReifiedType<?>, T_Handler> bucket = this.buckets.get(ownerOf(type));
+			synchronized (bucket) {
+				bucket.put(type, handler);
+			}
+		}
+
+		@Override
+		public @NotNull T_Handler putIfAbsent(@NotNull ReifiedType<?> type, @NotNull T_Handler handler) {
+			Map<ReifiedType<?>, T_Handler> bucket = this.buckets.get(ownerOf(type));
+			synchronized (bucket) {
+				T_Handler existing = bucket.putIfAbsent(type, handler);
+				return existing != null ? existing : handler;
+			}
+		}
+
+		/**
+		returns the {@link #mostSpecificClass(ReifiedType)} of type.
+		the result is cached on canonical types, since walking
+		every class they reference on every lookup is expensive.
+		the type already references the class, so this does not prevent unloading.
+		*/
+		public static @NotNull Class<?> ownerOf(@NotNull ReifiedType<?> type) {
+			if (!type.isCanonical()) return mostSpecificClass(type);
+			return type.getAttachment(OWNER_ATTACHMENT, (Object key) -> mostSpecificClass(type));
+		}
+
+		public @NotNull List<@NotNull Map<@NotNull ReifiedType<?>, @NotNull T_Handler>> getBuckets() {
+			List<Class<?>> owners;
+			synchronized (this.owners) {
+				owners = new ArrayList<>(this.owners.keySet());
+			}
+			List<Map<ReifiedType<?>, T_Handler>> buckets = new ArrayList<>(owners.size());
+			for (Class<?> owner : owners) {
+				buckets.add(this.buckets.get(owner));
+			}
+			return buckets;
+		}
+
+		@Override
+		public int invalidate(@NotNull Predicate<? super ReifiedType<?>> predicate) {
+			int removed = 0;
+			for (Map<ReifiedType<?>, T_Handler> bucket : this.getBuckets()) {
+				synchronized (bucket) {
+					int oldSize = bucket.size();
+					bucket.keySet().removeIf(predicate);
+					removed += oldSize - bucket.size();
+				}
+			}
+			return removed;
+		}
+
+		@Override
+		public int size() {
+			int size = 0;
+			for (Map<ReifiedType<?>, T_Handler> bucket : this.getBuckets()) {
+				synchronized (bucket) {
+					size += bucket.size();
+				}
+			}
+			return size;
+		}
+
+		@Override
+		public String toString() {
+			return "HandlerCache.ClassScoped: { size: " + this.size() + " }";
+		}
+	}
+}
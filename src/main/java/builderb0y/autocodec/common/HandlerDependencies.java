@@ -0,0 +1,70 @@
+package builderb0y.autocodec.common;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.jetbrains.annotations.NotNull;
+
+import builderb0y.autocodec.AutoCodec;
+import builderb0y.autocodec.reflection.reification.ReifiedType;
+
+/**
+everything that a handler created by a {@link AutoCodec#freeze() frozen} AutoCodec depended on.
+this is used by {@link AutoCodec#AutoCodec(AutoCodec) derived} AutoCodecs to decide
+whether or not they would create the exact same handler as their parent,
+in which case they can use their parent's handler instead of creating their own.
+
+a handler depends on:
+	* the factories which could handle its type (see {@link FactoryIndex#getCandidates(ReifiedType)}).
+	* every request it made to any of its AutoCodec's factory lists while it was being created,
+	and everything those requests depended on.
+	* what the AutoCodec's {@link AutoCodec#reflectionManager} exposes
+	for every class it reflected into while being created.
+
+this assumes that factories are deterministic, and that the factories
+in a frozen AutoCodec are no longer modified after it was frozen.
+*/
+public class HandlerDependencies {
+
+	/** the requests which the handler made to each of the factory lists in {@link AutoCodec#getFactoryLists()}. */
+	public final @NotNull List<@NotNull Request> requests = new ArrayList<>(4);
+	/** the classes which the handler reflected into while being created. */
+	public final @NotNull Set<@NotNull Class<?>> reflectedClasses = new HashSet<>(4);
+
+	/**
+	returns true if derived would create the same handler for the
+	provided type in the provided factory list as its parent did.
+	visited is used to handle recursive types, and should initially be empty.
+	*/
+	public static boolean isShareable(@NotNull AutoCodec derived, int list, @NotNull ReifiedType<?> type, @NotNull Set<@NotNull Request> visited) {
+		AutoCodec parent = derived.parent;
+		if (parent == null) return false;
+		//if we're already checking this request, assume it's shareable.
+		//if it isn't, the outermost check will fail anyway.
+		if (!visited.add(new Request(list, type))) return true;
+		FactoryList<?, ?> parentList = parent.getFactoryLists()[list];
+		HandlerDependencies dependencies = parentList.getDependencies(type);
+		if (dependencies == null || parentList.cache.get(type) == null) return false;
+		for (Class<?> clazz : dependencies.reflectedClasses) {
+			if (!derived.reflectionManager.isEquivalentTo(parent.reflectionManager, clazz)) return false;
+		}
+		if (!derived.getFactoryLists()[list].hasSameCandidates(parentList, type)) return false;
+		for (Request request : dependencies.requests) {
+			if (!isShareable(derived, request.list, request.type, visited)) return false;
+		}
+		return true;
+	}
+
+	@Override
+	public String toString() {
+		return this.getClass().getSimpleName() + ": { requests: " + this.requests + ", reflectedClasses: " + this.reflectedClasses + " }";
+	}
+
+	/**
+	a request for a handler for the provided {@link ReifiedType#canonicalize()}'d type,
+	made to the factory list at the provided index in {@link AutoCodec#getFactoryLists()}.
+	*/
+	public static record Request(int list, @NotNull ReifiedType<?> type) {}
+}
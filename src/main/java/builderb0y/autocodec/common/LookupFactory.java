@@ -1,7 +1,8 @@
 package builderb0y.autocodec.common;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.zip.CRC32;
 
 import it.unimi.dsi.fastutil.objects.Object2ObjectOpenCustomHashMap;
 import org.jetbrains.annotations.ApiStatus.OverrideOnly;
@@ -17,6 +18,11 @@ public abstract class LookupFactory<T_Handler extends AutoHandler> implements Au
 		genericLookup = new Object2ObjectOpenCustomHashMap<>(32, ReifiedType.GENERIC_TYPE_STRATEGY);
 	public final @NotNull Map<@NotNull Class<?>, @NotNull AutoHandler>
 		rawLookup = new HashMap<>(64);
+	/**
+	lazy-initialized, and reset whenever a handler is added or removed.
+	see {@link #getDecisionState()}.
+	*/
+	public @Nullable String decisionState;
 
 	public LookupFactory() {
 		this.setup();
@@ -28,19 +34,23 @@ public abstract class LookupFactory<T_Handler extends AutoHandler> implements Au
 	/** sub-classes will provide delegates to this method with stricter type checks. */
 	public void doAddGeneric(@NotNull ReifiedType<?> type, @NotNull AutoHandler handler) {
 		this.genericLookup.put(type, handler);
+		this.decisionState = null;
 	}
 
 	/** sub-classes will provide delegates to this method with stricter type checks. */
 	public void doAddRaw(@NotNull Class<?> type, @NotNull AutoHandler handler) {
 		this.rawLookup.put(type, handler);
+		this.decisionState = null;
 	}
 
 	public void removeGeneric(@NotNull ReifiedType<?> type) {
 		this.genericLookup.remove(type);
+		this.decisionState = null;
 	}
 
 	public void removeRaw(@NotNull Class<?> type) {
 		this.rawLookup.remove(type);
+		this.decisionState = null;
 	}
 
 	@Override
@@ -54,6 +64,42 @@ public abstract class LookupFactory<T_Handler extends AutoHandler> implements Au
 		return (T_Handler)(this.rawLookup.get(raw));
 	}
 
+	/**
+	two LookupFactories are equivalent if they are the same class,
+	and they map the same types to the same handlers.
+	*/
+	@Override
+	public boolean isEquivalentTo(@NotNull AutoHandler.AutoFactory<?> other) {
+		return this == other || (
+			other.getClass() == this.getClass() &&
+			this.genericLookup.equals(((LookupFactory<?>)(other)).genericLookup) &&
+			this.rawLookup.equals(((LookupFactory<?>)(other)).rawLookup)
+		);
+	}
+
+	/** describes every type we map, and the handler we map it to. */
+	@Override
+	public @NotNull String getDecisionState() {
+		String state = this.decisionState;
+		if (state == null) {
+			List<String> entries = new ArrayList<>(this.genericLookup.size() + this.rawLookup.size());
+			for (Map.Entry<ReifiedType<?>, AutoHandler> entry : this.genericLookup.entrySet()) {
+				entries.add(FactoryDecisionCache.formatType(entry.getKey()) + '=' + entry.getValue());
+			}
+			for (Map.Entry<Class<?>, AutoHandler> entry : this.rawLookup.entrySet()) {
+				entries.add(entry.getKey().getName() + '=' + entry.getValue());
+			}
+			Collections.sort(entries);
+			CRC32 crc = new CRC32();
+			for (String entry : entries) {
+				crc.update(entry.getBytes(StandardCharsets.UTF_8));
+				crc.update(0);
+			}
+			this.decisionState = state = entries.size() + ":" + Long.toHexString(crc.getValue());
+		}
+		return state;
+	}
+
 	@Override
 	public String toString() {
 		return TypeFormatter.getSimpleClassName(this.getClass());
@@ -0,0 +1,112 @@
+package builderb0y.autocodec.common;
+
+import java.util.*;
+
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenCustomHashMap;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import builderb0y.autocodec.AutoCodec;
+import builderb0y.autocodec.graph.LazyLinker;
+import builderb0y.autocodec.reflection.reification.ReifiedType;
+
+/**
+handlers which were created on the current thread while the outermost
+request to any of an {@link AutoCodec}'s factory lists is still in progress,
+and which have not been put in their list's {@link FactoryList#cache} yet.
+
+handlers created by nested requests may reference {@link LazyHandler}'s
+which are not resolved yet, because the request which handed them out has not finished.
+if these handlers were cached immediately, another thread could find them
+in the cache and use them before that happens, and get an
+{@link IllegalStateException} from {@link LazyHandler#getDelegateHandler()}.
+so instead, they are stored here until the outermost request finishes,
+at which point every lazy handler which was handed out has been resolved,
+and then they are all cached together by {@link #publish()}.
+in the meantime, nested requests on the same thread will find them here.
+
+if a request fails, everything which was created since it started is discarded,
+since those handlers may reference the failed request's lazy handler,
+which will never be resolved.
+
+see {@link AutoCodec#pendingHandlers}.
+*/
+public class PendingHandlers {
+
+	/** the number of requests which are currently in progress on this thread. */
+	public int depth;
+	/** in the order their requests finished, so the outermost request is always last. */
+	public final @NotNull List<@NotNull Entry> entries = new ArrayList<>(16);
+	public final @NotNull Map<@NotNull FactoryList<?, ?>, @NotNull Map<@NotNull ReifiedType<?>, @NotNull AutoHandler>> handlers = new IdentityHashMap<>(8);
+	/** every {@link LazyHandler} which was handed out during the outermost request. */
+	public final @NotNull Set<@NotNull Object> lazies = Collections.newSetFromMap(new IdentityHashMap<>(16));
+	/**
+	handlers which {@link LazyLinker#linkReferencing(AutoHandler, Set, Set)} does not need to walk into.
+	initially, this contains every handler which was handed out during the outermost request
+	but not created by it, like cached handlers. these handlers can't reference any of our {@link #lazies}.
+	*/
+	public final @NotNull Set<@NotNull AutoHandler> linked = Collections.newSetFromMap(new IdentityHashMap<>(16));
+
+	@SuppressWarnings("unchecked")
+	public <T_Handler extends AutoHandler> @Nullable T_Handler get(@NotNull FactoryList<T_Handler, ?> list, @NotNull ReifiedType<?> canonicalType) {
+		Map<ReifiedType<?>, AutoHandler> handlers = this.handlers.get(list);
+		return handlers != null ? (T_Handler)(handlers.get(canonicalType)) : null;
+	}
+
+	public void add(@NotNull FactoryList<?, ?> list, @NotNull ReifiedType<?> canonicalType, @NotNull AutoHandler handler, @Nullable HandlerDependencies dependencies) {
+		this.entries.add(new Entry(list, canonicalType, handler, dependencies));
+		this.handlers.computeIfAbsent(list, (FactoryList<?, ?> key) -> new Object2ObjectOpenCustomHashMap<>(16, ReifiedType.ORDERED_ANNOTATIONS_STRATEGY)).put(canonicalType, handler);
+	}
+
+	/** discards every entry which was added after {@link #entries} had the provided size. */
+	public void truncate(int size) {
+		List<Entry> entries = this.entries;
+		for (int index = entries.size(); --index >= size;) {
+			Entry entry = entries.remove(index);
+			this.handlers.get(entry.list).remove(entry.type);
+		}
+	}
+
+	/** records that a handler which already existed before the current request was handed out during it. */
+	public void addExisting(@NotNull AutoHandler handler) {
+		if (this.depth != 0) this.linked.add(handler);
+	}
+
+	/**
+	links every entry (see {@link FactoryList#link(AutoHandler)}), then caches
+	every entry in its list, in the order they were added, and then {@link #clear()}'s this PendingHandlers.
+	if another thread has already cached a handler for one of our types, that handler is kept instead.
+	returns the handler which is cached for the last entry, which belongs to the outermost request.
+	*/
+	public @NotNull AutoHandler publish() {
+		try {
+			for (Entry entry : this.entries) {
+				entry.list.linkUnchecked(entry.handler);
+			}
+			AutoHandler published = null;
+			for (Entry entry : this.entries) {
+				published = entry.list.publish(entry.type, entry.handler, entry.dependencies);
+			}
+			if (published == null) throw new IllegalStateException("Nothing to publish");
+			return published;
+		}
+		finally {
+			this.clear();
+		}
+	}
+
+	/** discards everything which was recorded during the outermost request. */
+	public void clear() {
+		this.entries.clear();
+		this.handlers.clear();
+		this.lazies.clear();
+		this.linked.clear();
+	}
+
+	public static record Entry(
+		@NotNull FactoryList<?, ?> list,
+		@NotNull ReifiedType<?> type,
+		@NotNull AutoHandler handler,
+		@Nullable HandlerDependencies dependencies
+	) {}
+}
@@ -0,0 +1,45 @@
+package builderb0y.autocodec.common;
+
+import java.util.Collection;
+import java.util.Map;
+
+import org.jetbrains.annotations.NotNull;
+
+import builderb0y.autocodec.AutoCodec;
+import builderb0y.autocodec.coders.AutoCoder;
+import builderb0y.autocodec.reflection.reification.ReifiedType;
+
+/**
+thrown by {@link AutoCodec#warmUp(Collection)} when
+a coder could not be created for one or more of the root types.
+every root type is attempted, even if some of them fail,
+so this exception reports all the failures at once.
+every failure is also added as a {@link #getSuppressed() suppressed} exception.
+*/
+public class WarmUpException extends FactoryException {
+
+	/** the coders which were created successfully, in the order their types were provided. */
+	public final @NotNull Map<@NotNull ReifiedType<?>, @NotNull AutoCoder<?>> coders;
+	/** the reason each failing type failed, in the order their types were provided. */
+	public final @NotNull Map<@NotNull ReifiedType<?>, @NotNull Throwable> failures;
+
+	public WarmUpException(
+		@NotNull Map<@NotNull ReifiedType<?>, @NotNull AutoCoder<?>> coders,
+		@NotNull Map<@NotNull ReifiedType<?>, @NotNull Throwable> failures
+	) {
+		super(createMessage(failures));
+		this.coders = coders;
+		this.failures = failures;
+		for (Throwable failure : failures.values()) {
+			this.addSuppressed(failure);
+		}
+	}
+
+	public static @NotNull String createMessage(@NotNull Map<@NotNull ReifiedType<?>, @NotNull Throwable> failures) {
+		StringBuilder builder = new StringBuilder(failures.size() * 64).append("Could not create coders for ").append(failures.size()).append(" type(s):");
+		for (Map.Entry<ReifiedType<?>, Throwable> entry : failures.entrySet()) {
+			builder.append("\n\t").append(entry.getKey()).append(": ").append(entry.getValue());
+		}
+		return builder.toString();
+	}
+}
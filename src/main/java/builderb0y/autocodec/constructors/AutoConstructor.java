@@ -10,6 +10,7 @@ import builderb0y.autocodec.common.FactoryContext;
 import builderb0y.autocodec.common.FactoryException;
 import builderb0y.autocodec.decoders.ConstructImprintDecoder;
 import builderb0y.autocodec.decoders.DecodeContext;
+import builderb0y.autocodec.decoders.DecodeSource;
 import builderb0y.autocodec.imprinters.AutoImprinter;
 import builderb0y.autocodec.reflection.reification.ReifiedType;
 import builderb0y.autocodec.util.ObjectArrayFactory;
@@ -38,6 +39,17 @@ public interface AutoConstructor<T_Decoded> extends AutoHandler {
 	@Contract("_ -> new")
 	public abstract <T_Encoded> @NotNull T_Decoded construct(@NotNull ConstructContext<T_Encoded> context) throws ConstructException;
 
+	/**
+	returns true if {@link #construct(ConstructContext)} never looks at
+	{@link ConstructContext#input}. decoders which read their input from a
+	{@link DecodeSource} can construct such objects before reading anything,
+	and imprint them as the input is read. otherwise, they need to read the
+	entire input into a subtree first, so that it can be provided to the constructor.
+	*/
+	public default boolean ignoresInput() {
+		return false;
+	}
+
 	public static abstract class NamedConstructor<T_Decoded> extends NamedHandler<T_Decoded> implements AutoConstructor<T_Decoded> {
 
 		public NamedConstructor(@NotNull ReifiedType<T_Decoded> type) {
@@ -28,6 +28,11 @@ public class EnumMapConstructor<K extends Enum<K>, V> extends NamedConstructor<E
 		return new EnumMap<>(this.enumClass);
 	}
 
+	@Override
+	public boolean ignoresInput() {
+		return true;
+	}
+
 	public static class Factory extends NamedConstructorFactory {
 
 		public static final @NotNull Factory INSTANCE = new Factory();
@@ -28,6 +28,11 @@ public class EnumSetConstructor<E extends Enum<E>> extends NamedConstructor<Enum
 		return EnumSet.noneOf(this.enumClass);
 	}
 
+	@Override
+	public boolean ignoresInput() {
+		return true;
+	}
+
 	public static class Factory extends NamedConstructorFactory {
 
 		public static final @NotNull Factory INSTANCE = new Factory();
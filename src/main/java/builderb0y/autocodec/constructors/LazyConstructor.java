@@ -9,7 +9,7 @@ import builderb0y.autocodec.common.LazyHandler;
 
 public class LazyConstructor<T> extends LazyHandler<AutoConstructor<T>> implements AutoConstructor<T> {
 
-	public @Nullable AutoConstructor<T> resolution;
+	public volatile @Nullable AutoConstructor<T> resolution;
 
 	@Override
 	public @Nullable AutoConstructor<T> getNullableDelegateHandler() {
@@ -27,4 +27,21 @@ public class LazyConstructor<T> extends LazyHandler<AutoConstructor<T>> implemen
 	public <T_Encoded> @NotNull T construct(@NotNull ConstructContext<T_Encoded> context) throws ConstructException {
 		return context.constructWith(this.getDelegateHandler());
 	}
+
+	@Override
+	public boolean ignoresInput() {
+		return this.getDelegateHandler().ignoresInput();
+	}
+
+	@Override
+	public void visitChildren(@NotNull ChildVisitor visitor) {
+		AutoConstructor<T> resolution = this.resolution;
+		if (resolution != null) visitor.visitChild("delegate", resolution);
+	}
+
+	@Override
+	public void linkChildren(@NotNull ChildLinker linker) {
+		AutoConstructor<T> resolution = this.resolution;
+		if (resolution != null) this.resolution = linker.link(resolution);
+	}
 }
\ No newline at end of file
@@ -9,6 +9,7 @@ import java.util.concurrent.*;
 import org.jetbrains.annotations.ApiStatus.OverrideOnly;
 import org.jetbrains.annotations.NotNull;
 
+import builderb0y.autocodec.common.AutoHandler.AutoFactory;
 import builderb0y.autocodec.common.LookupFactory;
 import builderb0y.autocodec.constructors.AutoConstructor.ConstructorFactory;
 import builderb0y.autocodec.reflection.ReflectionManager;
@@ -61,30 +62,39 @@ public class LookupConstructorFactory extends LookupFactory<AutoConstructor<?>>
 	then you should also override {@link #setup()}
 	to not add them to this LookupConstructorFactory.
 	*/
+	@SuppressWarnings("unchecked")
 	public <T> void addSimple(@NotNull Class<T> interfaceClass, Class<? extends T> implementationClass) {
-		try {
-			this.addRaw(
-				interfaceClass,
-				new MethodHandleConstructor<>(
+		this.addRaw(interfaceClass, (AutoConstructor<T>)(SIMPLE_CONSTRUCTORS.get(implementationClass)));
+	}
+
+	/**
+	the constructors used by {@link #addSimple(Class, Class)}.
+	these are shared by every LookupConstructorFactory,
+	so that the JVM only needs to look them up once,
+	and so that {@link #isEquivalentTo(AutoFactory)} can
+	tell that two LookupConstructorFactories are the same.
+	*/
+	public static final @NotNull ClassValue<@NotNull AutoConstructor<?>> SIMPLE_CONSTRUCTORS = new ClassValue<>() {
+
+		@Override
+		public AutoConstructor<?> computeValue(Class<?> implementationClass) {
+			try {
+				return new MethodHandleConstructor<>(
 					TypeFormatter.appendSimpleClassUnchecked(
 						new StringBuilder(32),
 						implementationClass
 					)
 					.append("::new")
 					.toString(),
-					MethodHandles.dropArguments(
-						MethodHandles.lookup().findConstructor(
-							implementationClass,
-							MethodType.methodType(void.class)
-						),
-						0,
-						ConstructContext.class
+					MethodHandles.lookup().findConstructor(
+						implementationClass,
+						MethodType.methodType(void.class)
 					)
-				)
-			);
-		}
-		catch (Exception exception) {
-			throw new RuntimeException(exception);
+				);
+			}
+			catch (Exception exception) {
+				throw new RuntimeException(exception);
+			}
 		}
-	}
+	};
 }
\ No newline at end of file
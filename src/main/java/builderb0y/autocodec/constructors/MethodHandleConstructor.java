@@ -24,9 +24,20 @@ public class MethodHandleConstructor<T_Decoded> extends NamedConstructor<T_Decod
 	public static final MethodType HANDLE_TYPE = MethodType.methodType(Object.class, ConstructContext.class);
 
 	public final @NotNull MethodHandle handle;
+	/** true if the handle was a no-arg handle before a ConstructContext parameter was added to it. */
+	public final boolean ignoresInput;
 
+	/**
+	handle must either take a single {@link ConstructContext} parameter,
+	or no parameters at all. in the latter case, a ConstructContext
+	parameter is added to it, which is ignored.
+	*/
 	public MethodHandleConstructor(@NotNull String name, @NotNull MethodHandle handle) {
 		super(name);
+		this.ignoresInput = handle.type().parameterCount() == 0;
+		if (this.ignoresInput) {
+			handle = MethodHandles.dropArguments(handle, 0, ConstructContext.class);
+		}
 		this.handle = handle.asType(HANDLE_TYPE);
 	}
 
@@ -41,12 +52,18 @@ public class MethodHandleConstructor<T_Decoded> extends NamedConstructor<T_Decod
 			.toString()
 		);
 		MethodHandle handle = method.createMethodHandle(provider);
-		if (handle.type().parameterCount() == 0) {
+		this.ignoresInput = handle.type().parameterCount() == 0;
+		if (this.ignoresInput) {
 			handle = MethodHandles.dropArguments(handle, 0, ConstructContext.class);
 		}
 		this.handle = handle.asType(HANDLE_TYPE);
 	}
 
+	@Override
+	public boolean ignoresInput() {
+		return this.ignoresInput;
+	}
+
 	@Override
 	@OverrideOnly
 	@Contract("_ -> new")
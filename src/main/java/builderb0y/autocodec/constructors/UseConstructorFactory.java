@@ -5,6 +5,8 @@ import java.lang.reflect.*;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import builderb0y.autocodec.annotations.UseConstructor;
+import builderb0y.autocodec.common.FactoryApplicability;
 import builderb0y.autocodec.common.FactoryContext;
 import builderb0y.autocodec.common.UseSpec;
 import builderb0y.autocodec.common.UseHandlerFactory1;
@@ -23,6 +25,11 @@ public class UseConstructorFactory extends UseHandlerFactory1<AutoConstructor<?>
 		super(AutoConstructor.class, ConstructorFactory.class, ConstructContext.class, Object.class, "construct");
 	}
 
+	@Override
+	public @NotNull FactoryApplicability getApplicability() {
+		return FactoryApplicability.annotatedWith(UseConstructor.class);
+	}
+
 	@Override
 	public <T_HandledType> @Nullable UseSpec getSpec(@NotNull FactoryContext<T_HandledType> context) {
 		return UseSpec.fromUseConstructor(context.type);
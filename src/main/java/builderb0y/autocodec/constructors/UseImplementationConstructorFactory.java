@@ -7,6 +7,7 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import builderb0y.autocodec.annotations.UseImplementation;
+import builderb0y.autocodec.common.FactoryApplicability;
 import builderb0y.autocodec.common.FactoryContext;
 import builderb0y.autocodec.common.FactoryException;
 import builderb0y.autocodec.constructors.AutoConstructor.NamedConstructorFactory;
@@ -17,6 +18,11 @@ public class UseImplementationConstructorFactory extends NamedConstructorFactory
 
 	public static final UseImplementationConstructorFactory INSTANCE = new UseImplementationConstructorFactory();
 
+	@Override
+	public @NotNull FactoryApplicability getApplicability() {
+		return FactoryApplicability.annotatedWith(UseImplementation.class);
+	}
+
 	@Override
 	public <T_HandledType> @Nullable AutoConstructor<?> tryCreate(@NotNull FactoryContext<T_HandledType> context) throws FactoryException {
 		UseImplementation annotation = context.type.getAnnotations().getFirst(UseImplementation.class);
@@ -38,6 +38,26 @@ public interface AutoDecoder<T_Decoded> extends AutoHandler, KeyHolder {
 	@OverrideOnly
 	public abstract <T_Encoded> @Nullable T_Decoded decode(@NotNull DecodeContext<T_Encoded> context) throws DecodeException;
 
+	/**
+	same as {@link #decode(DecodeContext)}, but reads the encoded
+	data from source directly instead of from {@link DecodeContext#input}.
+	when this method is called, context's input is {@link DecodeContext#empty()},
+	and is only present to describe where the data being decoded is.
+	the default implementation reads the next value from source into a subtree,
+	and decodes that as usual. decoders which read large or deeply nested data
+	should override this method to read tokens from source directly,
+	so that no subtree is created.
+
+	this method is annotated with {@link OverrideOnly}
+	because it performs no logging on its own.
+	use {@link DecodeContext#decodeWith(AutoDecoder, DecodeSource)}
+	to decode and log what is being decoded.
+	*/
+	@OverrideOnly
+	public default <T_Encoded> @Nullable T_Decoded decodeFrom(@NotNull DecodeContext<T_Encoded> context, @NotNull DecodeSource<T_Encoded> source) throws DecodeException {
+		return this.decode(context.input(source.readEncoded()));
+	}
+
 	/**
 	if this AutoDecoder decodes from an object with known keys,
 	then this method returns those keys.
@@ -0,0 +1,229 @@
+package builderb0y.autocodec.decoders;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import builderb0y.autocodec.AutoCodec;
+import builderb0y.autocodec.encoders.BinaryContainerWriter;
+import builderb0y.autocodec.util.BinaryFormat;
+
+/**
+reads individual values from a container written by {@link BinaryContainerWriter},
+without reading the rest of the container.
+the file is accessed through {@link FileChannel#map(MapMode, long, long)},
+so only the pages which are actually read are loaded into memory.
+since a single mapping can not exceed 2 GB, values are mapped in
+regions of up to {@link #REGION_SIZE} bytes, which are created on demand.
+
+values can be decoded concurrently from multiple threads.
+mappings are released by the garbage collector, not by {@link #close()}.
+*/
+public class BinaryContainerReader implements Closeable {
+
+	public static final long REGION_SIZE = 1L << 28;
+
+	public final @NotNull AutoCodec autoCodec;
+	public final @NotNull FileChannel channel;
+	public final int count;
+	public final long indexOffset, schemasOffset, keysOffset, trailerOffset;
+	/** the offset of every value, plus the offset where the last value ends. */
+	public final @NotNull ByteBuffer index;
+	public final @NotNull List<@NotNull String @NotNull []> schemas;
+	/** regions of the file which have been mapped so far, keyed by their starting offset. */
+	public final @NotNull NavigableMap<@NotNull Long, @NotNull MappedByteBuffer> regions = new TreeMap<>();
+	/** see {@link #indexOf(AutoDecoder, Object)}. */
+	public @Nullable AutoDecoder<?> keyIndexDecoder;
+	public @Nullable Map<Object, Integer> keyIndex;
+
+	public BinaryContainerReader(@NotNull AutoCodec autoCodec, @NotNull FileChannel channel) throws DecodeException {
+		this.autoCodec = autoCodec;
+		this.channel = channel;
+		try {
+			long size = channel.size();
+			if (size < BinaryFormat.CONTAINER_HEADER_SIZE + BinaryFormat.CONTAINER_TRAILER_SIZE) {
+				throw new DecodeException(() -> "File is too small to be a container: " + size + " bytes");
+			}
+			ByteBuffer header = ByteBuffer.allocate(BinaryFormat.CONTAINER_HEADER_SIZE);
+			readFully(channel, header, 0L);
+			if (header.getInt(0) != BinaryFormat.CONTAINER_MAGIC) {
+				throw new DecodeException(() -> "File is not a container");
+			}
+			if (header.get(4) != BinaryFormat.CONTAINER_VERSION) {
+				throw new DecodeException(() -> "Unsupported container version: " + header.get(4));
+			}
+			ByteBuffer trailer = ByteBuffer.allocate(BinaryFormat.CONTAINER_TRAILER_SIZE);
+			this.trailerOffset = size - BinaryFormat.CONTAINER_TRAILER_SIZE;
+			readFully(channel, trailer, this.trailerOffset);
+			this.indexOffset   = trailer.getLong();
+			this.schemasOffset = trailer.getLong();
+			this.keysOffset    = trailer.getLong();
+			this.count         = trailer.getInt();
+			if (trailer.getInt() != BinaryFormat.CONTAINER_MAGIC) {
+				throw new DecodeException(() -> "File is not a container, or was not closed properly");
+			}
+			if (this.count < 0 || this.indexOffset + (this.count + 1L) * 8L != this.schemasOffset) {
+				throw new DecodeException(() -> "Corrupt container index: " + this);
+			}
+			this.index = this.map(this.indexOffset, this.schemasOffset - this.indexOffset);
+			BinaryDecodeSource schemaSource = new BinaryDecodeSource(this.map(this.schemasOffset, this.sectionEnd(this.schemasOffset) - this.schemasOffset));
+			int schemaCount = schemaSource.rawCount();
+			List<String[]> schemas = new ArrayList<>(schemaCount);
+			for (int schemaIndex = 0; schemaIndex < schemaCount; schemaIndex++) {
+				String[] schema = new String[schemaSource.rawCount()];
+				for (int keyIndex = 0; keyIndex < schema.length; keyIndex++) {
+					schema[keyIndex] = schemaSource.rawString();
+				}
+				schemas.add(schema);
+			}
+			this.schemas = Collections.unmodifiableList(schemas);
+		}
+		catch (IOException | RuntimeException exception) {
+			throw new DecodeException(exception);
+		}
+	}
+
+	public static @NotNull BinaryContainerReader open(@NotNull AutoCodec autoCodec, @NotNull Path path) throws DecodeException {
+		FileChannel channel;
+		try {
+			channel = FileChannel.open(path, StandardOpenOption.READ);
+		}
+		catch (IOException exception) {
+			throw new DecodeException(exception);
+		}
+		try {
+			return new BinaryContainerReader(autoCodec, channel);
+		}
+		catch (DecodeException exception) {
+			try {
+				channel.close();
+			}
+			catch (IOException suppressed) {
+				exception.addSuppressed(suppressed);
+			}
+			throw exception;
+		}
+	}
+
+	public static void readFully(@NotNull FileChannel channel, @NotNull ByteBuffer buffer, long position) throws IOException {
+		while (buffer.hasRemaining()) {
+			if (channel.read(buffer, position + buffer.position()) < 0) {
+				throw new IOException("Unexpected end of file");
+			}
+		}
+		buffer.flip();
+	}
+
+	/** returns the offset where the section which starts at the provided offset ends. */
+	public long sectionEnd(long sectionOffset) {
+		if (sectionOffset < this.indexOffset) return this.indexOffset;
+		if (sectionOffset < this.schemasOffset) return this.schemasOffset;
+		if (sectionOffset < this.keysOffset) return this.keysOffset;
+		return this.trailerOffset;
+	}
+
+	public @NotNull MappedByteBuffer map(long offset, long length) throws DecodeException {
+		if (length > Integer.MAX_VALUE) {
+			throw new DecodeException(() -> "Section of " + length + " bytes is too large to map in " + this);
+		}
+		try {
+			return this.channel.map(MapMode.READ_ONLY, offset, length);
+		}
+		catch (IOException exception) {
+			throw new DecodeException(exception);
+		}
+	}
+
+	/** returns a buffer containing exactly the bytes in the provided range, which must be within one section. */
+	public synchronized @NotNull ByteBuffer region(long offset, long length) throws DecodeException {
+		Map.Entry<Long, MappedByteBuffer> entry = this.regions.floorEntry(offset);
+		if (entry == null || entry.getKey() + entry.getValue().capacity() < offset + length) {
+			MappedByteBuffer mapping = this.map(offset, Math.max(length, Math.min(REGION_SIZE, this.sectionEnd(offset) - offset)));
+			this.regions.put(offset, mapping);
+			entry = Map.entry(offset, mapping);
+		}
+		return entry.getValue().slice((int)(offset - entry.getKey()), (int)(length));
+	}
+
+	public int size() {
+		return this.count;
+	}
+
+	public boolean isMap() {
+		return this.keysOffset >= 0L;
+	}
+
+	/** decodes the value at the provided index with the provided decoder. */
+	public <T_Decoded> T_Decoded get(@NotNull AutoDecoder<T_Decoded> decoder, int index) throws DecodeException {
+		Objects.checkIndex(index, this.count);
+		long start = this.index.getLong(index << 3);
+		long end = this.index.getLong((index + 1) << 3);
+		if (start < BinaryFormat.CONTAINER_HEADER_SIZE || end < start || end > this.indexOffset) {
+			throw new DecodeException(() -> "Corrupt container index at " + index + " in " + this);
+		}
+		BinaryDecodeSource source = new BinaryDecodeSource(this.region(start, end - start), this.schemas);
+		T_Decoded result = this.autoCodec.decodeFrom(decoder, source);
+		source.expectEnd();
+		return result;
+	}
+
+	/** decodes every key in this container, in the same order as the values. */
+	public <K> @NotNull List<K> keys(@NotNull AutoDecoder<K> keyDecoder) throws DecodeException {
+		if (!this.isMap()) {
+			throw new DecodeException(() -> "Container holds a list, not a map: " + this);
+		}
+		BinaryDecodeSource source = new BinaryDecodeSource(this.map(this.keysOffset, this.trailerOffset - this.keysOffset));
+		List<K> keys = new ArrayList<>(this.count);
+		for (int index = 0; index < this.count; index++) {
+			keys.add(this.autoCodec.decodeFrom(keyDecoder, source));
+		}
+		source.expectEnd();
+		return keys;
+	}
+
+	/**
+	returns the index of the first entry whose key equals the provided key, or -1 if there is none.
+	the first time this method is called, every key is decoded
+	with keyDecoder, and their indexes are remembered.
+	this only happens again if a different keyDecoder is used.
+	*/
+	public synchronized <K> int indexOf(@NotNull AutoDecoder<K> keyDecoder, K key) throws DecodeException {
+		Map<Object, Integer> keyIndex = this.keyIndex;
+		if (keyIndex == null || this.keyIndexDecoder != keyDecoder) {
+			List<K> keys = this.keys(keyDecoder);
+			keyIndex = new HashMap<>(keys.size() << 1);
+			for (int index = 0; index < keys.size(); index++) {
+				keyIndex.putIfAbsent(keys.get(index), index);
+			}
+			this.keyIndex = keyIndex;
+			this.keyIndexDecoder = keyDecoder;
+		}
+		Integer index = keyIndex.get(key);
+		return index != null ? index.intValue() : -1;
+	}
+
+	/** decodes the value associated with the provided key, or returns null if there is no such key. */
+	public <K, V> @Nullable V get(@NotNull AutoDecoder<K> keyDecoder, K key, @NotNull AutoDecoder<V> valueDecoder) throws DecodeException {
+		int index = this.indexOf(keyDecoder, key);
+		return index >= 0 ? this.get(valueDecoder, index) : null;
+	}
+
+	@Override
+	public void close() throws IOException {
+		this.channel.close();
+	}
+
+	@Override
+	public String toString() {
+		return this.getClass().getSimpleName() + ": { count: " + this.count + ", map: " + this.isMap() + ", regions: " + this.regions.size() + " }";
+	}
+}
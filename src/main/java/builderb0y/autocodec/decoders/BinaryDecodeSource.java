@@ -0,0 +1,428 @@
+package builderb0y.autocodec.decoders;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import builderb0y.autocodec.encoders.BinaryEncodeSink;
+import builderb0y.autocodec.util.BinaryFormat;
+import builderb0y.autocodec.util.ObjectOps;
+
+/**
+a {@link DecodeSource} which reads the compact binary format described in
+{@link BinaryFormat} from a {@link ByteBuffer}, starting at its current position.
+the buffer's position is advanced as values are read, so several values
+written to the same {@link BinaryEncodeSink} can be read one after another.
+
+values are interpreted the same way {@link ObjectOps#INSTANCE} interprets them:
+numbers, strings, and booleans are not interchangeable.
+subtrees read by {@link #readEncoded()} are created with {@link ObjectOps#INSTANCE}.
+
+strings and byte arrays can be read without copying them
+with {@link #readStringBytes()} and {@link #readByteView()}.
+the returned buffers share content with the buffer being read.
+*/
+public class BinaryDecodeSource extends DecodeSource<Object> {
+
+	public final @NotNull ByteBuffer buffer;
+	/** every schema which has been defined so far, indexed by ID. */
+	public final @NotNull List<@NotNull String @NotNull []> schemas;
+	/** the lists and maps which are currently being read, innermost last. */
+	public final @NotNull List<@NotNull Frame> frames = new ArrayList<>(8);
+	public int depth;
+
+	public BinaryDecodeSource(@NotNull ByteBuffer buffer) {
+		this(buffer, new ArrayList<>(16));
+	}
+
+	/**
+	creates a source which already knows about the provided schemas,
+	for reading values which were written without defining them.
+	see {@link BinaryEncodeSink#writeSchemas}.
+	*/
+	public BinaryDecodeSource(@NotNull ByteBuffer buffer, @NotNull List<@NotNull String @NotNull []> schemas) {
+		super(ObjectOps.INSTANCE);
+		this.buffer = buffer;
+		this.schemas = schemas;
+	}
+
+	public BinaryDecodeSource(byte @NotNull [] bytes) {
+		this(ByteBuffer.wrap(bytes));
+	}
+
+	/** throws a {@link DecodeException} if there is any more data after the value which was just read. */
+	public void expectEnd() throws DecodeException {
+		if (this.buffer.hasRemaining()) {
+			throw new DecodeException(() -> "Expected end of input, but found " + this.buffer.remaining() + " more bytes in " + this);
+		}
+	}
+
+	//////////////// raw input ////////////////
+
+	public void require(int bytes) throws DecodeException {
+		if (bytes < 0 || this.buffer.remaining() < bytes) {
+			throw new DecodeException(() -> "Unexpected end of input: needed " + bytes + " more bytes in " + this);
+		}
+	}
+
+	public byte rawByte() throws DecodeException {
+		this.require(1);
+		return this.buffer.get();
+	}
+
+	public int rawVarint() throws DecodeException {
+		int result = 0;
+		for (int shift = 0; shift < 32; shift += 7) {
+			byte b = this.rawByte();
+			result |= (b & 0x7F) << shift;
+			if (b >= 0) return result;
+		}
+		throw new DecodeException(() -> "Malformed varint in " + this);
+	}
+
+	public long rawVarlong() throws DecodeException {
+		long result = 0L;
+		for (int shift = 0; shift < 64; shift += 7) {
+			byte b = this.rawByte();
+			result |= ((long)(b & 0x7F)) << shift;
+			if (b >= 0) return result;
+		}
+		throw new DecodeException(() -> "Malformed varint in " + this);
+	}
+
+	/**
+	reads a varint count of things which each take up at least one byte,
+	and checks that there are at least that many bytes left,
+	so that corrupt input can't make us allocate a huge array.
+	*/
+	public int rawCount() throws DecodeException {
+		int count = this.rawVarint();
+		if (count < 0) {
+			throw new DecodeException(() -> "Negative size " + count + " in " + this);
+		}
+		if (count > this.buffer.remaining()) {
+			throw new DecodeException(() -> "Size " + count + " is larger than the " + this.buffer.remaining() + " remaining bytes in " + this);
+		}
+		return count;
+	}
+
+	/** reads a varint length, and returns a read-only view of that many bytes after it. */
+	public @NotNull ByteBuffer rawSlice() throws DecodeException {
+		int length = this.rawVarint();
+		this.require(length);
+		int position = this.buffer.position();
+		ByteBuffer slice = this.buffer.slice(position, length).asReadOnlyBuffer();
+		this.buffer.position(position + length);
+		return slice;
+	}
+
+	public @NotNull String rawString() throws DecodeException {
+		int length = this.rawVarint();
+		this.require(length);
+		int position = this.buffer.position();
+		String string;
+		if (this.buffer.hasArray()) {
+			string = new String(this.buffer.array(), this.buffer.arrayOffset() + position, length, StandardCharsets.UTF_8);
+		}
+		else {
+			string = StandardCharsets.UTF_8.decode(this.buffer.slice(position, length)).toString();
+		}
+		this.buffer.position(position + length);
+		return string;
+	}
+
+	//////////////// structure ////////////////
+
+	public @Nullable Frame currentFrame() {
+		return this.depth == 0 ? null : this.frames.get(this.depth - 1);
+	}
+
+	public @NotNull Frame pushFrame(byte kind, int remaining, @NotNull String @Nullable [] schema) throws DecodeException {
+		if (remaining < 0) {
+			throw new DecodeException(() -> "Negative size in " + this);
+		}
+		Frame frame;
+		if (this.depth < this.frames.size()) {
+			frame = this.frames.get(this.depth);
+		}
+		else {
+			this.frames.add(frame = new Frame());
+		}
+		this.depth++;
+		frame.kind = kind;
+		frame.remaining = remaining;
+		frame.schema = schema;
+		frame.valuePending = false;
+		return frame;
+	}
+
+	public void popFrame(byte kind) throws DecodeException {
+		Frame frame = this.currentFrame();
+		if (frame == null || (frame.kind == BinaryFormat.MAP) != (kind == BinaryFormat.MAP)) {
+			throw new DecodeException(() -> "Attempt to end a " + (kind == BinaryFormat.MAP ? "map" : "list") + " which was not started in " + this);
+		}
+		if (frame.remaining != 0 || frame.valuePending) {
+			throw new DecodeException(() -> "Attempt to end a " + (kind == BinaryFormat.MAP ? "map" : "list") + " which still has " + frame.remaining + " elements in " + this);
+		}
+		this.depth--;
+	}
+
+	/** called before every value is read, including lists and maps. */
+	public void consumeValue() throws DecodeException {
+		Frame frame = this.currentFrame();
+		if (frame == null) return;
+		if (frame.kind == BinaryFormat.MAP) {
+			if (!frame.valuePending) {
+				throw new DecodeException(() -> "Attempt to read a value from a map without reading its key first in " + this);
+			}
+			frame.valuePending = false;
+		}
+		else {
+			if (frame.remaining <= 0) {
+				throw new DecodeException(() -> "Attempt to read past the end of a list in " + this);
+			}
+			frame.remaining--;
+		}
+	}
+
+	/** returns true if the current frame is a {@link BinaryFormat#BYTES}, whose elements have no tags. */
+	public boolean inBytes() {
+		Frame frame = this.currentFrame();
+		return frame != null && frame.kind == BinaryFormat.BYTES;
+	}
+
+	/**
+	returns the tag of the next value without consuming it.
+	any {@link BinaryFormat#SCHEMA} definitions
+	before the value are consumed and registered.
+	*/
+	public byte peekTag() throws DecodeException {
+		while (true) {
+			this.require(1);
+			byte tag = this.buffer.get(this.buffer.position());
+			if (tag != BinaryFormat.SCHEMA) return tag;
+			this.buffer.get();
+			int count = this.rawCount();
+			String[] schema = new String[count];
+			for (int index = 0; index < count; index++) {
+				schema[index] = this.rawString();
+			}
+			this.schemas.add(schema);
+		}
+	}
+
+	@Override
+	public @NotNull Token peek() throws DecodeException {
+		if (this.resumingMap) return Token.MAP;
+		Frame frame = this.currentFrame();
+		if (frame == null) {
+			if (!this.buffer.hasRemaining()) return Token.END;
+		}
+		else if (frame.kind == BinaryFormat.MAP) {
+			if (!frame.valuePending) return Token.END;
+		}
+		else {
+			if (frame.remaining == 0) return Token.END;
+			if (frame.kind == BinaryFormat.BYTES) return Token.NUMBER;
+		}
+		byte tag = this.peekTag();
+		return switch (tag) {
+			case BinaryFormat.EMPTY -> Token.EMPTY;
+			case BinaryFormat.FALSE, BinaryFormat.TRUE -> Token.BOOLEAN;
+			case BinaryFormat.BYTE, BinaryFormat.SHORT, BinaryFormat.INT, BinaryFormat.LONG, BinaryFormat.FLOAT, BinaryFormat.DOUBLE -> Token.NUMBER;
+			case BinaryFormat.STRING -> Token.STRING;
+			case BinaryFormat.BYTES, BinaryFormat.LIST -> Token.LIST;
+			case BinaryFormat.MAP, BinaryFormat.SCHEMA_MAP -> Token.MAP;
+			default -> throw new DecodeException(() -> "Unknown tag " + tag + " in " + this);
+		};
+	}
+
+	@Override
+	public void beginMap() throws DecodeException {
+		if (this.resumingMap) {
+			this.resumingMap = false;
+			return;
+		}
+		if (this.peek() != Token.MAP) throw this.notA(null, "map");
+		this.consumeValue();
+		if (this.buffer.get() == BinaryFormat.MAP) {
+			this.pushFrame(BinaryFormat.MAP, this.rawCount(), null);
+		}
+		else {
+			int id = this.rawVarint();
+			if (id < 0 || id >= this.schemas.size()) {
+				throw new DecodeException(() -> "Undefined schema " + id + " in " + this);
+			}
+			this.pushFrame(BinaryFormat.MAP, this.rawCount(), this.schemas.get(id));
+		}
+	}
+
+	@Override
+	public boolean hasNext() throws DecodeException {
+		Frame frame = this.currentFrame();
+		return frame != null && frame.remaining > 0;
+	}
+
+	@Override
+	public @NotNull String nextKey() throws DecodeException {
+		Frame frame = this.currentFrame();
+		if (frame == null || frame.kind != BinaryFormat.MAP || frame.valuePending) {
+			throw new DecodeException(() -> "Expected a value, but tried to read a key in " + this);
+		}
+		if (frame.remaining <= 0) {
+			throw new DecodeException(() -> "Attempt to read past the end of a map in " + this);
+		}
+		frame.remaining--;
+		frame.valuePending = true;
+		String[] schema = frame.schema;
+		if (schema == null) return this.rawString();
+		int key = this.rawVarint();
+		if (key == 0) return this.rawString();
+		if (key < 0 || key > schema.length) {
+			throw new DecodeException(() -> "Field key " + key + " is out of bounds for schema of length " + schema.length + " in " + this);
+		}
+		return schema[key - 1];
+	}
+
+	@Override
+	public void endMap() throws DecodeException {
+		this.popFrame(BinaryFormat.MAP);
+	}
+
+	@Override
+	public void beginList() throws DecodeException {
+		if (this.peek() != Token.LIST) throw this.notA(null, "list");
+		this.consumeValue();
+		byte kind = this.buffer.get();
+		this.pushFrame(kind, this.rawCount(), null);
+	}
+
+	@Override
+	public void endList() throws DecodeException {
+		this.popFrame(BinaryFormat.LIST);
+	}
+
+	//////////////// values ////////////////
+
+	@Override
+	public boolean tryReadEmpty() throws DecodeException {
+		if (this.peek() != Token.EMPTY) return false;
+		this.consumeValue();
+		this.buffer.get();
+		return true;
+	}
+
+	@Override
+	public @NotNull String readString(@Nullable DecodeContext<Object> context) throws DecodeException {
+		if (this.peek() != Token.STRING) throw this.notA(context, "string");
+		this.consumeValue();
+		this.buffer.get();
+		return this.rawString();
+	}
+
+	/**
+	same as {@link #readString(DecodeContext)}, but returns a read-only
+	view of the UTF-8 encoded bytes of the string, without decoding them.
+	*/
+	public @NotNull ByteBuffer readStringBytes() throws DecodeException {
+		if (this.peek() != Token.STRING) throw this.notA(null, "string");
+		this.consumeValue();
+		this.buffer.get();
+		return this.rawSlice();
+	}
+
+	/**
+	if the next value is a {@link BinaryFormat#BYTES},
+	returns a read-only view of its bytes without copying them.
+	otherwise, returns null without consuming anything.
+	*/
+	public @Nullable ByteBuffer readByteView() throws DecodeException {
+		if (this.peek() != Token.LIST || this.buffer.get(this.buffer.position()) != BinaryFormat.BYTES) return null;
+		this.consumeValue();
+		this.buffer.get();
+		return this.rawSlice();
+	}
+
+	@Override
+	public @NotNull Number readNumber(@Nullable DecodeContext<Object> context) throws DecodeException {
+		if (this.peek() != Token.NUMBER) throw this.notA(context, "number");
+		this.consumeValue();
+		if (this.inBytes()) return this.rawByte();
+		return switch (this.buffer.get()) {
+			case BinaryFormat.BYTE -> this.rawByte();
+			case BinaryFormat.SHORT -> (short)(BinaryFormat.unzigzag(this.rawVarint()));
+			case BinaryFormat.INT -> BinaryFormat.unzigzag(this.rawVarint());
+			case BinaryFormat.LONG -> BinaryFormat.unzigzag(this.rawVarlong());
+			case BinaryFormat.FLOAT -> {
+				this.require(4);
+				yield this.buffer.getFloat();
+			}
+			default -> {
+				this.require(8);
+				yield this.buffer.getDouble();
+			}
+		};
+	}
+
+	@Override
+	public boolean readBoolean(@Nullable DecodeContext<Object> context) throws DecodeException {
+		if (this.peek() != Token.BOOLEAN) throw this.notA(context, "boolean");
+		this.consumeValue();
+		return this.buffer.get() == BinaryFormat.TRUE;
+	}
+
+	@Override
+	public void skip() throws DecodeException {
+		switch (this.peek()) {
+			case MAP -> {
+				this.beginMap();
+				while (this.hasNext()) {
+					this.nextKey();
+					this.skip();
+				}
+				this.endMap();
+			}
+			case LIST -> {
+				if (this.readByteView() == null) {
+					this.beginList();
+					while (this.hasNext()) this.skip();
+					this.endList();
+				}
+			}
+			case STRING -> this.readStringBytes();
+			case NUMBER -> this.readNumber(null);
+			case BOOLEAN -> this.readBoolean(null);
+			case EMPTY -> this.tryReadEmpty();
+			case END -> throw new DecodeException(() -> "Expected a value, but reached the end of the current map or list in " + this);
+		}
+	}
+
+	@Override
+	public @NotNull Object readEncoded() throws DecodeException {
+		if (!this.resumingMap && this.peek() == Token.LIST) {
+			ByteBuffer bytes = this.readByteView();
+			if (bytes != null) return this.ops.createByteList(bytes);
+		}
+		return super.readEncoded();
+	}
+
+	@Override
+	public String toString() {
+		return this.getClass().getSimpleName() + ": { position: " + this.buffer.position() + ", limit: " + this.buffer.limit() + ", depth: " + this.depth + ", schemas: " + this.schemas.size() + " }";
+	}
+
+	public static class Frame {
+
+		/** {@link BinaryFormat#MAP}, {@link BinaryFormat#LIST}, or {@link BinaryFormat#BYTES}. */
+		public byte kind;
+		/** the number of entries or elements which have not been read yet. */
+		public int remaining;
+		public @NotNull String @Nullable [] schema;
+		/** true after a key was read from a map, but before its value was read. */
+		public boolean valuePending;
+	}
+}
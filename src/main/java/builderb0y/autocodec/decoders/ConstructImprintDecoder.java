@@ -15,8 +15,8 @@ import builderb0y.autocodec.reflection.reification.ReifiedType;
 
 public class ConstructImprintDecoder<T_Decoded> extends NamedDecoder<T_Decoded> {
 
-	public final @NotNull AutoConstructor<T_Decoded> constructor;
-	public final @NotNull AutoImprinter<T_Decoded> imprinter;
+	public @NotNull AutoConstructor<T_Decoded> constructor;
+	public @NotNull AutoImprinter<T_Decoded> imprinter;
 
 	public ConstructImprintDecoder(@NotNull ReifiedType<T_Decoded> type, @NotNull AutoConstructor<T_Decoded> constructor, @NotNull AutoImprinter<T_Decoded> imprinter) {
 		super(type);
@@ -33,6 +33,18 @@ public class ConstructImprintDecoder<T_Decoded> extends NamedDecoder<T_Decoded>
 		return object;
 	}
 
+	@Override
+	@OverrideOnly
+	public <T_Encoded> @Nullable T_Decoded decodeFrom(@NotNull DecodeContext<T_Encoded> context, @NotNull DecodeSource<T_Encoded> source) throws DecodeException {
+		if (!this.constructor.ignoresInput()) {
+			return this.decode(context.input(source.readEncoded()));
+		}
+		if (source.tryReadEmpty()) return null;
+		T_Decoded object = context.constructWith(this.constructor);
+		context.imprintWith(this.imprinter, object, source);
+		return object;
+	}
+
 	@Override
 	public @Nullable Stream<@NotNull String> getKeys() {
 		return this.imprinter.getKeys();
@@ -43,6 +55,18 @@ public class ConstructImprintDecoder<T_Decoded> extends NamedDecoder<T_Decoded>
 		return super.toString() + ": { constructor: " + this.constructor + ", imprinter: " + this.imprinter + " }";
 	}
 
+	@Override
+	public void visitChildren(@NotNull ChildVisitor visitor) {
+		visitor.visitChild("constructor", this.constructor);
+		visitor.visitChild("imprinter", this.imprinter);
+	}
+
+	@Override
+	public void linkChildren(@NotNull ChildLinker linker) {
+		this.constructor = linker.link(this.constructor);
+		this.imprinter = linker.link(this.imprinter);
+	}
+
 	public static class Factory extends NamedDecoderFactory {
 
 		public static final @NotNull Factory INSTANCE = new Factory();
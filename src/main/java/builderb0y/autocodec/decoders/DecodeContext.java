@@ -1,8 +1,9 @@
 package builderb0y.autocodec.decoders;
 
 import java.util.*;
-import java.util.function.Function;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import com.mojang.datafixers.util.Pair;
 import com.mojang.serialization.DynamicOps;
@@ -190,15 +191,7 @@ public class DecodeContext<T_Encoded> extends DynamicOpsContext<T_Encoded> {
 	public @Nullable Stream<@NotNull DecodeContext<T_Encoded>> tryAsStream(boolean allowSingleton) {
 		Stream<T_Encoded> stream = DFUVersions.getResult(this.ops.getStream(this.input));
 		if (stream != null) {
-			return stream.sequential().map(new Function<>() {
-
-				public int index;
-
-				@Override
-				public @NotNull DecodeContext<T_Encoded> apply(@NotNull T_Encoded encoded) {
-					return DecodeContext.this.input(encoded, new ArrayDecodePath(this.index++));
-				}
-			});
+			return StreamSupport.stream(new ElementSpliterator<>(this, stream.spliterator(), 0), false);
 		}
 		else {
 			return allowSingleton ? Stream.of(this) : null;
@@ -265,6 +258,15 @@ public class DecodeContext<T_Encoded> extends DynamicOpsContext<T_Encoded> {
 		return this.logger().decode(decoder, this);
 	}
 
+	/**
+	decodes the next value in source with decoder.
+	our {@link #input} should be {@link #empty()},
+	and our {@link #ops} should be the same as source's {@link DecodeSource#ops}.
+	*/
+	public <T_Decoded> T_Decoded decodeWith(@NotNull AutoDecoder<T_Decoded> decoder, @NotNull DecodeSource<T_Encoded> source) throws DecodeException {
+		return this.logger().decodeFrom(decoder, this, source);
+	}
+
 	public <T_Decoded> @NotNull T_Decoded constructWith(@NotNull AutoConstructor<T_Decoded> constructor) throws ConstructException {
 		return this.logger().construct(constructor, new ConstructContext<>(this));
 	}
@@ -273,6 +275,11 @@ public class DecodeContext<T_Encoded> extends DynamicOpsContext<T_Encoded> {
 		this.logger().imprint(imprinter, new ImprintContext<>(this, object));
 	}
 
+	/** same as {@link #decodeWith(AutoDecoder, DecodeSource)}, but for imprinting. */
+	public <T_Decoded> void imprintWith(@NotNull AutoImprinter<T_Decoded> imprinter, @NotNull T_Decoded object, @NotNull DecodeSource<T_Encoded> source) throws ImprintException {
+		this.logger().imprintFrom(imprinter, new ImprintContext<>(this, object), source);
+	}
+
 	public <T_Decoded> void verifyWith(@NotNull AutoVerifier<T_Decoded> verifier, @Nullable T_Decoded object) throws VerifyException {
 		this.logger().verify(verifier, new VerifyContext<>(this, object));
 	}
@@ -318,6 +325,53 @@ public class DecodeContext<T_Encoded> extends DynamicOpsContext<T_Encoded> {
 		}
 	}
 
+	/**
+	wraps the Spliterator of an encoded list, and gives every element
+	a context whose path is its index in the list.
+	the index is tracked per-Spliterator instead of with a shared counter,
+	so the indexes stay correct even if the stream is made parallel.
+	when the source is ordered and knows the exact size of
+	its prefix, we can be split too, otherwise we can't.
+	*/
+	public static class ElementSpliterator<T_Encoded> implements Spliterator<DecodeContext<T_Encoded>> {
+
+		public final @NotNull DecodeContext<T_Encoded> parent;
+		public final @NotNull Spliterator<T_Encoded> source;
+		/** the index of the next element which {@link #source} will provide. */
+		public int index;
+
+		public ElementSpliterator(@NotNull DecodeContext<T_Encoded> parent, @NotNull Spliterator<T_Encoded> source, int index) {
+			this.parent = parent;
+			this.source = source;
+			this.index  = index;
+		}
+
+		@Override
+		public boolean tryAdvance(@NotNull Consumer<? super DecodeContext<T_Encoded>> action) {
+			return this.source.tryAdvance((T_Encoded encoded) -> action.accept(this.parent.input(encoded, new ArrayDecodePath(this.index++))));
+		}
+
+		@Override
+		public @Nullable Spliterator<DecodeContext<T_Encoded>> trySplit() {
+			if (!this.source.hasCharacteristics(ORDERED | SUBSIZED)) return null;
+			Spliterator<T_Encoded> prefix = this.source.trySplit();
+			if (prefix == null) return null;
+			ElementSpliterator<T_Encoded> split = new ElementSpliterator<>(this.parent, prefix, this.index);
+			this.index += (int)(prefix.getExactSizeIfKnown());
+			return split;
+		}
+
+		@Override
+		public long estimateSize() {
+			return this.source.estimateSize();
+		}
+
+		@Override
+		public int characteristics() {
+			return (this.source.characteristics() & (SIZED | SUBSIZED | IMMUTABLE)) | ORDERED | NONNULL;
+		}
+	}
+
 	public static record ObjectDecodePath(@NotNull String memberName) implements DecodePath {
 
 		@Override
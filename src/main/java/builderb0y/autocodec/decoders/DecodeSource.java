@@ -0,0 +1,150 @@
+package builderb0y.autocodec.decoders;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.mojang.datafixers.util.Pair;
+import com.mojang.serialization.DynamicOps;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+a source of tokens which decoders can read from directly,
+in one forward pass, instead of requiring the entire input
+to be present as a tree of {@link T_Encoded} before decoding starts.
+see {@link AutoDecoder#decodeFrom(DecodeContext, DecodeSource)}.
+
+maps are read as {@link #beginMap()}, followed by {@link #nextKey()}
+and exactly one value for as long as {@link #hasNext()} returns true,
+followed by {@link #endMap()}. lists are read as {@link #beginList()},
+followed by one value for as long as {@link #hasNext()} returns true,
+followed by {@link #endList()}.
+
+decoders which need random access to their input can use {@link #readEncoded()}
+to read only the value they need into a subtree, and decode that as usual.
+
+the read methods which take a {@link DecodeContext} use it to describe
+where the problem is if the next value is not of the expected type.
+any other errors, including IOException's thrown by
+the underlying source, are thrown as {@link DecodeException}'s.
+*/
+public abstract class DecodeSource<T_Encoded> {
+
+	/** the ops used to create subtrees in {@link #readEncoded()}. */
+	public final @NotNull DynamicOps<T_Encoded> ops;
+	/** see {@link #resumeMap()}. */
+	public boolean resumingMap;
+
+	public DecodeSource(@NotNull DynamicOps<T_Encoded> ops) {
+		this.ops = ops;
+	}
+
+	/** returns the type of the next token without consuming it. */
+	public abstract @NotNull Token peek() throws DecodeException;
+
+	//////////////// structure ////////////////
+
+	public abstract void beginMap() throws DecodeException;
+
+	/** returns true if there are more entries in the current map, or more elements in the current list. */
+	public abstract boolean hasNext() throws DecodeException;
+
+	public abstract @NotNull String nextKey() throws DecodeException;
+
+	public abstract void endMap() throws DecodeException;
+
+	public abstract void beginList() throws DecodeException;
+
+	public abstract void endList() throws DecodeException;
+
+	/**
+	makes the next {@link #beginMap()} a no-op, and makes {@link #peek()}
+	return {@link Token#MAP} until then. this is used by decoders which
+	read some entries from a map before handing it off to another decoder,
+	which will then only see the remaining entries.
+	*/
+	public void resumeMap() {
+		this.resumingMap = true;
+	}
+
+	//////////////// values ////////////////
+
+	/** if the next value is empty, consumes it and returns true. otherwise, returns false. */
+	public abstract boolean tryReadEmpty() throws DecodeException;
+
+	/**
+	the context is only used for error messages,
+	and may be null if the caller has already checked
+	that the next value is a string with {@link #peek()}.
+	the same applies to {@link #readNumber(DecodeContext)} and {@link #readBoolean(DecodeContext)}.
+	*/
+	public abstract @NotNull String readString(@Nullable DecodeContext<T_Encoded> context) throws DecodeException;
+
+	public abstract @NotNull Number readNumber(@Nullable DecodeContext<T_Encoded> context) throws DecodeException;
+
+	public abstract boolean readBoolean(@Nullable DecodeContext<T_Encoded> context) throws DecodeException;
+
+	/** skips the next value, including all of its children. */
+	public void skip() throws DecodeException {
+		this.readEncoded();
+	}
+
+	/** reads the next value, including all of its children, into a subtree. */
+	public @NotNull T_Encoded readEncoded() throws DecodeException {
+		return switch (this.peek()) {
+			case MAP -> {
+				this.beginMap();
+				List<Pair<T_Encoded, T_Encoded>> entries = new ArrayList<>(8);
+				while (this.hasNext()) {
+					T_Encoded key = this.ops.createString(this.nextKey());
+					entries.add(Pair.of(key, this.readEncoded()));
+				}
+				this.endMap();
+				yield this.ops.createMap(entries.stream());
+			}
+			case LIST -> {
+				this.beginList();
+				List<T_Encoded> elements = new ArrayList<>(8);
+				while (this.hasNext()) {
+					elements.add(this.readEncoded());
+				}
+				this.endList();
+				yield this.ops.createList(elements.stream());
+			}
+			case STRING -> this.ops.createString(this.readString(null));
+			case NUMBER -> this.ops.createNumeric(this.readNumber(null));
+			case BOOLEAN -> this.ops.createBoolean(this.readBoolean(null));
+			case EMPTY -> {
+				this.tryReadEmpty();
+				yield this.ops.empty();
+			}
+			case END -> throw new DecodeException(() -> "Expected a value, but reached the end of the current map or list in " + this);
+		};
+	}
+
+	/**
+	returns a DecodeException which states that the next value
+	was expected to be of the provided type, but wasn't.
+	*/
+	public @NotNull DecodeException notA(@Nullable DecodeContext<T_Encoded> context, @NotNull String type) {
+		Token token;
+		try {
+			token = this.peek();
+		}
+		catch (DecodeException exception) {
+			return exception;
+		}
+		return new DecodeException(() -> (context != null ? context.pathToStringBuilder() : new StringBuilder("<value>")).append(" is not a ").append(type).append(": ").append(token).append(" in ").append(this).toString());
+	}
+
+	public static enum Token {
+		MAP,
+		LIST,
+		STRING,
+		NUMBER,
+		BOOLEAN,
+		EMPTY,
+		/** the end of the current map or list, or the end of the input. */
+		END;
+	}
+}
@@ -0,0 +1,241 @@
+package builderb0y.autocodec.decoders;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.internal.LazilyParsedNumber;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.mojang.serialization.JsonOps;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import builderb0y.autocodec.util.DFUVersions;
+
+/**
+a {@link DecodeSource} which reads JSON text from a {@link JsonReader},
+without building a {@link JsonElement} tree first.
+values are interpreted the same way our {@link #ops} interpret them,
+which is {@link JsonOps#INSTANCE} unless otherwise specified:
+numbers and booleans are interchangeable, strings can't be read as numbers or booleans,
+and numbers can be read as strings if {@link JsonOps#getStringValue(JsonElement)} allows it.
+subtrees read by {@link #readEncoded()} are parsed with {@link JsonParser}.
+*/
+public class JsonDecodeSource extends DecodeSource<JsonElement> {
+
+	public final @NotNull JsonReader reader;
+	/** true if our ops will read JSON numbers as strings. */
+	public final boolean numbersAreStrings;
+
+	public JsonDecodeSource(@NotNull JsonReader reader) {
+		this(reader, JsonOps.INSTANCE);
+	}
+
+	public JsonDecodeSource(@NotNull JsonReader reader, @NotNull JsonOps ops) {
+		super(ops);
+		this.reader = reader;
+		this.numbersAreStrings = DFUVersions.getResult(ops.getStringValue(new JsonPrimitive(0))) != null;
+	}
+
+	public JsonDecodeSource(@NotNull Reader reader) {
+		this(new JsonReader(reader));
+	}
+
+	/** reads UTF-8 encoded JSON text from the provided stream. */
+	public JsonDecodeSource(@NotNull InputStream stream) {
+		this(new InputStreamReader(stream, StandardCharsets.UTF_8));
+	}
+
+	/** throws a {@link DecodeException} if there is any more data after the value which was just read. */
+	public void expectEnd() throws DecodeException {
+		try {
+			if (this.reader.peek() != JsonToken.END_DOCUMENT) {
+				throw new DecodeException(() -> "Expected end of input, but found more data in " + this);
+			}
+		}
+		catch (IOException exception) {
+			throw new DecodeException(exception);
+		}
+	}
+
+	@Override
+	public @NotNull Token peek() throws DecodeException {
+		if (this.resumingMap) return Token.MAP;
+		try {
+			return switch (this.reader.peek()) {
+				case BEGIN_OBJECT -> Token.MAP;
+				case BEGIN_ARRAY -> Token.LIST;
+				case STRING -> Token.STRING;
+				case NUMBER -> Token.NUMBER;
+				case BOOLEAN -> Token.BOOLEAN;
+				case NULL -> Token.EMPTY;
+				case END_OBJECT, END_ARRAY, END_DOCUMENT -> Token.END;
+				case NAME -> throw new DecodeException(() -> "Expected a value, but found a key in " + this);
+			};
+		}
+		catch (IOException exception) {
+			throw new DecodeException(exception);
+		}
+	}
+
+	//////////////// structure ////////////////
+
+	@Override
+	public void beginMap() throws DecodeException {
+		if (this.resumingMap) {
+			this.resumingMap = false;
+			return;
+		}
+		try {
+			this.reader.beginObject();
+		}
+		catch (IOException | IllegalStateException exception) {
+			throw new DecodeException(exception);
+		}
+	}
+
+	@Override
+	public boolean hasNext() throws DecodeException {
+		try {
+			return this.reader.hasNext();
+		}
+		catch (IOException exception) {
+			throw new DecodeException(exception);
+		}
+	}
+
+	@Override
+	public @NotNull String nextKey() throws DecodeException {
+		try {
+			return this.reader.nextName();
+		}
+		catch (IOException | IllegalStateException exception) {
+			throw new DecodeException(exception);
+		}
+	}
+
+	@Override
+	public void endMap() throws DecodeException {
+		try {
+			this.reader.endObject();
+		}
+		catch (IOException | IllegalStateException exception) {
+			throw new DecodeException(exception);
+		}
+	}
+
+	@Override
+	public void beginList() throws DecodeException {
+		try {
+			this.reader.beginArray();
+		}
+		catch (IOException | IllegalStateException exception) {
+			throw new DecodeException(exception);
+		}
+	}
+
+	@Override
+	public void endList() throws DecodeException {
+		try {
+			this.reader.endArray();
+		}
+		catch (IOException | IllegalStateException exception) {
+			throw new DecodeException(exception);
+		}
+	}
+
+	//////////////// values ////////////////
+
+	@Override
+	public boolean tryReadEmpty() throws DecodeException {
+		if (this.peek() != Token.EMPTY) return false;
+		try {
+			this.reader.nextNull();
+			return true;
+		}
+		catch (IOException exception) {
+			throw new DecodeException(exception);
+		}
+	}
+
+	@Override
+	public @NotNull String readString(@Nullable DecodeContext<JsonElement> context) throws DecodeException {
+		try {
+			return switch (this.peek()) {
+				case STRING -> this.reader.nextString();
+				case NUMBER -> {
+					if (!this.numbersAreStrings) throw this.notA(context, "string");
+					yield this.reader.nextString();
+				}
+				default -> throw this.notA(context, "string");
+			};
+		}
+		catch (IOException exception) {
+			throw new DecodeException(exception);
+		}
+	}
+
+	@Override
+	public @NotNull Number readNumber(@Nullable DecodeContext<JsonElement> context) throws DecodeException {
+		try {
+			return switch (this.peek()) {
+				case NUMBER -> new LazilyParsedNumber(this.reader.nextString());
+				case BOOLEAN -> this.reader.nextBoolean() ? 1 : 0;
+				default -> throw this.notA(context, "number");
+			};
+		}
+		catch (IOException exception) {
+			throw new DecodeException(exception);
+		}
+	}
+
+	@Override
+	public boolean readBoolean(@Nullable DecodeContext<JsonElement> context) throws DecodeException {
+		try {
+			return switch (this.peek()) {
+				case BOOLEAN -> this.reader.nextBoolean();
+				case NUMBER -> new LazilyParsedNumber(this.reader.nextString()).byteValue() != 0;
+				default -> throw this.notA(context, "boolean");
+			};
+		}
+		catch (IOException exception) {
+			throw new DecodeException(exception);
+		}
+	}
+
+	@Override
+	public void skip() throws DecodeException {
+		if (this.resumingMap) {
+			super.skip();
+			return;
+		}
+		try {
+			this.reader.skipValue();
+		}
+		catch (IOException exception) {
+			throw new DecodeException(exception);
+		}
+	}
+
+	@Override
+	public @NotNull JsonElement readEncoded() throws DecodeException {
+		if (this.resumingMap) return super.readEncoded();
+		try {
+			return JsonParser.parseReader(this.reader);
+		}
+		catch (RuntimeException exception) {
+			throw new DecodeException(exception);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return this.reader.toString();
+	}
+}
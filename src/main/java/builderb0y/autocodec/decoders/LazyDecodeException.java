@@ -0,0 +1,23 @@
+package builderb0y.autocodec.decoders;
+
+import org.jetbrains.annotations.NotNull;
+
+import builderb0y.autocodec.annotations.DecodeLazily;
+
+/**
+thrown when an error occurs while decoding a value
+lazily, after decoding of its container has finished.
+for example, by the elements of a List annotated with {@link DecodeLazily}.
+the cause is always the original {@link DecodeException}.
+*/
+public class LazyDecodeException extends RuntimeException {
+
+	public LazyDecodeException(@NotNull DecodeException cause) {
+		super(cause);
+	}
+
+	@Override
+	public synchronized @NotNull DecodeException getCause() {
+		return (DecodeException)(super.getCause());
+	}
+}
@@ -10,7 +10,7 @@ import builderb0y.autocodec.common.LazyHandler;
 
 public class LazyDecoder<T> extends LazyHandler<AutoDecoder<T>> implements AutoDecoder<T> {
 
-	public @Nullable AutoDecoder<T> resolution;
+	public volatile @Nullable AutoDecoder<T> resolution;
 
 	@Override
 	public @Nullable AutoDecoder<T> getNullableDelegateHandler() {
@@ -28,8 +28,26 @@ public class LazyDecoder<T> extends LazyHandler<AutoDecoder<T>> implements AutoD
 		return context.decodeWith(this.getDelegateHandler());
 	}
 
+	@Override
+	@OverrideOnly
+	public <T_Encoded> @Nullable T decodeFrom(@NotNull DecodeContext<T_Encoded> context, @NotNull DecodeSource<T_Encoded> source) throws DecodeException {
+		return context.decodeWith(this.getDelegateHandler(), source);
+	}
+
 	@Override
 	public @Nullable Stream<@NotNull String> getKeys() {
 		return this.getDelegateHandler().getKeys();
 	}
+
+	@Override
+	public void visitChildren(@NotNull ChildVisitor visitor) {
+		AutoDecoder<T> resolution = this.resolution;
+		if (resolution != null) visitor.visitChild("delegate", resolution);
+	}
+
+	@Override
+	public void linkChildren(@NotNull ChildLinker linker) {
+		AutoDecoder<T> resolution = this.resolution;
+		if (resolution != null) this.resolution = linker.link(resolution);
+	}
 }
\ No newline at end of file
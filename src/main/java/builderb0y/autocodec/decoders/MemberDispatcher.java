@@ -0,0 +1,136 @@
+package builderb0y.autocodec.decoders;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.jetbrains.annotations.NotNull;
+
+import builderb0y.autocodec.decoders.DecodeContext.ObjectDecodePath;
+
+/**
+reads the entries of a map from a {@link DecodeSource},
+and dispatches each one to the member it belongs to by name.
+this is used by decoders which read objects with known members
+in one forward pass, in any order.
+
+each member can have several aliases. like {@link DecodeContext#getFirstMember(String...)},
+the earliest alias which has a non-empty value wins, regardless of the order
+that the entries appear in. entries under a member's first alias are
+dispatched as soon as they are read, since nothing can beat them.
+entries under any other alias are read into a subtree with {@link DecodeSource#readEncoded()},
+and only dispatched after the whole map has been read, if nothing better appeared.
+this way, values under aliases which lose are never decoded or applied,
+which matches what happens when decoding a tree.
+entries with unknown keys are skipped,
+and entries with empty values are treated as absent.
+if the same key appears more than once, the last occurrence wins.
+*/
+public class MemberDispatcher {
+
+	public final @NotNull Map<@NotNull String, @NotNull Alias> aliases;
+	public final int memberCount;
+
+	/** aliases[memberIndex] is every alias of the member at that index, in order of priority. */
+	public MemberDispatcher(@NotNull String @NotNull [] @NotNull [] aliases) {
+		this.memberCount = aliases.length;
+		this.aliases = new HashMap<>(aliases.length << 1);
+		for (int member = 0; member < aliases.length; member++) {
+			for (int alias = 0; alias < aliases[member].length; alias++) {
+				this.aliases.putIfAbsent(aliases[member][alias], new Alias(member, alias));
+			}
+		}
+	}
+
+	/**
+	reads one map from source, which must be the next value in source,
+	and calls {@link Handler#member(int, DecodeContext, DecodeSource)}
+	for every entry under a member's first alias,
+	followed by {@link Handler#buffered(int, DecodeContext)} for every
+	member whose best entry was under one of its other aliases,
+	and {@link Handler#missing(int)} for every member which had no entries.
+	the caller is responsible for checking that the next value
+	in source is actually a map before calling this method.
+	*/
+	public <T_Encoded> void dispatch(
+		@NotNull DecodeContext<T_Encoded> context,
+		@NotNull DecodeSource<T_Encoded> source,
+		@NotNull Handler<T_Encoded> handler
+	)
+	throws DecodeException {
+		//seen[member] = the index of the alias which was used
+		//for that member, plus 1. 0 means not seen yet.
+		int[] seen = new int[this.memberCount];
+		//values which were read under lower-priority aliases,
+		//and the keys they were read under. lazily allocated.
+		Object[] buffered = null;
+		String[] bufferedKeys = null;
+		source.beginMap();
+		while (source.hasNext()) {
+			String key = source.nextKey();
+			Alias alias = this.aliases.get(key);
+			if (alias == null) {
+				source.skip();
+				continue;
+			}
+			if (source.tryReadEmpty()) {
+				continue;
+			}
+			int previous = seen[alias.member];
+			if (previous != 0 && previous - 1 < alias.index) {
+				source.skip();
+				continue;
+			}
+			seen[alias.member] = alias.index + 1;
+			if (alias.index == 0) {
+				if (buffered != null) {
+					buffered[alias.member] = null;
+					bufferedKeys[alias.member] = null;
+				}
+				handler.member(alias.member, context.input(context.empty(), new ObjectDecodePath(key)), source);
+			}
+			else {
+				//a higher-priority alias could still appear later in the map.
+				if (buffered == null) {
+					buffered = new Object[this.memberCount];
+					bufferedKeys = new String[this.memberCount];
+				}
+				buffered[alias.member] = source.readEncoded();
+				bufferedKeys[alias.member] = key;
+			}
+		}
+		source.endMap();
+		for (int member = 0; member < this.memberCount; member++) {
+			if (seen[member] == 0) {
+				handler.missing(member);
+			}
+			else if (buffered != null && buffered[member] != null) {
+				@SuppressWarnings("unchecked")
+				T_Encoded value = (T_Encoded)(buffered[member]);
+				handler.buffered(member, context.input(value, new ObjectDecodePath(bufferedKeys[member])));
+			}
+		}
+	}
+
+	public static record Alias(int member, int index) {}
+
+	public static interface Handler<T_Encoded> {
+
+		/**
+		decodes the member at the provided index from source.
+		context has the path of the entry which is being read,
+		and its input is {@link DecodeContext#empty()}.
+		*/
+		public abstract void member(int index, @NotNull DecodeContext<T_Encoded> context, @NotNull DecodeSource<T_Encoded> source) throws DecodeException;
+
+		/**
+		decodes the member at the provided index from context's input.
+		context has the path of the entry which was read.
+		this is used for entries under any alias other than the member's first one,
+		which could not be decoded until the whole map had been read.
+		*/
+		public abstract void buffered(int index, @NotNull DecodeContext<T_Encoded> context) throws DecodeException;
+
+		/** called for every member which did not have an entry with a non-empty value. */
+		public abstract void missing(int index) throws DecodeException;
+	}
+}
@@ -0,0 +1,435 @@
+package builderb0y.autocodec.decoders;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import org.jetbrains.annotations.ApiStatus.OverrideOnly;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import builderb0y.autocodec.AutoCodec;
+import builderb0y.autocodec.annotations.EncodeInline;
+import builderb0y.autocodec.annotations.RecordLike;
+import builderb0y.autocodec.coders.RecordCoder;
+import builderb0y.autocodec.common.FactoryContext;
+import builderb0y.autocodec.common.FactoryException;
+import builderb0y.autocodec.constructors.AutoConstructor;
+import builderb0y.autocodec.decoders.AutoDecoder.NamedDecoder;
+import builderb0y.autocodec.decoders.DecodeSource.Token;
+import builderb0y.autocodec.reflection.FieldPredicate;
+import builderb0y.autocodec.reflection.MemberCollector;
+import builderb0y.autocodec.reflection.manipulators.InstanceWriter;
+import builderb0y.autocodec.reflection.memberViews.FieldLikeMemberView;
+import builderb0y.autocodec.reflection.memberViews.MethodLikeMemberView;
+import builderb0y.autocodec.reflection.reification.ReifiedType;
+import builderb0y.autocodec.util.ObjectArrayFactory;
+
+/**
+decodes only some of the members of an object, selected by path.
+paths are dot-separated lists of serialized names, like "settings.render.distance",
+where every name except the last one must refer to a member which is itself an object.
+selecting a member selects everything inside it too, so "settings.render" would
+decode the entire render object, and "settings.render.distance" is redundant with it.
+
+members which are not selected are never decoded at all.
+when decoding from a tree, they are never looked up.
+when decoding from a {@link DecodeSource}, they are skipped without being read into a subtree.
+
+the decoded object is only partially populated:
+for records and {@link RecordLike} classes, every component which
+is not selected is passed to the constructor as null, 0, or false.
+if the constructor rejects those arguments when the projection is created
+(for example, because it calls {@link Objects#requireNonNull(Object)}),
+then every component is selected instead, and the object is decoded in full.
+if it only rejects them for some inputs, then decoding those inputs
+throws a {@link DecodeException} which explains why.
+for every other class, the object is constructed with its {@link AutoConstructor},
+and only the selected fields are assigned. this is the same
+construct-then-assign strategy used by {@link ConstructImprintDecoder},
+so selected fields must not be final.
+
+projections should be created with {@link AutoCodec#createProjection(ReifiedType, String...)},
+which caches them per type and set of paths.
+*/
+public class ProjectionDecoder<T_Decoded> extends NamedDecoder<T_Decoded> {
+
+	public final @NotNull Member<T_Decoded, ?> @NotNull [] members;
+	public final @NotNull Assembler<T_Decoded> assembler;
+	/**
+	null if any of our members are {@link EncodeInline},
+	or if our assembler needs the input to create the object.
+	*/
+	public final @Nullable MemberDispatcher dispatcher;
+
+	public ProjectionDecoder(@NotNull ReifiedType<T_Decoded> type, @NotNull Member<T_Decoded, ?> @NotNull [] members, @NotNull Assembler<T_Decoded> assembler) {
+		super(type);
+		this.members = members;
+		this.assembler = assembler;
+		this.dispatcher = (
+			assembler.ignoresInput() && Arrays.stream(members).noneMatch((Member<T_Decoded, ?> member) -> member.inline)
+			? new MemberDispatcher(Arrays.stream(members).map((Member<T_Decoded, ?> member) -> member.field.getAliases()).toArray(String[][]::new))
+			: null
+		);
+	}
+
+	@Override
+	@OverrideOnly
+	public <T_Encoded> @Nullable T_Decoded decode(@NotNull DecodeContext<T_Encoded> context) throws DecodeException {
+		if (context.isEmpty()) return null;
+		Member<T_Decoded, ?>[] members = this.members;
+		Object[] values = new Object[members.length];
+		for (int index = 0; index < members.length; index++) {
+			values[index] = members[index].decode(context);
+		}
+		return this.assembler.assemble(context, values);
+	}
+
+	@Override
+	@OverrideOnly
+	public <T_Encoded> @Nullable T_Decoded decodeFrom(@NotNull DecodeContext<T_Encoded> context, @NotNull DecodeSource<T_Encoded> source) throws DecodeException {
+		if (this.dispatcher == null || source.peek() != Token.MAP) {
+			return this.decode(context.input(source.readEncoded()));
+		}
+		Member<T_Decoded, ?>[] members = this.members;
+		Object[] values = new Object[members.length];
+		this.dispatcher.dispatch(context, source, new MemberDispatcher.Handler<>() {
+
+			@Override
+			public void member(int index, @NotNull DecodeContext<T_Encoded> memberContext, @NotNull DecodeSource<T_Encoded> source) throws DecodeException {
+				values[index] = memberContext.decodeWith(members[index].decoder, source);
+			}
+
+			@Override
+			public void buffered(int index, @NotNull DecodeContext<T_Encoded> memberContext) throws DecodeException {
+				values[index] = memberContext.decodeWith(members[index].decoder);
+			}
+
+			@Override
+			public void missing(int index) throws DecodeException {
+				values[index] = members[index].decode(context);
+			}
+		});
+		return this.assembler.assemble(context, values);
+	}
+
+	@Override
+	public void visitChildren(@NotNull ChildVisitor visitor) {
+		for (Member<T_Decoded, ?> member : this.members) {
+			visitor.visitChild(member.field.getSerializedName(), member.decoder);
+		}
+	}
+
+	@Override
+	public void linkChildren(@NotNull ChildLinker linker) {
+		for (Member<T_Decoded, ?> member : this.members) {
+			member.linkChildren(linker);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return super.toString() + ": { " + this.members.length + " members: " + Arrays.stream(this.members).map((Member<T_Decoded, ?> member) -> member.field.getSerializedName()).collect(Collectors.joining(", ")) + " }";
+	}
+
+	/**
+	creates a ProjectionDecoder for context's type which decodes the provided paths.
+	does not check or populate any caches on its own;
+	{@link AutoCodec#createProjection(ReifiedType, String...)} does that.
+	*/
+	public static <T_Decoded> @NotNull ProjectionDecoder<T_Decoded> create(@NotNull FactoryContext<T_Decoded> context, @NotNull Collection<@NotNull String> paths) throws FactoryException {
+		if (paths.isEmpty()) {
+			throw new FactoryException("No paths to project.");
+		}
+		//serialized name -> remaining paths inside that member.
+		//an empty set of remaining paths means the entire member is selected.
+		Map<String, Set<String>> selected = new LinkedHashMap<>(paths.size());
+		for (String path : paths) {
+			int dot = path.indexOf('.');
+			String name = dot >= 0 ? path.substring(0, dot) : path;
+			if (name.isEmpty() || path.endsWith(".")) {
+				throw new FactoryException("Invalid path: " + path);
+			}
+			Set<String> remaining = selected.computeIfAbsent(name, (String $) -> new LinkedHashSet<>(2));
+			if (dot < 0) {
+				//the entire member is selected, which overrides any sub-paths.
+				remaining.clear();
+				remaining.add("");
+			}
+			else if (!remaining.contains("")) {
+				remaining.add(path.substring(dot + 1));
+			}
+		}
+		context.logger().logMessageLazy(() -> "Projecting " + selected.keySet() + " of " + context.type);
+		Class<?> rawClass = context.type.getRawClass();
+		RecordLike annotation = context.type.getAnnotations().getFirst(RecordLike.class);
+		if (annotation != null || (rawClass != null && rawClass.isRecord())) {
+			return createRecord(context, annotation, selected);
+		}
+		else {
+			return createConstructed(context, selected);
+		}
+	}
+
+	public static <T_Owner> @NotNull FieldLikeMemberView<T_Owner, ?> findField(
+		@NotNull FactoryContext<T_Owner> context,
+		@NotNull FieldLikeMemberView<T_Owner, ?> @NotNull [] fields,
+		@NotNull String serializedName
+	)
+	throws FactoryException {
+		for (FieldLikeMemberView<T_Owner, ?> field : fields) {
+			if (field.getSerializedName().equals(serializedName)) return field;
+		}
+		throw new FactoryException("Cannot find member " + serializedName + " in " + context.type);
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public static <T_Decoded> @NotNull ProjectionDecoder<T_Decoded> createRecord(
+		@NotNull FactoryContext<T_Decoded> context,
+		@Nullable RecordLike annotation,
+		@NotNull Map<@NotNull String, @NotNull Set<@NotNull String>> selected
+	)
+	throws FactoryException {
+		RecordCoder.Factory factory = RecordCoder.Factory.INSTANCE;
+		FieldLikeMemberView<T_Decoded, ?>[] fields;
+		MethodLikeMemberView<?, T_Decoded> constructor;
+		if (annotation != null) {
+			fields = factory.findFieldsWithNames(context, Arrays.stream(annotation.value()));
+			constructor = factory.findConstructor(
+				context,
+				fields,
+				annotation.name(),
+				annotation.in() == void.class
+				? context.type
+				: ReifiedType.parameterizeWithWildcards(annotation.in())
+			);
+		}
+		else {
+			fields = (
+				context
+				.reflect()
+				.searchFields(
+					false,
+					new FieldPredicate().notStatic(),
+					MemberCollector.tryAll()
+				)
+				.toArray(FieldLikeMemberView.ARRAY_FACTORY.generic())
+			);
+			constructor = factory.findConstructor(context, fields, "new", context.type);
+		}
+		try {
+			MethodHandle handle = constructor.createMethodHandle(context);
+			//unselected components are passed as null, 0, or false.
+			Object[] defaults = new Object[fields.length];
+			for (int index = 0; index < fields.length; index++) {
+				Class<?> parameterType = handle.type().parameterType(index);
+				if (parameterType.isPrimitive()) defaults[index] = Array.get(Array.newInstance(parameterType, 1), 0);
+			}
+			MethodHandle spreadConstructor = handle.asSpreader(Object[].class, fields.length).asType(MethodType.methodType(Object.class, Object[].class));
+			if (selected.size() < fields.length && !acceptsDefaults(spreadConstructor, defaults)) {
+				context.logger().logMessageLazy(() -> constructor + " rejects unselected components. Decoding " + context.type + " in full.");
+				selected = new LinkedHashMap<>(fields.length);
+				for (FieldLikeMemberView<T_Decoded, ?> field : fields) {
+					selected.put(field.getSerializedName(), Collections.singleton(""));
+				}
+			}
+			Member<T_Decoded, ?>[] members = Member.ARRAY_FACTORY.applyGeneric(selected.size());
+			int[] argumentIndexes = new int[members.length];
+			int memberIndex = 0;
+			for (Map.Entry<String, Set<String>> entry : selected.entrySet()) {
+				FieldLikeMemberView<T_Decoded, ?> field = findField(context, fields, entry.getKey());
+				argumentIndexes[memberIndex] = Arrays.asList(fields).indexOf(field);
+				members[memberIndex++] = new Member(field, createMemberDecoder(context, field, entry.getValue()), null);
+			}
+			return new ProjectionDecoder<>(context.type, members, new RecordAssembler<>(spreadConstructor, defaults, argumentIndexes));
+		}
+		catch (IllegalAccessException exception) {
+			throw new FactoryException(exception);
+		}
+	}
+
+	/**
+	returns true if spreadConstructor can be invoked with defaults without throwing.
+	records which validate their components (for example, by rejecting nulls)
+	can't be passed null, 0, or false for components which are not selected.
+	*/
+	public static boolean acceptsDefaults(@NotNull MethodHandle spreadConstructor, @Nullable Object @NotNull [] defaults) {
+		try {
+			Object object = spreadConstructor.invokeExact(defaults.clone());
+			return true;
+		}
+		catch (VirtualMachineError error) {
+			throw error;
+		}
+		catch (Throwable throwable) {
+			return false;
+		}
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public static <T_Decoded> @NotNull ProjectionDecoder<T_Decoded> createConstructed(
+		@NotNull FactoryContext<T_Decoded> context,
+		@NotNull Map<@NotNull String, @NotNull Set<@NotNull String>> selected
+	)
+	throws FactoryException {
+		AutoConstructor<T_Decoded> constructor = context.forceCreateConstructor();
+		FieldLikeMemberView<T_Decoded, ?>[] fields = (
+			context
+			.reflect(context.type)
+			.searchFields(
+				true,
+				new FieldPredicate().notStatic(),
+				MemberCollector.tryAll()
+			)
+			.toArray(FieldLikeMemberView.ARRAY_FACTORY.generic())
+		);
+		Member<T_Decoded, ?>[] members = Member.ARRAY_FACTORY.applyGeneric(selected.size());
+		int memberIndex = 0;
+		for (Map.Entry<String, Set<String>> entry : selected.entrySet()) {
+			FieldLikeMemberView<T_Decoded, ?> field = findField(context, fields, entry.getKey());
+			if (field.isFinal()) {
+				throw new FactoryException("Cannot project final field " + field + " because the object is assigned after being constructed.");
+			}
+			try {
+				members[memberIndex++] = new Member(field, createMemberDecoder(context, field, entry.getValue()), field.createInstanceWriter(context));
+			}
+			catch (IllegalAccessException exception) {
+				throw new FactoryException(exception);
+			}
+		}
+		return new ProjectionDecoder<>(context.type, members, new ConstructingAssembler<>(constructor, members));
+	}
+
+	/**
+	if remainingPaths contains only the empty path, the entire member is
+	selected, and the member's regular coder is used to decode it.
+	otherwise, a nested ProjectionDecoder is created for the remaining paths.
+	*/
+	public static <T_Member> @NotNull AutoDecoder<T_Member> createMemberDecoder(
+		@NotNull FactoryContext<?> context,
+		@NotNull FieldLikeMemberView<?, T_Member> field,
+		@NotNull Set<@NotNull String> remainingPaths
+	)
+	throws FactoryException {
+		FactoryContext<T_Member> memberContext = context.type(field.getType());
+		if (remainingPaths.contains("")) return memberContext.forceCreateCoder();
+		if (field.getType().getAnnotations().has(EncodeInline.class)) {
+			throw new FactoryException("Cannot project into " + field + " because it is inline.");
+		}
+		return create(memberContext, remainingPaths);
+	}
+
+	public static class Member<T_Owner, T_Member> {
+
+		public static final @NotNull ObjectArrayFactory<Member<?, ?>> ARRAY_FACTORY = new ObjectArrayFactory<>(Member.class).generic();
+
+		public final @NotNull FieldLikeMemberView<T_Owner, T_Member> field;
+		public @NotNull AutoDecoder<T_Member> decoder;
+		/** null for record components, which are passed to the constructor instead. */
+		public final @Nullable InstanceWriter<T_Owner, T_Member> writer;
+		public final boolean inline;
+
+		public Member(
+			@NotNull FieldLikeMemberView<T_Owner, T_Member> field,
+			@NotNull AutoDecoder<T_Member> decoder,
+			@Nullable InstanceWriter<T_Owner, T_Member> writer
+		) {
+			this.field   = field;
+			this.decoder = decoder;
+			this.writer  = writer;
+			this.inline  = field.getType().getAnnotations().has(EncodeInline.class);
+		}
+
+		/** decodes this member from the object which context contains. */
+		public <T_Encoded> @Nullable T_Member decode(@NotNull DecodeContext<T_Encoded> context) throws DecodeException {
+			return (this.inline ? context : context.getFirstMember(this.field.getAliases())).decodeWith(this.decoder);
+		}
+
+		@SuppressWarnings("unchecked")
+		public void assign(@NotNull T_Owner owner, @Nullable Object value) {
+			if (value != null) this.writer.set(owner, (T_Member)(value));
+		}
+
+		public void linkChildren(@NotNull ChildLinker linker) {
+			this.decoder = linker.link(this.decoder);
+		}
+	}
+
+	/** creates the decoded object once all of the selected members have been decoded. */
+	public static abstract class Assembler<T_Decoded> {
+
+		/** values[index] is the decoded value of the member at that index. */
+		public abstract <T_Encoded> @NotNull T_Decoded assemble(@NotNull DecodeContext<T_Encoded> context, @Nullable Object @NotNull [] values) throws DecodeException;
+
+		/** see {@link AutoConstructor#ignoresInput()}. */
+		public abstract boolean ignoresInput();
+	}
+
+	public static class RecordAssembler<T_Decoded> extends Assembler<T_Decoded> {
+
+		/** (Object[]) -> T_Decoded */
+		public final @NotNull MethodHandle spreadConstructor;
+		public final @Nullable Object @NotNull [] defaults;
+		/** argumentIndexes[memberIndex] = the index of the constructor parameter for that member. */
+		public final int @NotNull [] argumentIndexes;
+
+		public RecordAssembler(@NotNull MethodHandle spreadConstructor, @Nullable Object @NotNull [] defaults, int @NotNull [] argumentIndexes) {
+			this.spreadConstructor = spreadConstructor;
+			this.defaults = defaults;
+			this.argumentIndexes = argumentIndexes;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public <T_Encoded> @NotNull T_Decoded assemble(@NotNull DecodeContext<T_Encoded> context, @Nullable Object @NotNull [] values) throws DecodeException {
+			Object[] arguments = this.defaults.clone();
+			for (int index = 0; index < values.length; index++) {
+				if (values[index] != null) arguments[this.argumentIndexes[index]] = values[index];
+			}
+			try {
+				return (T_Decoded)(this.spreadConstructor.invokeExact(arguments));
+			}
+			catch (DecodeException | Error exception) {
+				throw exception;
+			}
+			catch (Throwable throwable) {
+				throw new DecodeException(() -> context.pathToString() + " could not be constructed from its selected members. Its constructor may validate members which were not selected.", throwable);
+			}
+		}
+
+		@Override
+		public boolean ignoresInput() {
+			return true;
+		}
+	}
+
+	public static class ConstructingAssembler<T_Decoded> extends Assembler<T_Decoded> {
+
+		public final @NotNull AutoConstructor<T_Decoded> constructor;
+		public final @NotNull Member<T_Decoded, ?> @NotNull [] members;
+
+		public ConstructingAssembler(@NotNull AutoConstructor<T_Decoded> constructor, @NotNull Member<T_Decoded, ?> @NotNull [] members) {
+			this.constructor = constructor;
+			this.members = members;
+		}
+
+		@Override
+		public <T_Encoded> @NotNull T_Decoded assemble(@NotNull DecodeContext<T_Encoded> context, @Nullable Object @NotNull [] values) throws DecodeException {
+			T_Decoded object = context.constructWith(this.constructor);
+			for (int index = 0; index < values.length; index++) {
+				this.members[index].assign(object, values[index]);
+			}
+			return object;
+		}
+
+		@Override
+		public boolean ignoresInput() {
+			return this.constructor.ignoresInput();
+		}
+	}
+
+	/** the key which {@link AutoCodec#projections} are cached by. */
+	public static record Key(@NotNull ReifiedType<?> type, @NotNull Set<@NotNull String> paths) {}
+}
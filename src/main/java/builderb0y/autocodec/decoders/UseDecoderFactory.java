@@ -5,6 +5,8 @@ import java.lang.reflect.*;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import builderb0y.autocodec.annotations.UseDecoder;
+import builderb0y.autocodec.common.FactoryApplicability;
 import builderb0y.autocodec.common.FactoryContext;
 import builderb0y.autocodec.common.UseHandlerFactory1;
 import builderb0y.autocodec.common.UseSpec;
@@ -23,6 +25,11 @@ public class UseDecoderFactory extends UseHandlerFactory1<AutoDecoder<?>> implem
 		super(AutoDecoder.class, DecoderFactory.class, DecodeContext.class, Object.class, "decode");
 	}
 
+	@Override
+	public @NotNull FactoryApplicability getApplicability() {
+		return FactoryApplicability.annotatedWith(UseDecoder.class);
+	}
+
 	@Override
 	public <T_HandledType> @Nullable UseSpec getSpec(@NotNull FactoryContext<T_HandledType> context) {
 		return UseSpec.fromUseDecoder(context.type);
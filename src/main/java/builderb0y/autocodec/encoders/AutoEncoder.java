@@ -37,6 +37,24 @@ public interface AutoEncoder<T_Decoded> extends AutoHandler, KeyHolder {
 	@OverrideOnly
 	public abstract <T_Encoded> @NotNull T_Encoded encode(@NotNull EncodeContext<T_Encoded, T_Decoded> context) throws EncodeException;
 
+	/**
+	same as {@link #encode(EncodeContext)}, but writes the encoded
+	data to sink directly instead of returning it.
+	the default implementation encodes the object as usual,
+	and writes the resulting subtree to sink.
+	encoders which produce large or deeply nested data should override this
+	method to write tokens to sink directly, so that no subtree is created.
+
+	this method is annotated with {@link OverrideOnly}
+	because it performs no logging on its own.
+	use {@link EncodeContext#encodeWith(AutoEncoder, EncodeSink)}
+	to encode and log what is being encoded.
+	*/
+	@OverrideOnly
+	public default <T_Encoded> void encodeTo(@NotNull EncodeContext<T_Encoded, T_Decoded> context, @NotNull EncodeSink<T_Encoded> sink) throws EncodeException {
+		sink.writeEncoded(this.encode(context));
+	}
+
 	/**
 	if this AutoEncoder encodes into an object with known keys,
 	then this method returns those keys.
@@ -0,0 +1,203 @@
+package builderb0y.autocodec.encoders;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import builderb0y.autocodec.AutoCodec;
+import builderb0y.autocodec.decoders.BinaryContainerReader;
+import builderb0y.autocodec.util.BinaryFormat;
+
+/**
+writes a container of values in the binary format described in {@link BinaryFormat},
+which can later be opened with {@link BinaryContainerReader} to read
+individual values without reading the rest of the container.
+
+a container holds either a list of values, added with {@link #add(AutoEncoder, Object)},
+or a map of keys to values, added with {@link #put(AutoEncoder, Object, AutoEncoder, Object)}.
+the two can not be mixed in the same container.
+values are written to the file as soon as they are added,
+so memory usage does not grow with the size of the values.
+only the index (8 bytes per value), the schemas, and for maps,
+the encoded keys, are kept in memory until {@link #close()},
+which writes them at the end of the file.
+
+this class is not thread-safe.
+*/
+public class BinaryContainerWriter implements Closeable {
+
+	/** values are buffered until this many bytes are pending, and then written to the file. */
+	public static final int FLUSH_THRESHOLD = 1 << 16;
+
+	public final @NotNull AutoCodec autoCodec;
+	public final @NotNull FileChannel channel;
+	public final @NotNull BinaryEncodeSink values;
+	/** null until the first key is added. */
+	public @Nullable BinaryEncodeSink keys;
+	/** the number of bytes which were already written to {@link #channel}. */
+	public long flushed;
+	/** offsets[index] = the position in the file where the value at that index starts. */
+	public long @NotNull [] offsets;
+	public int count;
+	public boolean closed;
+
+	public BinaryContainerWriter(@NotNull AutoCodec autoCodec, @NotNull FileChannel channel) {
+		this.autoCodec = autoCodec;
+		this.channel   = channel;
+		this.values    = new BinaryEncodeSink(FLUSH_THRESHOLD + (FLUSH_THRESHOLD >> 2));
+		this.values.writeSchemas = false;
+		this.offsets   = new long[16];
+		this.values.rawInt(BinaryFormat.CONTAINER_MAGIC);
+		this.values.rawByte(BinaryFormat.CONTAINER_VERSION);
+	}
+
+	/** creates or replaces the file at the provided path. */
+	public static @NotNull BinaryContainerWriter create(@NotNull AutoCodec autoCodec, @NotNull Path path) throws EncodeException {
+		try {
+			return new BinaryContainerWriter(autoCodec, FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE));
+		}
+		catch (IOException exception) {
+			throw new EncodeException(exception);
+		}
+	}
+
+	/** appends value to the list that this container holds. */
+	public <T_Decoded> void add(@NotNull AutoEncoder<T_Decoded> encoder, T_Decoded value) throws EncodeException {
+		if (this.keys != null) {
+			throw new EncodeException(() -> "Attempt to add a list element to a container which holds a map: " + this);
+		}
+		this.append(encoder, value);
+		this.flushIfNecessary();
+	}
+
+	/**
+	adds an entry to the map that this container holds.
+	duplicate keys are not detected, and the
+	reader will find the first entry with the key.
+	if either the key or the value fails to encode,
+	the container is left as it was before this method was called.
+	*/
+	public <K, V> void put(@NotNull AutoEncoder<K> keyEncoder, K key, @NotNull AutoEncoder<V> valueEncoder, V value) throws EncodeException {
+		if (this.closed) {
+			throw new EncodeException(() -> "Attempt to add to a closed container: " + this);
+		}
+		BinaryEncodeSink keys = this.keys;
+		boolean first = keys == null;
+		if (first) {
+			if (this.count != 0) {
+				throw new EncodeException(() -> "Attempt to add a map entry to a container which holds a list: " + this);
+			}
+			keys = this.keys = new BinaryEncodeSink();
+		}
+		int keysPosition = keys.position, keysSchemaCount = keys.schemas.size();
+		try {
+			this.autoCodec.encodeTo(keyEncoder, key, keys);
+			this.append(valueEncoder, value);
+		}
+		catch (Throwable throwable) {
+			if (first) this.keys = null;
+			else keys.truncate(keysPosition, keysSchemaCount);
+			throw throwable;
+		}
+		this.flushIfNecessary();
+	}
+
+	/**
+	adds value to the end of this container, without a key.
+	if value fails to encode, the container
+	is left as it was before this method was called.
+	the caller is responsible for calling {@link #flushIfNecessary()} afterwards.
+	*/
+	public <T_Decoded> void append(@NotNull AutoEncoder<T_Decoded> encoder, T_Decoded value) throws EncodeException {
+		if (this.closed) {
+			throw new EncodeException(() -> "Attempt to add to a closed container: " + this);
+		}
+		BinaryEncodeSink values = this.values;
+		int position = values.position, schemaCount = values.schemas.size();
+		try {
+			this.autoCodec.encodeTo(encoder, value, values);
+		}
+		catch (Throwable throwable) {
+			values.truncate(position, schemaCount);
+			throw throwable;
+		}
+		if (this.count == this.offsets.length) {
+			this.offsets = Arrays.copyOf(this.offsets, this.count << 1);
+		}
+		this.offsets[this.count++] = this.flushed + position;
+	}
+
+	public void flushIfNecessary() throws EncodeException {
+		if (this.values.position >= FLUSH_THRESHOLD) {
+			this.flush();
+		}
+	}
+
+	public void flush() throws EncodeException {
+		try {
+			ByteBuffer buffer = this.values.toByteBuffer();
+			while (buffer.hasRemaining()) {
+				this.channel.write(buffer);
+			}
+		}
+		catch (IOException exception) {
+			throw new EncodeException(exception);
+		}
+		this.flushed += this.values.position;
+		this.values.reset();
+	}
+
+	/** writes the index, schemas, keys, and trailer, and then closes the file. */
+	@Override
+	public void close() throws EncodeException {
+		if (this.closed) return;
+		this.closed = true;
+		try (FileChannel channel = this.channel) {
+			BinaryEncodeSink sink = this.values;
+			long indexOffset = this.flushed + sink.position;
+			for (int index = 0; index < this.count; index++) {
+				sink.rawLong(this.offsets[index]);
+			}
+			sink.rawLong(indexOffset);
+
+			long schemasOffset = this.flushed + sink.position;
+			sink.rawVarint(sink.schemas.size());
+			for (String[] schema : sink.schemas) {
+				sink.rawVarint(schema.length);
+				for (String key : schema) {
+					sink.rawString(key);
+				}
+			}
+
+			long keysOffset = -1L;
+			if (this.keys != null) {
+				keysOffset = this.flushed + sink.position;
+				sink.ensureCapacity(this.keys.position);
+				System.arraycopy(this.keys.buffer, 0, sink.buffer, sink.position, this.keys.position);
+				sink.position += this.keys.position;
+			}
+
+			sink.rawLong(indexOffset);
+			sink.rawLong(schemasOffset);
+			sink.rawLong(keysOffset);
+			sink.rawInt(this.count);
+			sink.rawInt(BinaryFormat.CONTAINER_MAGIC);
+			this.flush();
+		}
+		catch (IOException exception) {
+			throw new EncodeException(exception);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return this.getClass().getSimpleName() + ": { count: " + this.count + ", map: " + (this.keys != null) + ", size: " + (this.flushed + this.values.position) + " }";
+	}
+}
@@ -0,0 +1,463 @@
+package builderb0y.autocodec.encoders;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.mojang.datafixers.util.Unit;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import builderb0y.autocodec.util.BinaryFormat;
+import builderb0y.autocodec.util.ObjectOps;
+
+/**
+an {@link EncodeSink} which writes the compact binary format
+described in {@link BinaryFormat} to an internal buffer.
+once encoding is done, the result can be retrieved with
+{@link #toByteArray()}, {@link #toByteBuffer()}, or {@link #writeTo(OutputStream)}.
+a sink can be re-used for another value after {@link #reset()}.
+
+subtrees created by encoders which don't support writing tokens
+directly are created with {@link ObjectOps#INSTANCE}.
+
+lists and maps are prefixed with their size. since the size is not known
+until the list or map ends, 1 byte is reserved for it up front, and the
+contents are shifted over in the rare case that more than 1 byte is needed.
+*/
+public class BinaryEncodeSink extends EncodeSink<Object> {
+
+	public byte[] buffer;
+	public int position;
+	/** the ID of every schema which has been written so far. */
+	public final @NotNull Map<@NotNull String @NotNull [], @NotNull Integer> schemaIDs = new IdentityHashMap<>(16);
+	/** every schema which has been written so far, indexed by ID. */
+	public final @NotNull List<@NotNull String @NotNull []> schemas = new ArrayList<>(16);
+	/**
+	if false, {@link BinaryFormat#SCHEMA} definitions are not written to our buffer,
+	and the caller is responsible for storing {@link #schemas} somewhere else.
+	this is useful when values need to be read in a different order than
+	they were written in, and therefore can't rely on earlier values
+	to define the schemas they use.
+	*/
+	public boolean writeSchemas = true;
+	/** the lists and maps which are currently being written, innermost last. */
+	public final @NotNull List<@NotNull Frame> frames = new ArrayList<>(8);
+	public int depth;
+
+	public BinaryEncodeSink(int initialCapacity) {
+		super(ObjectOps.INSTANCE);
+		this.buffer = new byte[Math.max(initialCapacity, 16)];
+	}
+
+	public BinaryEncodeSink() {
+		this(256);
+	}
+
+	/**
+	discards everything written so far, so that another value can be written.
+	schemas are NOT forgotten, because a reader which reads the
+	previous value will still know about them when reading the next one.
+	use {@link #resetSchemas()} if the next value will be read on its own.
+	*/
+	public void reset() {
+		this.position = 0;
+		this.depth = 0;
+	}
+
+	public void resetSchemas() {
+		this.schemaIDs.clear();
+		this.schemas.clear();
+	}
+
+	/**
+	discards everything written after position, and every schema which was
+	added after {@link #schemas} had the provided size, and ends all open lists and maps.
+	this is used to undo a value which failed to encode part way through.
+	*/
+	public void truncate(int position, int schemaCount) {
+		this.position = position;
+		this.depth = 0;
+		for (int index = this.schemas.size(); --index >= schemaCount;) {
+			this.schemaIDs.remove(this.schemas.remove(index));
+		}
+	}
+
+	public byte @NotNull [] toByteArray() {
+		return Arrays.copyOf(this.buffer, this.position);
+	}
+
+	/** returns a view of our internal buffer. the view is invalidated by subsequent writes. */
+	public @NotNull ByteBuffer toByteBuffer() {
+		return ByteBuffer.wrap(this.buffer, 0, this.position);
+	}
+
+	public void writeTo(@NotNull OutputStream stream) throws EncodeException {
+		try {
+			stream.write(this.buffer, 0, this.position);
+		}
+		catch (IOException exception) {
+			throw new EncodeException(exception);
+		}
+	}
+
+	//////////////// raw output ////////////////
+
+	public void ensureCapacity(int extra) {
+		int needed = this.position + extra;
+		if (needed > this.buffer.length) {
+			this.buffer = Arrays.copyOf(this.buffer, Math.max(needed, this.buffer.length << 1));
+		}
+	}
+
+	public void rawByte(int value) {
+		this.ensureCapacity(1);
+		this.buffer[this.position++] = (byte)(value);
+	}
+
+	public void rawVarint(int value) {
+		this.ensureCapacity(5);
+		while ((value & ~0x7F) != 0) {
+			this.buffer[this.position++] = (byte)((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		this.buffer[this.position++] = (byte)(value);
+	}
+
+	public void rawVarlong(long value) {
+		this.ensureCapacity(10);
+		while ((value & ~0x7FL) != 0L) {
+			this.buffer[this.position++] = (byte)((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		this.buffer[this.position++] = (byte)(value);
+	}
+
+	public void rawInt(int value) {
+		this.ensureCapacity(4);
+		this.buffer[this.position++] = (byte)(value >>> 24);
+		this.buffer[this.position++] = (byte)(value >>> 16);
+		this.buffer[this.position++] = (byte)(value >>>  8);
+		this.buffer[this.position++] = (byte)(value);
+	}
+
+	public void rawLong(long value) {
+		this.rawInt((int)(value >>> 32));
+		this.rawInt((int)(value));
+	}
+
+	public void rawString(@NotNull String value) {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		this.rawVarint(bytes.length);
+		this.ensureCapacity(bytes.length);
+		System.arraycopy(bytes, 0, this.buffer, this.position, bytes.length);
+		this.position += bytes.length;
+	}
+
+	//////////////// structure ////////////////
+
+	public @Nullable Frame currentFrame() {
+		return this.depth == 0 ? null : this.frames.get(this.depth - 1);
+	}
+
+	/**
+	called before every value, including lists and maps.
+	if we are in a map, the pending key is written now,
+	now that we know its value is not empty.
+	*/
+	public void beforeValue() throws EncodeException {
+		Frame frame = this.currentFrame();
+		if (frame == null) return;
+		if (frame.isMap) {
+			if (frame.pendingKey == null) {
+				throw new EncodeException(() -> "Attempt to write a value to a map without a key in " + this);
+			}
+			if (frame.schema != null) {
+				int index = frame.indexOf(frame.pendingKey);
+				this.rawVarint(index + 1);
+				if (index < 0) this.rawString(frame.pendingKey);
+			}
+			else {
+				this.rawString(frame.pendingKey);
+			}
+			frame.pendingKey = null;
+		}
+		frame.count++;
+	}
+
+	public void pushFrame(boolean isMap, @NotNull String @Nullable [] schema) {
+		Frame frame;
+		if (this.depth < this.frames.size()) {
+			frame = this.frames.get(this.depth);
+		}
+		else {
+			this.frames.add(frame = new Frame());
+		}
+		this.depth++;
+		frame.isMap = isMap;
+		frame.schema = schema;
+		frame.cursor = 0;
+		frame.count = 0;
+		frame.pendingKey = null;
+		//reserve 1 byte for the size.
+		frame.sizePosition = this.position;
+		this.rawByte(0);
+	}
+
+	public void popFrame(boolean isMap) throws EncodeException {
+		Frame frame = this.currentFrame();
+		if (frame == null || frame.isMap != isMap) {
+			throw new EncodeException(() -> "Attempt to end a " + (isMap ? "map" : "list") + " which was not started in " + this);
+		}
+		this.depth--;
+		int count = frame.count;
+		int size = BinaryFormat.varintSize(count);
+		int sizePosition = frame.sizePosition;
+		if (size > 1) {
+			this.ensureCapacity(size - 1);
+			System.arraycopy(this.buffer, sizePosition + 1, this.buffer, sizePosition + size, this.position - sizePosition - 1);
+			this.position += size - 1;
+		}
+		while ((count & ~0x7F) != 0) {
+			this.buffer[sizePosition++] = (byte)((count & 0x7F) | 0x80);
+			count >>>= 7;
+		}
+		this.buffer[sizePosition] = (byte)(count);
+	}
+
+	@Override
+	public void beginMap() throws EncodeException {
+		this.beforeValue();
+		this.rawByte(BinaryFormat.MAP);
+		this.pushFrame(true, null);
+	}
+
+	@Override
+	public void beginMap(@NotNull String @NotNull [] schema) throws EncodeException {
+		this.beforeValue();
+		Integer id = this.schemaIDs.get(schema);
+		if (id == null) {
+			this.schemaIDs.put(schema, id = this.schemas.size());
+			this.schemas.add(schema);
+			if (this.writeSchemas) {
+				this.rawByte(BinaryFormat.SCHEMA);
+				this.rawVarint(schema.length);
+				for (String key : schema) {
+					this.rawString(key);
+				}
+			}
+		}
+		this.rawByte(BinaryFormat.SCHEMA_MAP);
+		this.rawVarint(id);
+		this.pushFrame(true, schema);
+	}
+
+	@Override
+	public void key(@NotNull String key) throws EncodeException {
+		Frame frame = this.currentFrame();
+		if (frame == null || !frame.isMap) {
+			throw new EncodeException(() -> "Attempt to write a key outside of a map in " + this);
+		}
+		frame.pendingKey = key;
+	}
+
+	@Override
+	public void key(@NotNull Object key) throws EncodeException {
+		if (key instanceof String string) this.key(string);
+		else throw new EncodeException(() -> "key is not a string: " + key);
+	}
+
+	@Override
+	public void endMap() throws EncodeException {
+		this.popFrame(true);
+	}
+
+	@Override
+	public void beginList() throws EncodeException {
+		this.beforeValue();
+		this.rawByte(BinaryFormat.LIST);
+		this.pushFrame(false, null);
+	}
+
+	@Override
+	public void endList() throws EncodeException {
+		this.popFrame(false);
+	}
+
+	//////////////// values ////////////////
+
+	@Override
+	public void writeEmpty() throws EncodeException {
+		Frame frame = this.currentFrame();
+		if (frame != null && frame.isMap) {
+			//empty map values are omitted, along with their key.
+			frame.pendingKey = null;
+			return;
+		}
+		this.beforeValue();
+		this.rawByte(BinaryFormat.EMPTY);
+	}
+
+	@Override
+	public void writeString(@NotNull String value) throws EncodeException {
+		this.beforeValue();
+		this.rawByte(BinaryFormat.STRING);
+		this.rawString(value);
+	}
+
+	@Override
+	public void writeBoolean(boolean value) throws EncodeException {
+		this.beforeValue();
+		this.rawByte(value ? BinaryFormat.TRUE : BinaryFormat.FALSE);
+	}
+
+	@Override
+	public void writeNumber(@NotNull Number value) throws EncodeException {
+		if      (value instanceof Byte    b) this.writeByte  (b.byteValue());
+		else if (value instanceof Short   s) this.writeShort (s.shortValue());
+		else if (value instanceof Integer i) this.writeInt   (i.intValue());
+		else if (value instanceof Long    l) this.writeLong  (l.longValue());
+		else if (value instanceof Float   f) this.writeFloat (f.floatValue());
+		else                                 this.writeDouble(value.doubleValue());
+	}
+
+	@Override
+	public void writeByte(byte value) throws EncodeException {
+		this.beforeValue();
+		this.rawByte(BinaryFormat.BYTE);
+		this.rawByte(value);
+	}
+
+	@Override
+	public void writeShort(short value) throws EncodeException {
+		this.beforeValue();
+		this.rawByte(BinaryFormat.SHORT);
+		this.rawVarint(BinaryFormat.zigzag(value));
+	}
+
+	@Override
+	public void writeInt(int value) throws EncodeException {
+		this.beforeValue();
+		this.rawByte(BinaryFormat.INT);
+		this.rawVarint(BinaryFormat.zigzag(value));
+	}
+
+	@Override
+	public void writeLong(long value) throws EncodeException {
+		this.beforeValue();
+		this.rawByte(BinaryFormat.LONG);
+		this.rawVarlong(BinaryFormat.zigzag(value));
+	}
+
+	@Override
+	public void writeFloat(float value) throws EncodeException {
+		this.beforeValue();
+		this.rawByte(BinaryFormat.FLOAT);
+		this.rawInt(Float.floatToRawIntBits(value));
+	}
+
+	@Override
+	public void writeDouble(double value) throws EncodeException {
+		this.beforeValue();
+		this.rawByte(BinaryFormat.DOUBLE);
+		this.rawLong(Double.doubleToRawLongBits(value));
+	}
+
+	/** writes value as a {@link BinaryFormat#BYTES}, which is more compact than a list of bytes. */
+	public void writeBytes(byte @NotNull [] value, int offset, int length) throws EncodeException {
+		this.beforeValue();
+		this.rawByte(BinaryFormat.BYTES);
+		this.rawVarint(length);
+		this.ensureCapacity(length);
+		System.arraycopy(value, offset, this.buffer, this.position, length);
+		this.position += length;
+	}
+
+	@Override
+	public void writeEncoded(@NotNull Object value) throws EncodeException {
+		if (value == Unit.INSTANCE) {
+			this.writeEmpty();
+		}
+		else if (value instanceof Number number) {
+			this.writeNumber(number);
+		}
+		else if (value instanceof String string) {
+			this.writeString(string);
+		}
+		else if (value instanceof Boolean bool) {
+			this.writeBoolean(bool.booleanValue());
+		}
+		else if (value instanceof Map<?, ?> map) {
+			this.beginMap();
+			for (Map.Entry<?, ?> entry : map.entrySet()) {
+				this.key(entry.getKey());
+				this.writeEncoded(entry.getValue());
+			}
+			this.endMap();
+		}
+		else if (value instanceof List<?> list) {
+			this.beginList();
+			for (Object element : list) {
+				this.writeEncoded(element);
+			}
+			this.endList();
+		}
+		else if (value instanceof byte[] bytes) {
+			this.writeBytes(bytes, 0, bytes.length);
+		}
+		else if (value instanceof int[] ints) {
+			this.beginList();
+			for (int element : ints) this.writeInt(element);
+			this.endList();
+		}
+		else if (value instanceof long[] longs) {
+			this.beginList();
+			for (long element : longs) this.writeLong(element);
+			this.endList();
+		}
+		else {
+			throw new EncodeException(() -> "Not any kind of recognized object: " + value);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return this.getClass().getSimpleName() + ": { position: " + this.position + ", depth: " + this.depth + ", schemas: " + this.schemaIDs.size() + " }";
+	}
+
+	public static class Frame {
+
+		public boolean isMap;
+		public @NotNull String @Nullable [] schema;
+		/** the index in {@link #schema} after the last key which was found. */
+		public int cursor;
+		public int count;
+		public int sizePosition;
+		public @Nullable String pendingKey;
+
+		/**
+		returns the index of key in our schema, or -1 if it is not present.
+		keys are usually written in schema order, so the search starts
+		where the previous search left off.
+		*/
+		public int indexOf(@NotNull String key) {
+			String[] schema = this.schema;
+			int length = schema.length;
+			for (int offset = 0; offset < length; offset++) {
+				int index = this.cursor + offset;
+				if (index >= length) index -= length;
+				if (schema[index].equals(key)) {
+					this.cursor = index + 1;
+					return index;
+				}
+			}
+			return -1;
+		}
+	}
+}
@@ -15,7 +15,7 @@ import builderb0y.autocodec.reflection.reification.ReifiedType;
 
 public class CollectionEncoder<T_Element, T_Collection extends Collection<T_Element>> extends NamedEncoder<T_Collection> {
 
-	public final @NotNull AutoCoder<T_Element> elementCoder;
+	public @NotNull AutoCoder<T_Element> elementCoder;
 	public final boolean singleton;
 
 	public CollectionEncoder(
@@ -36,6 +36,31 @@ public class CollectionEncoder<T_Element, T_Collection extends Collection<T_Elem
 		return context.createList(context.object.stream().map((T_Element element) -> context.object(element).encodeWith(coder)));
 	}
 
+	@Override
+	@OverrideOnly
+	public <T_Encoded> void encodeTo(@NotNull EncodeContext<T_Encoded, T_Collection> context, @NotNull EncodeSink<T_Encoded> sink) throws EncodeException {
+		if (context.object == null) {
+			sink.writeEmpty();
+			return;
+		}
+		AutoCoder<T_Element> coder = this.elementCoder;
+		sink.beginList();
+		for (T_Element element : context.object) {
+			context.object(element).encodeWith(coder, sink);
+		}
+		sink.endList();
+	}
+
+	@Override
+	public void visitChildren(@NotNull ChildVisitor visitor) {
+		visitor.visitChild("elementCoder", this.elementCoder);
+	}
+
+	@Override
+	public void linkChildren(@NotNull ChildLinker linker) {
+		this.elementCoder = linker.link(this.elementCoder);
+	}
+
 	public static class Factory extends NamedEncoderFactory {
 
 		public static final @NotNull Factory INSTANCE = new Factory();
@@ -41,6 +41,14 @@ public class EncodeContext<T_Encoded, T_Decoded> extends DynamicOpsContext<T_Enc
 		return this.logger().encode(encoder, this);
 	}
 
+	/**
+	writes our {@link #object} to sink with encoder.
+	sink's {@link EncodeSink#ops} should be the same as our {@link #ops}.
+	*/
+	public void encodeWith(@NotNull AutoEncoder<T_Decoded> encoder, @NotNull EncodeSink<T_Encoded> sink) throws EncodeException {
+		this.logger().encodeTo(encoder, this, sink);
+	}
+
 	@Override
 	public String toString() {
 		return this.getClass().getSimpleName() + ": { object: " + this.object + ", ops: " + this.ops + " }";
@@ -0,0 +1,106 @@
+package builderb0y.autocodec.encoders;
+
+import com.mojang.serialization.DynamicOps;
+import org.jetbrains.annotations.NotNull;
+
+/**
+a destination which encoders can write tokens to directly,
+instead of building a tree of {@link T_Encoded} and returning it.
+see {@link AutoEncoder#encodeTo(EncodeContext, EncodeSink)}.
+
+tokens must be written in the same order they would appear in the tree:
+maps are written as {@link #beginMap()}, followed by any number of
+{@link #key(String)}'s each followed by exactly one value,
+followed by {@link #endMap()}. lists are written as {@link #beginList()},
+followed by any number of values, followed by {@link #endList()}.
+
+{@link #writeEmpty()} is handled the same way as {@link DynamicOps#empty()}
+is handled when building a tree: if it is written as the value of a map
+entry, the entry is omitted entirely (see {@link builderb0y.autocodec.common.DynamicOpsContext#filterNulls}).
+implementations are responsible for ensuring this.
+
+any errors which occur while writing tokens, including IOException's
+thrown by the underlying destination, are thrown as {@link EncodeException}'s.
+*/
+public abstract class EncodeSink<T_Encoded> {
+
+	/**
+	the ops which encoders that don't support writing tokens directly will use
+	to encode a subtree, which is then written with {@link #writeEncoded(Object)}.
+	*/
+	public final @NotNull DynamicOps<T_Encoded> ops;
+
+	public EncodeSink(@NotNull DynamicOps<T_Encoded> ops) {
+		this.ops = ops;
+	}
+
+	//////////////// structure ////////////////
+
+	public abstract void beginMap() throws EncodeException;
+
+	/**
+	same as {@link #beginMap()}, but for maps whose keys are known in advance,
+	like the fields of a record. schema contains every key which is likely
+	to be written, in the order they are likely to be written in,
+	but the map is not required to contain all of them, or only them.
+	callers should pass the same array every time they write the same
+	kind of map, so that sinks can recognize it by identity.
+	the default implementation ignores schema.
+	*/
+	public void beginMap(@NotNull String @NotNull [] schema) throws EncodeException {
+		this.beginMap();
+	}
+
+	public abstract void key(@NotNull String key) throws EncodeException;
+
+	/** same as {@link #key(String)}, but for keys which were already encoded by {@link #ops}. */
+	public abstract void key(@NotNull T_Encoded key) throws EncodeException;
+
+	public abstract void endMap() throws EncodeException;
+
+	public abstract void beginList() throws EncodeException;
+
+	public abstract void endList() throws EncodeException;
+
+	//////////////// values ////////////////
+
+	public abstract void writeEmpty() throws EncodeException;
+
+	public abstract void writeString(@NotNull String value) throws EncodeException;
+
+	public abstract void writeBoolean(boolean value) throws EncodeException;
+
+	public abstract void writeNumber(@NotNull Number value) throws EncodeException;
+
+	public void writeByte(byte value) throws EncodeException {
+		this.writeNumber(value);
+	}
+
+	public void writeShort(short value) throws EncodeException {
+		this.writeNumber(value);
+	}
+
+	public void writeInt(int value) throws EncodeException {
+		this.writeNumber(value);
+	}
+
+	public void writeLong(long value) throws EncodeException {
+		this.writeNumber(value);
+	}
+
+	public void writeFloat(float value) throws EncodeException {
+		this.writeNumber(value);
+	}
+
+	public void writeDouble(double value) throws EncodeException {
+		this.writeNumber(value);
+	}
+
+	/** writes a subtree which was already encoded by {@link #ops}. */
+	public abstract void writeEncoded(@NotNull T_Encoded value) throws EncodeException;
+
+	@Override
+	public String toString() {
+		return this.getClass().getSimpleName() + ": { ops: " + this.ops + " }";
+	}
+}
@@ -23,6 +23,7 @@ public class EncoderFactoryList extends FactoryList<AutoEncoder<?>, EncoderFacto
 		this.addFactoryToStart(UseEncoderFactory.INSTANCE);
 		this.addFactoriesToEnd(
 			CollectionEncoder.Factory.INSTANCE,
+			IterableEncoder.Factory.INSTANCE,
 			MapEncoder.Factory.INSTANCE,
 			MultiFieldEncoder.Factory.INSTANCE
 		);
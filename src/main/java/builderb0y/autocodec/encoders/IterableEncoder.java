@@ -0,0 +1,184 @@
+package builderb0y.autocodec.encoders;
+
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import com.mojang.serialization.DynamicOps;
+import org.jetbrains.annotations.ApiStatus.OverrideOnly;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import builderb0y.autocodec.AutoCodec;
+import builderb0y.autocodec.common.FactoryApplicability;
+import builderb0y.autocodec.common.FactoryContext;
+import builderb0y.autocodec.common.FactoryException;
+import builderb0y.autocodec.decoders.AutoDecoder;
+import builderb0y.autocodec.encoders.AutoEncoder.NamedEncoder;
+import builderb0y.autocodec.reflection.reification.ReifiedType;
+
+/**
+encodes {@link Iterable}'s, {@link Iterator}'s, {@link Stream}'s,
+and {@link Spliterator}'s as lists, pulling one element at a time.
+when encoding to an {@link EncodeSink}, every element is written
+as soon as it is pulled, so neither the decoded elements nor the
+encoded elements are ever collected anywhere.
+when encoding to a tree, the encoded elements are passed to
+{@link DynamicOps#createList(Stream)} as a Stream,
+so it is up to the ops whether or not they are buffered.
+
+Iterator's, Stream's, and Spliterator's can only be traversed once,
+so they are consumed by encoding them. Stream's are not closed.
+
+there is no corresponding decoder, because there is no
+sensible way to decode an Iterator or Stream on its own.
+to decode a list one element at a time, use
+{@link AutoCodec#decodeIterator(AutoDecoder, Object, DynamicOps)} instead.
+*/
+public class IterableEncoder<T_Element, T_Source> extends NamedEncoder<T_Source> {
+
+	public @NotNull AutoEncoder<T_Element> elementEncoder;
+	public final @NotNull Kind kind;
+
+	public IterableEncoder(@NotNull ReifiedType<T_Source> type, @NotNull AutoEncoder<T_Element> elementEncoder, @NotNull Kind kind) {
+		super(type);
+		this.elementEncoder = elementEncoder;
+		this.kind = kind;
+	}
+
+	@Override
+	@OverrideOnly
+	@SuppressWarnings("unchecked")
+	public <T_Encoded> @NotNull T_Encoded encode(@NotNull EncodeContext<T_Encoded, T_Source> context) throws EncodeException {
+		if (context.object == null) return context.empty();
+		AutoEncoder<T_Element> encoder = this.elementEncoder;
+		Stream<T_Element> stream = (Stream<T_Element>)(this.kind.stream(context.object));
+		return context.createList(stream.map((T_Element element) -> context.object(element).encodeWith(encoder)));
+	}
+
+	@Override
+	@OverrideOnly
+	@SuppressWarnings("unchecked")
+	public <T_Encoded> void encodeTo(@NotNull EncodeContext<T_Encoded, T_Source> context, @NotNull EncodeSink<T_Encoded> sink) throws EncodeException {
+		if (context.object == null) {
+			sink.writeEmpty();
+			return;
+		}
+		AutoEncoder<T_Element> encoder = this.elementEncoder;
+		Iterator<T_Element> iterator = (Iterator<T_Element>)(this.kind.iterator(context.object));
+		sink.beginList();
+		while (iterator.hasNext()) {
+			context.object(iterator.next()).encodeWith(encoder, sink);
+		}
+		sink.endList();
+	}
+
+	@Override
+	public void visitChildren(@NotNull ChildVisitor visitor) {
+		visitor.visitChild("elementEncoder", this.elementEncoder);
+	}
+
+	@Override
+	public void linkChildren(@NotNull ChildLinker linker) {
+		this.elementEncoder = linker.link(this.elementEncoder);
+	}
+
+	/** the types of sources which this encoder can pull elements from. */
+	public static enum Kind {
+		ITERABLE(Iterable.class) {
+
+			@Override
+			public @NotNull Iterator<?> iterator(@NotNull Object source) {
+				return ((Iterable<?>)(source)).iterator();
+			}
+
+			@Override
+			public @NotNull Stream<?> stream(@NotNull Object source) {
+				return StreamSupport.stream(((Iterable<?>)(source)).spliterator(), false);
+			}
+		},
+
+		ITERATOR(Iterator.class) {
+
+			@Override
+			public @NotNull Iterator<?> iterator(@NotNull Object source) {
+				return (Iterator<?>)(source);
+			}
+
+			@Override
+			public @NotNull Stream<?> stream(@NotNull Object source) {
+				return StreamSupport.stream(Spliterators.spliteratorUnknownSize((Iterator<?>)(source), Spliterator.ORDERED), false);
+			}
+		},
+
+		STREAM(Stream.class) {
+
+			@Override
+			public @NotNull Iterator<?> iterator(@NotNull Object source) {
+				return ((Stream<?>)(source)).sequential().iterator();
+			}
+
+			@Override
+			public @NotNull Stream<?> stream(@NotNull Object source) {
+				return ((Stream<?>)(source)).sequential();
+			}
+		},
+
+		SPLITERATOR(Spliterator.class) {
+
+			@Override
+			public @NotNull Iterator<?> iterator(@NotNull Object source) {
+				return Spliterators.iterator((Spliterator<?>)(source));
+			}
+
+			@Override
+			public @NotNull Stream<?> stream(@NotNull Object source) {
+				return StreamSupport.stream((Spliterator<?>)(source), false);
+			}
+		};
+
+		public static final @NotNull Kind @NotNull [] VALUES = values();
+
+		public final @NotNull Class<?> rawClass;
+
+		Kind(@NotNull Class<?> rawClass) {
+			this.rawClass = rawClass;
+		}
+
+		public abstract @NotNull Iterator<?> iterator(@NotNull Object source);
+
+		public abstract @NotNull Stream<?> stream(@NotNull Object source);
+
+		public static @Nullable Kind of(@Nullable Class<?> rawClass) {
+			for (Kind kind : VALUES) {
+				if (kind.rawClass == rawClass) return kind;
+			}
+			return null;
+		}
+	}
+
+	public static class Factory extends NamedEncoderFactory {
+
+		public static final @NotNull Factory INSTANCE = new Factory();
+
+		@Override
+		public @NotNull FactoryApplicability getApplicability() {
+			return FactoryApplicability.rawClass(Iterable.class, Iterator.class, Stream.class, Spliterator.class);
+		}
+
+		@Override
+		@OverrideOnly
+		public <T_HandledType> @Nullable AutoEncoder<?> tryCreate(@NotNull FactoryContext<T_HandledType> context) throws FactoryException {
+			Kind kind = Kind.of(context.type.getRawClass());
+			if (kind != null) {
+				ReifiedType<?> elementType = context.type.resolveParameter(kind.rawClass);
+				if (elementType != null) {
+					return new IterableEncoder<>(context.type, context.type(elementType).forceCreateEncoder(), kind);
+				}
+			}
+			return null;
+		}
+	}
+}
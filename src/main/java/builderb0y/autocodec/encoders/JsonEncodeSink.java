@@ -0,0 +1,198 @@
+package builderb0y.autocodec.encoders;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.stream.JsonWriter;
+import com.mojang.serialization.JsonOps;
+import org.jetbrains.annotations.NotNull;
+
+/**
+an {@link EncodeSink} which writes JSON text to a {@link JsonWriter},
+without building a {@link JsonElement} tree first.
+subtrees created by encoders which don't support writing tokens
+directly are created with {@link JsonOps#INSTANCE}.
+
+the JsonWriter is configured to not serialize nulls,
+which is how empty map values are omitted.
+empty values in lists and at the top level are still written as null,
+which matches how Gson would serialize the equivalent tree.
+*/
+public class JsonEncodeSink extends EncodeSink<JsonElement> {
+
+	public final @NotNull JsonWriter writer;
+
+	public JsonEncodeSink(@NotNull JsonWriter writer) {
+		super(JsonOps.INSTANCE);
+		this.writer = writer;
+		writer.setSerializeNulls(false);
+	}
+
+	public JsonEncodeSink(@NotNull Writer writer) {
+		this(new JsonWriter(writer));
+	}
+
+	/** writes UTF-8 encoded JSON text to the provided stream. */
+	public JsonEncodeSink(@NotNull OutputStream stream) {
+		this(new OutputStreamWriter(stream, StandardCharsets.UTF_8));
+	}
+
+	public void flush() throws EncodeException {
+		try {
+			this.writer.flush();
+		}
+		catch (IOException exception) {
+			throw new EncodeException(exception);
+		}
+	}
+
+	//////////////// structure ////////////////
+
+	@Override
+	public void beginMap() throws EncodeException {
+		try {
+			this.writer.beginObject();
+		}
+		catch (IOException exception) {
+			throw new EncodeException(exception);
+		}
+	}
+
+	@Override
+	public void key(@NotNull String key) throws EncodeException {
+		try {
+			this.writer.name(key);
+		}
+		catch (IOException exception) {
+			throw new EncodeException(exception);
+		}
+	}
+
+	@Override
+	public void key(@NotNull JsonElement key) throws EncodeException {
+		if (key instanceof JsonPrimitive primitive) this.key(primitive.getAsString());
+		else throw new EncodeException(() -> "key is not a string: " + key);
+	}
+
+	@Override
+	public void endMap() throws EncodeException {
+		try {
+			this.writer.endObject();
+		}
+		catch (IOException exception) {
+			throw new EncodeException(exception);
+		}
+	}
+
+	@Override
+	public void beginList() throws EncodeException {
+		try {
+			this.writer.beginArray();
+		}
+		catch (IOException exception) {
+			throw new EncodeException(exception);
+		}
+	}
+
+	@Override
+	public void endList() throws EncodeException {
+		try {
+			this.writer.endArray();
+		}
+		catch (IOException exception) {
+			throw new EncodeException(exception);
+		}
+	}
+
+	//////////////// values ////////////////
+
+	@Override
+	public void writeEmpty() throws EncodeException {
+		try {
+			this.writer.nullValue();
+		}
+		catch (IOException exception) {
+			throw new EncodeException(exception);
+		}
+	}
+
+	@Override
+	public void writeString(@NotNull String value) throws EncodeException {
+		try {
+			this.writer.value(value);
+		}
+		catch (IOException exception) {
+			throw new EncodeException(exception);
+		}
+	}
+
+	@Override
+	public void writeBoolean(boolean value) throws EncodeException {
+		try {
+			this.writer.value(value);
+		}
+		catch (IOException exception) {
+			throw new EncodeException(exception);
+		}
+	}
+
+	@Override
+	public void writeNumber(@NotNull Number value) throws EncodeException {
+		try {
+			this.writer.value(value);
+		}
+		catch (IOException | IllegalArgumentException exception) {
+			throw new EncodeException(exception);
+		}
+	}
+
+	@Override
+	public void writeInt(int value) throws EncodeException {
+		this.writeLong(value);
+	}
+
+	@Override
+	public void writeLong(long value) throws EncodeException {
+		try {
+			this.writer.value(value);
+		}
+		catch (IOException exception) {
+			throw new EncodeException(exception);
+		}
+	}
+
+	@Override
+	public void writeEncoded(@NotNull JsonElement value) throws EncodeException {
+		if (value instanceof JsonObject object) {
+			this.beginMap();
+			for (Map.Entry<String, JsonElement> entry : object.entrySet()) {
+				this.key(entry.getKey());
+				this.writeEncoded(entry.getValue());
+			}
+			this.endMap();
+		}
+		else if (value instanceof JsonArray array) {
+			this.beginList();
+			for (JsonElement element : array) {
+				this.writeEncoded(element);
+			}
+			this.endList();
+		}
+		else if (value instanceof JsonPrimitive primitive) {
+			if (primitive.isString()) this.writeString(primitive.getAsString());
+			else if (primitive.isBoolean()) this.writeBoolean(primitive.getAsBoolean());
+			else this.writeNumber(primitive.getAsNumber());
+		}
+		else {
+			this.writeEmpty();
+		}
+	}
+}
@@ -10,7 +10,7 @@ import builderb0y.autocodec.common.LazyHandler;
 
 public class LazyEncoder<T> extends LazyHandler<AutoEncoder<T>> implements AutoEncoder<T> {
 
-	public @Nullable AutoEncoder<T> resolution;
+	public volatile @Nullable AutoEncoder<T> resolution;
 
 	@Override
 	public @Nullable AutoEncoder<T> getNullableDelegateHandler() {
@@ -28,8 +28,26 @@ public class LazyEncoder<T> extends LazyHandler<AutoEncoder<T>> implements AutoE
 		return context.encodeWith(this.getDelegateHandler());
 	}
 
+	@Override
+	@OverrideOnly
+	public <T_Encoded> void encodeTo(@NotNull EncodeContext<T_Encoded, T> context, @NotNull EncodeSink<T_Encoded> sink) throws EncodeException {
+		context.encodeWith(this.getDelegateHandler(), sink);
+	}
+
 	@Override
 	public @Nullable Stream<@NotNull String> getKeys() {
 		return this.getDelegateHandler().getKeys();
 	}
+
+	@Override
+	public void visitChildren(@NotNull ChildVisitor visitor) {
+		AutoEncoder<T> resolution = this.resolution;
+		if (resolution != null) visitor.visitChild("delegate", resolution);
+	}
+
+	@Override
+	public void linkChildren(@NotNull ChildLinker linker) {
+		AutoEncoder<T> resolution = this.resolution;
+		if (resolution != null) this.resolution = linker.link(resolution);
+	}
 }
\ No newline at end of file
@@ -15,8 +15,8 @@ import builderb0y.autocodec.reflection.reification.ReifiedType;
 
 public class MapEncoder<T_Key, T_Value, T_Map extends Map<T_Key, T_Value>> extends NamedEncoder<T_Map> {
 
-	public final @NotNull AutoCoder<T_Key> keyEncoder;
-	public final @NotNull AutoCoder<T_Value> valueEncoder;
+	public @NotNull AutoCoder<T_Key> keyEncoder;
+	public @NotNull AutoCoder<T_Value> valueEncoder;
 
 	public MapEncoder(
 		@NotNull ReifiedType<T_Map> type,
@@ -40,6 +40,34 @@ public class MapEncoder<T_Key, T_Value, T_Map extends Map<T_Key, T_Value>> exten
 		);
 	}
 
+	@Override
+	@OverrideOnly
+	public <T_Encoded> void encodeTo(@NotNull EncodeContext<T_Encoded, T_Map> context, @NotNull EncodeSink<T_Encoded> sink) throws EncodeException {
+		if (context.object == null) {
+			sink.writeEmpty();
+			return;
+		}
+		sink.beginMap();
+		for (Map.Entry<T_Key, T_Value> entry : context.object.entrySet()) {
+			//keys are usually small, so just encode them normally.
+			sink.key(context.object(entry.getKey()).encodeWith(this.keyEncoder));
+			context.object(entry.getValue()).encodeWith(this.valueEncoder, sink);
+		}
+		sink.endMap();
+	}
+
+	@Override
+	public void visitChildren(@NotNull ChildVisitor visitor) {
+		visitor.visitChild("keyEncoder", this.keyEncoder);
+		visitor.visitChild("valueEncoder", this.valueEncoder);
+	}
+
+	@Override
+	public void linkChildren(@NotNull ChildLinker linker) {
+		this.keyEncoder = linker.link(this.keyEncoder);
+		this.valueEncoder = linker.link(this.valueEncoder);
+	}
+
 	public static class Factory extends NamedEncoderFactory {
 
 		public static final @NotNull Factory INSTANCE = new Factory();
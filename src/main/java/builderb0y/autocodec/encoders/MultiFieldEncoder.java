@@ -29,10 +29,16 @@ import builderb0y.autocodec.util.ObjectArrayFactory;
 public class MultiFieldEncoder<T_Decoded> extends NamedEncoder<T_Decoded> {
 
 	public final @NotNull FieldStrategy<T_Decoded, ?> @NotNull [] fields;
+	/**
+	the serialized names of our non-inline fields, in order.
+	see {@link EncodeSink#beginMap(String[])}.
+	*/
+	public final @NotNull String @NotNull [] schema;
 
 	public MultiFieldEncoder(@NotNull ReifiedType<T_Decoded> type, @NotNull FieldStrategy<T_Decoded, ?> @NotNull [] fields) {
 		super(type);
 		this.fields = fields;
+		this.schema = Arrays.stream(fields).filter((FieldStrategy<T_Decoded, ?> field) -> !field.inline).map((FieldStrategy<T_Decoded, ?> field) -> field.field.getSerializedName()).toArray(String[]::new);
 	}
 
 	@Override
@@ -46,6 +52,20 @@ public class MultiFieldEncoder<T_Decoded> extends NamedEncoder<T_Decoded> {
 		return context.createGenericMap(map);
 	}
 
+	@Override
+	@OverrideOnly
+	public <T_Encoded> void encodeTo(@NotNull EncodeContext<T_Encoded, T_Decoded> context, @NotNull EncodeSink<T_Encoded> sink) throws EncodeException {
+		if (context.object == null) {
+			sink.writeEmpty();
+			return;
+		}
+		sink.beginMap(this.schema);
+		for (FieldStrategy<T_Decoded, ?> field : this.fields) {
+			field.encodeOnto(context, sink);
+		}
+		sink.endMap();
+	}
+
 	@Override
 	public @Nullable Stream<@NotNull String> getKeys() {
 		//requirements:
@@ -74,6 +94,13 @@ public class MultiFieldEncoder<T_Decoded> extends NamedEncoder<T_Decoded> {
 		return Arrays.stream(streams).flatMap(Function.identity());
 	}
 
+	@Override
+	public void visitChildren(@NotNull ChildVisitor visitor) {
+		for (FieldStrategy<T_Decoded, ?> field : this.fields) {
+			visitor.visitChild(field.field.getSerializedName(), field);
+		}
+	}
+
 	@Override
 	public String toString() {
 		return super.toString() + " (" + this.fields.length + " fields)";
@@ -85,7 +112,7 @@ public class MultiFieldEncoder<T_Decoded> extends NamedEncoder<T_Decoded> {
 
 		public final FieldLikeMemberView<T_Record, T_Member> field;
 		public final InstanceReader<T_Record, T_Member> getter;
-		public final AutoCoder<T_Member> coder;
+		public AutoCoder<T_Member> coder;
 		public final boolean inline;
 
 		public FieldStrategy(FieldLikeMemberView<T_Record, T_Member> field, InstanceReader<T_Record, T_Member> getter, AutoCoder<T_Member> coder, boolean inline) {
@@ -107,12 +134,38 @@ public class MultiFieldEncoder<T_Decoded> extends NamedEncoder<T_Decoded> {
 			@NotNull Map<@NotNull T_Encoded, @NotNull T_Encoded> map
 		)
 			throws EncodeException {
-			T_Member member = this.getter.get(context.object);
+			encodeMemberOnto(context, map, this.getter.get(context.object), this.coder, this.inline, this.field.getSerializedName());
+		}
+
+		public <T_Encoded> void encodeOnto(
+			@NotNull EncodeContext<T_Encoded, T_Record> context,
+			@NotNull EncodeSink<T_Encoded> sink
+		)
+			throws EncodeException {
+			encodeMemberOnto(context, sink, this.getter.get(context.object), this.coder, this.inline, this.field.getSerializedName());
+		}
+
+		/**
+		encodes member with coder, and adds the result to map.
+		if inline is true, the encoded member must be a map,
+		and its entries are added to map directly.
+		otherwise, the encoded member is added to map with serializedName as its key.
+		null members and empty encoded members are not added at all.
+		*/
+		public static <T_Encoded, T_Member> void encodeMemberOnto(
+			@NotNull EncodeContext<T_Encoded, ?> context,
+			@NotNull Map<@NotNull T_Encoded, @NotNull T_Encoded> map,
+			@Nullable T_Member member,
+			@NotNull AutoCoder<T_Member> coder,
+			boolean inline,
+			@NotNull String serializedName
+		)
+			throws EncodeException {
 			if (member == null) return;
 			EncodeContext<T_Encoded, T_Member> memberContext = context.object(member);
-			T_Encoded encodedMember = memberContext.encodeWith(this.coder);
+			T_Encoded encodedMember = memberContext.encodeWith(coder);
 			if (!Objects.equals(encodedMember, context.ops.empty())) {
-				if (this.inline) {
+				if (inline) {
 					context.logger().unwrapLazy(
 						context.ops.getMapValues(encodedMember),
 						true,
@@ -122,15 +175,61 @@ public class MultiFieldEncoder<T_Decoded> extends NamedEncoder<T_Decoded> {
 					.forEach((Pair<T_Encoded, T_Encoded> pair) -> map.put(pair.getFirst(), pair.getSecond()));
 				}
 				else {
-					map.put(context.createString(this.field.getSerializedName()), encodedMember);
+					map.put(context.createString(serializedName), encodedMember);
+				}
+			}
+		}
+
+		/**
+		same as {@link #encodeMemberOnto(EncodeContext, Map, Object, AutoCoder, boolean, String)},
+		but writes the entry to sink instead of adding it to a map.
+		the map which sink is currently writing must not have ended yet.
+		inline members still need to be encoded into a subtree first,
+		since their entries need to be unwrapped.
+		*/
+		public static <T_Encoded, T_Member> void encodeMemberOnto(
+			@NotNull EncodeContext<T_Encoded, ?> context,
+			@NotNull EncodeSink<T_Encoded> sink,
+			@Nullable T_Member member,
+			@NotNull AutoCoder<T_Member> coder,
+			boolean inline,
+			@NotNull String serializedName
+		)
+			throws EncodeException {
+			if (member == null) return;
+			EncodeContext<T_Encoded, T_Member> memberContext = context.object(member);
+			if (inline) {
+				T_Encoded encodedMember = memberContext.encodeWith(coder);
+				if (!Objects.equals(encodedMember, context.ops.empty())) {
+					for (Pair<T_Encoded, T_Encoded> pair : context.logger().unwrapLazy(context.ops.getMapValues(encodedMember), true, EncodeException::new).toList()) {
+						if (!Objects.equals(pair.getSecond(), context.ops.empty())) {
+							sink.key(pair.getFirst());
+							sink.writeEncoded(pair.getSecond());
+						}
+					}
 				}
 			}
+			else {
+				//empty values are omitted by the sink itself.
+				sink.key(serializedName);
+				memberContext.encodeWith(coder, sink);
+			}
 		}
 
 		@Override
 		public @Nullable Stream<@NotNull String> getKeys() {
 			return this.inline ? this.coder.getKeys() : Arrays.stream(this.field.getAliases());
 		}
+
+		@Override
+		public void visitChildren(@NotNull ChildVisitor visitor) {
+			visitor.visitChild("coder", this.coder);
+		}
+
+		@Override
+		public void linkChildren(@NotNull ChildLinker linker) {
+			this.coder = linker.link(this.coder);
+		}
 	}
 
 	public static class Factory extends NamedEncoderFactory {
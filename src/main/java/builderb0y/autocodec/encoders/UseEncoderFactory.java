@@ -5,6 +5,8 @@ import java.lang.reflect.*;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import builderb0y.autocodec.annotations.UseEncoder;
+import builderb0y.autocodec.common.FactoryApplicability;
 import builderb0y.autocodec.common.FactoryContext;
 import builderb0y.autocodec.common.UseSpec;
 import builderb0y.autocodec.common.UseHandlerFactory1;
@@ -23,6 +25,11 @@ public class UseEncoderFactory extends UseHandlerFactory1<AutoEncoder<?>> implem
 		super(AutoEncoder.class, EncoderFactory.class, EncodeContext.class, Object.class, "encode");
 	}
 
+	@Override
+	public @NotNull FactoryApplicability getApplicability() {
+		return FactoryApplicability.annotatedWith(UseEncoder.class);
+	}
+
 	@Override
 	public <T_HandledType> @Nullable UseSpec getSpec(@NotNull FactoryContext<T_HandledType> context) {
 		return UseSpec.fromUseEncoder(context.type);
@@ -0,0 +1,68 @@
+package builderb0y.autocodec.graph;
+
+import java.util.Map;
+
+import org.jetbrains.annotations.NotNull;
+
+import builderb0y.autocodec.graph.HandlerGraph.Edge;
+import builderb0y.autocodec.graph.HandlerGraph.Node;
+
+/**
+converts a {@link HandlerGraph} to the DOT language, which can be rendered by graphviz.
+lazy handlers are drawn with dashed outlines, and edges which
+are part of a cycle are drawn with dashed lines.
+any statistics for a handler are added to its label, one per line.
+*/
+public class DotExporter {
+
+	/** handler descriptions longer than this will be truncated. */
+	public static final int MAX_LABEL_LENGTH = 100;
+
+	public static @NotNull String export(@NotNull HandlerGraph graph, @NotNull HandlerStatistics statistics) {
+		StringBuilder builder = new StringBuilder(graph.nodes.size() * 128);
+		builder.append("digraph handlers {\n\tnode [shape=box];\n");
+		for (Node node : graph.nodes) {
+			builder.append("\tn").append(node.id).append(" [label=\"");
+			//lazy handlers use the toString() of their delegate,
+			//which would make them look identical to their delegate.
+			if (node.isLazy()) builder.append(node.handler.getClass().getSimpleName()).append(": ");
+			appendEscaped(builder, truncate(node.handler.toString()));
+			Map<String, Object> stats = statistics.getStatistics(node.handler);
+			if (stats != null) {
+				for (Map.Entry<String, Object> entry : stats.entrySet()) {
+					builder.append("\\n");
+					appendEscaped(builder, entry.getKey() + ": " + entry.getValue());
+				}
+			}
+			builder.append('"');
+			if (node.isLazy()) builder.append(", style=dashed");
+			builder.append("];\n");
+		}
+		for (Node node : graph.nodes) {
+			for (Edge edge : node.edges) {
+				builder.append("\tn").append(edge.from().id).append(" -> n").append(edge.to().id).append(" [label=\"");
+				appendEscaped(builder, edge.name());
+				builder.append('"');
+				if (edge.isCyclic()) builder.append(", style=dashed");
+				builder.append("];\n");
+			}
+		}
+		return builder.append('}').toString();
+	}
+
+	public static @NotNull String truncate(@NotNull String text) {
+		return text.length() > MAX_LABEL_LENGTH ? text.substring(0, MAX_LABEL_LENGTH - 3) + "..." : text;
+	}
+
+	public static void appendEscaped(@NotNull StringBuilder builder, @NotNull String text) {
+		for (int index = 0, length = text.length(); index < length; index++) {
+			char c = text.charAt(index);
+			switch (c) {
+				case '"', '\\' -> builder.append('\\').append(c);
+				case '\n' -> builder.append("\\n");
+				case '\r', '\t' -> builder.append(' ');
+				default -> builder.append(c);
+			}
+		}
+	}
+}
@@ -0,0 +1,248 @@
+package builderb0y.autocodec.graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import builderb0y.autocodec.common.AutoHandler;
+import builderb0y.autocodec.common.AutoHandler.ChildLinker;
+import builderb0y.autocodec.common.AutoHandler.ChildVisitor;
+import builderb0y.autocodec.common.FactoryList;
+import builderb0y.autocodec.common.LazyHandler;
+
+/**
+snapshot of a handler and all the handlers it delegates to,
+as reported by {@link AutoHandler#visitChildren(ChildVisitor)}.
+every handler is represented by exactly one {@link Node},
+even if it is reachable from multiple parents, or from itself.
+the latter is common for recursive types, where the handler
+for the type delegates (eventually) to a {@link LazyHandler}
+which delegates back to the handler for the type.
+
+the graph is a snapshot: lazy handlers which are resolved
+after the graph was built will not be reflected in it.
+
+example usage: {@code
+	AutoCoder<Foo> coder = autoCodec.createCoder(Foo.class);
+	HandlerGraph graph = new HandlerGraph(coder);
+	System.out.println(DotExporter.export(graph, HandlerStatistics.NONE));
+}
+*/
+public class HandlerGraph {
+
+	public final @NotNull Node root;
+	/** every node in this graph, in the order they were discovered. the root is always first. */
+	public final @NotNull List<@NotNull Node> nodes;
+	public final @NotNull IdentityHashMap<AutoHandler, Node> nodesByHandler;
+
+	public HandlerGraph(@NotNull AutoHandler root) {
+		this.nodes = new ArrayList<>(16);
+		this.nodesByHandler = new IdentityHashMap<>(16);
+		this.root = this.discover(root);
+		this.findCycles();
+	}
+
+	/** returns the node for the provided handler, or null if the handler is not part of this graph. */
+	public @Nullable Node getNode(@NotNull AutoHandler handler) {
+		return this.nodesByHandler.get(handler);
+	}
+
+	public @NotNull Node discover(@NotNull AutoHandler handler) {
+		Node node = this.nodesByHandler.get(handler);
+		if (node == null) {
+			node = new Node(this.nodes.size(), handler);
+			this.nodes.add(node);
+			this.nodesByHandler.put(handler, node);
+			Node from = node;
+			handler.visitChildren((String name, AutoHandler child) -> {
+				Node to = this.discover(child);
+				Edge edge = new Edge(from, name, to);
+				from.edges.add(edge);
+				to.incomingEdges.add(edge);
+			});
+		}
+		return node;
+	}
+
+	/**
+	assigns every node a {@link Node#component}
+	using Tarjan's strongly connected components algorithm,
+	and marks nodes which are part of a cycle as {@link Node#cyclic}.
+	*/
+	public void findCycles() {
+		int size = this.nodes.size();
+		int[] index = new int[size], lowLink = new int[size];
+		Arrays.fill(index, -1);
+		boolean[] onStack = new boolean[size];
+		int[] stack = new int[size];
+		int[] counters = new int[3]; //next index, stack size, next component.
+		for (Node node : this.nodes) {
+			if (index[node.id] < 0) {
+				this.strongConnect(node, index, lowLink, onStack, stack, counters);
+			}
+		}
+	}
+
+	public void strongConnect(@NotNull Node node, int @NotNull [] index, int @NotNull [] lowLink, boolean @NotNull [] onStack, int @NotNull [] stack, int @NotNull [] counters) {
+		int id = node.id;
+		index[id] = lowLink[id] = counters[0]++;
+		stack[counters[1]++] = id;
+		onStack[id] = true;
+		for (Edge edge : node.edges) {
+			int to = edge.to.id;
+			if (index[to] < 0) {
+				this.strongConnect(edge.to, index, lowLink, onStack, stack, counters);
+				lowLink[id] = Math.min(lowLink[id], lowLink[to]);
+			}
+			else if (onStack[to]) {
+				lowLink[id] = Math.min(lowLink[id], index[to]);
+			}
+		}
+		if (lowLink[id] == index[id]) {
+			int component = counters[2]++;
+			int start = counters[1];
+			int popped;
+			do {
+				popped = stack[--counters[1]];
+				onStack[popped] = false;
+				this.nodes.get(popped).component = component;
+			}
+			while (popped != id);
+			//a component is a cycle if it has more than one node,
+			//or if its only node has an edge to itself.
+			boolean cyclic = start - counters[1] > 1 || node.edges.stream().anyMatch((Edge edge) -> edge.to == node);
+			if (cyclic) {
+				for (int stackIndex = counters[1]; stackIndex < start; stackIndex++) {
+					this.nodes.get(stack[stackIndex]).cyclic = true;
+				}
+			}
+		}
+	}
+
+	/**
+	walks over every node and edge reachable from the {@link #root},
+	in depth-first order. every node is entered at most once,
+	so this method terminates even if the graph contains cycles.
+	*/
+	public void walk(@NotNull HandlerVisitor visitor) {
+		this.walk(this.root, visitor, new boolean[this.nodes.size()]);
+	}
+
+	public void walk(@NotNull Node node, @NotNull HandlerVisitor visitor, boolean @NotNull [] visited) {
+		visited[node.id] = true;
+		if (visitor.enterNode(node)) {
+			for (Edge edge : node.edges) {
+				boolean firstVisit = !visited[edge.to.id];
+				visitor.visitEdge(edge, firstVisit);
+				if (firstVisit) this.walk(edge.to, visitor, visited);
+			}
+		}
+		visitor.exitNode(node);
+	}
+
+	//////////////////////////////// diagnostics ////////////////////////////////
+
+	/**
+	returns all the resolved lazy handlers in this graph which are NOT part of a cycle.
+	lazy handlers are only necessary to break cycles,
+	so every handler returned by this method is pure overhead:
+	its parent could just as well have delegated to its delegate directly.
+	note that {@link FactoryList} already uses {@link LazyLinker} to
+	remove most lazy handlers, including the ones which are part of a cycle,
+	so any lazy handlers left in the graph belong to parents which
+	do not implement {@link AutoHandler#linkChildren(ChildLinker)}.
+	*/
+	public @NotNull List<@NotNull Node> findRedundantLazyHandlers() {
+		return this.nodes.stream().filter((Node node) -> node.isLazy() && !node.cyclic && !node.edges.isEmpty()).toList();
+	}
+
+	/**
+	returns all the nodes whose handler is an instance of the provided class,
+	and which delegate to another handler which is also an instance of the provided class,
+	possibly through some lazy handlers. for example, a VerifyingCoder whose
+	{@link builderb0y.autocodec.coders.VerifyingCoder#coder} is also a VerifyingCoder.
+	such handlers can often be merged into a single handler.
+	*/
+	public @NotNull List<@NotNull Node> findDoubleWrapped(@NotNull Class<? extends AutoHandler> wrapperClass) {
+		return this.nodes.stream().filter((Node node) -> (
+			wrapperClass.isInstance(node.handler) &&
+			node.edges.stream().anyMatch((Edge edge) -> {
+				Node target = edge.to.skipLazy();
+				return target != node && wrapperClass.isInstance(target.handler);
+			})
+		))
+		.toList();
+	}
+
+	//////////////////////////////// classes ////////////////////////////////
+
+	public static class Node {
+
+		/** the index of this node in {@link HandlerGraph#nodes}. */
+		public final int id;
+		public final @NotNull AutoHandler handler;
+		public final @NotNull List<@NotNull Edge> edges = new ArrayList<>(4);
+		public final @NotNull List<@NotNull Edge> incomingEdges = new ArrayList<>(2);
+		/**
+		the strongly connected component this node belongs to.
+		two nodes can reach each other if, and only if,
+		they belong to the same component.
+		*/
+		public int component;
+		/** true if this node can reach itself. */
+		public boolean cyclic;
+
+		public Node(int id, @NotNull AutoHandler handler) {
+			this.id = id;
+			this.handler = handler;
+		}
+
+		public boolean isLazy() {
+			return this.handler instanceof LazyHandler<?>;
+		}
+
+		/**
+		if this node is a resolved lazy handler, returns the
+		node for its delegate, recursively. otherwise, returns this.
+		*/
+		public @NotNull Node skipLazy() {
+			Node node = this;
+			while (node.isLazy() && node.edges.size() == 1) {
+				Node next = node.edges.get(0).to;
+				//a cycle consisting entirely of lazy handlers
+				//would also loop forever when actually used,
+				//but we still shouldn't loop forever here.
+				if (next.isLazy() && next.cyclic && next.component == this.component) break;
+				node = next;
+			}
+			return node;
+		}
+
+		@Override
+		public String toString() {
+			return "Node " + this.id + ": " + this.handler;
+		}
+	}
+
+	/**
+	an edge from a handler to one of the handlers it delegates to.
+	@param name the name that the parent handler provided
+	to {@link ChildVisitor#visitChild(String, AutoHandler)}.
+	*/
+	public static record Edge(@NotNull Node from, @NotNull String name, @NotNull Node to) {
+
+		/** returns true if this edge is part of a cycle. */
+		public boolean isCyclic() {
+			return this.from.cyclic && this.from.component == this.to.component;
+		}
+
+		@Override
+		public String toString() {
+			return this.from.id + " -> " + this.to.id + " (" + this.name + ')';
+		}
+	}
+}
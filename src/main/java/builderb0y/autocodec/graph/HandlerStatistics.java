@@ -0,0 +1,47 @@
+package builderb0y.autocodec.graph;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import builderb0y.autocodec.common.AutoHandler;
+import builderb0y.autocodec.logging.AllocationTrackingTaskLogger;
+import builderb0y.autocodec.logging.TimingTaskLogger;
+
+/**
+source of per-handler numbers to annotate a {@link HandlerGraph} with when exporting it.
+{@link TimingTaskLogger} and {@link AllocationTrackingTaskLogger} both implement this interface.
+*/
+@FunctionalInterface
+public interface HandlerStatistics {
+
+	public static final @NotNull HandlerStatistics NONE = (AutoHandler handler) -> null;
+
+	/**
+	returns the statistics for the provided handler,
+	or null if there are no statistics for it.
+	the keys of the returned map are used as labels,
+	and the values should be numbers, booleans, or strings.
+	*/
+	public abstract @Nullable Map<@NotNull String, @NotNull Object> getStatistics(@NotNull AutoHandler handler);
+
+	/**
+	returns a HandlerStatistics which merges the statistics of all the provided sources.
+	if several sources provide the same key, the last one wins.
+	*/
+	public static @NotNull HandlerStatistics combine(@NotNull HandlerStatistics @NotNull ... sources) {
+		return (AutoHandler handler) -> {
+			Map<String, Object> result = null;
+			for (HandlerStatistics source : sources) {
+				Map<String, Object> statistics = source.getStatistics(handler);
+				if (statistics != null) {
+					if (result == null) result = new LinkedHashMap<>(8);
+					result.putAll(statistics);
+				}
+			}
+			return result;
+		};
+	}
+}
@@ -0,0 +1,34 @@
+package builderb0y.autocodec.graph;
+
+import org.jetbrains.annotations.NotNull;
+
+import builderb0y.autocodec.graph.HandlerGraph.Edge;
+import builderb0y.autocodec.graph.HandlerGraph.Node;
+
+/**
+callbacks for {@link HandlerGraph#walk(HandlerVisitor)}.
+all methods do nothing by default,
+so implementors only need to override the ones they care about.
+*/
+public interface HandlerVisitor {
+
+	/**
+	called the first time a node is reached.
+	if this method returns false, the node's edges will not be visited,
+	but {@link #exitNode(Node)} will still be called for it.
+	*/
+	public default boolean enterNode(@NotNull Node node) {
+		return true;
+	}
+
+	/**
+	called for every edge of every entered node.
+	if firstVisit is true, then the edge's target will be entered
+	immediately after this method returns. otherwise, the target
+	has already been entered, possibly because the edge is part of a cycle.
+	*/
+	public default void visitEdge(@NotNull Edge edge, boolean firstVisit) {}
+
+	/** called after all the edges of a node have been visited. */
+	public default void exitNode(@NotNull Node node) {}
+}
@@ -0,0 +1,78 @@
+package builderb0y.autocodec.graph;
+
+import java.util.Map;
+
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import org.jetbrains.annotations.NotNull;
+
+import builderb0y.autocodec.graph.HandlerGraph.Edge;
+import builderb0y.autocodec.graph.HandlerGraph.Node;
+
+/**
+converts a {@link HandlerGraph} to JSON. the format is: {@code
+	{
+		"root": 0,
+		"nodes": [
+			{
+				"id": 0,
+				"class": "builderb0y.autocodec.coders.RecordCoder",
+				"handler": "RecordCoder<Foo> (2 fields)",
+				"lazy": false,
+				"cyclic": false,
+				"statistics": { "calls": 100, ... },
+				"edges": [
+					{ "name": "bar", "target": 1, "cyclic": false },
+					...
+				]
+			},
+			...
+		]
+	}
+}
+"statistics" is omitted for handlers which have no statistics.
+*/
+public class JsonExporter {
+
+	public static @NotNull JsonObject export(@NotNull HandlerGraph graph, @NotNull HandlerStatistics statistics) {
+		JsonArray nodes = new JsonArray(graph.nodes.size());
+		for (Node node : graph.nodes) {
+			JsonObject json = new JsonObject();
+			json.addProperty("id", node.id);
+			json.addProperty("class", node.handler.getClass().getName());
+			json.addProperty("handler", node.handler.toString());
+			json.addProperty("lazy", node.isLazy());
+			json.addProperty("cyclic", node.cyclic);
+			Map<String, Object> stats = statistics.getStatistics(node.handler);
+			if (stats != null) {
+				JsonObject statsJson = new JsonObject();
+				for (Map.Entry<String, Object> entry : stats.entrySet()) {
+					Object value = entry.getValue();
+					if (value instanceof Number number) statsJson.addProperty(entry.getKey(), number);
+					else if (value instanceof Boolean bool) statsJson.addProperty(entry.getKey(), bool);
+					else statsJson.addProperty(entry.getKey(), String.valueOf(value));
+				}
+				json.add("statistics", statsJson);
+			}
+			JsonArray edges = new JsonArray(node.edges.size());
+			for (Edge edge : node.edges) {
+				JsonObject edgeJson = new JsonObject();
+				edgeJson.addProperty("name", edge.name());
+				edgeJson.addProperty("target", edge.to().id);
+				edgeJson.addProperty("cyclic", edge.isCyclic());
+				edges.add(edgeJson);
+			}
+			json.add("edges", edges);
+			nodes.add(json);
+		}
+		JsonObject root = new JsonObject();
+		root.addProperty("root", graph.root.id);
+		root.add("nodes", nodes);
+		return root;
+	}
+
+	public static @NotNull String exportToString(@NotNull HandlerGraph graph, @NotNull HandlerStatistics statistics) {
+		return new GsonBuilder().setPrettyPrinting().create().toJson(export(graph, statistics));
+	}
+}
@@ -0,0 +1,99 @@
+package builderb0y.autocodec.graph;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+import org.jetbrains.annotations.NotNull;
+
+import builderb0y.autocodec.common.AutoHandler;
+import builderb0y.autocodec.common.AutoHandler.ChildLinker;
+import builderb0y.autocodec.common.FactoryList;
+import builderb0y.autocodec.common.LazyHandler;
+
+/**
+replaces resolved {@link LazyHandler}'s with their delegates.
+lazy handlers are created by {@link FactoryList} to handle recursive types,
+but once the recursive handler has been created, the lazy handler is no longer necessary:
+every call through it costs an extra null check, task, and context dispatch,
+and for recursive types, that cost is paid once per level of recursion.
+{@link #linkAll(AutoHandler)} removes this cost by walking the handler graph
+and making every parent delegate directly to the lazy handler's delegate,
+wherever the parent supports it (see {@link AutoHandler#linkChildren(ChildLinker)}).
+
+this does mean that the handler graph will contain cycles
+which are NOT broken by a lazy handler. this is fine,
+since handlers were never allowed to assume that
+the handlers they delegate to will terminate on their own.
+lazy handlers whose parents can't be updated,
+or which were never resolved, are left as-is.
+*/
+public class LazyLinker implements ChildLinker {
+
+	public static final @NotNull LazyLinker INSTANCE = new LazyLinker();
+
+	/**
+	returns the delegate of child if child is a resolved lazy handler,
+	otherwise returns child. if the delegate is itself a lazy handler,
+	child is returned too; in this case, the delegate will be
+	linked when the child's own children are linked.
+	*/
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T_Handler extends AutoHandler> @NotNull T_Handler link(@NotNull T_Handler child) {
+		if (
+			child instanceof LazyHandler<?> lazy &&
+			lazy.getNullableDelegateHandler() instanceof AutoHandler delegate &&
+			!(delegate instanceof LazyHandler<?>)
+		) {
+			return (T_Handler)(delegate);
+		}
+		return child;
+	}
+
+	/**
+	links the children of root, and the children of those children, and so on.
+	every reachable handler is visited at most once, so cycles are not a problem.
+	*/
+	public static void linkAll(@NotNull AutoHandler root) {
+		Set<AutoHandler> visited = Collections.newSetFromMap(new IdentityHashMap<>(64));
+		ArrayDeque<AutoHandler> stack = new ArrayDeque<>(16);
+		visited.add(root);
+		stack.push(root);
+		while (!stack.isEmpty()) {
+			AutoHandler handler = stack.pop();
+			handler.linkChildren(INSTANCE);
+			handler.visitChildren((String name, AutoHandler child) -> {
+				if (visited.add(child)) stack.push(child);
+			});
+		}
+	}
+
+	/**
+	links the handlers reachable from root which are, or which delegate to,
+	one of the provided lazy handlers. other handlers are walked through, but left as-is.
+	this is used by {@link FactoryList#link(AutoHandler)} to only modify the handlers
+	which were created during the current request, since no other handler
+	could have obtained a lazy handler which was handed out during it.
+	handlers which are already in visited are not walked into,
+	so callers can pre-populate it with handlers which are known
+	to not reference any of the lazy handlers, and re-use it
+	across several calls to avoid walking the same handlers twice.
+	*/
+	public static void linkReferencing(@NotNull AutoHandler root, @NotNull Set<?> lazies, @NotNull Set<AutoHandler> visited) {
+		if (!visited.add(root)) return;
+		ArrayDeque<AutoHandler> stack = new ArrayDeque<>(16);
+		stack.push(root);
+		boolean[] references = new boolean[1];
+		while (!stack.isEmpty()) {
+			AutoHandler handler = stack.pop();
+			references[0] = lazies.contains(handler);
+			handler.visitChildren((String name, AutoHandler child) -> {
+				if (lazies.contains(child)) references[0] = true;
+				if (visited.add(child)) stack.push(child);
+			});
+			if (references[0]) handler.linkChildren(INSTANCE);
+		}
+	}
+}
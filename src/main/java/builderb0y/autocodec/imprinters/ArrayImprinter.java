@@ -9,16 +9,18 @@ import org.jetbrains.annotations.Nullable;
 
 import builderb0y.autocodec.annotations.SingletonArray;
 import builderb0y.autocodec.coders.AutoCoder;
+import builderb0y.autocodec.common.FactoryApplicability;
 import builderb0y.autocodec.common.FactoryContext;
 import builderb0y.autocodec.common.FactoryException;
 import builderb0y.autocodec.decoders.DecodeContext;
 import builderb0y.autocodec.decoders.DecodeException;
 import builderb0y.autocodec.imprinters.AutoImprinter.NamedImprinter;
 import builderb0y.autocodec.reflection.reification.ReifiedType;
+import builderb0y.autocodec.reflection.reification.TypeClassification;
 
 public abstract class ArrayImprinter<T_DecodedElement, T_DecodedArray> extends NamedImprinter<T_DecodedArray> {
 
-	public final @NotNull AutoCoder<T_DecodedElement> componentCoder;
+	public @NotNull AutoCoder<T_DecodedElement> componentCoder;
 	public final boolean singleton;
 
 	public ArrayImprinter(
@@ -31,6 +33,16 @@ public abstract class ArrayImprinter<T_DecodedElement, T_DecodedArray> extends N
 		this.singleton = singleton;
 	}
 
+	@Override
+	public void visitChildren(@NotNull ChildVisitor visitor) {
+		visitor.visitChild("componentCoder", this.componentCoder);
+	}
+
+	@Override
+	public void linkChildren(@NotNull ChildLinker linker) {
+		this.componentCoder = linker.link(this.componentCoder);
+	}
+
 	public static class PrimitiveArrayImprinter<T_DecodedElement, T_DecodedArray> extends ArrayImprinter<T_DecodedElement, T_DecodedArray> {
 
 		public PrimitiveArrayImprinter(
@@ -103,6 +115,11 @@ public abstract class ArrayImprinter<T_DecodedElement, T_DecodedArray> extends N
 
 		public static final @NotNull Factory INSTANCE = new Factory();
 
+		@Override
+		public @NotNull FactoryApplicability getApplicability() {
+			return FactoryApplicability.classification(TypeClassification.ARRAY);
+		}
+
 		@Override
 		@OverrideOnly
 		@SuppressWarnings({ "unchecked", "rawtypes" })
@@ -12,7 +12,10 @@ import builderb0y.autocodec.common.AutoHandler;
 import builderb0y.autocodec.common.FactoryContext;
 import builderb0y.autocodec.common.FactoryException;
 import builderb0y.autocodec.common.KeyHolder;
+import builderb0y.autocodec.decoders.AutoDecoder;
 import builderb0y.autocodec.decoders.DecodeContext;
+import builderb0y.autocodec.decoders.DecodeException;
+import builderb0y.autocodec.decoders.DecodeSource;
 import builderb0y.autocodec.reflection.reification.ReifiedType;
 import builderb0y.autocodec.util.ObjectArrayFactory;
 import builderb0y.autocodec.verifiers.AutoVerifier;
@@ -41,6 +44,33 @@ public interface AutoImprinter<T_Decoded> extends AutoHandler, KeyHolder {
 	@OverrideOnly
 	public abstract <T_Encoded> void imprint(@NotNull ImprintContext<T_Encoded, T_Decoded> context) throws ImprintException;
 
+	/**
+	same as {@link #imprint(ImprintContext)}, but reads the encoded
+	data from source directly instead of from {@link ImprintContext#input}.
+	see {@link AutoDecoder#decodeFrom(DecodeContext, DecodeSource)} for more info.
+	the default implementation reads the next value from source into a subtree,
+	and imprints that as usual.
+
+	this method is annotated with {@link OverrideOnly}
+	because it performs no logging on its own.
+	use {@link DecodeContext#imprintWith(AutoImprinter, Object, DecodeSource)}
+	to imprint and log what is being imprinted.
+	*/
+	@OverrideOnly
+	public default <T_Encoded> void imprintFrom(@NotNull ImprintContext<T_Encoded, T_Decoded> context, @NotNull DecodeSource<T_Encoded> source) throws ImprintException {
+		T_Encoded input;
+		try {
+			input = source.readEncoded();
+		}
+		catch (ImprintException exception) {
+			throw exception;
+		}
+		catch (DecodeException exception) {
+			throw new ImprintException(exception);
+		}
+		this.imprint(new ImprintContext<>(context.input(input), context.object));
+	}
+
 	/**
 	if this AutoImprinter imprints from an object with known keys,
 	then this method returns those keys.
@@ -12,13 +12,16 @@ import builderb0y.autocodec.coders.AutoCoder;
 import builderb0y.autocodec.common.FactoryContext;
 import builderb0y.autocodec.common.FactoryException;
 import builderb0y.autocodec.decoders.DecodeContext;
+import builderb0y.autocodec.decoders.DecodeContext.ArrayDecodePath;
 import builderb0y.autocodec.decoders.DecodeException;
+import builderb0y.autocodec.decoders.DecodeSource;
+import builderb0y.autocodec.decoders.DecodeSource.Token;
 import builderb0y.autocodec.imprinters.AutoImprinter.NamedImprinter;
 import builderb0y.autocodec.reflection.reification.ReifiedType;
 
 public class CollectionImprinter<T_Element, T_Collection extends Collection<T_Element>> extends NamedImprinter<T_Collection> {
 
-	public final @NotNull AutoCoder<T_Element> elementDecoder;
+	public @NotNull AutoCoder<T_Element> elementDecoder;
 	public final boolean singleton;
 
 	public CollectionImprinter(
@@ -48,6 +51,39 @@ public class CollectionImprinter<T_Element, T_Collection extends Collection<T_El
 		}
 	}
 
+	@Override
+	@OverrideOnly
+	public <T_Encoded> void imprintFrom(@NotNull ImprintContext<T_Encoded, T_Collection> context, @NotNull DecodeSource<T_Encoded> source) throws ImprintException {
+		try {
+			if (source.peek() != Token.LIST) {
+				if (this.singleton) context.object.add(context.decodeWith(this.elementDecoder, source));
+				else throw source.notA(context, "list");
+				return;
+			}
+			source.beginList();
+			for (int index = 0; source.hasNext(); index++) {
+				context.object.add(context.input(context.empty(), new ArrayDecodePath(index)).decodeWith(this.elementDecoder, source));
+			}
+			source.endList();
+		}
+		catch (ImprintException exception) {
+			throw exception;
+		}
+		catch (DecodeException exception) {
+			throw new ImprintException(exception);
+		}
+	}
+
+	@Override
+	public void visitChildren(@NotNull ChildVisitor visitor) {
+		visitor.visitChild("elementDecoder", this.elementDecoder);
+	}
+
+	@Override
+	public void linkChildren(@NotNull ChildLinker linker) {
+		this.elementDecoder = linker.link(this.elementDecoder);
+	}
+
 	public static class Factory extends NamedImprinterFactory {
 
 		public static final @NotNull Factory INSTANCE = new Factory();
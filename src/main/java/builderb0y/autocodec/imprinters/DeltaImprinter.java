@@ -0,0 +1,51 @@
+package builderb0y.autocodec.imprinters;
+
+import org.jetbrains.annotations.ApiStatus.OverrideOnly;
+import org.jetbrains.annotations.NotNull;
+
+import builderb0y.autocodec.coders.DeltaCoder;
+import builderb0y.autocodec.decoders.DecodeException;
+import builderb0y.autocodec.imprinters.AutoImprinter.NamedImprinter;
+
+/**
+imprints a delta created by {@link DeltaCoder#encodeDelta} onto an existing object.
+this only works for objects which the delta can update in place,
+like mutable objects handled by {@link MultiFieldImprinter},
+or Lists which are {@link java.util.ArrayList}'s.
+if the delta needs to replace the object instead (for example, because it is a record),
+then an {@link ImprintException} is thrown.
+in this case, use {@link DeltaCoder#applyDelta} directly instead.
+*/
+public class DeltaImprinter<T_Decoded> extends NamedImprinter<T_Decoded> {
+
+	public final @NotNull DeltaCoder<T_Decoded> delta;
+
+	public DeltaImprinter(@NotNull DeltaCoder<T_Decoded> delta) {
+		super(delta.type);
+		this.delta = delta;
+	}
+
+	@Override
+	@OverrideOnly
+	public <T_Encoded> void imprint(@NotNull ImprintContext<T_Encoded, T_Decoded> context) throws ImprintException {
+		if (context.isEmpty()) return;
+		T_Decoded result;
+		try {
+			result = this.delta.applyDelta(context, context.object);
+		}
+		catch (ImprintException exception) {
+			throw exception;
+		}
+		catch (DecodeException exception) {
+			throw new ImprintException(exception);
+		}
+		if (result != context.object) {
+			throw new ImprintException(() -> context.pathToString() + " cannot be updated in place by " + this.delta);
+		}
+	}
+
+	@Override
+	public void visitChildren(@NotNull ChildVisitor visitor) {
+		this.delta.visitChildren(visitor);
+	}
+}
@@ -3,6 +3,7 @@ package builderb0y.autocodec.imprinters;
 import org.jetbrains.annotations.NotNull;
 
 import builderb0y.autocodec.decoders.DecodeContext;
+import builderb0y.autocodec.decoders.DecodeSource;
 import builderb0y.autocodec.util.ObjectArrayFactory;
 
 public class ImprintContext<T_Encoded, T_Decoded> extends DecodeContext<T_Encoded> {
@@ -24,6 +25,10 @@ public class ImprintContext<T_Encoded, T_Decoded> extends DecodeContext<T_Encode
 		this.logger().imprint(imprinter, this);
 	}
 
+	public void imprintWith(@NotNull AutoImprinter<T_Decoded> imprinter, @NotNull DecodeSource<T_Encoded> source) throws ImprintException {
+		this.logger().imprintFrom(imprinter, this, source);
+	}
+
 	@Override
 	public String toString() {
 		return this.getClass().getSimpleName() + ": { path: " + this.pathToString() + ", input: " + this.input + ", ops: " + this.ops + ", object: " + this.object + " }";
@@ -7,10 +7,11 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import builderb0y.autocodec.common.LazyHandler;
+import builderb0y.autocodec.decoders.DecodeSource;
 
 public class LazyImprinter<T> extends LazyHandler<AutoImprinter<T>> implements AutoImprinter<T> {
 
-	public @Nullable AutoImprinter<T> resolution;
+	public volatile @Nullable AutoImprinter<T> resolution;
 
 	@Override
 	public @Nullable AutoImprinter<T> getNullableDelegateHandler() {
@@ -28,8 +29,26 @@ public class LazyImprinter<T> extends LazyHandler<AutoImprinter<T>> implements A
 		context.imprintWith(this.getDelegateHandler());
 	}
 
+	@Override
+	@OverrideOnly
+	public <T_Encoded> void imprintFrom(@NotNull ImprintContext<T_Encoded, T> context, @NotNull DecodeSource<T_Encoded> source) throws ImprintException {
+		context.imprintWith(this.getDelegateHandler(), source);
+	}
+
 	@Override
 	public @Nullable Stream<@NotNull String> getKeys() {
 		return this.getDelegateHandler().getKeys();
 	}
+
+	@Override
+	public void visitChildren(@NotNull ChildVisitor visitor) {
+		AutoImprinter<T> resolution = this.resolution;
+		if (resolution != null) visitor.visitChild("delegate", resolution);
+	}
+
+	@Override
+	public void linkChildren(@NotNull ChildLinker linker) {
+		AutoImprinter<T> resolution = this.resolution;
+		if (resolution != null) this.resolution = linker.link(resolution);
+	}
 }
\ No newline at end of file
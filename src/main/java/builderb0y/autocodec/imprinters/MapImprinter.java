@@ -10,14 +10,17 @@ import builderb0y.autocodec.coders.AutoCoder;
 import builderb0y.autocodec.common.FactoryContext;
 import builderb0y.autocodec.common.FactoryException;
 import builderb0y.autocodec.decoders.DecodeContext;
+import builderb0y.autocodec.decoders.DecodeContext.ObjectDecodePath;
 import builderb0y.autocodec.decoders.DecodeException;
+import builderb0y.autocodec.decoders.DecodeSource;
+import builderb0y.autocodec.decoders.DecodeSource.Token;
 import builderb0y.autocodec.imprinters.AutoImprinter.NamedImprinter;
 import builderb0y.autocodec.reflection.reification.ReifiedType;
 
 public class MapImprinter<T_Key, T_Value, T_Map extends Map<T_Key, T_Value>> extends NamedImprinter<T_Map> {
 
-	public final @NotNull AutoCoder<T_Key> keyDecoder;
-	public final @NotNull AutoCoder<T_Value> valueDecoder;
+	public @NotNull AutoCoder<T_Key> keyDecoder;
+	public @NotNull AutoCoder<T_Value> valueDecoder;
 
 	public MapImprinter(
 		@NotNull ReifiedType<T_Map> type,
@@ -47,6 +50,42 @@ public class MapImprinter<T_Key, T_Value, T_Map extends Map<T_Key, T_Value>> ext
 		}
 	}
 
+	@Override
+	@OverrideOnly
+	public <T_Encoded> void imprintFrom(@NotNull ImprintContext<T_Encoded, T_Map> context, @NotNull DecodeSource<T_Encoded> source) throws ImprintException {
+		try {
+			if (source.peek() != Token.MAP) throw source.notA(context, "map");
+			source.beginMap();
+			while (source.hasNext()) {
+				String keyName = source.nextKey();
+				ObjectDecodePath path = new ObjectDecodePath(keyName);
+				//keys are small, and decoders of keys expect them to be strings, not map keys.
+				T_Key key = context.input(context.createString(keyName), path).decodeWith(this.keyDecoder);
+				T_Value value = context.input(context.empty(), path).decodeWith(this.valueDecoder, source);
+				if (key != null && value != null) context.object.put(key, value);
+			}
+			source.endMap();
+		}
+		catch (ImprintException exception) {
+			throw exception;
+		}
+		catch (DecodeException exception) {
+			throw new ImprintException(exception);
+		}
+	}
+
+	@Override
+	public void visitChildren(@NotNull ChildVisitor visitor) {
+		visitor.visitChild("keyDecoder", this.keyDecoder);
+		visitor.visitChild("valueDecoder", this.valueDecoder);
+	}
+
+	@Override
+	public void linkChildren(@NotNull ChildLinker linker) {
+		this.keyDecoder = linker.link(this.keyDecoder);
+		this.valueDecoder = linker.link(this.valueDecoder);
+	}
+
 	public static class Factory extends NamedImprinterFactory {
 
 		public static final @NotNull Factory INSTANCE = new Factory();
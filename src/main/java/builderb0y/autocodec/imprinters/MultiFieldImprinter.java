@@ -16,6 +16,9 @@ import builderb0y.autocodec.common.FactoryContext;
 import builderb0y.autocodec.common.FactoryException;
 import builderb0y.autocodec.decoders.DecodeContext;
 import builderb0y.autocodec.decoders.DecodeException;
+import builderb0y.autocodec.decoders.DecodeSource;
+import builderb0y.autocodec.decoders.DecodeSource.Token;
+import builderb0y.autocodec.decoders.MemberDispatcher;
 import builderb0y.autocodec.imprinters.AutoImprinter.NamedImprinter;
 import builderb0y.autocodec.reflection.FieldPredicate;
 import builderb0y.autocodec.reflection.MemberCollector;
@@ -30,11 +33,18 @@ import builderb0y.autocodec.verifiers.NoopVerifier;
 public class MultiFieldImprinter<T_Decoded> extends NamedImprinter<T_Decoded> {
 
 	public final @NotNull FieldStrategy<T_Decoded, ?> @NotNull [] fields;
+	/** null if any of our fields can't {@link FieldStrategy#imprintMember(ImprintContext, DecodeContext, DecodeSource)}. */
+	public final @Nullable MemberDispatcher dispatcher;
 
 	@SafeVarargs
 	public MultiFieldImprinter(@NotNull ReifiedType<T_Decoded> type, @NotNull FieldStrategy<T_Decoded, ?> @NotNull ... fields) {
 		super(type);
 		this.fields = fields;
+		this.dispatcher = (
+			Arrays.stream(fields).allMatch(FieldStrategy::canImprintMember)
+			? new MemberDispatcher(Arrays.stream(fields).map((FieldStrategy<T_Decoded, ?> field) -> field.field.getAliases()).toArray(String[][]::new))
+			: null
+		);
 	}
 
 	@Override
@@ -45,6 +55,40 @@ public class MultiFieldImprinter<T_Decoded> extends NamedImprinter<T_Decoded> {
 		}
 	}
 
+	@Override
+	@OverrideOnly
+	public <T_Encoded> void imprintFrom(@NotNull ImprintContext<T_Encoded, T_Decoded> context, @NotNull DecodeSource<T_Encoded> source) throws ImprintException {
+		try {
+			if (this.dispatcher == null || source.peek() != Token.MAP) {
+				super.imprintFrom(context, source);
+				return;
+			}
+			this.dispatcher.dispatch(context, source, new MemberDispatcher.Handler<>() {
+
+				@Override
+				public void member(int index, @NotNull DecodeContext<T_Encoded> member, @NotNull DecodeSource<T_Encoded> source) throws DecodeException {
+					MultiFieldImprinter.this.fields[index].imprintMember(context, member, source);
+				}
+
+				@Override
+				public void buffered(int index, @NotNull DecodeContext<T_Encoded> member) throws DecodeException {
+					MultiFieldImprinter.this.fields[index].imprintMember(context, member);
+				}
+
+				@Override
+				public void missing(int index) throws DecodeException {
+					context.imprintWith(MultiFieldImprinter.this.fields[index]);
+				}
+			});
+		}
+		catch (ImprintException exception) {
+			throw exception;
+		}
+		catch (DecodeException exception) {
+			throw new ImprintException(exception);
+		}
+	}
+
 	@Override
 	public @Nullable Stream<@NotNull String> getKeys() {
 		//requirements:
@@ -74,6 +118,13 @@ public class MultiFieldImprinter<T_Decoded> extends NamedImprinter<T_Decoded> {
 
 	}
 
+	@Override
+	public void visitChildren(@NotNull ChildVisitor visitor) {
+		for (FieldStrategy<T_Decoded, ?> field : this.fields) {
+			visitor.visitChild(field.field.getSerializedName(), field);
+		}
+	}
+
 	@Override
 	public String toString() {
 		return super.toString() + ": { " + this.fields.length + " fields: " + Arrays.stream(this.fields).map((FieldStrategy<T_Decoded, ?> field) -> field.field.getSerializedName()).collect(Collectors.joining(", ")) + " }";
@@ -126,6 +177,41 @@ public class MultiFieldImprinter<T_Decoded> extends NamedImprinter<T_Decoded> {
 			}
 		}
 
+		/**
+		returns true if this strategy reads exactly one member
+		with a known name, and can therefore be used with
+		{@link #imprintMember(ImprintContext, DecodeContext, DecodeSource)}.
+		*/
+		public boolean canImprintMember() {
+			return false;
+		}
+
+		/**
+		reads our member from source, and applies it to context's object.
+		member has the path of the member being read.
+		the default implementation reads the member into a subtree,
+		and delegates to {@link #imprintMember(ImprintContext, DecodeContext)}.
+		*/
+		public <T_Encoded> void imprintMember(
+			@NotNull ImprintContext<T_Encoded, T_Owner> context,
+			@NotNull DecodeContext<T_Encoded> member,
+			@NotNull DecodeSource<T_Encoded> source
+		)
+		throws DecodeException {
+			this.imprintMember(context, member.input(source.readEncoded()));
+		}
+
+		/**
+		same as {@link #imprintMember(ImprintContext, DecodeContext, DecodeSource)},
+		but reads our member from member's input instead of from a source.
+		for inline fields, member's input is the map which contains all of the field's keys.
+		*/
+		public abstract <T_Encoded> void imprintMember(
+			@NotNull ImprintContext<T_Encoded, T_Owner> context,
+			@NotNull DecodeContext<T_Encoded> member
+		)
+		throws DecodeException;
+
 		@Override
 		public abstract @Nullable Stream<@NotNull String> getKeys();
 	}
@@ -133,7 +219,7 @@ public class MultiFieldImprinter<T_Decoded> extends NamedImprinter<T_Decoded> {
 	public static abstract class DecodingFieldStrategy<T_Owner, T_Member> extends FieldStrategy<T_Owner, T_Member> {
 
 		public final @NotNull InstanceWriter<T_Owner, T_Member> writer;
-		public final @NotNull AutoCoder<T_Member> coder;
+		public @NotNull AutoCoder<T_Member> coder;
 
 		public DecodingFieldStrategy(
 			@NotNull FieldLikeMemberView<T_Owner, T_Member> field,
@@ -144,6 +230,16 @@ public class MultiFieldImprinter<T_Decoded> extends NamedImprinter<T_Decoded> {
 			this.writer  = writer;
 			this.coder = coder;
 		}
+
+		@Override
+		public void visitChildren(@NotNull ChildVisitor visitor) {
+			visitor.visitChild("coder", this.coder);
+		}
+
+		@Override
+		public void linkChildren(@NotNull ChildLinker linker) {
+			this.coder = linker.link(this.coder);
+		}
 	}
 
 	//Decodable field;
@@ -173,6 +269,32 @@ public class MultiFieldImprinter<T_Decoded> extends NamedImprinter<T_Decoded> {
 			}
 		}
 
+		@Override
+		public boolean canImprintMember() {
+			return true;
+		}
+
+		@Override
+		public <T_Encoded> void imprintMember(
+			@NotNull ImprintContext<T_Encoded, T_Owner> context,
+			@NotNull DecodeContext<T_Encoded> member,
+			@NotNull DecodeSource<T_Encoded> source
+		)
+		throws DecodeException {
+			T_Member object = member.decodeWith(this.coder, source);
+			if (object != null) this.writer.set(context.object, object);
+		}
+
+		@Override
+		public <T_Encoded> void imprintMember(
+			@NotNull ImprintContext<T_Encoded, T_Owner> context,
+			@NotNull DecodeContext<T_Encoded> member
+		)
+		throws DecodeException {
+			T_Member object = member.decodeWith(this.coder);
+			if (object != null) this.writer.set(context.object, object);
+		}
+
 		@Override
 		public @Nullable Stream<@NotNull String> getKeys() {
 			return Arrays.stream(this.field.getAliases());
@@ -201,6 +323,15 @@ public class MultiFieldImprinter<T_Decoded> extends NamedImprinter<T_Decoded> {
 			}
 		}
 
+		@Override
+		public <T_Encoded> void imprintMember(
+			@NotNull ImprintContext<T_Encoded, T_Owner> context,
+			@NotNull DecodeContext<T_Encoded> member
+		)
+		throws DecodeException {
+			this.writer.set(context.object, member.decodeWith(this.coder));
+		}
+
 		@Override
 		public @Nullable Stream<@NotNull String> getKeys() {
 			return this.coder.getKeys();
@@ -210,7 +341,7 @@ public class MultiFieldImprinter<T_Decoded> extends NamedImprinter<T_Decoded> {
 	public static abstract class ImprintingFieldStrategy<T_Owner, T_Member> extends FieldStrategy<T_Owner, T_Member> {
 
 		public final @NotNull InstanceReader<T_Owner, T_Member> reader;
-		public final @NotNull AutoImprinter<T_Member> imprinter;
+		public @NotNull AutoImprinter<T_Member> imprinter;
 
 		public ImprintingFieldStrategy(
 			@NotNull FieldLikeMemberView<T_Owner, T_Member> field,
@@ -221,6 +352,16 @@ public class MultiFieldImprinter<T_Decoded> extends NamedImprinter<T_Decoded> {
 			this.reader = reader;
 			this.imprinter = imprinter;
 		}
+
+		@Override
+		public void visitChildren(@NotNull ChildVisitor visitor) {
+			visitor.visitChild("imprinter", this.imprinter);
+		}
+
+		@Override
+		public void linkChildren(@NotNull ChildLinker linker) {
+			this.imprinter = linker.link(this.imprinter);
+		}
 	}
 
 	//Imprintable field;
@@ -242,6 +383,33 @@ public class MultiFieldImprinter<T_Decoded> extends NamedImprinter<T_Decoded> {
 			if (object != null) member.imprintWith(this.imprinter, object);
 		}
 
+		@Override
+		public boolean canImprintMember() {
+			return true;
+		}
+
+		@Override
+		public <T_Encoded> void imprintMember(
+			@NotNull ImprintContext<T_Encoded, T_Owner> context,
+			@NotNull DecodeContext<T_Encoded> member,
+			@NotNull DecodeSource<T_Encoded> source
+		)
+		throws DecodeException {
+			T_Member object = this.reader.get(context.object);
+			if (object != null) member.imprintWith(this.imprinter, object, source);
+			else source.skip();
+		}
+
+		@Override
+		public <T_Encoded> void imprintMember(
+			@NotNull ImprintContext<T_Encoded, T_Owner> context,
+			@NotNull DecodeContext<T_Encoded> member
+		)
+		throws DecodeException {
+			T_Member object = this.reader.get(context.object);
+			if (object != null) member.imprintWith(this.imprinter, object);
+		}
+
 		@Override
 		public @Nullable Stream<@NotNull String> getKeys() {
 			return Arrays.stream(this.field.getAliases());
@@ -265,6 +433,15 @@ public class MultiFieldImprinter<T_Decoded> extends NamedImprinter<T_Decoded> {
 			context.imprintWith(this.imprinter, this.reader.get(context.object));
 		}
 
+		@Override
+		public <T_Encoded> void imprintMember(
+			@NotNull ImprintContext<T_Encoded, T_Owner> context,
+			@NotNull DecodeContext<T_Encoded> member
+		)
+		throws DecodeException {
+			member.imprintWith(this.imprinter, this.reader.get(context.object));
+		}
+
 		@Override
 		public @Nullable Stream<@NotNull String> getKeys() {
 			return this.imprinter.getKeys();
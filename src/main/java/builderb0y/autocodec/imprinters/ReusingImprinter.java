@@ -0,0 +1,552 @@
+package builderb0y.autocodec.imprinters;
+
+import java.util.*;
+
+import org.jetbrains.annotations.ApiStatus.OverrideOnly;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import builderb0y.autocodec.AutoCodec;
+import builderb0y.autocodec.annotations.SingletonArray;
+import builderb0y.autocodec.coders.AutoCoder;
+import builderb0y.autocodec.coders.RecordCoder;
+import builderb0y.autocodec.coders.VerifyingCoder;
+import builderb0y.autocodec.common.FactoryContext;
+import builderb0y.autocodec.common.FactoryException;
+import builderb0y.autocodec.decoders.DecodeContext;
+import builderb0y.autocodec.decoders.DecodeException;
+import builderb0y.autocodec.imprinters.AutoImprinter.NamedImprinter;
+import builderb0y.autocodec.imprinters.MultiFieldImprinter.DecodingFieldStrategy;
+import builderb0y.autocodec.imprinters.MultiFieldImprinter.ImprintingFieldStrategy;
+import builderb0y.autocodec.imprinters.MultiFieldImprinter.InlineDecodingFieldStrategy;
+import builderb0y.autocodec.imprinters.MultiFieldImprinter.InlineImprintingFieldStrategy;
+import builderb0y.autocodec.reflection.manipulators.InstanceReader;
+import builderb0y.autocodec.reflection.manipulators.InstanceWriter;
+import builderb0y.autocodec.reflection.reification.ReifiedType;
+import builderb0y.autocodec.util.ObjectArrayFactory;
+import builderb0y.autocodec.verifiers.AutoVerifier;
+
+/**
+decodes input into an existing object, re-using as many of
+the objects nested inside it as possible instead of allocating new ones.
+this is intended for hot loops which repeatedly decode the same shape of data
+into the same scratch object, for example one scratch object per connection.
+
+the rules are as follows:
+<ul>
+	<li>
+		mutable objects handled by {@link MultiFieldImprinter} are updated field by field.
+		nested objects are updated in place recursively, regardless of whether or not
+		the field holding them is final. other fields are decoded and written as usual.
+	</li>
+	<li>
+		Lists which are {@link ArrayList}'s are updated in place element by element.
+		existing elements are re-used by index, and excess elements are removed.
+	</li>
+	<li>
+		Maps which are {@link HashMap}'s are updated in place value by value.
+		existing values are re-used by key, and entries which are not present in the input are removed.
+		note that this means that keys which were already present keep their iteration order.
+	</li>
+	<li>
+		Sets which are {@link HashSet}'s are cleared and re-filled.
+	</li>
+	<li>
+		everything else (including records, and objects which are currently null)
+		is decoded in full with its regular coder, exactly like {@link AutoCodec#decode}.
+	</li>
+</ul>
+members which are missing from the input are handled the same way {@link AutoCodec#decode} handles them:
+they become null if they are allowed to be null
+(or are left as-is, for final fields), and are an error otherwise.
+final fields which hold something that cannot be updated
+in place fall back to their regular imprinter.
+
+this class can also be used as an {@link AutoImprinter},
+in which case an {@link ImprintException} is thrown if the
+object being imprinted cannot be updated in place.
+ReusingImprinter's should be created with {@link AutoCodec#createReusingImprinter(ReifiedType)},
+which caches them per type, and used with {@link AutoCodec#decodeInto(ReusingImprinter, Object, Object, com.mojang.serialization.DynamicOps)}.
+*/
+public abstract class ReusingImprinter<T_Decoded> extends NamedImprinter<T_Decoded> {
+
+	public final @NotNull ReifiedType<T_Decoded> type;
+
+	public ReusingImprinter(@NotNull ReifiedType<T_Decoded> type) {
+		super(type);
+		this.type = type;
+	}
+
+	/**
+	decodes context's input into existing, and returns the result.
+	this will be existing itself if existing could be updated in place,
+	or a freshly decoded object otherwise.
+	if existing is null, then context's input is decoded in full.
+	*/
+	public abstract <T_Encoded> @Nullable T_Decoded decodeInto(@NotNull DecodeContext<T_Encoded> context, @Nullable T_Decoded existing) throws DecodeException;
+
+	/**
+	returns true if {@link #decodeInto(DecodeContext, Object)}
+	would update existing in place, as long as the input is not empty.
+	*/
+	public abstract boolean canReuse(@NotNull T_Decoded existing);
+
+	@Override
+	@OverrideOnly
+	public <T_Encoded> void imprint(@NotNull ImprintContext<T_Encoded, T_Decoded> context) throws ImprintException {
+		T_Decoded result;
+		try {
+			result = this.decodeInto(context, context.object);
+		}
+		catch (ImprintException exception) {
+			throw exception;
+		}
+		catch (DecodeException exception) {
+			throw new ImprintException(exception);
+		}
+		if (result != context.object) {
+			throw new ImprintException(() -> context.pathToString() + " cannot be updated in place by " + this);
+		}
+	}
+
+	/**
+	used when a type references itself, either directly or indirectly.
+	the delegate is assigned once the actual ReusingImprinter has been created.
+	*/
+	public static class DeferredReusingImprinter<T_Decoded> extends ReusingImprinter<T_Decoded> {
+
+		public @Nullable ReusingImprinter<T_Decoded> delegate;
+
+		public DeferredReusingImprinter(@NotNull ReifiedType<T_Decoded> type) {
+			super(type);
+		}
+
+		public @NotNull ReusingImprinter<T_Decoded> getDelegate() {
+			ReusingImprinter<T_Decoded> delegate = this.delegate;
+			if (delegate == null) throw new IllegalStateException(this + " used before being created.");
+			return delegate;
+		}
+
+		@Override
+		public <T_Encoded> @Nullable T_Decoded decodeInto(@NotNull DecodeContext<T_Encoded> context, @Nullable T_Decoded existing) throws DecodeException {
+			return this.getDelegate().decodeInto(context, existing);
+		}
+
+		@Override
+		public boolean canReuse(@NotNull T_Decoded existing) {
+			return this.getDelegate().canReuse(existing);
+		}
+
+		@Override
+		public void visitChildren(@NotNull ChildVisitor visitor) {
+			ReusingImprinter<T_Decoded> delegate = this.delegate;
+			if (delegate != null) visitor.visitChild("delegate", delegate);
+		}
+	}
+
+	/** always decodes a new value. */
+	public static class LeafReusingImprinter<T_Decoded> extends ReusingImprinter<T_Decoded> {
+
+		public final @NotNull AutoCoder<T_Decoded> coder;
+
+		public LeafReusingImprinter(@NotNull ReifiedType<T_Decoded> type, @NotNull AutoCoder<T_Decoded> coder) {
+			super(type);
+			this.coder = coder;
+		}
+
+		@Override
+		public <T_Encoded> @Nullable T_Decoded decodeInto(@NotNull DecodeContext<T_Encoded> context, @Nullable T_Decoded existing) throws DecodeException {
+			return context.decodeWith(this.coder);
+		}
+
+		@Override
+		public boolean canReuse(@NotNull T_Decoded existing) {
+			return false;
+		}
+
+		@Override
+		public void visitChildren(@NotNull ChildVisitor visitor) {
+			visitor.visitChild("coder", this.coder);
+		}
+	}
+
+	/**
+	common logic for every ReusingImprinter which can update objects in place:
+	null existing objects, empty inputs, and existing objects
+	which cannot be updated in place are decoded with our {@link #coder}.
+	objects which were updated in place are checked with our {@link #verifier}.
+	*/
+	public static abstract class CodingReusingImprinter<T_Decoded> extends ReusingImprinter<T_Decoded> {
+
+		public final @NotNull AutoCoder<T_Decoded> coder;
+		/**
+		the verifier which {@link #coder} would apply after decoding, if any.
+		our coder only verifies values which it decodes itself,
+		so values which were updated in place need to be verified separately.
+		*/
+		public final @Nullable AutoVerifier<T_Decoded> verifier;
+
+		public CodingReusingImprinter(@NotNull ReifiedType<T_Decoded> type, @NotNull AutoCoder<T_Decoded> coder, @Nullable AutoVerifier<T_Decoded> verifier) {
+			super(type);
+			this.coder = coder;
+			this.verifier = verifier;
+		}
+
+		@Override
+		public <T_Encoded> @Nullable T_Decoded decodeInto(@NotNull DecodeContext<T_Encoded> context, @Nullable T_Decoded existing) throws DecodeException {
+			if (existing == null || context.isEmpty() || !this.canReuse(existing)) return context.decodeWith(this.coder);
+			T_Decoded result = this.reuse(context, existing);
+			if (this.verifier != null) context.verifyWith(this.verifier, result);
+			return result;
+		}
+
+		@Override
+		public void visitChildren(@NotNull ChildVisitor visitor) {
+			visitor.visitChild("coder", this.coder);
+			if (this.verifier != null) visitor.visitChild("verifier", this.verifier);
+		}
+
+		/** same as {@link #decodeInto(DecodeContext, Object)}, but existing is non-null and can be reused, and context is non-empty. */
+		public abstract <T_Encoded> @NotNull T_Decoded reuse(@NotNull DecodeContext<T_Encoded> context, @NotNull T_Decoded existing) throws DecodeException;
+	}
+
+	public static class Member<T_Owner, T_Member> {
+
+		public static final @NotNull ObjectArrayFactory<Member<?, ?>> ARRAY_FACTORY = new ObjectArrayFactory<>(Member.class).generic();
+
+		public final @NotNull String @NotNull [] aliases;
+		/** true if this member is annotated with {@link builderb0y.autocodec.annotations.EncodeInline}. */
+		public final boolean inline;
+		public final @NotNull InstanceReader<T_Owner, T_Member> reader;
+		/** null if the member is final, and can therefore only be updated in place. */
+		public final @Nullable InstanceWriter<T_Owner, T_Member> writer;
+		public final @NotNull ReusingImprinter<T_Member> reuser;
+		/**
+		the regular imprinter for final members, which is used
+		when {@link #reuser} cannot update the member in place.
+		this is the same thing {@link ImprintingFieldStrategy} would do.
+		null if the member is not final.
+		*/
+		public final @Nullable AutoImprinter<T_Member> imprinter;
+
+		public Member(
+			@NotNull String @NotNull [] aliases,
+			boolean inline,
+			@NotNull InstanceReader<T_Owner, T_Member> reader,
+			@Nullable InstanceWriter<T_Owner, T_Member> writer,
+			@NotNull ReusingImprinter<T_Member> reuser,
+			@Nullable AutoImprinter<T_Member> imprinter
+		) {
+			this.aliases   = aliases;
+			this.inline    = inline;
+			this.reader    = reader;
+			this.writer    = writer;
+			this.reuser    = reuser;
+			this.imprinter = imprinter;
+		}
+
+		public <T_Encoded> void decodeInto(@NotNull DecodeContext<T_Encoded> context, @NotNull T_Owner owner) throws DecodeException {
+			DecodeContext<T_Encoded> member = this.inline ? context : context.getFirstMember(this.aliases);
+			T_Member oldValue = this.reader.get(owner);
+			if (this.imprinter != null && oldValue != null && !this.reuser.canReuse(oldValue)) {
+				member.imprintWith(this.imprinter, oldValue);
+				return;
+			}
+			T_Member newValue = this.reuser.decodeInto(member, oldValue);
+			if (newValue == oldValue) return;
+			if (this.writer != null) {
+				this.writer.set(owner, newValue);
+			}
+			else if (oldValue != null && newValue != null) {
+				throw new DecodeException(() -> member.pathToString() + " cannot be replaced, and can only be updated in place.");
+			}
+		}
+	}
+
+	public static class ObjectReusingImprinter<T_Decoded> extends CodingReusingImprinter<T_Decoded> {
+
+		public final @NotNull Member<T_Decoded, ?> @NotNull [] members;
+
+		public ObjectReusingImprinter(
+			@NotNull ReifiedType<T_Decoded> type,
+			@NotNull AutoCoder<T_Decoded> coder,
+			@NotNull Member<T_Decoded, ?> @NotNull [] members,
+			@Nullable AutoVerifier<T_Decoded> verifier
+		) {
+			super(type, coder, verifier);
+			this.members = members;
+		}
+
+		@Override
+		public boolean canReuse(@NotNull T_Decoded existing) {
+			//subclasses may have more fields than we know about.
+			return existing.getClass() == this.type.getRawClass();
+		}
+
+		@Override
+		public <T_Encoded> @NotNull T_Decoded reuse(@NotNull DecodeContext<T_Encoded> context, @NotNull T_Decoded existing) throws DecodeException {
+			for (Member<T_Decoded, ?> member : this.members) {
+				member.decodeInto(context, existing);
+			}
+			return existing;
+		}
+
+		@Override
+		public void visitChildren(@NotNull ChildVisitor visitor) {
+			super.visitChildren(visitor);
+			for (Member<T_Decoded, ?> member : this.members) {
+				String name = member.aliases[0];
+				visitor.visitChild(name, member.reuser);
+				if (member.imprinter != null) visitor.visitChild(name + ".imprinter", member.imprinter);
+			}
+		}
+	}
+
+	public static class ListReusingImprinter<T_Element> extends CodingReusingImprinter<List<T_Element>> {
+
+		public final @NotNull ReusingImprinter<T_Element> elementReuser;
+		public final boolean singleton;
+
+		public ListReusingImprinter(
+			@NotNull ReifiedType<List<T_Element>> type,
+			@NotNull AutoCoder<List<T_Element>> coder,
+			@NotNull ReusingImprinter<T_Element> elementReuser,
+			boolean singleton,
+			@Nullable AutoVerifier<List<T_Element>> verifier
+		) {
+			super(type, coder, verifier);
+			this.elementReuser = elementReuser;
+			this.singleton = singleton;
+		}
+
+		@Override
+		public void visitChildren(@NotNull ChildVisitor visitor) {
+			super.visitChildren(visitor);
+			visitor.visitChild("elementReuser", this.elementReuser);
+		}
+
+		@Override
+		public boolean canReuse(@NotNull List<T_Element> existing) {
+			return existing instanceof ArrayList<T_Element>;
+		}
+
+		@Override
+		public <T_Encoded> @NotNull List<T_Element> reuse(@NotNull DecodeContext<T_Encoded> context, @NotNull List<T_Element> existing) throws DecodeException {
+			List<DecodeContext<T_Encoded>> elements = context.forceAsList(this.singleton);
+			int size = elements.size();
+			while (existing.size() > size) existing.remove(existing.size() - 1);
+			for (int index = 0; index < size; index++) {
+				if (index < existing.size()) {
+					T_Element oldElement = existing.get(index);
+					T_Element newElement = this.elementReuser.decodeInto(elements.get(index), oldElement);
+					if (newElement != oldElement) existing.set(index, newElement);
+				}
+				else {
+					existing.add(this.elementReuser.decodeInto(elements.get(index), null));
+				}
+			}
+			return existing;
+		}
+	}
+
+	public static class SetReusingImprinter<T_Element> extends CodingReusingImprinter<Set<T_Element>> {
+
+		public final @NotNull AutoCoder<T_Element> elementCoder;
+		public final boolean singleton;
+
+		public SetReusingImprinter(
+			@NotNull ReifiedType<Set<T_Element>> type,
+			@NotNull AutoCoder<Set<T_Element>> coder,
+			@NotNull AutoCoder<T_Element> elementCoder,
+			boolean singleton,
+			@Nullable AutoVerifier<Set<T_Element>> verifier
+		) {
+			super(type, coder, verifier);
+			this.elementCoder = elementCoder;
+			this.singleton = singleton;
+		}
+
+		@Override
+		public void visitChildren(@NotNull ChildVisitor visitor) {
+			super.visitChildren(visitor);
+			visitor.visitChild("elementCoder", this.elementCoder);
+		}
+
+		@Override
+		public boolean canReuse(@NotNull Set<T_Element> existing) {
+			return existing instanceof HashSet<T_Element>;
+		}
+
+		@Override
+		public <T_Encoded> @NotNull Set<T_Element> reuse(@NotNull DecodeContext<T_Encoded> context, @NotNull Set<T_Element> existing) throws DecodeException {
+			existing.clear();
+			for (DecodeContext<T_Encoded> element : context.forceAsList(this.singleton)) {
+				existing.add(element.decodeWith(this.elementCoder));
+			}
+			return existing;
+		}
+	}
+
+	public static class MapReusingImprinter<T_Key, T_Value> extends CodingReusingImprinter<Map<T_Key, T_Value>> {
+
+		public final @NotNull AutoCoder<T_Key> keyCoder;
+		public final @NotNull ReusingImprinter<T_Value> valueReuser;
+
+		public MapReusingImprinter(
+			@NotNull ReifiedType<Map<T_Key, T_Value>> type,
+			@NotNull AutoCoder<Map<T_Key, T_Value>> coder,
+			@NotNull AutoCoder<T_Key> keyCoder,
+			@NotNull ReusingImprinter<T_Value> valueReuser,
+			@Nullable AutoVerifier<Map<T_Key, T_Value>> verifier
+		) {
+			super(type, coder, verifier);
+			this.keyCoder = keyCoder;
+			this.valueReuser = valueReuser;
+		}
+
+		@Override
+		public void visitChildren(@NotNull ChildVisitor visitor) {
+			super.visitChildren(visitor);
+			visitor.visitChild("keyCoder", this.keyCoder);
+			visitor.visitChild("valueReuser", this.valueReuser);
+		}
+
+		@Override
+		public boolean canReuse(@NotNull Map<T_Key, T_Value> existing) {
+			return existing instanceof HashMap<T_Key, T_Value>;
+		}
+
+		@Override
+		public <T_Encoded> @NotNull Map<T_Key, T_Value> reuse(@NotNull DecodeContext<T_Encoded> context, @NotNull Map<T_Key, T_Value> existing) throws DecodeException {
+			Map<DecodeContext<T_Encoded>, DecodeContext<T_Encoded>> entries = context.forceAsContextMap();
+			Set<T_Key> present = new HashSet<>(entries.size() << 1);
+			for (Map.Entry<DecodeContext<T_Encoded>, DecodeContext<T_Encoded>> entry : entries.entrySet()) {
+				T_Key key = entry.getKey().decodeWith(this.keyCoder);
+				if (key == null) continue;
+				T_Value oldValue = existing.get(key);
+				T_Value newValue = this.valueReuser.decodeInto(entry.getValue(), oldValue);
+				if (newValue == null) continue;
+				if (newValue != oldValue) existing.put(key, newValue);
+				present.add(key);
+			}
+			existing.keySet().retainAll(present);
+			return existing;
+		}
+	}
+
+	/**
+	creates ReusingImprinter's for types and all the types they contain,
+	handling types which reference themselves.
+	the created ReusingImprinter's are added to {@link AutoCodec#reusingImprinters}
+	once the root ReusingImprinter has been created successfully.
+	*/
+	public static class Builder {
+
+		public final @NotNull AutoCodec autoCodec;
+		public final @NotNull Map<@NotNull ReifiedType<?>, @NotNull ReusingImprinter<?>> created = new HashMap<>(16);
+
+		public Builder(@NotNull AutoCodec autoCodec) {
+			this.autoCodec = autoCodec;
+		}
+
+		public <T_Decoded> @NotNull ReusingImprinter<T_Decoded> build(@NotNull FactoryContext<T_Decoded> context) throws FactoryException {
+			ReusingImprinter<T_Decoded> root = this.get(context);
+			for (Map.Entry<ReifiedType<?>, ReusingImprinter<?>> entry : this.created.entrySet()) {
+				this.autoCodec.reusingImprinters.putIfAbsent(entry.getKey(), entry.getValue());
+			}
+			return root;
+		}
+
+		@SuppressWarnings("unchecked")
+		public <T_Decoded> @NotNull ReusingImprinter<T_Decoded> get(@NotNull FactoryContext<T_Decoded> context) throws FactoryException {
+			ReifiedType<T_Decoded> type = context.type.canonicalize();
+			ReusingImprinter<?> existing = this.autoCodec.reusingImprinters.get(type);
+			if (existing == null) existing = this.created.get(type);
+			if (existing != null) return (ReusingImprinter<T_Decoded>)(existing);
+			DeferredReusingImprinter<T_Decoded> deferred = new DeferredReusingImprinter<>(type);
+			this.created.put(type, deferred);
+			ReusingImprinter<T_Decoded> actual = this.create(context);
+			deferred.delegate = actual;
+			this.created.put(type, actual);
+			return actual;
+		}
+
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		public <T_Decoded> @NotNull ReusingImprinter<T_Decoded> create(@NotNull FactoryContext<T_Decoded> context) throws FactoryException {
+			AutoCoder<T_Decoded> coder = context.forceCreateCoder();
+			Class<?> rawClass = context.type.getRawClass();
+			boolean singleton = context.type.getAnnotations().has(SingletonArray.class);
+			AutoCoder<T_Decoded> unwrapped = coder;
+			AutoVerifier<T_Decoded> verifier = null;
+			if (unwrapped instanceof VerifyingCoder<T_Decoded> verifying) {
+				unwrapped = verifying.coder;
+				verifier = verifying.verifier;
+			}
+			if (rawClass == List.class) {
+				ReifiedType<?> elementType = context.type.resolveParameter(List.class);
+				if (elementType != null) {
+					context.logger().logMessage("Re-using List elements by index.");
+					return new ListReusingImprinter(context.type, coder, this.get(context.type(elementType)), singleton, verifier);
+				}
+			}
+			if (rawClass == Set.class) {
+				ReifiedType<?> elementType = context.type.resolveParameter(Set.class);
+				if (elementType != null) {
+					context.logger().logMessage("Clearing and re-filling Set.");
+					return new SetReusingImprinter(context.type, coder, context.type(elementType).forceCreateCoder(), singleton, verifier);
+				}
+			}
+			if (rawClass == Map.class) {
+				ReifiedType<?>[] parameters = context.type.resolveParameters(Map.class);
+				if (parameters != null) {
+					context.logger().logMessage("Re-using Map values by key.");
+					return new MapReusingImprinter(context.type, coder, context.type(parameters[0]).forceCreateCoder(), this.get(context.type(parameters[1])), verifier);
+				}
+			}
+			if (!(unwrapped instanceof RecordCoder<T_Decoded>) && rawClass != null && !rawClass.isRecord()) {
+				AutoImprinter<T_Decoded> imprinter = context.tryCreateImprinter();
+				MultiFieldImprinter.FieldStrategy<T_Decoded, ?>[] fields = (
+					imprinter instanceof MultiFieldImprinter<T_Decoded> multiFieldImprinter
+					? multiFieldImprinter.fields
+					: imprinter instanceof MultiFieldImprinter.FieldStrategy<T_Decoded, ?> single
+					? new MultiFieldImprinter.FieldStrategy[] { single }
+					: null
+				);
+				if (fields != null) {
+					context.logger().logMessage("Re-using mutable object field by field.");
+					Member<T_Decoded, ?>[] members = Member.ARRAY_FACTORY.applyGeneric(fields.length);
+					for (int index = 0; index < members.length; index++) {
+						members[index] = this.createMember(context, fields[index]);
+					}
+					return new ObjectReusingImprinter<>(context.type, coder, members, verifier);
+				}
+			}
+			context.logger().logMessage("Decoding entire value.");
+			return new LeafReusingImprinter<>(context.type, coder);
+		}
+
+		public <T_Owner, T_Member> @NotNull Member<T_Owner, T_Member> createMember(
+			@NotNull FactoryContext<T_Owner> context,
+			MultiFieldImprinter.@NotNull FieldStrategy<T_Owner, T_Member> field
+		)
+		throws FactoryException {
+			ReusingImprinter<T_Member> reuser = this.get(context.type(field.field.getType()));
+			if (field instanceof DecodingFieldStrategy<T_Owner, T_Member> decoding) {
+				InstanceReader<T_Owner, T_Member> reader;
+				try {
+					reader = field.field.createInstanceReader(context);
+				}
+				catch (IllegalAccessException exception) {
+					throw new FactoryException(exception);
+				}
+				return new Member<>(field.field.getAliases(), field instanceof InlineDecodingFieldStrategy, reader, decoding.writer, reuser, null);
+			}
+			else if (field instanceof ImprintingFieldStrategy<T_Owner, T_Member> imprinting) {
+				return new Member<>(field.field.getAliases(), field instanceof InlineImprintingFieldStrategy, imprinting.reader, null, reuser, imprinting.imprinter);
+			}
+			else {
+				throw new FactoryException("Unknown field strategy: " + field);
+			}
+		}
+	}
+}
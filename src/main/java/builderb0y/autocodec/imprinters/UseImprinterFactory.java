@@ -5,6 +5,8 @@ import java.lang.reflect.*;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import builderb0y.autocodec.annotations.UseImprinter;
+import builderb0y.autocodec.common.FactoryApplicability;
 import builderb0y.autocodec.common.FactoryContext;
 import builderb0y.autocodec.common.UseHandlerFactory1;
 import builderb0y.autocodec.common.UseSpec;
@@ -23,6 +25,11 @@ public class UseImprinterFactory extends UseHandlerFactory1<AutoImprinter<?>> im
 		super(AutoImprinter.class, ImprinterFactory.class, ImprintContext.class, void.class, "imprint");
 	}
 
+	@Override
+	public @NotNull FactoryApplicability getApplicability() {
+		return FactoryApplicability.annotatedWith(UseImprinter.class);
+	}
+
 	@Override
 	public <T_HandledType> @Nullable UseSpec getSpec(@NotNull FactoryContext<T_HandledType> context) {
 		return UseSpec.fromUseImprinter(context.type);
@@ -3,6 +3,7 @@ package builderb0y.autocodec.imprinters;
 import org.jetbrains.annotations.ApiStatus.OverrideOnly;
 import org.jetbrains.annotations.NotNull;
 
+import builderb0y.autocodec.decoders.DecodeSource;
 import builderb0y.autocodec.imprinters.AutoImprinter.NamedImprinter;
 import builderb0y.autocodec.reflection.reification.ReifiedType;
 import builderb0y.autocodec.verifiers.AutoVerifier;
@@ -14,8 +15,8 @@ imprinting works in {@link MultiFieldImprinter}.
 */
 public class VerifyingImprinter<T_Decoded> extends NamedImprinter<T_Decoded> {
 
-	public final @NotNull AutoImprinter<T_Decoded> imprinter;
-	public final @NotNull AutoVerifier<T_Decoded> verifier;
+	public @NotNull AutoImprinter<T_Decoded> imprinter;
+	public @NotNull AutoVerifier<T_Decoded> verifier;
 
 	public VerifyingImprinter(@NotNull ReifiedType<T_Decoded> type, @NotNull AutoImprinter<T_Decoded> imprinter, @NotNull AutoVerifier<T_Decoded> verifier) {
 		super(type);
@@ -35,8 +36,32 @@ public class VerifyingImprinter<T_Decoded> extends NamedImprinter<T_Decoded> {
 		}
 	}
 
+	@Override
+	@OverrideOnly
+	public <T_Encoded> void imprintFrom(@NotNull ImprintContext<T_Encoded, T_Decoded> context, @NotNull DecodeSource<T_Encoded> source) throws ImprintException {
+		context.imprintWith(this.imprinter, context.object, source);
+		try {
+			context.verifyWith(this.verifier, context.object);
+		}
+		catch (VerifyException exception) {
+			throw new ImprintException(exception);
+		}
+	}
+
 	@Override
 	public String toString() {
 		return super.toString() + ": { imprinter: " + this.imprinter + ", verifier: " + this.verifier + " }";
 	}
+
+	@Override
+	public void visitChildren(@NotNull ChildVisitor visitor) {
+		visitor.visitChild("imprinter", this.imprinter);
+		visitor.visitChild("verifier", this.verifier);
+	}
+
+	@Override
+	public void linkChildren(@NotNull ChildLinker linker) {
+		this.imprinter = linker.link(this.imprinter);
+		this.verifier = linker.link(this.verifier);
+	}
 }
\ No newline at end of file
@@ -0,0 +1,252 @@
+package builderb0y.autocodec.logging;
+
+import java.lang.management.ManagementFactory;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import builderb0y.autocodec.common.AutoHandler;
+import builderb0y.autocodec.common.FactoryList;
+import builderb0y.autocodec.graph.HandlerStatistics;
+import builderb0y.autocodec.reflection.reification.ReifiedType;
+
+/**
+TaskLogger which measures how many bytes are allocated by every task,
+using {@link com.sun.management.ThreadMXBean#getCurrentThreadAllocatedBytes()}.
+bytes are attributed to the innermost handler which was running at the time,
+so a handler's {@link HandlerStats#exclusiveBytes} does NOT
+include bytes allocated by other handlers it delegated to.
+{@link HandlerStats#totalBytes} on the other hand does include them.
+
+the actual work of every task is delegated to {@link #delegate},
+which is usually a {@link DisabledTaskLogger},
+since the overhead of other loggers would
+otherwise be measured as part of the task.
+see {@link MeasuringTaskLogger} for more info.
+
+handlers are grouped by identity (well, by {@link Object#equals(Object)}),
+and their {@link ReifiedType} is learned whenever this logger sees
+a factory task which created them. as such, if you want types in
+your {@link #report()}, this logger should be used as the factory logger
+in addition to the encode and decode loggers. for example: {@code
+	AllocationTrackingTaskLogger tracker = new AllocationTrackingTaskLogger(new DisabledTaskLogger());
+	AutoCodec autoCodec = new AutoCodec() {
+
+		@Override
+		public @NotNull TaskLogger createDefaultLogger(@NotNull ReentrantLock lock) {
+			return tracker;
+		}
+	};
+	... encode and decode some things ...
+	System.out.println(tracker.report());
+}
+handlers which wrap other handlers (for example, the lazy handlers
+created by {@link FactoryList}) will not have a type in the report,
+but the handlers they wrap will.
+
+this logger can be used from multiple threads at once,
+but reading the allocation counter and updating the statistics
+is not free, so it is intended for diagnostics, not production use.
+*/
+public class AllocationTrackingTaskLogger extends MeasuringTaskLogger implements HandlerStatistics {
+
+	public final com.sun.management.@NotNull ThreadMXBean threadBean;
+	/** statistics for every handler (or factory, or other task subject) which has run a task. */
+	public final @NotNull ConcurrentHashMap<Object, HandlerStats> stats = new ConcurrentHashMap<>(64);
+	/** the types which handlers were created for, learned from factory tasks. */
+	public final @NotNull ConcurrentHashMap<Object, ReifiedType<?>> handlerTypes = new ConcurrentHashMap<>(64);
+
+	/**
+	@throws UnsupportedOperationException if the current JVM
+	does not support measuring per-thread allocations.
+	*/
+	public AllocationTrackingTaskLogger(@NotNull TaskLogger delegate) {
+		super(delegate);
+		if (
+			ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean &&
+			bean.isThreadAllocatedMemorySupported()
+		) {
+			if (!bean.isThreadAllocatedMemoryEnabled()) {
+				bean.setThreadAllocatedMemoryEnabled(true);
+			}
+			this.threadBean = bean;
+		}
+		else {
+			throw new UnsupportedOperationException("This JVM does not support measuring thread allocations.");
+		}
+	}
+
+	//////////////////////////////// measuring ////////////////////////////////
+
+	@Override
+	public long measure() {
+		return this.threadBean.getCurrentThreadAllocatedBytes();
+	}
+
+	@Override
+	public void record(@NotNull Object subject, @Nullable ReifiedType<?> type, long total, long exclusive) {
+		HandlerStats stats = this.stats.computeIfAbsent(subject, HandlerStats::new);
+		stats.record(total, exclusive);
+		if (type != null && stats.type == null) stats.type = type;
+	}
+
+	@Override
+	public void handlerCreated(@NotNull Object handler, @NotNull ReifiedType<?> type) {
+		this.learnType(handler, type);
+	}
+
+	/** remembers that the provided handler was created for the provided type. */
+	public void learnType(@Nullable Object handler, @NotNull ReifiedType<?> type) {
+		if (handler != null) this.handlerTypes.putIfAbsent(handler, type);
+	}
+
+	//////////////////////////////// reporting ////////////////////////////////
+
+	/** returns a snapshot of the statistics gathered so far. */
+	public @NotNull AllocationReport report() {
+		List<ReportEntry> entries = new ArrayList<>(this.stats.size());
+		for (HandlerStats stats : this.stats.values()) {
+			ReifiedType<?> type = stats.type;
+			if (type == null) type = this.handlerTypes.get(stats.subject);
+			entries.add(new ReportEntry(stats.subject, type, stats.calls.get(), stats.exclusiveBytes.get(), stats.totalBytes.get()));
+		}
+		entries.sort(Comparator.comparingLong(ReportEntry::exclusiveBytes).reversed());
+		return new AllocationReport(entries);
+	}
+
+	/** discards all statistics gathered so far. learned types are kept. */
+	public void reset() {
+		this.stats.clear();
+	}
+
+	@Override
+	public @Nullable Map<@NotNull String, @NotNull Object> getStatistics(@NotNull AutoHandler handler) {
+		HandlerStats stats = this.stats.get(handler);
+		if (stats == null) return null;
+		Map<String, Object> map = new LinkedHashMap<>(4);
+		map.put("calls", stats.calls.get());
+		map.put("exclusiveBytes", stats.exclusiveBytes.get());
+		map.put("totalBytes", stats.totalBytes.get());
+		return map;
+	}
+
+	//////////////////////////////// classes ////////////////////////////////
+
+	/** mutable, thread-safe statistics for a single handler. */
+	public static class HandlerStats {
+
+		public final @NotNull Object subject;
+		public volatile @Nullable ReifiedType<?> type;
+		public final @NotNull AtomicLong calls = new AtomicLong(), exclusiveBytes = new AtomicLong(), totalBytes = new AtomicLong();
+
+		public HandlerStats(@NotNull Object subject) {
+			this.subject = subject;
+		}
+
+		public void record(long totalBytes, long exclusiveBytes) {
+			this.calls.incrementAndGet();
+			this.totalBytes.addAndGet(totalBytes);
+			this.exclusiveBytes.addAndGet(exclusiveBytes);
+		}
+	}
+
+	/**
+	immutable statistics for a single handler, or an aggregation of several handlers.
+	@param subject the handler, factory, or other object which performed the work.
+	when aggregated, this is the key which the entries were aggregated by.
+	@param type the type which the handler was created for, if known.
+	@param calls the number of times the handler was called.
+	@param exclusiveBytes the number of bytes allocated by the handler itself,
+	not including the bytes allocated by other handlers it delegated to.
+	@param totalBytes the number of bytes allocated by the handler,
+	including the bytes allocated by other handlers it delegated to.
+	note that this is not meaningful for aggregated entries,
+	as aggregated handlers may have called each other.
+	*/
+	public static record ReportEntry(
+		@NotNull Object subject,
+		@Nullable ReifiedType<?> type,
+		long calls,
+		long exclusiveBytes,
+		long totalBytes
+	) {
+
+		public double exclusiveBytesPerCall() {
+			return this.calls == 0L ? 0.0D : ((double)(this.exclusiveBytes)) / ((double)(this.calls));
+		}
+
+		@Override
+		public @NotNull String toString() {
+			return (
+				this.subject
+				+ (this.type != null ? " for " + this.type : "")
+				+ ": " + this.calls + " calls, "
+				+ this.exclusiveBytes + " exclusive bytes ("
+				+ String.format("%.1f", this.exclusiveBytesPerCall())
+				+ " per call), "
+				+ this.totalBytes + " total bytes"
+			);
+		}
+	}
+
+	/** snapshot of the statistics gathered by an {@link AllocationTrackingTaskLogger}. */
+	public static record AllocationReport(@NotNull List<@NotNull ReportEntry> entries) {
+
+		/** returns the entries which were created for the provided type. */
+		public @NotNull List<@NotNull ReportEntry> forType(@NotNull ReifiedType<?> type) {
+			return this.entries.stream().filter((ReportEntry entry) -> type.equals(entry.type)).toList();
+		}
+
+		/** returns the entries whose handler is an instance of the provided class. */
+		public @NotNull List<@NotNull ReportEntry> forHandlerClass(@NotNull Class<?> handlerClass) {
+			return this.entries.stream().filter((ReportEntry entry) -> handlerClass.isInstance(entry.subject)).toList();
+		}
+
+		/**
+		aggregates all entries by their type.
+		the {@link ReportEntry#subject()} of the returned entries is the type,
+		or the string "unknown type" for handlers whose type is not known.
+		*/
+		public @NotNull List<@NotNull ReportEntry> byType() {
+			return this.aggregate((ReportEntry entry) -> entry.type != null ? entry.type : "unknown type");
+		}
+
+		/**
+		aggregates all entries by the class of their handler.
+		the {@link ReportEntry#subject()} of the returned entries is the class.
+		*/
+		public @NotNull List<@NotNull ReportEntry> byHandlerClass() {
+			return this.aggregate((ReportEntry entry) -> entry.subject instanceof Class<?> clazz ? clazz : entry.subject.getClass());
+		}
+
+		public @NotNull List<@NotNull ReportEntry> aggregate(@NotNull Function<? super ReportEntry, ?> keyFunction) {
+			Map<Object, long[]> totals = new LinkedHashMap<>(this.entries.size());
+			for (ReportEntry entry : this.entries) {
+				long[] sums = totals.computeIfAbsent(keyFunction.apply(entry), (Object key) -> new long[3]);
+				sums[0] += entry.calls;
+				sums[1] += entry.exclusiveBytes;
+				sums[2] += entry.totalBytes;
+			}
+			List<ReportEntry> result = new ArrayList<>(totals.size());
+			for (Map.Entry<Object, long[]> total : totals.entrySet()) {
+				long[] sums = total.getValue();
+				result.add(new ReportEntry(total.getKey(), total.getKey() instanceof ReifiedType<?> type ? type : null, sums[0], sums[1], sums[2]));
+			}
+			result.sort(Comparator.comparingLong(ReportEntry::exclusiveBytes).reversed());
+			return result;
+		}
+
+		@Override
+		public @NotNull String toString() {
+			StringBuilder builder = new StringBuilder(this.entries.size() * 128).append("Allocation report:");
+			for (ReportEntry entry : this.entries) {
+				builder.append("\n\t").append(entry);
+			}
+			return builder.toString();
+		}
+	}
+}
@@ -17,9 +17,11 @@ import builderb0y.autocodec.constructors.ConstructException;
 import builderb0y.autocodec.decoders.AutoDecoder;
 import builderb0y.autocodec.decoders.DecodeContext;
 import builderb0y.autocodec.decoders.DecodeException;
+import builderb0y.autocodec.decoders.DecodeSource;
 import builderb0y.autocodec.encoders.AutoEncoder;
 import builderb0y.autocodec.encoders.EncodeContext;
 import builderb0y.autocodec.encoders.EncodeException;
+import builderb0y.autocodec.encoders.EncodeSink;
 import builderb0y.autocodec.imprinters.AutoImprinter;
 import builderb0y.autocodec.imprinters.ImprintContext;
 import builderb0y.autocodec.imprinters.ImprintException;
@@ -67,11 +69,21 @@ public class DisabledTaskLogger extends TaskLogger {
 		return encoder.encode(context);
 	}
 
+	@Override
+	public <T_Encoded, T_Decoded> void encodeTo(@NotNull AutoEncoder<T_Decoded> encoder, @NotNull EncodeContext<T_Encoded, T_Decoded> context, @NotNull EncodeSink<T_Encoded> sink) throws EncodeException {
+		encoder.encodeTo(context, sink);
+	}
+
 	@Override
 	public <T_Encoded, T_Decoded> T_Decoded decode(@NotNull AutoDecoder<T_Decoded> decoder, @NotNull DecodeContext<T_Encoded> context) throws DecodeException {
 		return decoder.decode(context);
 	}
 
+	@Override
+	public <T_Encoded, T_Decoded> T_Decoded decodeFrom(@NotNull AutoDecoder<T_Decoded> decoder, @NotNull DecodeContext<T_Encoded> context, @NotNull DecodeSource<T_Encoded> source) throws DecodeException {
+		return decoder.decodeFrom(context, source);
+	}
+
 	@Override
 	public <T_Encoded, T_Decoded> T_Decoded construct(@NotNull AutoConstructor<T_Decoded> constructor, @NotNull ConstructContext<T_Encoded> context) throws ConstructException {
 		return constructor.construct(context);
@@ -82,6 +94,11 @@ public class DisabledTaskLogger extends TaskLogger {
 		imprinter.imprint(context);
 	}
 
+	@Override
+	public <T_Encoded, T_Decoded> void imprintFrom(@NotNull AutoImprinter<T_Decoded> imprinter, @NotNull ImprintContext<T_Encoded, T_Decoded> context, @NotNull DecodeSource<T_Encoded> source) throws ImprintException {
+		imprinter.imprintFrom(context, source);
+	}
+
 	@Override
 	public <T_Encoded, T_Decoded> void verify(@NotNull AutoVerifier<T_Decoded> verifier, @NotNull VerifyContext<T_Encoded, T_Decoded> context) throws VerifyException {
 		verifier.verify(context);
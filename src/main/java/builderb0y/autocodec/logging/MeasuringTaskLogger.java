@@ -0,0 +1,351 @@
+package builderb0y.autocodec.logging;
+
+import java.util.Arrays;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import builderb0y.autocodec.common.AutoHandler;
+import builderb0y.autocodec.common.AutoHandler.AutoFactory;
+import builderb0y.autocodec.common.FactoryContext;
+import builderb0y.autocodec.common.FactoryException;
+import builderb0y.autocodec.common.FactoryList;
+import builderb0y.autocodec.constructors.AutoConstructor;
+import builderb0y.autocodec.constructors.ConstructContext;
+import builderb0y.autocodec.constructors.ConstructException;
+import builderb0y.autocodec.decoders.AutoDecoder;
+import builderb0y.autocodec.decoders.DecodeContext;
+import builderb0y.autocodec.decoders.DecodeException;
+import builderb0y.autocodec.decoders.DecodeSource;
+import builderb0y.autocodec.encoders.AutoEncoder;
+import builderb0y.autocodec.encoders.EncodeContext;
+import builderb0y.autocodec.encoders.EncodeException;
+import builderb0y.autocodec.encoders.EncodeSink;
+import builderb0y.autocodec.imprinters.AutoImprinter;
+import builderb0y.autocodec.imprinters.ImprintContext;
+import builderb0y.autocodec.imprinters.ImprintException;
+import builderb0y.autocodec.reflection.MemberCollector;
+import builderb0y.autocodec.reflection.ReflectContext;
+import builderb0y.autocodec.reflection.ReflectException;
+import builderb0y.autocodec.reflection.memberViews.FieldLikeMemberView;
+import builderb0y.autocodec.reflection.memberViews.MethodLikeMemberView;
+import builderb0y.autocodec.reflection.reification.ReifiedType;
+import builderb0y.autocodec.verifiers.AutoVerifier;
+import builderb0y.autocodec.verifiers.VerifyContext;
+import builderb0y.autocodec.verifiers.VerifyException;
+
+/**
+common logic for TaskLogger's which read a per-thread counter
+(for example, the current time, or the number of bytes allocated so far)
+before and after every task, and attribute the difference to the task's subject.
+the difference is attributed to the innermost task which was running at the time,
+so a subject's exclusive amount does NOT include the amount spent in
+other tasks which it started, but its total amount does.
+
+the actual work of every task is delegated to {@link #delegate},
+which is usually a {@link DisabledTaskLogger}.
+subclasses only need to provide the counter via {@link #measure()},
+and decide what to do with the results via {@link #record(Object, ReifiedType, long, long)}.
+*/
+public abstract class MeasuringTaskLogger extends TaskLogger {
+
+	public final @NotNull TaskLogger delegate;
+	public final @NotNull ThreadLocal<ThreadState> threadState = ThreadLocal.withInitial(ThreadState::new);
+
+	public MeasuringTaskLogger(@NotNull TaskLogger delegate) {
+		this.delegate = delegate;
+	}
+
+	//////////////////////////////// measuring ////////////////////////////////
+
+	/** returns the current value of the counter being measured for the current thread. */
+	public abstract long measure();
+
+	/**
+	called when a task finishes.
+	@param subject the handler, factory, or other object which performed the task.
+	@param type the type which subject is associated with, if known.
+	@param total the amount measured for the task, including other tasks it started.
+	@param exclusive the amount measured for the task, not including other tasks it started.
+	*/
+	public abstract void record(@NotNull Object subject, @Nullable ReifiedType<?> type, long total, long exclusive);
+
+	/**
+	called when a factory task successfully creates a handler.
+	the default implementation does nothing.
+	*/
+	public void handlerCreated(@NotNull Object handler, @NotNull ReifiedType<?> type) {}
+
+	/** starts measuring a new task on the current thread. */
+	public @NotNull ThreadState begin() {
+		long before = this.measure();
+		ThreadState state = this.threadState.get();
+		state.push(before);
+		return state;
+	}
+
+	/**
+	finishes measuring the task most recently started on the current thread,
+	and {@link #record(Object, ReifiedType, long, long)}'s the result for the provided subject.
+	the amount measured while recording is attributed
+	to neither the subject nor its parent task.
+	*/
+	public void end(@NotNull ThreadState state, @NotNull Object subject, @Nullable ReifiedType<?> type) {
+		long after = this.measure();
+		int depth = --state.depth;
+		long start = state.startCounts[depth];
+		long total = after - start;
+		this.record(subject, type, total, total - state.childCounts[depth]);
+		if (depth > 0) {
+			state.childCounts[depth - 1] += this.measure() - start;
+		}
+	}
+
+	public <T_Handler> @Nullable T_Handler created(@Nullable T_Handler handler, @NotNull FactoryContext<?> context) {
+		if (handler != null) this.handlerCreated(handler, context.type);
+		return handler;
+	}
+
+	//////////////////////////////// logging ////////////////////////////////
+
+	@Override
+	public void logMessage(@NotNull Object message) {
+		this.delegate.logMessage(message);
+	}
+
+	@Override
+	public void logMessageLazy(@NotNull Supplier<@NotNull String> message) {
+		this.delegate.logMessageLazy(message);
+	}
+
+	@Override
+	public void logError(@NotNull Object message) {
+		this.delegate.logError(message);
+	}
+
+	@Override
+	public void logErrorLazy(@NotNull Supplier<@NotNull String> message) {
+		this.delegate.logErrorLazy(message);
+	}
+
+	@Override
+	public <R, X extends Throwable> R runTask(@NotNull LoggableTask<R, X> task) throws X {
+		ThreadState state = this.begin();
+		try {
+			return this.delegate.runTask(task);
+		}
+		finally {
+			this.end(state, task.getClass(), null);
+		}
+	}
+
+	//////////////////////////////// built-in tasks ////////////////////////////////
+
+	//////////////// handlers ////////////////
+
+	@Override
+	public <T_Encoded, T_Decoded> @NotNull T_Encoded encode(@NotNull AutoEncoder<T_Decoded> encoder, @NotNull EncodeContext<T_Encoded, T_Decoded> context) throws EncodeException {
+		ThreadState state = this.begin();
+		try {
+			return this.delegate.encode(encoder, context);
+		}
+		finally {
+			this.end(state, encoder, null);
+		}
+	}
+
+	@Override
+	public <T_Encoded, T_Decoded> void encodeTo(@NotNull AutoEncoder<T_Decoded> encoder, @NotNull EncodeContext<T_Encoded, T_Decoded> context, @NotNull EncodeSink<T_Encoded> sink) throws EncodeException {
+		ThreadState state = this.begin();
+		try {
+			this.delegate.encodeTo(encoder, context, sink);
+		}
+		finally {
+			this.end(state, encoder, null);
+		}
+	}
+
+	@Override
+	public <T_Encoded, T_Decoded> @Nullable T_Decoded decode(@NotNull AutoDecoder<T_Decoded> decoder, @NotNull DecodeContext<T_Encoded> context) throws DecodeException {
+		ThreadState state = this.begin();
+		try {
+			return this.delegate.decode(decoder, context);
+		}
+		finally {
+			this.end(state, decoder, null);
+		}
+	}
+
+	@Override
+	public <T_Encoded, T_Decoded> @Nullable T_Decoded decodeFrom(@NotNull AutoDecoder<T_Decoded> decoder, @NotNull DecodeContext<T_Encoded> context, @NotNull DecodeSource<T_Encoded> source) throws DecodeException {
+		ThreadState state = this.begin();
+		try {
+			return this.delegate.decodeFrom(decoder, context, source);
+		}
+		finally {
+			this.end(state, decoder, null);
+		}
+	}
+
+	@Override
+	public <T_Encoded, T_Decoded> @NotNull T_Decoded construct(@NotNull AutoConstructor<T_Decoded> constructor, @NotNull ConstructContext<T_Encoded> context) throws ConstructException {
+		ThreadState state = this.begin();
+		try {
+			return this.delegate.construct(constructor, context);
+		}
+		finally {
+			this.end(state, constructor, null);
+		}
+	}
+
+	@Override
+	public <T_Encoded, T_Decoded> void imprint(@NotNull AutoImprinter<T_Decoded> imprinter, @NotNull ImprintContext<T_Encoded, T_Decoded> context) throws ImprintException {
+		ThreadState state = this.begin();
+		try {
+			this.delegate.imprint(imprinter, context);
+		}
+		finally {
+			this.end(state, imprinter, null);
+		}
+	}
+
+	@Override
+	public <T_Encoded, T_Decoded> void imprintFrom(@NotNull AutoImprinter<T_Decoded> imprinter, @NotNull ImprintContext<T_Encoded, T_Decoded> context, @NotNull DecodeSource<T_Encoded> source) throws ImprintException {
+		ThreadState state = this.begin();
+		try {
+			this.delegate.imprintFrom(imprinter, context, source);
+		}
+		finally {
+			this.end(state, imprinter, null);
+		}
+	}
+
+	@Override
+	public <T_Encoded, T_Decoded> void verify(@NotNull AutoVerifier<T_Decoded> verifier, @NotNull VerifyContext<T_Encoded, T_Decoded> context) throws VerifyException {
+		ThreadState state = this.begin();
+		try {
+			this.delegate.verify(verifier, context);
+		}
+		finally {
+			this.end(state, verifier, null);
+		}
+	}
+
+	//////////////// factories ////////////////
+
+	@Override
+	public <T_Handler extends AutoHandler> @Nullable T_Handler tryCreateHandler(@NotNull AutoFactory<T_Handler> factory, @NotNull FactoryContext<?> context) throws FactoryException {
+		ThreadState state = this.begin();
+		try {
+			return this.created(this.delegate.tryCreateHandler(factory, context), context);
+		}
+		finally {
+			this.end(state, factory, null);
+		}
+	}
+
+	@Override
+	public <T_Handler extends AutoHandler> @NotNull T_Handler forceCreateHandler(@NotNull AutoFactory<T_Handler> factory, @NotNull FactoryContext<?> context) throws FactoryException {
+		ThreadState state = this.begin();
+		try {
+			return this.created(this.delegate.forceCreateHandler(factory, context), context);
+		}
+		finally {
+			this.end(state, factory, null);
+		}
+	}
+
+	@Override
+	public <T_Handler extends AutoHandler, T_Factory extends AutoFactory<T_Handler>> @Nullable T_Handler tryCreateFallbackHandler(@NotNull FactoryList<T_Handler, T_Factory> factoryList, @NotNull FactoryContext<?> context, @NotNull T_Factory caller) throws FactoryException {
+		ThreadState state = this.begin();
+		try {
+			return this.created(this.delegate.tryCreateFallbackHandler(factoryList, context, caller), context);
+		}
+		finally {
+			this.end(state, factoryList, null);
+		}
+	}
+
+	@Override
+	public <T_Handler extends AutoHandler, T_Factory extends AutoFactory<T_Handler>> @NotNull T_Handler forceCreateFallbackHandler(@NotNull FactoryList<T_Handler, T_Factory> factoryList, @NotNull FactoryContext<?> context, @NotNull T_Factory caller) throws FactoryException {
+		ThreadState state = this.begin();
+		try {
+			return this.created(this.delegate.forceCreateFallbackHandler(factoryList, context, caller), context);
+		}
+		finally {
+			this.end(state, factoryList, null);
+		}
+	}
+
+	//////////////// reflection ////////////////
+
+	@Override
+	public <T_Owner> @NotNull FieldLikeMemberView<T_Owner, ?> @NotNull [] getFields(@NotNull ReflectContext<T_Owner> context, boolean inherited) throws ReflectException {
+		ThreadState state = this.begin();
+		try {
+			return this.delegate.getFields(context, inherited);
+		}
+		finally {
+			this.end(state, context.owner, context.owner);
+		}
+	}
+
+	@Override
+	public <T_Owner, T_Collect> @Nullable T_Collect searchFields(@NotNull ReflectContext<T_Owner> context, boolean inherited, @NotNull Predicate<? super FieldLikeMemberView<T_Owner, ?>> predicate, @NotNull MemberCollector<FieldLikeMemberView<T_Owner, ?>, T_Collect> collector) throws ReflectException {
+		ThreadState state = this.begin();
+		try {
+			return this.delegate.searchFields(context, inherited, predicate, collector);
+		}
+		finally {
+			this.end(state, context.owner, context.owner);
+		}
+	}
+
+	@Override
+	public <T_Owner> @NotNull MethodLikeMemberView<T_Owner, ?> @NotNull [] getMethods(@NotNull ReflectContext<T_Owner> context, boolean inherited) throws ReflectException {
+		ThreadState state = this.begin();
+		try {
+			return this.delegate.getMethods(context, inherited);
+		}
+		finally {
+			this.end(state, context.owner, context.owner);
+		}
+	}
+
+	@Override
+	public <T_Owner, T_Collect> @Nullable T_Collect searchMethods(@NotNull ReflectContext<T_Owner> context, boolean inherited, @NotNull Predicate<? super MethodLikeMemberView<T_Owner, ?>> predicate, @NotNull MemberCollector<MethodLikeMemberView<T_Owner, ?>, T_Collect> collector) throws ReflectException {
+		ThreadState state = this.begin();
+		try {
+			return this.delegate.searchMethods(context, inherited, predicate, collector);
+		}
+		finally {
+			this.end(state, context.owner, context.owner);
+		}
+	}
+
+	//////////////////////////////// classes ////////////////////////////////
+
+	/**
+	per-thread stack of tasks which are currently being measured.
+	the arrays are re-used between tasks, so after warming up,
+	measuring does not allocate anything on its own.
+	*/
+	public static class ThreadState {
+
+		public long[] startCounts = new long[16], childCounts = new long[16];
+		public int depth;
+
+		public void push(long startCount) {
+			int depth = this.depth;
+			if (depth == this.startCounts.length) {
+				this.startCounts = Arrays.copyOf(this.startCounts, depth << 1);
+				this.childCounts = Arrays.copyOf(this.childCounts, depth << 1);
+			}
+			this.startCounts[depth] = startCount;
+			this.childCounts[depth] = 0L;
+			this.depth = depth + 1;
+		}
+	}
+}
@@ -0,0 +1,445 @@
+package builderb0y.autocodec.logging;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import builderb0y.autocodec.common.AutoHandler;
+import builderb0y.autocodec.common.AutoHandler.AutoFactory;
+import builderb0y.autocodec.common.FactoryContext;
+import builderb0y.autocodec.common.FactoryException;
+import builderb0y.autocodec.common.FactoryList;
+import builderb0y.autocodec.constructors.AutoConstructor;
+import builderb0y.autocodec.constructors.ConstructContext;
+import builderb0y.autocodec.constructors.ConstructException;
+import builderb0y.autocodec.decoders.AutoDecoder;
+import builderb0y.autocodec.decoders.DecodeContext;
+import builderb0y.autocodec.decoders.DecodeException;
+import builderb0y.autocodec.decoders.DecodeSource;
+import builderb0y.autocodec.encoders.AutoEncoder;
+import builderb0y.autocodec.encoders.EncodeContext;
+import builderb0y.autocodec.encoders.EncodeException;
+import builderb0y.autocodec.encoders.EncodeSink;
+import builderb0y.autocodec.imprinters.AutoImprinter;
+import builderb0y.autocodec.imprinters.ImprintContext;
+import builderb0y.autocodec.imprinters.ImprintException;
+import builderb0y.autocodec.reflection.MemberCollector;
+import builderb0y.autocodec.reflection.ReflectContext;
+import builderb0y.autocodec.reflection.ReflectException;
+import builderb0y.autocodec.reflection.memberViews.FieldLikeMemberView;
+import builderb0y.autocodec.reflection.memberViews.MethodLikeMemberView;
+import builderb0y.autocodec.verifiers.AutoVerifier;
+import builderb0y.autocodec.verifiers.VerifyContext;
+import builderb0y.autocodec.verifiers.VerifyException;
+
+/**
+TaskLogger which only logs some root tasks.
+a root task is a task which is started while no other
+task is running on the current thread through this logger.
+when a root task is started, {@link #sampler} decides whether
+or not that root task, and every task it starts, gets logged.
+sampled root tasks are delegated to {@link #delegate}.
+all other root tasks are delegated to {@link #fastPath},
+which is a {@link DisabledTaskLogger}, and therefore
+carries basically no logging overhead.
+
+the decision of whether or not to sample a root task is
+made per-thread, so non-sampled root tasks can run on
+any number of threads at once, without taking any locks.
+sampled root tasks will still be subject
+to the delegate's locking, if it has any.
+
+for example, to print the full trace of
+1 in every 1000 decodes, one could use: {@code
+	new SamplingTaskLogger(
+		new IndentedTaskLogger(lock, Printer.SYSTEM, true),
+		Sampler.oneIn(1000)
+	)
+}
+and to print the full trace of every decode which takes longer than 5 ms: {@code
+	new SamplingTaskLogger(
+		new ThresholdTaskLogger(lock, Printer.SYSTEM, true, 5, TimeUnit.MILLISECONDS),
+		Sampler.ALWAYS
+	)
+}
+the two can of course be combined, to only check the
+duration of some root tasks instead of all of them.
+
+messages which are logged while no root task is running are discarded.
+*/
+public class SamplingTaskLogger extends TaskLogger {
+
+	/** the logger which sampled root tasks, and their child tasks, are delegated to. */
+	public final @NotNull TaskLogger delegate;
+	/** the logger which non-sampled root tasks, and their child tasks, are delegated to. */
+	public final @NotNull TaskLogger fastPath;
+	/** decides which root tasks are delegated to {@link #delegate}. */
+	public final @NotNull Sampler sampler;
+	/**
+	holds the logger which the current thread's root task was delegated to,
+	or null if no root task is currently running on the current thread.
+	*/
+	public final @NotNull ThreadLocal<RootState> rootState = ThreadLocal.withInitial(RootState::new);
+
+	public SamplingTaskLogger(@NotNull TaskLogger delegate, @NotNull Sampler sampler) {
+		this.delegate = delegate;
+		this.fastPath = new DisabledTaskLogger();
+		this.sampler = sampler;
+	}
+
+	/**
+	returns the logger which should handle a root task
+	whose subject is the provided object.
+	the subject is typically the handler or factory
+	which is about to do the work of the root task.
+	*/
+	public @NotNull TaskLogger chooseLogger(@NotNull Object subject) {
+		return this.sampler.shouldSample(subject) ? this.delegate : this.fastPath;
+	}
+
+	/**
+	returns the logger which the current thread's root
+	task was delegated to, or {@link #fastPath} if
+	no root task is running on the current thread.
+	*/
+	public @NotNull TaskLogger currentLogger() {
+		TaskLogger logger = this.rootState.get().logger;
+		return logger != null ? logger : this.fastPath;
+	}
+
+	@Override
+	public void logMessage(@NotNull Object message) {
+		this.currentLogger().logMessage(message);
+	}
+
+	@Override
+	public void logMessageLazy(@NotNull Supplier<@NotNull String> message) {
+		this.currentLogger().logMessageLazy(message);
+	}
+
+	@Override
+	public void logError(@NotNull Object message) {
+		this.currentLogger().logError(message);
+	}
+
+	@Override
+	public void logErrorLazy(@NotNull Supplier<@NotNull String> message) {
+		this.currentLogger().logErrorLazy(message);
+	}
+
+	@Override
+	public <R, X extends Throwable> R runTask(@NotNull LoggableTask<R, X> task) throws X {
+		RootState state = this.rootState.get();
+		TaskLogger logger = state.logger;
+		if (logger != null) return logger.runTask(task);
+		state.logger = logger = this.chooseLogger(task);
+		try {
+			return logger.runTask(task);
+		}
+		finally {
+			state.logger = null;
+		}
+	}
+
+	//////////////////////////////// built-in tasks ////////////////////////////////
+
+	//////////////// handlers ////////////////
+
+	@Override
+	public <T_Encoded, T_Decoded> @NotNull T_Encoded encode(@NotNull AutoEncoder<T_Decoded> encoder, @NotNull EncodeContext<T_Encoded, T_Decoded> context) throws EncodeException {
+		RootState state = this.rootState.get();
+		TaskLogger logger = state.logger;
+		if (logger != null) return logger.encode(encoder, context);
+		state.logger = logger = this.chooseLogger(encoder);
+		try {
+			return logger.encode(encoder, context);
+		}
+		finally {
+			state.logger = null;
+		}
+	}
+
+	@Override
+	public <T_Encoded, T_Decoded> void encodeTo(@NotNull AutoEncoder<T_Decoded> encoder, @NotNull EncodeContext<T_Encoded, T_Decoded> context, @NotNull EncodeSink<T_Encoded> sink) throws EncodeException {
+		RootState state = this.rootState.get();
+		TaskLogger logger = state.logger;
+		if (logger != null) {
+			logger.encodeTo(encoder, context, sink);
+			return;
+		}
+		state.logger = logger = this.chooseLogger(encoder);
+		try {
+			logger.encodeTo(encoder, context, sink);
+		}
+		finally {
+			state.logger = null;
+		}
+	}
+
+	@Override
+	public <T_Encoded, T_Decoded> @Nullable T_Decoded decode(@NotNull AutoDecoder<T_Decoded> decoder, @NotNull DecodeContext<T_Encoded> context) throws DecodeException {
+		RootState state = this.rootState.get();
+		TaskLogger logger = state.logger;
+		if (logger != null) return logger.decode(decoder, context);
+		state.logger = logger = this.chooseLogger(decoder);
+		try {
+			return logger.decode(decoder, context);
+		}
+		finally {
+			state.logger = null;
+		}
+	}
+
+	@Override
+	public <T_Encoded, T_Decoded> @Nullable T_Decoded decodeFrom(@NotNull AutoDecoder<T_Decoded> decoder, @NotNull DecodeContext<T_Encoded> context, @NotNull DecodeSource<T_Encoded> source) throws DecodeException {
+		RootState state = this.rootState.get();
+		TaskLogger logger = state.logger;
+		if (logger != null) return logger.decodeFrom(decoder, context, source);
+		state.logger = logger = this.chooseLogger(decoder);
+		try {
+			return logger.decodeFrom(decoder, context, source);
+		}
+		finally {
+			state.logger = null;
+		}
+	}
+
+	@Override
+	public <T_Encoded, T_Decoded> @NotNull T_Decoded construct(@NotNull AutoConstructor<T_Decoded> constructor, @NotNull ConstructContext<T_Encoded> context) throws ConstructException {
+		RootState state = this.rootState.get();
+		TaskLogger logger = state.logger;
+		if (logger != null) return logger.construct(constructor, context);
+		state.logger = logger = this.chooseLogger(constructor);
+		try {
+			return logger.construct(constructor, context);
+		}
+		finally {
+			state.logger = null;
+		}
+	}
+
+	@Override
+	public <T_Encoded, T_Decoded> void imprint(@NotNull AutoImprinter<T_Decoded> imprinter, @NotNull ImprintContext<T_Encoded, T_Decoded> context) throws ImprintException {
+		RootState state = this.rootState.get();
+		TaskLogger logger = state.logger;
+		if (logger != null) {
+			logger.imprint(imprinter, context);
+			return;
+		}
+		state.logger = logger = this.chooseLogger(imprinter);
+		try {
+			logger.imprint(imprinter, context);
+		}
+		finally {
+			state.logger = null;
+		}
+	}
+
+	@Override
+	public <T_Encoded, T_Decoded> void imprintFrom(@NotNull AutoImprinter<T_Decoded> imprinter, @NotNull ImprintContext<T_Encoded, T_Decoded> context, @NotNull DecodeSource<T_Encoded> source) throws ImprintException {
+		RootState state = this.rootState.get();
+		TaskLogger logger = state.logger;
+		if (logger != null) {
+			logger.imprintFrom(imprinter, context, source);
+			return;
+		}
+		state.logger = logger = this.chooseLogger(imprinter);
+		try {
+			logger.imprintFrom(imprinter, context, source);
+		}
+		finally {
+			state.logger = null;
+		}
+	}
+
+	@Override
+	public <T_Encoded, T_Decoded> void verify(@NotNull AutoVerifier<T_Decoded> verifier, @NotNull VerifyContext<T_Encoded, T_Decoded> context) throws VerifyException {
+		RootState state = this.rootState.get();
+		TaskLogger logger = state.logger;
+		if (logger != null) {
+			logger.verify(verifier, context);
+			return;
+		}
+		state.logger = logger = this.chooseLogger(verifier);
+		try {
+			logger.verify(verifier, context);
+		}
+		finally {
+			state.logger = null;
+		}
+	}
+
+	//////////////// factories ////////////////
+
+	@Override
+	public <T_Handler extends AutoHandler> @Nullable T_Handler tryCreateHandler(@NotNull AutoFactory<T_Handler> factory, @NotNull FactoryContext<?> context) throws FactoryException {
+		RootState state = this.rootState.get();
+		TaskLogger logger = state.logger;
+		if (logger != null) return logger.tryCreateHandler(factory, context);
+		state.logger = logger = this.chooseLogger(factory);
+		try {
+			return logger.tryCreateHandler(factory, context);
+		}
+		finally {
+			state.logger = null;
+		}
+	}
+
+	@Override
+	public <T_Handler extends AutoHandler> @NotNull T_Handler forceCreateHandler(@NotNull AutoFactory<T_Handler> factory, @NotNull FactoryContext<?> context) throws FactoryException {
+		RootState state = this.rootState.get();
+		TaskLogger logger = state.logger;
+		if (logger != null) return logger.forceCreateHandler(factory, context);
+		state.logger = logger = this.chooseLogger(factory);
+		try {
+			return logger.forceCreateHandler(factory, context);
+		}
+		finally {
+			state.logger = null;
+		}
+	}
+
+	@Override
+	public <T_Handler extends AutoHandler, T_Factory extends AutoFactory<T_Handler>> @Nullable T_Handler tryCreateFallbackHandler(@NotNull FactoryList<T_Handler, T_Factory> factoryList, @NotNull FactoryContext<?> context, @NotNull T_Factory caller) throws FactoryException {
+		RootState state = this.rootState.get();
+		TaskLogger logger = state.logger;
+		if (logger != null) return logger.tryCreateFallbackHandler(factoryList, context, caller);
+		state.logger = logger = this.chooseLogger(factoryList);
+		try {
+			return logger.tryCreateFallbackHandler(factoryList, context, caller);
+		}
+		finally {
+			state.logger = null;
+		}
+	}
+
+	@Override
+	public <T_Handler extends AutoHandler, T_Factory extends AutoFactory<T_Handler>> @NotNull T_Handler forceCreateFallbackHandler(@NotNull FactoryList<T_Handler, T_Factory> factoryList, @NotNull FactoryContext<?> context, @NotNull T_Factory caller) throws FactoryException {
+		RootState state = this.rootState.get();
+		TaskLogger logger = state.logger;
+		if (logger != null) return logger.forceCreateFallbackHandler(factoryList, context, caller);
+		state.logger = logger = this.chooseLogger(factoryList);
+		try {
+			return logger.forceCreateFallbackHandler(factoryList, context, caller);
+		}
+		finally {
+			state.logger = null;
+		}
+	}
+
+	//////////////// reflection ////////////////
+
+	@Override
+	public <T_Owner> @NotNull FieldLikeMemberView<T_Owner, ?> @NotNull [] getFields(@NotNull ReflectContext<T_Owner> context, boolean inherited) throws ReflectException {
+		RootState state = this.rootState.get();
+		TaskLogger logger = state.logger;
+		if (logger != null) return logger.getFields(context, inherited);
+		state.logger = logger = this.chooseLogger(context);
+		try {
+			return logger.getFields(context, inherited);
+		}
+		finally {
+			state.logger = null;
+		}
+	}
+
+	@Override
+	public <T_Owner, T_Collect> @Nullable T_Collect searchFields(@NotNull ReflectContext<T_Owner> context, boolean inherited, @NotNull Predicate<? super FieldLikeMemberView<T_Owner, ?>> predicate, @NotNull MemberCollector<FieldLikeMemberView<T_Owner, ?>, T_Collect> collector) throws ReflectException {
+		RootState state = this.rootState.get();
+		TaskLogger logger = state.logger;
+		if (logger != null) return logger.searchFields(context, inherited, predicate, collector);
+		state.logger = logger = this.chooseLogger(context);
+		try {
+			return logger.searchFields(context, inherited, predicate, collector);
+		}
+		finally {
+			state.logger = null;
+		}
+	}
+
+	@Override
+	public <T_Owner> @NotNull MethodLikeMemberView<T_Owner, ?> @NotNull [] getMethods(@NotNull ReflectContext<T_Owner> context, boolean inherited) throws ReflectException {
+		RootState state = this.rootState.get();
+		TaskLogger logger = state.logger;
+		if (logger != null) return logger.getMethods(context, inherited);
+		state.logger = logger = this.chooseLogger(context);
+		try {
+			return logger.getMethods(context, inherited);
+		}
+		finally {
+			state.logger = null;
+		}
+	}
+
+	@Override
+	public <T_Owner, T_Collect> @Nullable T_Collect searchMethods(@NotNull ReflectContext<T_Owner> context, boolean inherited, @NotNull Predicate<? super MethodLikeMemberView<T_Owner, ?>> predicate, @NotNull MemberCollector<MethodLikeMemberView<T_Owner, ?>, T_Collect> collector) throws ReflectException {
+		RootState state = this.rootState.get();
+		TaskLogger logger = state.logger;
+		if (logger != null) return logger.searchMethods(context, inherited, predicate, collector);
+		state.logger = logger = this.chooseLogger(context);
+		try {
+			return logger.searchMethods(context, inherited, predicate, collector);
+		}
+		finally {
+			state.logger = null;
+		}
+	}
+
+	/**
+	mutable holder for the current thread's root logger.
+	a holder is used instead of calling {@link ThreadLocal#set(Object)}
+	directly to avoid a second thread-local lookup per root task.
+	*/
+	public static class RootState {
+
+		public @Nullable TaskLogger logger;
+	}
+
+	/** decides which root tasks should be logged by a {@link SamplingTaskLogger}. */
+	@FunctionalInterface
+	public static interface Sampler {
+
+		public static final @NotNull Sampler
+			ALWAYS = (Object subject) -> true,
+			NEVER  = (Object subject) -> false;
+
+		/**
+		returns true if the root task whose subject is the provided object should be logged.
+		the subject is the handler for handler tasks (for example,
+		{@link SamplingTaskLogger#decode(AutoDecoder, DecodeContext)}),
+		the factory or factory list for factory tasks,
+		the {@link ReflectContext} for reflection tasks,
+		and the {@link LoggableTask} itself for all other tasks.
+		this method may be called from multiple threads at once.
+		*/
+		public abstract boolean shouldSample(@NotNull Object subject);
+
+		/** returns a Sampler which samples 1 in every (n) root tasks. */
+		public static @NotNull Sampler oneIn(long n) {
+			if (n <= 0L) throw new IllegalArgumentException("n must be positive: " + n);
+			if (n == 1L) return ALWAYS;
+			AtomicLong counter = new AtomicLong();
+			return (Object subject) -> counter.getAndIncrement() % n == 0L;
+		}
+
+		/**
+		returns a Sampler which delegates to the Sampler associated with
+		the subject's class in the provided map, or fallback if the
+		subject's class is not present in the map.
+		only the exact class of the subject is checked; superclasses are not.
+		for example, to sample every decode performed by a
+		{@link builderb0y.autocodec.coders.RecordCoder},
+		but only 1 in 100 of all other root tasks: {@code
+			Sampler.perClass(Map.of(RecordCoder.class, Sampler.ALWAYS), Sampler.oneIn(100))
+		}
+		*/
+		public static @NotNull Sampler perClass(@NotNull Map<Class<?>, @NotNull Sampler> samplers, @NotNull Sampler fallback) {
+			Map<Class<?>, Sampler> copy = Map.copyOf(samplers);
+			return (Object subject) -> copy.getOrDefault(subject.getClass(), fallback).shouldSample(subject);
+		}
+	}
+}
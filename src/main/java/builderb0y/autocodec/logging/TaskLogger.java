@@ -19,9 +19,11 @@ import builderb0y.autocodec.constructors.ConstructException;
 import builderb0y.autocodec.decoders.AutoDecoder;
 import builderb0y.autocodec.decoders.DecodeContext;
 import builderb0y.autocodec.decoders.DecodeException;
+import builderb0y.autocodec.decoders.DecodeSource;
 import builderb0y.autocodec.encoders.AutoEncoder;
 import builderb0y.autocodec.encoders.EncodeContext;
 import builderb0y.autocodec.encoders.EncodeException;
+import builderb0y.autocodec.encoders.EncodeSink;
 import builderb0y.autocodec.imprinters.AutoImprinter;
 import builderb0y.autocodec.imprinters.ImprintContext;
 import builderb0y.autocodec.imprinters.ImprintException;
@@ -63,6 +65,18 @@ it also overrides some of the more expensive logic in
 the base TaskLogger class for performance improvements.
 as such, {@link DisabledTaskLogger} caries basically no
 logging overhead no matter what tasks are being performed.
+
+{@link ThresholdTaskLogger} records all tasks, but only prints
+them when the task that started them took too long to finish.
+
+{@link SamplingTaskLogger} delegates some tasks to another logger,
+and delegates the rest to a {@link DisabledTaskLogger}.
+this is useful for getting a detailed trace of a
+small fraction of tasks without slowing down the rest.
+
+{@link TimingTaskLogger} and {@link AllocationTrackingTaskLogger}
+don't print anything, but instead measure how long every handler
+takes to run, or how many bytes it allocates, respectively.
 */
 public abstract class TaskLogger {
 
@@ -189,6 +203,27 @@ public abstract class TaskLogger {
 		});
 	}
 
+	public <T_Encoded, T_Decoded> void encodeTo(
+		@NotNull AutoEncoder<T_Decoded> encoder,
+		@NotNull EncodeContext<T_Encoded, T_Decoded> context,
+		@NotNull EncodeSink<T_Encoded> sink
+	)
+	throws EncodeException {
+		this.runTask(new LoggableTask<Void, EncodeException>() {
+
+			@Override
+			public Void run() throws EncodeException {
+				encoder.encodeTo(context, sink);
+				return null;
+			}
+
+			@Override
+			public String toString() {
+				return "Encoding " + context + " to " + sink + " with " + encoder;
+			}
+		});
+	}
+
 	public <T_Encoded, T_Decoded> @Nullable T_Decoded decode(
 		@NotNull AutoDecoder<T_Decoded> decoder,
 		@NotNull DecodeContext<T_Encoded> context
@@ -208,6 +243,26 @@ public abstract class TaskLogger {
 		});
 	}
 
+	public <T_Encoded, T_Decoded> @Nullable T_Decoded decodeFrom(
+		@NotNull AutoDecoder<T_Decoded> decoder,
+		@NotNull DecodeContext<T_Encoded> context,
+		@NotNull DecodeSource<T_Encoded> source
+	)
+	throws DecodeException {
+		return this.runTask(new LoggableTask<T_Decoded, DecodeException>() {
+
+			@Override
+			public @Nullable T_Decoded run() throws DecodeException {
+				return decoder.decodeFrom(context, source);
+			}
+
+			@Override
+			public String toString() {
+				return "Decoding " + context + " from " + source + " with " + decoder;
+			}
+		});
+	}
+
 	public <T_Encoded, T_Decoded> @NotNull T_Decoded construct(
 		@NotNull AutoConstructor<T_Decoded> constructor,
 		@NotNull ConstructContext<T_Encoded> context
@@ -247,6 +302,27 @@ public abstract class TaskLogger {
 		});
 	}
 
+	public <T_Encoded, T_Decoded> void imprintFrom(
+		@NotNull AutoImprinter<T_Decoded> imprinter,
+		@NotNull ImprintContext<T_Encoded, T_Decoded> context,
+		@NotNull DecodeSource<T_Encoded> source
+	)
+	throws ImprintException {
+		this.runTask(new LoggableTask<T_Decoded, ImprintException>() {
+
+			@Override
+			public T_Decoded run() throws ImprintException {
+				imprinter.imprintFrom(context, source);
+				return context.object;
+			}
+
+			@Override
+			public String toString() {
+				return "Imprinting " + context + " from " + source + " with " + imprinter;
+			}
+		});
+	}
+
 	public <T_Encoded, T_Decoded> void verify(
 		@NotNull AutoVerifier<T_Decoded> verifier,
 		@NotNull VerifyContext<T_Encoded, T_Decoded> context
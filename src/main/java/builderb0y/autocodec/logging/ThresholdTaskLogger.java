@@ -0,0 +1,282 @@
+package builderb0y.autocodec.logging;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import builderb0y.autocodec.util.AutoCodecUtil;
+
+/**
+TaskLogger which records every task, message, and error that happens
+inside a root task, but only prints them once the root task is done,
+and only if the root task took longer than {@link #thresholdNanos}.
+if {@link #printFailures} is true, the trace is
+also printed when the root task throws an exception.
+otherwise, the recorded trace is discarded without
+ever calling {@link Object#toString()} on anything in it.
+
+recording is intended to be cheap: the only work done per task is
+storing a reference to it, and reading {@link #nanoTime()} twice.
+{@link TaskRecord}'s are re-used between root tasks too,
+so once the logger has warmed up, recording allocates very little.
+with that said, this logger still takes its {@link #lock} for every task.
+if you only want to trace some root tasks, consider wrapping
+this logger in a {@link SamplingTaskLogger}, which will skip
+logging entirely for root tasks which are not sampled.
+
+messages and errors which are logged outside of any root task
+have no trace to be attached to, so they are printed immediately.
+*/
+public class ThresholdTaskLogger extends AbstractTaskLogger {
+
+	/** root tasks which take longer than this many nanoseconds will have their trace printed. */
+	public long thresholdNanos;
+	/** if true, root tasks which throw an exception will have their trace printed too. */
+	public boolean printFailures;
+	/**
+	all tasks which have been started during the current root task,
+	in the order they were started.
+	only the first {@link #recordCount} elements are in use.
+	the remaining elements are kept around for re-use.
+	*/
+	public final @NotNull List<@NotNull TaskRecord> records = new ArrayList<>(16);
+	public int recordCount;
+	public @Nullable TaskRecord currentRecord;
+
+	public ThresholdTaskLogger(@NotNull Printer printer, long threshold, @NotNull TimeUnit unit) {
+		super(printer);
+		this.thresholdNanos = unit.toNanos(threshold);
+	}
+
+	public ThresholdTaskLogger(@NotNull Printer printer, boolean filterStackTraces, long threshold, @NotNull TimeUnit unit) {
+		super(printer, filterStackTraces);
+		this.thresholdNanos = unit.toNanos(threshold);
+	}
+
+	public ThresholdTaskLogger(@NotNull ReentrantLock lock, @NotNull Printer printer, boolean filterStackTraces, long threshold, @NotNull TimeUnit unit) {
+		super(lock, printer, filterStackTraces);
+		this.thresholdNanos = unit.toNanos(threshold);
+	}
+
+	/**
+	returns the current time in nanoseconds, which is used to measure how long tasks take.
+	the default implementation returns {@link System#nanoTime()}.
+	*/
+	public long nanoTime() {
+		return System.nanoTime();
+	}
+
+	@Override
+	protected void doPrint(@NotNull String message) {
+		this.printer.print(message);
+	}
+
+	@Override
+	protected void doPrintError(@NotNull String error) {
+		this.printer.printError(error);
+	}
+
+	public @NotNull TaskRecord currentRecord() {
+		if (this.currentRecord != null) return this.currentRecord;
+		else throw new IllegalStateException("No task started.");
+	}
+
+	@Override
+	public void logMessage(@NotNull Object message) {
+		this.log(message, false);
+	}
+
+	@Override
+	public void logError(@NotNull Object message) {
+		this.log(message, true);
+	}
+
+	/**
+	attaches the message to the current task, or prints it immediately if there is no current task.
+	our {@link #lock} is held for the entirety of every root task,
+	so once we have it, any current task belongs to the current thread.
+	*/
+	public void log(@NotNull Object message, boolean error) {
+		this.lock.lock();
+		try {
+			TaskRecord record = this.currentRecord;
+			if (record != null) record.addMessage(message, error);
+			else if (error) super.logError(message);
+			else super.logMessage(message);
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+	@Override
+	public <R, X extends Throwable> void beginTask(@NotNull LoggableTask<R, X> task) {
+		TaskRecord record;
+		if (this.recordCount < this.records.size()) {
+			record = this.records.get(this.recordCount);
+		}
+		else {
+			this.records.add(record = new TaskRecord());
+		}
+		this.recordCount++;
+		TaskRecord parent = this.currentRecord;
+		record.begin(task, parent, parent != null ? parent.depth + 1 : 0, this.nanoTime());
+		this.currentRecord = record;
+	}
+
+	@Override
+	public <R, X extends Throwable> void endTask(@NotNull LoggableTask<R, X> task, @Nullable R result, @Nullable Throwable throwable) {
+		TaskRecord record = this.currentRecord();
+		record.end(task, result, throwable, this.nanoTime());
+		this.currentRecord = record.parent;
+		if (record.parent == null) try {
+			if (record.durationNanos() > this.thresholdNanos || (this.printFailures && throwable != null)) {
+				this.printRecords();
+			}
+		}
+		finally {
+			this.clearRecords();
+		}
+	}
+
+	/**
+	prints every record which was started during the current root task.
+	records are stored in the order they were started, so each record's
+	result is printed after all of its children have been printed.
+	*/
+	public void printRecords() {
+		List<TaskRecord> open = new ArrayList<>(8);
+		for (int index = 0, size = this.recordCount; index < size; index++) {
+			TaskRecord record = this.records.get(index);
+			while (!open.isEmpty() && open.get(open.size() - 1).depth >= record.depth) {
+				open.remove(open.size() - 1).printEnd(this);
+			}
+			record.printBegin(this);
+			open.add(record);
+		}
+		while (!open.isEmpty()) {
+			open.remove(open.size() - 1).printEnd(this);
+		}
+	}
+
+	/**
+	releases all references held by in-use records so that they
+	do not keep any objects from being garbage collected,
+	and marks them as available for the next root task.
+	*/
+	public void clearRecords() {
+		for (int index = 0, size = this.recordCount; index < size; index++) {
+			this.records.get(index).clear();
+		}
+		this.recordCount = 0;
+		this.currentRecord = null;
+		this.seenThrowables.clear();
+	}
+
+	public static class TaskRecord {
+
+		public @Nullable LoggableTask<?, ?> task;
+		public @Nullable TaskRecord parent;
+		public int depth;
+		public long startNanos, endNanos;
+		public @Nullable Object result;
+		public @Nullable Throwable throwable;
+		/**
+		messages and errors logged while this task was the current task.
+		errors are stored as {@link ErrorMessage}'s
+		so that they can be printed as errors later.
+		*/
+		public @Nullable List<@NotNull Object> messages;
+
+		public void begin(@NotNull LoggableTask<?, ?> task, @Nullable TaskRecord parent, int depth, long startNanos) {
+			this.task = task;
+			this.parent = parent;
+			this.depth = depth;
+			this.startNanos = startNanos;
+		}
+
+		public void end(@NotNull LoggableTask<?, ?> task, @Nullable Object result, @Nullable Throwable throwable, long endNanos) {
+			if (task != this.task) {
+				throw new IllegalStateException("Task stack corrupted: expected " + this.task + ", got " + task);
+			}
+			this.endNanos = endNanos;
+			this.result = result;
+			this.throwable = throwable;
+		}
+
+		public long durationNanos() {
+			return this.endNanos - this.startNanos;
+		}
+
+		public void addMessage(@NotNull Object message, boolean error) {
+			if (this.messages == null) this.messages = new ArrayList<>(4);
+			this.messages.add(error ? new ErrorMessage(message) : message);
+		}
+
+		public void printBegin(@NotNull ThresholdTaskLogger logger) {
+			Printer printer = logger.printer;
+			printWithIndentation(printer, this.task + " (took " + formatNanos(this.durationNanos()) + ')', this.depth);
+			String prefix = "\t".repeat(this.depth + 1);
+			List<Object> messages = this.messages;
+			if (messages != null) {
+				for (int index = 0, size = messages.size(); index < size; index++) {
+					Object message = messages.get(index);
+					if (message instanceof ErrorMessage error) {
+						printErrorWithPrefix(printer, toPrintableString(logger, error.message), prefix);
+					}
+					else {
+						printWithPrefix(printer, AutoCodecUtil.deepToString(message), prefix);
+					}
+				}
+			}
+		}
+
+		public void printEnd(@NotNull ThresholdTaskLogger logger) {
+			Printer printer = logger.printer;
+			String prefix = "\t".repeat(this.depth + 1);
+			if (this.throwable != null) {
+				printErrorWithPrefix(printer, toPrintableString(logger, this.throwable), prefix);
+			}
+			else {
+				printWithPrefix(printer, AutoCodecUtil.deepToString(this.result), prefix);
+			}
+		}
+
+		public void clear() {
+			this.task = null;
+			this.parent = null;
+			this.result = null;
+			this.throwable = null;
+			if (this.messages != null) this.messages.clear();
+		}
+
+		@Override
+		public @NotNull String toString() {
+			return String.valueOf(this.task);
+		}
+	}
+
+	public static @NotNull String toPrintableString(@NotNull AbstractTaskLogger logger, @NotNull Object message) {
+		if (message instanceof Throwable throwable) {
+			//if we already printed this throwable in this trace,
+			//print a short description instead of the whole stack trace again.
+			return logger.maybeFilterStackTrace(throwable) ? stackTraceToString(throwable) : throwable.toString();
+		}
+		else {
+			return AutoCodecUtil.deepToString(message);
+		}
+	}
+
+	public static @NotNull String formatNanos(long nanos) {
+		if (nanos < 1_000L) return nanos + " ns";
+		if (nanos < 1_000_000L) return (nanos / 1_000L) + " us";
+		return (nanos / 1_000_000L) + " ms";
+	}
+
+	/** marker which indicates that a buffered message was logged as an error. */
+	public static record ErrorMessage(@NotNull Object message) {}
+}
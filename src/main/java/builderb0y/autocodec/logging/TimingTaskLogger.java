@@ -0,0 +1,130 @@
+package builderb0y.autocodec.logging;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import builderb0y.autocodec.common.AutoHandler;
+import builderb0y.autocodec.graph.HandlerStatistics;
+import builderb0y.autocodec.reflection.reification.ReifiedType;
+
+/**
+TaskLogger which measures how long every task takes, using {@link System#nanoTime()}.
+like {@link AllocationTrackingTaskLogger}, time is attributed to the
+innermost handler which was running at the time, so a handler's
+{@link HandlerTimes#exclusiveNanos} does NOT include time spent
+in other handlers it delegated to, but {@link HandlerTimes#totalNanos} does.
+
+the actual work of every task is delegated to {@link #delegate},
+which is usually a {@link DisabledTaskLogger}.
+see {@link MeasuringTaskLogger} for more info.
+
+this logger implements {@link HandlerStatistics},
+so its measurements can be used to annotate a
+{@link builderb0y.autocodec.graph.HandlerGraph} when exporting it.
+for example: {@code
+	TimingTaskLogger timer = new TimingTaskLogger(new DisabledTaskLogger());
+	AutoCodec autoCodec = new AutoCodec() {
+
+		@Override
+		public @NotNull TaskLogger createEncodeLogger(@NotNull ReentrantLock lock) {
+			return timer;
+		}
+
+		@Override
+		public @NotNull TaskLogger createDecodeLogger(@NotNull ReentrantLock lock) {
+			return timer;
+		}
+	};
+	AutoCoder<Foo> coder = autoCodec.createCoder(Foo.class);
+	... encode and decode some things ...
+	System.out.println(DotExporter.export(new HandlerGraph(coder), timer));
+}
+
+this logger can be used from multiple threads at once,
+but it is intended for diagnostics, not production use.
+*/
+public class TimingTaskLogger extends MeasuringTaskLogger implements HandlerStatistics {
+
+	/** timings for every handler (or factory, or other task subject) which has run a task. */
+	public final @NotNull ConcurrentHashMap<Object, HandlerTimes> times = new ConcurrentHashMap<>(64);
+
+	public TimingTaskLogger(@NotNull TaskLogger delegate) {
+		super(delegate);
+	}
+
+	//////////////////////////////// measuring ////////////////////////////////
+
+	@Override
+	public long measure() {
+		return System.nanoTime();
+	}
+
+	@Override
+	public void record(@NotNull Object subject, @Nullable ReifiedType<?> type, long total, long exclusive) {
+		this.times.computeIfAbsent(subject, HandlerTimes::new).record(total, exclusive);
+	}
+
+	//////////////////////////////// reporting ////////////////////////////////
+
+	/** returns the timings of every subject, sorted by exclusive time, highest first. */
+	public @NotNull List<@NotNull HandlerTimes> report() {
+		List<HandlerTimes> result = new ArrayList<>(this.times.values());
+		result.sort(Comparator.comparingLong((HandlerTimes times) -> times.exclusiveNanos.get()).reversed());
+		return result;
+	}
+
+	/** discards all timings gathered so far. */
+	public void reset() {
+		this.times.clear();
+	}
+
+	@Override
+	public @Nullable Map<@NotNull String, @NotNull Object> getStatistics(@NotNull AutoHandler handler) {
+		HandlerTimes times = this.times.get(handler);
+		if (times == null) return null;
+		Map<String, Object> map = new LinkedHashMap<>(4);
+		map.put("calls", times.calls.get());
+		map.put("exclusiveNanos", times.exclusiveNanos.get());
+		map.put("totalNanos", times.totalNanos.get());
+		return map;
+	}
+
+	//////////////////////////////// classes ////////////////////////////////
+
+	/** mutable, thread-safe timings for a single handler. */
+	public static class HandlerTimes {
+
+		public final @NotNull Object subject;
+		public final @NotNull AtomicLong calls = new AtomicLong(), exclusiveNanos = new AtomicLong(), totalNanos = new AtomicLong();
+
+		public HandlerTimes(@NotNull Object subject) {
+			this.subject = subject;
+		}
+
+		public void record(long totalNanos, long exclusiveNanos) {
+			this.calls.incrementAndGet();
+			this.totalNanos.addAndGet(totalNanos);
+			this.exclusiveNanos.addAndGet(exclusiveNanos);
+		}
+
+		@Override
+		public @NotNull String toString() {
+			return (
+				this.subject
+				+ ": " + this.calls.get() + " calls, "
+				+ ThresholdTaskLogger.formatNanos(this.exclusiveNanos.get())
+				+ " exclusive, "
+				+ ThresholdTaskLogger.formatNanos(this.totalNanos.get())
+				+ " total"
+			);
+		}
+	}
+}
\ No newline at end of file
@@ -69,12 +69,25 @@ public class AnnotationContainer implements TypeFormatterAppendable {
 	/**
 	the list of annotations held in this container,
 	including unwrapped {@link Repeatable} annotations.
-	we use a simple array here instead of a
-	Map<Class<? extends Annotation>, Annotation[]>
-	because we expect that most annotated elements
-	will not contain a large number of annotations.
+	queries by annotation type use {@link #index()} instead of
+	scanning this array, but the array is still the source of truth,
+	and is used for anything which depends on declaration order.
 	*/
 	public final @NotNull Annotation @NotNull [] annotations;
+	/**
+	lazily-computed index of {@link #annotations} by type.
+	{@link Annotation#annotationType()} is surprisingly expensive
+	on JDK annotation proxies, and factories query annotations by
+	type very frequently, so this index allows those queries
+	to not call {@link Annotation#annotationType()} at all.
+	@see #index()
+	*/
+	public @Nullable Index index;
+	/**
+	lazily-computed cache of {@link #hashCodeOrdered()}.
+	0 means not computed yet.
+	*/
+	public int hashCodeOrdered;
 
 	public AnnotationContainer(@NotNull Annotation @NotNull [] annotations) {
 		this(true, annotations);
@@ -153,12 +166,7 @@ public class AnnotationContainer implements TypeFormatterAppendable {
 	otherwise, this method is equivalent to {@link AnnotatedElement#isAnnotationPresent(Class)}.
 	*/
 	public <A extends Annotation> boolean has(@NotNull Class<A> annotationClass) {
-		for (Annotation annotation : this.annotations) {
-			if (annotation.annotationType() == annotationClass) {
-				return true;
-			}
-		}
-		return false;
+		return this.annotations.length != 0 && this.index().byType.containsKey(annotationClass);
 	}
 
 	/** returns the number of annotations in this container. */
@@ -177,13 +185,9 @@ public class AnnotationContainer implements TypeFormatterAppendable {
 	this method is mostly just useful for annotations which are {@link Repeatable}.
 	*/
 	public <A extends Annotation> int count(@NotNull Class<A> annotationClass) {
-		int count = 0;
-		for (Annotation annotation : this.annotations) {
-			if (annotation.annotationType() == annotationClass) {
-				count++;
-			}
-		}
-		return count;
+		if (this.annotations.length == 0) return 0;
+		Annotation[] annotations = this.index().byType.get(annotationClass);
+		return annotations != null ? annotations.length : 0;
 	}
 
 	/**
@@ -192,23 +196,26 @@ public class AnnotationContainer implements TypeFormatterAppendable {
 	this method returns the first annotation whose {@link Annotation#annotationType()}
 	is (annotationClass), or null if no such annotation exists.
 	*/
+	@SuppressWarnings("unchecked")
 	public <A extends Annotation> @Nullable A getFirst(@NotNull Class<A> annotationClass) {
-		for (Annotation annotation : this.annotations) {
-			if (annotation.annotationType() == annotationClass) {
-				return annotationClass.cast(annotation);
-			}
-		}
-		return null;
+		if (this.annotations.length == 0) return null;
+		//the arrays in the index are created with the correct component type, so no cast is necessary.
+		Annotation[] annotations = this.index().byType.get(annotationClass);
+		return annotations != null ? (A)(annotations[0]) : null;
 	}
 
 	/** similar to {@link #getFirst(Class)}, but can match multiple target classes. */
 	@SafeVarargs
 	public final @Nullable Annotation getFirst(@NotNull Class<? extends Annotation> @NotNull ... classes) {
-		for (Annotation annotation : this.annotations) {
-			Class<? extends Annotation> annotationClass = annotation.annotationType();
+		Annotation[] annotations = this.annotations;
+		int length = annotations.length;
+		if (length == 0) return null;
+		Class<? extends Annotation>[] types = this.index().types;
+		for (int index = 0; index < length; index++) {
+			Class<? extends Annotation> annotationClass = types[index];
 			for (Class<? extends Annotation> expectedClass : classes) {
 				if (annotationClass == expectedClass) {
-					return expectedClass.cast(annotation);
+					return annotations[index];
 				}
 			}
 		}
@@ -259,51 +266,14 @@ public class AnnotationContainer implements TypeFormatterAppendable {
 	in this container whose {@link Annotation#annotationType()}
 	is (annotationClass), in the order in which they are declared.
 
-	@apiNote at the time of writing this, the implementation of this
-	method creates a new array to return every time it is called,
-	but future implementations may change this to possibly
-	return a shared array for each (annotationClass) instead.
+	@apiNote the returned array is shared between all callers
+	who request the same (annotationClass) from the same container.
 	as such, the returned array should not be modified by the caller.
 	*/
 	@SuppressWarnings("unchecked")
 	public <A extends Annotation> @NotNull A @NotNull [] getAll(@NotNull Class<A> annotationClass) {
-		A first = null;
-		Annotation[] annotations = this.annotations;
-		int length = annotations.length;
-		for (int index = 0; index < length; index++) {
-			if (annotations[index].annotationType() == annotationClass) {
-				if (first != null) {
-					int count = 2; //include first and annotations[index].
-					for (int countIndex = index; ++countIndex < length;) {
-						if (annotations[countIndex].annotationType() == annotationClass) {
-							count++;
-						}
-					}
-					A[] array = (A[])(Array.newInstance(annotationClass, count));
-					array[0] = first;
-					array[1] = annotationClass.cast(annotations[index]);
-					int writeIndex = 2;
-					for (int readIndex = index; ++readIndex < length;) {
-						if (annotations[readIndex].annotationType() == annotationClass) {
-							array[writeIndex++] = annotationClass.cast(annotations[readIndex]);
-						}
-					}
-					assert writeIndex == count;
-					return array;
-				}
-				else {
-					first = annotationClass.cast(annotations[index]);
-				}
-			}
-		}
-		if (first != null) {
-			A[] array = (A[])(Array.newInstance(annotationClass, 1));
-			array[0] = first;
-			return array;
-		}
-		else {
-			return (A[])(Array.newInstance(annotationClass, 0));
-		}
+		Annotation[] annotations = this.annotations.length != 0 ? this.index().byType.get(annotationClass) : null;
+		return annotations != null ? (A[])(annotations) : (A[])(Array.newInstance(annotationClass, 0));
 	}
 
 	/**
@@ -359,10 +329,17 @@ public class AnnotationContainer implements TypeFormatterAppendable {
 	@see #equalsOrdered(AnnotationContainer)
 	*/
 	public int hashCodeOrdered() {
-		return HashStrategies.orderedArrayHashCode(
-			HashStrategies.defaultStrategy(),
-			this.annotations
-		);
+		int hash = this.hashCodeOrdered;
+		if (hash == 0) {
+			hash = HashStrategies.orderedArrayHashCode(
+				HashStrategies.defaultStrategy(),
+				this.annotations
+			);
+			//0 is reserved for "not computed yet".
+			if (hash == 0) hash = 1;
+			this.hashCodeOrdered = hash;
+		}
+		return hash;
 	}
 
 	/**
@@ -389,7 +366,23 @@ public class AnnotationContainer implements TypeFormatterAppendable {
 	@see #hashCodeOrdered()
 	*/
 	public boolean equalsOrdered(@NotNull AnnotationContainer that) {
-		return Arrays.equals(this.annotations, that.annotations);
+		if (this == that) return true;
+		Annotation[] these = this.annotations, those = that.annotations;
+		int length = these.length;
+		if (length != those.length) return false;
+		if (length == 0) return true;
+		//cheap checks first: if the hash codes have already been computed,
+		//or the annotation types differ, then we don't need to call
+		//equals() on the annotations themselves, which is much more expensive.
+		int thisHash = this.hashCodeOrdered, thatHash = that.hashCodeOrdered;
+		if (thisHash != 0 && thatHash != 0 && thisHash != thatHash) return false;
+		if (!Arrays.equals(this.index().types, that.index().types)) return false;
+		for (int index = 0; index < length; index++) {
+			if (these[index] != those[index] && !these[index].equals(those[index])) {
+				return false;
+			}
+		}
+		return true;
 	}
 
 	/**
@@ -408,6 +401,21 @@ public class AnnotationContainer implements TypeFormatterAppendable {
 		);
 	}
 
+	/**
+	returns the {@link #index} for this container, computing it if necessary.
+	note that for empty containers, the index is not needed,
+	so callers are encouraged to check for emptiness first.
+	*/
+	public @NotNull Index index() {
+		Index index = this.index;
+		if (index == null) {
+			//racy, but Index is immutable and only has final fields,
+			//so the worst case scenario is that it gets computed twice.
+			this.index = index = new Index(this.annotations);
+		}
+		return index;
+	}
+
 	@Override
 	public void appendTo(TypeFormatter formatter) {
 		if (formatter.annotations) {
@@ -440,6 +448,48 @@ public class AnnotationContainer implements TypeFormatterAppendable {
 		return obj instanceof AnnotationContainer that && this.equalsOrdered(that);
 	}
 
+	/**
+	pre-computed {@link Annotation#annotationType()}'s
+	for all the annotations in a container.
+	*/
+	public static class Index {
+
+		/** the {@link Annotation#annotationType()} of every annotation, in the same order as the annotations. */
+		public final @NotNull Class<? extends Annotation> @NotNull [] types;
+		/**
+		all the annotations in the container, grouped by type.
+		the arrays are in declaration order,
+		and their component type is the annotation type.
+		*/
+		public final @NotNull Map<@NotNull Class<? extends Annotation>, @NotNull Annotation @NotNull []> byType;
+
+		@SuppressWarnings("unchecked")
+		public Index(@NotNull Annotation @NotNull [] annotations) {
+			int length = annotations.length;
+			Class<? extends Annotation>[] types = new Class[length];
+			Map<Class<? extends Annotation>, Annotation[]> byType = new IdentityHashMap<>(length);
+			for (int index = 0; index < length; index++) {
+				Class<? extends Annotation> type = types[index] = annotations[index].annotationType();
+				Annotation[] existing = byType.get(type);
+				if (existing == null) {
+					existing = (Annotation[])(Array.newInstance(type, 1));
+					existing[0] = annotations[index];
+				}
+				else {
+					existing = Arrays.copyOf(existing, existing.length + 1);
+					existing[existing.length - 1] = annotations[index];
+				}
+				byType.put(type, existing);
+			}
+			this.types = types;
+			//Map.copyOf() returns an immutable map with only final fields,
+			//which is necessary for safe publication in index().
+			//Class does not override equals() or hashCode(),
+			//so this is equivalent to an identity map.
+			this.byType = Map.copyOf(byType);
+		}
+	}
+
 	/**
 	logic for processing {@link Repeatable} annotations.
 	specifically, calling {@link AnnotatedElement#getAnnotationsByType(Class)}
@@ -40,11 +40,22 @@ public class ReflectContext<T_Owner> extends TaskContext implements ReflectConte
 		return this.autoCodec.reflectionManager;
 	}
 
+	/**
+	handlers which depend on what the ReflectionManager can see
+	can only be shared with AutoCodecs which use the same ReflectionManager,
+	so every method which looks up fields, methods, or constructors calls this first.
+	*/
+	public void noteReflection() {
+		this.autoCodec.noteReflection(this.owner);
+	}
+
 	public MethodHandles.@NotNull Lookup lookup() {
+		this.noteReflection();
 		return this.reflectionManager().getLookup(this.owner);
 	}
 
 	public @NotNull FieldLikeMemberView<T_Owner, ?> @NotNull [] getFields(boolean inherited) {
+		this.noteReflection();
 		return this.logger().getFields(this, inherited);
 	}
 
@@ -53,10 +64,12 @@ public class ReflectContext<T_Owner> extends TaskContext implements ReflectConte
 		@NotNull Predicate<? super FieldLikeMemberView<T_Owner, ?>> predicate,
 		@NotNull MemberCollector<FieldLikeMemberView<T_Owner, ?>, T_Collect> collector
 	) {
+		this.noteReflection();
 		return this.logger().searchFields(this, inherited, predicate, collector);
 	}
 
 	public @NotNull MethodLikeMemberView<T_Owner, ?> @NotNull [] getMethods(boolean inherited) {
+		this.noteReflection();
 		return this.logger().getMethods(this, inherited);
 	}
 
@@ -65,6 +78,7 @@ public class ReflectContext<T_Owner> extends TaskContext implements ReflectConte
 		@NotNull Predicate<? super MethodLikeMemberView<T_Owner, ?>> predicate,
 		@NotNull MemberCollector<MethodLikeMemberView<T_Owner, ?>, T_Collect> collector
 	) {
+		this.noteReflection();
 		return this.logger().searchMethods(this, inherited, predicate, collector);
 	}
 
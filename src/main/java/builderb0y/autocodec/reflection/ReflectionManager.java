@@ -1,16 +1,14 @@
 package builderb0y.autocodec.reflection;
 
 import java.lang.invoke.MethodHandles;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.*;
 import java.util.Arrays;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.function.BiPredicate;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
 
-import it.unimi.dsi.fastutil.objects.Object2ObjectOpenCustomHashMap;
 import org.jetbrains.annotations.ApiStatus.OverrideOnly;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -23,8 +21,42 @@ import builderb0y.autocodec.util.TypeFormatter;
 
 public class ReflectionManager {
 
-	public final @NotNull Map<@NotNull Class<?>, @NotNull ClassCache<?>> classCache = new HashMap<>(128);
-	public final @NotNull Map<@NotNull ReifiedType<?>, @NotNull TypeCache<?>> typeCache = new Object2ObjectOpenCustomHashMap<>(256, ReifiedType.ORDERED_ANNOTATIONS_STRATEGY);
+	/**
+	per-class reflection data. a ClassValue is used so that
+	the data is released when its class is unloaded,
+	and so that it is safe to query from multiple threads.
+	{@link ClassCache}'s only weakly reference this ReflectionManager,
+	so the classes it has inspected do not keep it alive either.
+
+	per-type reflection data is not stored here,
+	but rather as an attachment on the canonical type.
+	see {@link #getTypeCache(ReifiedType)}.
+	*/
+	public final @NotNull ClassValue<@NotNull ClassCache<?>> classCache = new ClassValue<>() {
+
+		@Override
+		public ClassCache<?> computeValue(Class<?> type) {
+			return ReflectionManager.this.createClassCache(type);
+		}
+	};
+
+
+
+	/**
+	unfiltered reflection data, shared by every ReflectionManager,
+	regardless of what they {@link #canView(Class)}.
+	every {@link ClassCache} filters a copy of these arrays.
+	this means that multiple ReflectionManagers (for example, ones used by
+	{@link builderb0y.autocodec.AutoCodec#AutoCodec(builderb0y.autocodec.AutoCodec) derived AutoCodecs})
+	only ask the JVM for a class's members once.
+	*/
+	public static final @NotNull ClassValue<@NotNull DeclaredMembers> DECLARED_MEMBERS = new ClassValue<>() {
+
+		@Override
+		public DeclaredMembers computeValue(Class<?> type) {
+			return new DeclaredMembers(type);
+		}
+	};
 
 
 
@@ -243,46 +275,112 @@ public class ReflectionManager {
 
 
 
+	//////////////////////////////// sharing ////////////////////////////////
+
+
+
+	/**
+	returns true if this ReflectionManager and other expose the exact same members
+	for clazz and all of its superclasses and interfaces, and provide equivalent
+	{@link MethodHandles.Lookup}'s for them, in which case anything which
+	reflects into clazz will get the same results from both of them.
+	*/
+	public boolean isEquivalentTo(@NotNull ReflectionManager other, @NotNull Class<?> clazz) {
+		if (this == other) return true;
+		for (Class<?> superClass = clazz; superClass != null; superClass = superClass.getSuperclass()) {
+			if (!this.isEquivalentToExact(other, superClass)) return false;
+			for (Class<?> superInterface : superClass.getInterfaces()) {
+				if (!this.isEquivalentTo(other, superInterface)) return false;
+			}
+		}
+		return true;
+	}
+
+	/** same as {@link #isEquivalentTo(ReflectionManager, Class)}, but ignores the supertypes of clazz. */
+	public boolean isEquivalentToExact(@NotNull ReflectionManager other, @NotNull Class<?> clazz) {
+		if (this.canView(clazz) != other.canView(clazz)) return false;
+		ClassCache<?> cache = this.getClassCache(clazz), otherCache = other.getClassCache(clazz);
+		if (
+			!Arrays.equals(cache.fields(), otherCache.fields()) ||
+			!Arrays.equals(cache.recordComponents(), otherCache.recordComponents()) ||
+			!Arrays.equals(cache.pseudoFields(), otherCache.pseudoFields()) ||
+			!Arrays.equals(cache.methods(), otherCache.methods()) ||
+			!Arrays.equals(cache.constructors(), otherCache.constructors())
+		) {
+			return false;
+		}
+		MethodHandles.Lookup lookup = this.getLookup(clazz), otherLookup = other.getLookup(clazz);
+		return lookup.lookupClass() == otherLookup.lookupClass() && lookup.lookupModes() == otherLookup.lookupModes();
+	}
+
+
+
 	//////////////////////////////// cache ////////////////////////////////
 
 	@SuppressWarnings("unchecked")
 	public <T_Owner> @NotNull ClassCache<T_Owner> getClassCache(@NotNull Class<T_Owner> owner) {
-		return (ClassCache<T_Owner>)(this.classCache.computeIfAbsent(owner, this::createClassCache));
+		return (ClassCache<T_Owner>)(this.classCache.get(owner));
 	}
 
 	public <T_Owner> @NotNull ClassCache<T_Owner> createClassCache(@NotNull Class<T_Owner> owner) {
-		return this.new ClassCache<>(owner);
+		return new ClassCache<>(this, owner);
 	}
 
-	@SuppressWarnings("unchecked")
+	/**
+	returns the TypeCache for the {@link ReifiedType#canonicalize()}'d form of owner.
+	the TypeCache is stored as an {@link ReifiedType#getAttachment(Object, Function)}
+	on the canonical type, so it lives no longer than the canonical type does.
+	in particular, it does not prevent the classes it references from being unloaded.
+	attachment keys are weak, and TypeCache's only weakly reference this ReflectionManager,
+	so the TypeCache does not keep this ReflectionManager alive either.
+	*/
 	public <T_Owner> @NotNull TypeCache<T_Owner> getTypeCache(@NotNull ReifiedType<T_Owner> owner) {
-		return (TypeCache<T_Owner>)(this.typeCache.computeIfAbsent(owner, this::createTypeCache));
+		ReifiedType<T_Owner> canonical = owner.canonicalize();
+		return canonical.getAttachment(this, (ReflectionManager manager) -> manager.createTypeCache(canonical));
 	}
 
 	public <T_Owner> @NotNull TypeCache<T_Owner> createTypeCache(@NotNull ReifiedType<T_Owner> owner) {
-		return this.new TypeCache<>(owner);
+		return new TypeCache<>(this, owner);
 	}
 
-	public class ClassCache<T_Owner> {
+	/**
+	holds the members of a class which a ReflectionManager {@link #canView(Field) can view}.
+	the ReflectionManager is weakly referenced, because ClassCache's are
+	stored in {@link #classCache}, and values in a ClassValue which strongly
+	reference the ClassValue (or its owner) are never released.
+	*/
+	public static class ClassCache<T_Owner> {
 
+		public final @NotNull WeakReference<@NotNull ReflectionManager> manager;
 		public final @NotNull Class<T_Owner> owner;
 
-		public @NotNull Field                @Nullable [] fields;
-		public @NotNull RecordComponent      @Nullable [] recordComponents;
-		public @NotNull PseudoField          @Nullable [] pseudoFields;
-		public @NotNull Method               @Nullable [] methods;
-		public @NotNull Constructor<T_Owner> @Nullable [] constructors;
+		public volatile @NotNull Field                @Nullable [] fields;
+		public volatile @NotNull RecordComponent      @Nullable [] recordComponents;
+		public volatile @NotNull PseudoField          @Nullable [] pseudoFields;
+		public volatile @NotNull Method               @Nullable [] methods;
+		public volatile @NotNull Constructor<T_Owner> @Nullable [] constructors;
 
-		public ClassCache(@NotNull Class<T_Owner> owner) {
-			this.owner = owner;
+		public ClassCache(@NotNull ReflectionManager manager, @NotNull Class<T_Owner> owner) {
+			this.manager = new WeakReference<>(manager);
+			this.owner   = owner;
 		}
 
+		public @NotNull ReflectionManager manager() {
+			return getManager(this.manager, this);
+		}
+
+		/**
+		returns the elements of array which match predicate.
+		array itself is never modified, since it is shared with other ReflectionManagers.
+		*/
 		public <T> T @NotNull [] filter(T @Nullable [] array, T @NotNull [] emptyArray, @NotNull BiPredicate<@NotNull ReflectionManager, T> predicate) {
 			if (array == null) return emptyArray;
+			ReflectionManager manager = this.manager();
+			array = array.clone();
 			int length = array.length;
 			int writeIndex = 0;
 			for (int readIndex = 0; readIndex < length; readIndex++) {
-				if (predicate.test(ReflectionManager.this, array[readIndex])) {
+				if (predicate.test(manager, array[readIndex])) {
 					array[writeIndex++] = array[readIndex];
 				}
 			}
@@ -295,7 +393,7 @@ public class ReflectionManager {
 			Field[] fields = this.fields;
 			if (fields == null) {
 				this.fields = fields = this.filter(
-					this.owner.getDeclaredFields(),
+					DECLARED_MEMBERS.get(this.owner).fields(),
 					ArrayFactories.FIELD.empty(),
 					ReflectionManager::canView
 				);
@@ -307,7 +405,7 @@ public class ReflectionManager {
 			RecordComponent[] recordComponents = this.recordComponents;
 			if (recordComponents == null) {
 				this.recordComponents = recordComponents = this.filter(
-					this.owner.getRecordComponents(),
+					DECLARED_MEMBERS.get(this.owner).recordComponents(),
 					ArrayFactories.RECORD_COMPONENT.empty(),
 					ReflectionManager::canView
 				);
@@ -319,7 +417,7 @@ public class ReflectionManager {
 			PseudoField[] pseudoFields = this.pseudoFields;
 			if (pseudoFields == null) {
 				this.pseudoFields = pseudoFields = this.filter(
-					PseudoField.getPseudoFields(this.owner),
+					DECLARED_MEMBERS.get(this.owner).pseudoFields(),
 					ArrayFactories.PSEUDO_FIELD.empty(),
 					ReflectionManager::canView
 				);
@@ -331,7 +429,7 @@ public class ReflectionManager {
 			Method[] methods = this.methods;
 			if (methods == null) {
 				this.methods = methods = this.filter(
-					this.owner.getDeclaredMethods(),
+					DECLARED_MEMBERS.get(this.owner).methods(),
 					ArrayFactories.METHOD.empty(),
 					ReflectionManager::canView
 				);
@@ -344,7 +442,7 @@ public class ReflectionManager {
 			Constructor<T_Owner>[] constructors = this.constructors;
 			if (constructors == null) {
 				this.constructors = constructors = this.filter(
-					(Constructor<T_Owner>[])(this.owner.getDeclaredConstructors()),
+					(Constructor<T_Owner>[])(DECLARED_MEMBERS.get(this.owner).constructors()),
 					ArrayFactories.CONSTRUCTOR.emptyGeneric(),
 					ReflectionManager::canView
 				);
@@ -358,15 +456,27 @@ public class ReflectionManager {
 		}
 	}
 
-	public class TypeCache<T_Owner> {
+	/**
+	holds views of the members of a type which a ReflectionManager {@link #canView(Field) can view}.
+	the ReflectionManager is weakly referenced, because TypeCache's are
+	stored as weakly-keyed attachments on their owner, and values which
+	strongly reference their own key would prevent it from being released.
+	*/
+	public static class TypeCache<T_Owner> {
 
+		public final @NotNull WeakReference<@NotNull ReflectionManager> manager;
 		public final @NotNull ReifiedType<T_Owner> owner;
 
-		public @NotNull FieldLikeMemberView<T_Owner, ?> @Nullable [] fields, inheritedFields;
-		public @NotNull MethodLikeMemberView<T_Owner, ?> @Nullable [] methods, inheritedMethods;
+		public volatile @NotNull FieldLikeMemberView<T_Owner, ?> @Nullable [] fields, inheritedFields;
+		public volatile @NotNull MethodLikeMemberView<T_Owner, ?> @Nullable [] methods, inheritedMethods;
 
-		public TypeCache(@NotNull ReifiedType<T_Owner> owner) {
-			this.owner = owner;
+		public TypeCache(@NotNull ReflectionManager manager, @NotNull ReifiedType<T_Owner> owner) {
+			this.manager = new WeakReference<>(manager);
+			this.owner   = owner;
+		}
+
+		public @NotNull ReflectionManager manager() {
+			return getManager(this.manager, this);
 		}
 
 		public @NotNull FieldLikeMemberView<T_Owner, ?> @NotNull [] fields() {
@@ -374,11 +484,12 @@ public class ReflectionManager {
 			if (fields == null) {
 				ReifiedType<T_Owner> owner = this.owner;
 				Class<? super T_Owner> rawClass = owner.getRawClass();
-				if (rawClass == null || !ReflectionManager.this.canView(rawClass)) {
+				ReflectionManager manager = this.manager();
+				if (rawClass == null || !manager.canView(rawClass)) {
 					fields = FieldLikeMemberView.ARRAY_FACTORY.emptyGeneric();
 				}
 				else {
-					ClassCache<? super T_Owner> classCache = ReflectionManager.this.getClassCache(rawClass);
+					ClassCache<? super T_Owner> classCache = manager.getClassCache(rawClass);
 					fields = (
 						Stream.<Stream<FieldLikeMemberView<T_Owner, ?>>>of(
 							Arrays.stream(classCache.fields          ()).map((Field           field    ) -> new FieldView          <>(owner, field    )),
@@ -397,12 +508,13 @@ public class ReflectionManager {
 		public @NotNull FieldLikeMemberView<T_Owner, ?> @NotNull [] inheritedFields() {
 			FieldLikeMemberView<T_Owner, ?>[] inheritedFields = this.inheritedFields;
 			if (inheritedFields == null) {
+				ReflectionManager manager = this.manager();
 				inheritedFields = this.inheritedFields = (
 					this
 					.owner
 					.getInheritanceHierarchy()
 					.stream()
-					.flatMap((ReifiedType<? super T_Owner> type) -> Arrays.stream(ReflectionManager.this.getTypeCache(type).fields()))
+					.flatMap((ReifiedType<? super T_Owner> type) -> Arrays.stream(manager.getTypeCache(type).fields()))
 					.toArray(FieldLikeMemberView.ARRAY_FACTORY.generic())
 				);
 			}
@@ -415,11 +527,12 @@ public class ReflectionManager {
 				ReifiedType<T_Owner> owner = this.owner;
 				@SuppressWarnings("unchecked")
 				Class<T_Owner> rawClass = (Class<T_Owner>)(owner.getRawClass());
-				if (rawClass == null || !ReflectionManager.this.canView(rawClass)) {
+				ReflectionManager manager = this.manager();
+				if (rawClass == null || !manager.canView(rawClass)) {
 					methods = MethodLikeMemberView.ARRAY_FACTORY.emptyGeneric();
 				}
 				else {
-					ClassCache<T_Owner> classCache = ReflectionManager.this.getClassCache(rawClass);
+					ClassCache<T_Owner> classCache = manager.getClassCache(rawClass);
 					methods = (
 						Stream.<MethodLikeMemberView<T_Owner, ?>>concat(
 							Arrays.stream(classCache.methods     ()).map((Method               method     ) -> new MethodView     <>(owner, method     )),
@@ -436,12 +549,13 @@ public class ReflectionManager {
 		public @NotNull MethodLikeMemberView<T_Owner, ?> @NotNull [] inheritedMethods() {
 			MethodLikeMemberView<T_Owner, ?>[] inheritedMethods = this.inheritedMethods;
 			if (inheritedMethods == null) {
+				ReflectionManager manager = this.manager();
 				inheritedMethods = this.inheritedMethods = (
 					this
 					.owner
 					.getInheritanceHierarchy()
 					.stream()
-					.flatMap((ReifiedType<? super T_Owner> type) -> Arrays.stream(ReflectionManager.this.getTypeCache(type).methods()))
+					.flatMap((ReifiedType<? super T_Owner> type) -> Arrays.stream(manager.getTypeCache(type).methods()))
 					.toArray(MethodLikeMemberView.ARRAY_FACTORY.generic())
 				);
 			}
@@ -453,4 +567,72 @@ public class ReflectionManager {
 			return TypeFormatter.appendSimpleClassUnchecked(new StringBuilder(64), this.getClass()).append(" for ").append(this.owner).toString();
 		}
 	}
-}
\ No newline at end of file
+
+	/**
+	returns the ReflectionManager which created cache.
+	a cache can only be reached through its ReflectionManager,
+	so the manager should still be alive whenever the cache is used.
+	*/
+	public static @NotNull ReflectionManager getManager(@NotNull WeakReference<@NotNull ReflectionManager> reference, @NotNull Object cache) {
+		ReflectionManager manager = reference.get();
+		if (manager == null) throw new IllegalStateException("ReflectionManager was garbage collected while its cache was still in use: " + cache);
+		return manager;
+	}
+
+	/**
+	the members declared in a class, before any ReflectionManager has filtered them.
+	each array is computed lazily, and must not be modified.
+	see {@link #DECLARED_MEMBERS}.
+	*/
+	public static class DeclaredMembers {
+
+		public final @NotNull Class<?> owner;
+
+		public volatile @NotNull Field            @Nullable [] fields;
+		public volatile @NotNull RecordComponent  @Nullable [] recordComponents;
+		public volatile boolean                                recordComponentsComputed;
+		public volatile @NotNull Method           @Nullable [] methods;
+		public volatile @NotNull Constructor<?>   @Nullable [] constructors;
+
+		public DeclaredMembers(@NotNull Class<?> owner) {
+			this.owner = owner;
+		}
+
+		public @NotNull Field @NotNull [] fields() {
+			Field[] fields = this.fields;
+			if (fields == null) this.fields = fields = this.owner.getDeclaredFields();
+			return fields;
+		}
+
+		/** returns null if our {@link #owner} is not a record. */
+		public @NotNull RecordComponent @Nullable [] recordComponents() {
+			if (!this.recordComponentsComputed) {
+				this.recordComponents = this.owner.getRecordComponents();
+				this.recordComponentsComputed = true;
+			}
+			return this.recordComponents;
+		}
+
+		public @NotNull PseudoField @NotNull [] pseudoFields() {
+			//PseudoField already has its own cache.
+			return PseudoField.getPseudoFieldsNoClone(this.owner);
+		}
+
+		public @NotNull Method @NotNull [] methods() {
+			Method[] methods = this.methods;
+			if (methods == null) this.methods = methods = this.owner.getDeclaredMethods();
+			return methods;
+		}
+
+		public @NotNull Constructor<?> @NotNull [] constructors() {
+			Constructor<?>[] constructors = this.constructors;
+			if (constructors == null) this.constructors = constructors = this.owner.getDeclaredConstructors();
+			return constructors;
+		}
+
+		@Override
+		public String toString() {
+			return TypeFormatter.appendSimpleClassUnchecked(new StringBuilder(64), this.getClass()).append(" for ").append(this.owner).toString();
+		}
+	}
+}
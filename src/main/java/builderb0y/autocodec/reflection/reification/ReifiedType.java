@@ -2,8 +2,10 @@ package builderb0y.autocodec.reflection.reification;
 
 import java.lang.annotation.Annotation;
 import java.lang.annotation.Inherited;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.*;
 import java.util.*;
+import java.util.function.Function;
 
 import com.google.common.primitives.Primitives;
 import com.google.common.reflect.TypeToken;
@@ -15,6 +17,7 @@ import org.jetbrains.annotations.Nullable;
 
 import builderb0y.autocodec.common.FactoryList;
 import builderb0y.autocodec.reflection.AnnotationContainer;
+import builderb0y.autocodec.reflection.ReflectionManager;
 import builderb0y.autocodec.util.*;
 import builderb0y.autocodec.util.HashStrategies.NamedHashStrategy;
 import builderb0y.autocodec.util.TypeFormatter.TypeFormatterAppendable;
@@ -68,7 +71,7 @@ public class ReifiedType<T> implements TypeFormatterAppendable {
 
 		@Override
 		public ReifiedType<?> computeValue(Class<?> type) {
-			return TypeReifier.create(type, null, ARRAY_FACTORY.empty());
+			return TypeReifier.create(type, null, ARRAY_FACTORY.empty()).canonicalize();
 		}
 	};
 
@@ -137,11 +140,17 @@ public class ReifiedType<T> implements TypeFormatterAppendable {
 
 			@Override
 			public int implHashCode(@NotNull ReifiedType<?> type) {
-				return super.implHashCode(type) + type.getAnnotations().hashCodeOrdered();
+				int hash;
+				if (type.canonical && (hash = type.orderedHashCode) != 0) return hash;
+				hash = super.implHashCode(type) + type.getAnnotations().hashCodeOrdered();
+				if (type.canonical) type.orderedHashCode = hash;
+				return hash;
 			}
 
 			@Override
 			public boolean implEquals(@NotNull ReifiedType<?> a, @NotNull ReifiedType<?> b) {
+				//there is only one canonical instance for every structure.
+				if (a.canonical && b.canonical) return a == b;
 				return super.implEquals(a, b) && a.getAnnotations().equalsOrdered(b.getAnnotations());
 			}
 		},
@@ -158,6 +167,34 @@ public class ReifiedType<T> implements TypeFormatterAppendable {
 			}
 		};
 
+	/**
+	the interning table used by {@link #canonicalize()}.
+	keys are compared with {@link #ORDERED_ANNOTATIONS_STRATEGY} (via {@link #equals(Object)}),
+	and values are weak references to their own key.
+	canonical types are only weakly reachable from this table,
+	so they (and the classes they reference) can still be garbage collected
+	once nothing else is using them. this matters for class loaders which get unloaded.
+	{@link #FROM_CACHE} feeds into this table too,
+	so {@link #from(Class)} always returns a canonical type.
+
+	the table is split into {@link #CANONICAL_CACHE_STRIPES} maps,
+	selected by hash code, so that threads canonicalizing
+	unrelated types do not have to wait for each other.
+	each map must only be accessed while synchronized on it.
+	*/
+	@Internal
+	public static final WeakHashMap<ReifiedType<?>, WeakReference<ReifiedType<?>>>[] CANONICAL_CACHE;
+	/** must be a power of 2. */
+	public static final int CANONICAL_CACHE_STRIPES = 64;
+	static {
+		@SuppressWarnings("unchecked")
+		WeakHashMap<ReifiedType<?>, WeakReference<ReifiedType<?>>>[] stripes = new WeakHashMap[CANONICAL_CACHE_STRIPES];
+		for (int index = 0; index < CANONICAL_CACHE_STRIPES; index++) {
+			stripes[index] = new WeakHashMap<>(16);
+		}
+		CANONICAL_CACHE = stripes;
+	}
+
 	public static final @NotNull ReifiedType<Object> OBJECT = from(Object.class);
 	public static final @NotNull ReifiedType<Void> VOID = from(void.class);
 
@@ -218,6 +255,27 @@ public class ReifiedType<T> implements TypeFormatterAppendable {
 	//late-initialized.
 	public @NotNull ReifiedType<?>[] parameters;
 	public TypeVariable<?> unresolvableVariable;
+	/**
+	true if this ReifiedType was returned by {@link #canonicalize()}.
+	canonical types must never be modified,
+	so they are allowed to cache their {@link #orderedHashCode}.
+	volatile because this is read without holding the stripe lock
+	which {@link #canonicalize()} sets it under, so other threads need to see
+	the fully initialized type by the time they see that it is canonical.
+	*/
+	public volatile boolean canonical;
+	/**
+	lazy-initialized cache of {@link #ORDERED_ANNOTATIONS_STRATEGY}'s hash code.
+	only used when {@link #canonical} is true, because other types could
+	still be under construction. 0 means not computed yet.
+	*/
+	public int orderedHashCode;
+	/**
+	lazy-initialized.
+	see {@link #getAttachment(Object, Function)}.
+	must only be accessed while synchronized on this ReifiedType.
+	*/
+	public @Nullable Map<@NotNull Object, @NotNull Object> attachments;
 
 	/**
 	sole constructor intended to be invoked by an anonymous subclass.
@@ -281,6 +339,63 @@ public class ReifiedType<T> implements TypeFormatterAppendable {
 		return new ReifiedType<>();
 	}
 
+	/**
+	returns the canonical ReifiedType which is equal to this one, according to
+	{@link #ORDERED_ANNOTATIONS_STRATEGY}. if this is the first time a type with
+	this structure has been canonicalized, then this ReifiedType becomes canonical.
+	canonical types cache their hash code, and two canonical types
+	can be compared for equality by identity alone,
+	which makes them much cheaper to use as keys in hash tables.
+	this is what {@link FactoryList#cache} relies on.
+
+	important: this ReifiedType must be fully initialized before it is canonicalized,
+	and it must not be modified afterwards, even via its backing fields.
+	*/
+	public @NotNull ReifiedType<T> canonicalize() {
+		if (this.canonical) return this;
+		int hash = this.hashCode();
+		WeakHashMap<ReifiedType<?>, WeakReference<ReifiedType<?>>> stripe = CANONICAL_CACHE[HashCommon.mix(hash) & (CANONICAL_CACHE_STRIPES - 1)];
+		synchronized (stripe) {
+			WeakReference<ReifiedType<?>> reference = stripe.get(this);
+			ReifiedType<?> canonical;
+			if (reference != null && (canonical = reference.get()) != null) {
+				return canonical.uncheckedCast();
+			}
+			this.canonical = true;
+			stripe.put(this, new WeakReference<>(this));
+			return this;
+		}
+	}
+
+	/**
+	returns the attachment associated with the provided key,
+	computing it if this is the first time it has been requested.
+	attachments allow other APIs to cache data alongside a canonical type,
+	such that the data is released when the type itself is garbage collected.
+	for example, {@link ReflectionManager#getTypeCache(ReifiedType)}
+	uses its ReflectionManager as the key.
+	keys are compared with {@link Object#equals(Object)},
+	and are only weakly reachable from this type,
+	so attaching data does not keep the key alive.
+	for this to work, the value must not strongly reference its own key.
+
+	throws {@link IllegalStateException} if this type is not {@link #canonical}.
+	*/
+	@SuppressWarnings("unchecked")
+	public <T_Key, T_Value> @NotNull T_Value getAttachment(@NotNull T_Key key, @NotNull Function<? super T_Key, ? extends T_Value> computer) {
+		if (!this.canonical) throw new IllegalStateException("Attachments are only supported on canonical types: " + this);
+		synchronized (this) {
+			Map<Object, Object> attachments = this.attachments;
+			if (attachments == null) attachments = this.attachments = new WeakHashMap<>(2);
+			return (T_Value)(attachments.computeIfAbsent(key, (Function<Object, Object>)(computer)));
+		}
+	}
+
+	/** returns true if this ReifiedType was returned by {@link #canonicalize()}. */
+	public boolean isCanonical() {
+		return this.canonical;
+	}
+
 	/** returns a ReifiedType which represents the provided AnnotatedType. */
 	public static @NotNull ReifiedType<?> from(@NotNull AnnotatedType type) {
 		return new TypeReifier(Collections.emptyMap(), false).reify(type);
@@ -0,0 +1,101 @@
+package builderb0y.autocodec.util;
+
+import builderb0y.autocodec.decoders.BinaryContainerReader;
+import builderb0y.autocodec.decoders.BinaryDecodeSource;
+import builderb0y.autocodec.encoders.BinaryContainerWriter;
+import builderb0y.autocodec.encoders.BinaryEncodeSink;
+import builderb0y.autocodec.encoders.EncodeSink;
+
+/**
+constants for the compact binary format written by {@link BinaryEncodeSink}
+and read by {@link BinaryDecodeSource}. every value starts with one of the
+tag bytes below, followed by a payload which depends on the tag:
+
+	{@link #EMPTY}, {@link #FALSE}, {@link #TRUE}: no payload.
+	{@link #BYTE}: the byte itself.
+	{@link #SHORT}, {@link #INT}, {@link #LONG}: a zigzag-encoded varint.
+	{@link #FLOAT}, {@link #DOUBLE}: 4 or 8 bytes, big endian.
+	{@link #STRING}: a varint byte length, followed by that many bytes of UTF-8.
+	{@link #BYTES}: a varint length, followed by that many raw bytes.
+		this is read as a list of bytes.
+	{@link #LIST}: a varint element count, followed by that many values.
+	{@link #MAP}: a varint entry count, followed by that many
+		pairs of keys and values. keys are {@link #STRING} payloads without the tag.
+	{@link #SCHEMA_MAP}: a varint schema ID, a varint entry count, and then that many
+		pairs of field keys and values. a field key of 0 is followed by a
+		{@link #STRING} payload without the tag. any other field key N
+		refers to the N-1'th key in the schema.
+	{@link #SCHEMA}: defines the next schema ID, starting at 0.
+		the payload is a varint key count, followed by that many {@link #STRING} payloads.
+		a {@link #SCHEMA} is always followed by the {@link #SCHEMA_MAP} that first used it.
+
+schemas are provided by encoders which know their keys in advance
+(see {@link EncodeSink#beginMap(String[])}), and are only written once per stream.
+after that, each entry in a map which uses the schema costs only a
+1-byte field key, instead of the entire name of the field.
+
+{@link BinaryContainerWriter} and {@link BinaryContainerReader} store many values
+in one file, such that each one can be read without reading the others.
+a container is laid out as follows:
+	the 4-byte {@link #CONTAINER_MAGIC}, and the 1-byte {@link #CONTAINER_VERSION}.
+	every value, one after another, with no {@link #SCHEMA} definitions.
+	the index: the 8-byte offset of every value, plus the offset where the last value ends.
+	the schema table: a varint schema count, followed by that many
+		{@link #SCHEMA} payloads, in order of their IDs.
+	for maps, every key, one after another, in the same order as the values.
+		unlike values, keys are read sequentially, so they define their schemas inline.
+	the trailer: the 8-byte offsets of the index, the schema table, and the keys (-1 for lists),
+		followed by the 4-byte value count, and the {@link #CONTAINER_MAGIC} again.
+all fixed-width numbers in the container are big endian.
+*/
+public class BinaryFormat {
+
+	public static final byte
+		EMPTY      =  0,
+		FALSE      =  1,
+		TRUE       =  2,
+		BYTE       =  3,
+		SHORT      =  4,
+		INT        =  5,
+		LONG       =  6,
+		FLOAT      =  7,
+		DOUBLE     =  8,
+		STRING     =  9,
+		BYTES      = 10,
+		LIST       = 11,
+		MAP        = 12,
+		SCHEMA_MAP = 13,
+		SCHEMA     = 14;
+
+	public static final int
+		CONTAINER_MAGIC        = ('A' << 24) | ('C' << 16) | ('B' << 8) | 'C',
+		CONTAINER_VERSION      = 1,
+		CONTAINER_HEADER_SIZE  = 5,
+		CONTAINER_TRAILER_SIZE = 8 * 3 + 4 + 4;
+
+	public static int zigzag(int value) {
+		return (value << 1) ^ (value >> 31);
+	}
+
+	public static long zigzag(long value) {
+		return (value << 1) ^ (value >> 63);
+	}
+
+	public static int unzigzag(int value) {
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	public static long unzigzag(long value) {
+		return (value >>> 1) ^ -(value & 1L);
+	}
+
+	/** returns the number of bytes needed to write value as an unsigned varint. */
+	public static int varintSize(int value) {
+		int size = 1;
+		while ((value & ~0x7F) != 0) {
+			value >>>= 7;
+			size++;
+		}
+		return size;
+	}
+}
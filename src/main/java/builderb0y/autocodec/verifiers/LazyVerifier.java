@@ -8,7 +8,7 @@ import builderb0y.autocodec.common.LazyHandler;
 
 public class LazyVerifier<T> extends LazyHandler<AutoVerifier<T>> implements AutoVerifier<T> {
 
-	public @Nullable AutoVerifier<T> resolution;
+	public volatile @Nullable AutoVerifier<T> resolution;
 
 	@Override
 	public @Nullable AutoVerifier<T> getNullableDelegateHandler() {
@@ -25,4 +25,16 @@ public class LazyVerifier<T> extends LazyHandler<AutoVerifier<T>> implements Aut
 	public <T_Encoded> void verify(@NotNull VerifyContext<T_Encoded, T> context) throws VerifyException {
 		context.verifyWith(this.getDelegateHandler());
 	}
+
+	@Override
+	public void visitChildren(@NotNull ChildVisitor visitor) {
+		AutoVerifier<T> resolution = this.resolution;
+		if (resolution != null) visitor.visitChild("delegate", resolution);
+	}
+
+	@Override
+	public void linkChildren(@NotNull ChildLinker linker) {
+		AutoVerifier<T> resolution = this.resolution;
+		if (resolution != null) this.resolution = linker.link(resolution);
+	}
 }
\ No newline at end of file
@@ -32,6 +32,22 @@ public class MultiVerifier<T_Decoded> implements AutoVerifier<T_Decoded> {
 		}
 	}
 
+	@Override
+	public void visitChildren(@NotNull ChildVisitor visitor) {
+		AutoVerifier<T_Decoded>[] verifiers = this.verifiers;
+		for (int index = 0, length = verifiers.length; index < length; index++) {
+			visitor.visitChild("verifiers[" + index + ']', verifiers[index]);
+		}
+	}
+
+	@Override
+	public void linkChildren(@NotNull ChildLinker linker) {
+		AutoVerifier<T_Decoded>[] verifiers = this.verifiers;
+		for (int index = 0, length = verifiers.length; index < length; index++) {
+			verifiers[index] = linker.link(verifiers[index]);
+		}
+	}
+
 	@Override
 	public String toString() {
 		return this.getClass().getSimpleName() + " (" + this.verifiers.length + " verifiers)";
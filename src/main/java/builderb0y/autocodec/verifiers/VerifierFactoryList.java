@@ -1,6 +1,7 @@
 package builderb0y.autocodec.verifiers;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
 
 import org.jetbrains.annotations.ApiStatus.OverrideOnly;
@@ -10,6 +11,7 @@ import org.jetbrains.annotations.Nullable;
 import builderb0y.autocodec.AutoCodec;
 import builderb0y.autocodec.common.FactoryContext;
 import builderb0y.autocodec.common.FactoryException;
+import builderb0y.autocodec.common.FactoryIndex;
 import builderb0y.autocodec.common.FactoryList;
 import builderb0y.autocodec.common.LazyHandler;
 import builderb0y.autocodec.verifiers.AutoVerifier.VerifierFactory;
@@ -48,8 +50,10 @@ public class VerifierFactoryList extends FactoryList<AutoVerifier<?>, VerifierFa
 	@Override
 	public @Nullable AutoVerifier<?> doCreate(@NotNull FactoryContext<?> context) throws FactoryException {
 		List<AutoVerifier<?>> list = new ArrayList<>(4);
-		for (VerifierFactory factory : this.factories) {
-			AutoVerifier<?> verifier = context.tryCreateVerifier(factory);
+		FactoryIndex<VerifierFactory> index = this.getIndex();
+		BitSet candidates = index.getCandidates(context.type);
+		for (int factory = candidates.nextSetBit(0); factory >= 0; factory = candidates.nextSetBit(factory + 1)) {
+			AutoVerifier<?> verifier = context.tryCreateVerifier(index.factories.get(factory));
 			if (verifier != null && verifier != NoopVerifier.INSTANCE) list.add(verifier);
 		}
 		return switch (list.size()) {
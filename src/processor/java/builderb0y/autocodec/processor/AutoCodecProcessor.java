@@ -0,0 +1,258 @@
+package builderb0y.autocodec.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.*;
+
+import javax.annotation.processing.*;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.TypeVariable;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+generates coders for records and enums annotated with
+builderb0y.autocodec.annotations.GenerateCoder.
+
+this processor deliberately does not depend on AutoCodec itself,
+so that it can run without AutoCodec's dependencies on the processor path.
+as such, all AutoCodec classes are referenced by name.
+
+for every annotated type Foo (or Outer.Foo), this processor generates a class named
+Foo_GeneratedCoder (or Outer_Foo_GeneratedCoder) in the same package,
+containing a nested Provider class, which is registered in
+META-INF/services/builderb0y.autocodec.coders.GeneratedCoderProvider.
+the naming scheme must match GeneratedCoderRegistry.getProviderClassName().
+*/
+@SupportedAnnotationTypes(AutoCodecProcessor.GENERATE_CODER)
+public class AutoCodecProcessor extends AbstractProcessor {
+
+	public static final String
+		GENERATE_CODER   = "builderb0y.autocodec.annotations.GenerateCoder",
+		PROVIDER         = "builderb0y.autocodec.coders.GeneratedCoderProvider",
+		RECORD_CODER     = "builderb0y.autocodec.coders.GeneratedRecordCoder",
+		REGISTRY         = "builderb0y.autocodec.coders.GeneratedCoderRegistry",
+		AUTO_CODER       = "builderb0y.autocodec.coders.AutoCoder",
+		FACTORY_CONTEXT  = "builderb0y.autocodec.common.FactoryContext",
+		FACTORY_EXCEPTION = "builderb0y.autocodec.common.FactoryException";
+
+	/**
+	annotations which change how RecordCoder finds a record's
+	components or constructor, or how it reads components.
+	generated coders always use the canonical constructor and the accessors,
+	so records which use these annotations are rejected.
+	*/
+	public static final Set<String> UNSUPPORTED_ANNOTATIONS = Set.of(
+		"builderb0y.autocodec.annotations.RecordLike",
+		"builderb0y.autocodec.annotations.UseGetter",
+		"builderb0y.autocodec.annotations.Hidden",
+		"builderb0y.autocodec.annotations.AddPseudoField"
+	);
+
+	/** binary names of every provider generated so far, across all rounds. */
+	public final Set<String> providers = new TreeSet<>();
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		TypeElement annotation = this.processingEnv.getElementUtils().getTypeElement(GENERATE_CODER);
+		if (annotation != null) {
+			for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+				if (!(element instanceof TypeElement type)) continue;
+				try {
+					switch (type.getKind()) {
+						case RECORD -> this.generateRecord(type);
+						case ENUM   -> this.generateEnum(type);
+						default     -> this.error(type, "@GenerateCoder can only be applied to records and enums.");
+					}
+				}
+				catch (IOException exception) {
+					this.error(type, "Could not write generated coder: " + exception);
+				}
+			}
+		}
+		if (roundEnv.processingOver() && !this.providers.isEmpty()) {
+			this.writeServices();
+		}
+		return false;
+	}
+
+	public void error(Element element, String message) {
+		this.processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+	}
+
+	//////////////////////////////// naming ////////////////////////////////
+
+	public String getPackageName(TypeElement type) {
+		return this.processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+	}
+
+	/** Outer$Inner -> Outer_Inner_GeneratedCoder. */
+	public String getGeneratedSimpleName(TypeElement type) {
+		String packageName = this.getPackageName(type);
+		String binaryName = this.processingEnv.getElementUtils().getBinaryName(type).toString();
+		return binaryName.substring(packageName.isEmpty() ? 0 : packageName.length() + 1).replace('$', '_') + "_GeneratedCoder";
+	}
+
+	/**
+	returns true if generated code in the same package as
+	type can access it, and everything it is nested in.
+	*/
+	public boolean isAccessible(TypeElement type) {
+		//records and enums are implicitly static, so their enclosing
+		//classes need not be, since we never need an instance of them.
+		for (Element element = type; element instanceof TypeElement; element = element.getEnclosingElement()) {
+			if (element.getModifiers().contains(Modifier.PRIVATE)) return false;
+		}
+		return type.getNestingKind() == NestingKind.TOP_LEVEL || type.getNestingKind() == NestingKind.MEMBER;
+	}
+
+	/** returns the erasure of type as source code, without any type annotations. */
+	public String erasedName(TypeMirror type) {
+		return switch (type.getKind()) {
+			case BOOLEAN, BYTE, SHORT, CHAR, INT, LONG, FLOAT, DOUBLE -> type.getKind().name().toLowerCase(Locale.ROOT);
+			case ARRAY -> this.erasedName(((ArrayType)(type)).getComponentType()) + "[]";
+			case DECLARED -> ((TypeElement)(((DeclaredType)(type)).asElement())).getQualifiedName().toString();
+			case TYPEVAR -> this.erasedName(((TypeVariable)(type)).getUpperBound());
+			case INTERSECTION -> this.erasedName(this.processingEnv.getTypeUtils().erasure(type));
+			default -> "java.lang.Object";
+		};
+	}
+
+	//////////////////////////////// generation ////////////////////////////////
+
+	public void generateRecord(TypeElement type) throws IOException {
+		if (!this.isAccessible(type)) {
+			this.error(type, "@GenerateCoder records must not be private or local.");
+			return;
+		}
+		if (this.hasUnsupportedAnnotation(type)) return;
+		List<RecordComponentElement> components = new ArrayList<>();
+		for (RecordComponentElement component : type.getRecordComponents()) {
+			if (this.hasUnsupportedAnnotation(component)) return;
+			components.add(component);
+		}
+		String packageName = this.getPackageName(type);
+		String simpleName = this.getGeneratedSimpleName(type);
+		String recordName = type.getQualifiedName().toString();
+
+		StringBuilder source = new StringBuilder(2048);
+		this.appendHeader(source, packageName);
+		source
+		.append("@SuppressWarnings({ \"unchecked\", \"rawtypes\" })\n")
+		.append("public class ").append(simpleName).append(" extends ").append(RECORD_CODER).append('<').append(recordName).append("> {\n\n")
+		.append("\tpublic ").append(simpleName).append("(").append(FACTORY_CONTEXT).append('<').append(recordName).append("> context) throws ").append(FACTORY_EXCEPTION).append(" {\n")
+		.append("\t\tsuper(context, ").append(recordName).append(".class);\n")
+		.append("\t}\n\n");
+
+		//construct
+		source
+		.append("\t@Override\n")
+		.append("\tpublic ").append(recordName).append(" construct(Object[] arguments) {\n")
+		.append("\t\treturn new ").append(recordName).append('(');
+		for (int index = 0, size = components.size(); index < size; index++) {
+			source
+			.append(index == 0 ? "\n" : ",\n")
+			.append("\t\t\t(").append(this.erasedName(components.get(index).asType())).append(")(arguments[").append(index).append("])");
+		}
+		source.append(components.isEmpty() ? ");\n" : "\n\t\t);\n").append("\t}\n\n");
+
+		//getComponent
+		source
+		.append("\t@Override\n")
+		.append("\tpublic Object getComponent(").append(recordName).append(" object, int index) {\n")
+		.append("\t\treturn switch (index) {\n");
+		for (int index = 0, size = components.size(); index < size; index++) {
+			source.append("\t\t\tcase ").append(index).append(" -> object.").append(components.get(index).getAccessor().getSimpleName()).append("();\n");
+		}
+		source
+		.append("\t\t\tdefault -> throw new IndexOutOfBoundsException(index);\n")
+		.append("\t\t};\n")
+		.append("\t}\n\n");
+
+		this.appendProvider(source, recordName, "new " + simpleName + "((" + FACTORY_CONTEXT + ")(context))");
+		source.append("}\n");
+		this.write(type, packageName, simpleName, source);
+	}
+
+	public void generateEnum(TypeElement type) throws IOException {
+		if (!this.isAccessible(type)) {
+			this.error(type, "@GenerateCoder enums must not be private or local.");
+			return;
+		}
+		String packageName = this.getPackageName(type);
+		String simpleName = this.getGeneratedSimpleName(type);
+		String enumName = type.getQualifiedName().toString();
+
+		StringBuilder source = new StringBuilder(1024);
+		this.appendHeader(source, packageName);
+		source.append("public class ").append(simpleName).append(" {\n\n");
+		this.appendProvider(source, enumName, REGISTRY + ".createEnumCoder(context, " + enumName + ".class)");
+		source.append("}\n");
+		this.write(type, packageName, simpleName, source);
+	}
+
+	public boolean hasUnsupportedAnnotation(Element element) {
+		for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+			String name = ((TypeElement)(mirror.getAnnotationType().asElement())).getQualifiedName().toString();
+			if (UNSUPPORTED_ANNOTATIONS.contains(name)) {
+				this.error(element, "@GenerateCoder records do not support @" + name.substring(name.lastIndexOf('.') + 1) + ". remove @GenerateCoder to use RecordCoder instead.");
+				return true;
+			}
+		}
+		if (element instanceof RecordComponentElement component) {
+			return this.hasUnsupportedAnnotation(component.getAccessor());
+		}
+		return false;
+	}
+
+	public void appendHeader(StringBuilder source, String packageName) {
+		if (!packageName.isEmpty()) source.append("package ").append(packageName).append(";\n\n");
+		source.append("@javax.annotation.processing.Generated(\"").append(AutoCodecProcessor.class.getName()).append("\")\n");
+	}
+
+	public void appendProvider(StringBuilder source, String handledType, String create) {
+		source
+		.append("\tpublic static class Provider implements ").append(PROVIDER).append(" {\n\n")
+		.append("\t\t@Override\n")
+		.append("\t\tpublic Class<?> getHandledClass() {\n")
+		.append("\t\t\treturn ").append(handledType).append(".class;\n")
+		.append("\t\t}\n\n")
+		.append("\t\t@Override\n")
+		.append("\t\tpublic ").append(AUTO_CODER).append("<?> create(").append(FACTORY_CONTEXT).append("<?> context) throws ").append(FACTORY_EXCEPTION).append(" {\n")
+		.append("\t\t\treturn ").append(create).append(";\n")
+		.append("\t\t}\n")
+		.append("\t}\n");
+	}
+
+	public void write(TypeElement type, String packageName, String simpleName, CharSequence source) throws IOException {
+		String qualifiedName = packageName.isEmpty() ? simpleName : packageName + '.' + simpleName;
+		try (Writer writer = this.processingEnv.getFiler().createSourceFile(qualifiedName, type).openWriter()) {
+			writer.append(source);
+		}
+		this.providers.add(qualifiedName + "$Provider");
+	}
+
+	public void writeServices() {
+		try {
+			FileObject file = this.processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", "META-INF/services/" + PROVIDER);
+			try (Writer writer = file.openWriter()) {
+				for (String provider : this.providers) {
+					writer.append(provider).append('\n');
+				}
+			}
+		}
+		catch (IOException exception) {
+			this.processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Could not write " + PROVIDER + " services file: " + exception);
+		}
+	}
+}
@@ -0,0 +1,71 @@
+package builderb0y.autocodec.coders;
+
+import org.junit.Test;
+
+import builderb0y.autocodec.AutoCodec;
+import builderb0y.autocodec.common.AllocationBudget;
+import builderb0y.autocodec.common.TestCommon;
+import builderb0y.autocodec.util.ObjectOps;
+
+/**
+upper bounds on the number of bytes allocated by common handlers.
+these tests use {@link TestCommon#DISABLED_CODEC} so that
+logging overhead is not included in the measurements.
+the budgets have some headroom over what the handlers currently allocate,
+so that minor JVM differences don't cause failures, but a handler
+which suddenly starts allocating a lot more than it used to will.
+if you made a handler allocate less, feel free to lower its budget.
+*/
+public class AllocationBudgetTest {
+
+	public static final AutoCodec CODEC = TestCommon.DISABLED_CODEC;
+
+	@Test
+	public void testInt() throws Exception {
+		AutoCoder<Integer> coder = CODEC.createCoder(int.class);
+		//not in the Integer cache.
+		Integer value = 1234567;
+		Object encoded = CODEC.encode(coder, value, ObjectOps.INSTANCE);
+		AllocationBudget.assertBudget("int encode",  64L, () -> CODEC.encode(coder, value,   ObjectOps.INSTANCE));
+		AllocationBudget.assertBudget("int decode", 128L, () -> CODEC.decode(coder, encoded, ObjectOps.INSTANCE));
+	}
+
+	@Test
+	public void testPrimitiveArray() throws Exception {
+		AutoCoder<int[]> coder = CODEC.createCoder(int[].class);
+		int[] array = new int[16];
+		for (int index = 0; index < 16; index++) array[index] = index * 1000;
+		Object encoded = CODEC.encode(coder, array, ObjectOps.INSTANCE);
+		AllocationBudget.assertBudget("int[16] encode", 1536L, () -> CODEC.encode(coder, array,   ObjectOps.INSTANCE));
+		AllocationBudget.assertBudget("int[16] decode", 2560L, () -> CODEC.decode(coder, encoded, ObjectOps.INSTANCE));
+	}
+
+	@Test
+	public void testRecord() throws Exception {
+		AutoCoder<PointXY> coder = CODEC.createCoder(PointXY.class);
+		PointXY point = new PointXY(1000, 2000);
+		Object encoded = CODEC.encode(coder, point, ObjectOps.INSTANCE);
+		AllocationBudget.assertBudget("record encode", 1536L, () -> CODEC.encode(coder, point,   ObjectOps.INSTANCE));
+		AllocationBudget.assertBudget("record decode",  512L, () -> CODEC.decode(coder, encoded, ObjectOps.INSTANCE));
+	}
+
+	public static record PointXY(int x, int y) {}
+
+	@Test
+	public void testEnum() throws Exception {
+		AutoCoder<Color> coder = CODEC.createCoder(Color.class);
+		Object encoded = CODEC.encode(coder, Color.GREEN, ObjectOps.INSTANCE);
+		AllocationBudget.assertBudget("enum encode", 384L, () -> CODEC.encode(coder, Color.GREEN, ObjectOps.INSTANCE));
+		AllocationBudget.assertBudget("enum decode", 256L, () -> CODEC.decode(coder, encoded,     ObjectOps.INSTANCE));
+
+		Object compressed = CODEC.encode(coder, Color.GREEN, ObjectOps.COMPRESSED);
+		AllocationBudget.assertBudget("compressed enum encode",  64L, () -> CODEC.encode(coder, Color.GREEN, ObjectOps.COMPRESSED));
+		AllocationBudget.assertBudget("compressed enum decode", 128L, () -> CODEC.decode(coder, compressed,  ObjectOps.COMPRESSED));
+	}
+
+	public static enum Color {
+		RED,
+		GREEN,
+		BLUE;
+	}
+}
@@ -0,0 +1,149 @@
+package builderb0y.autocodec.coders;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.google.gson.JsonElement;
+import com.mojang.serialization.JsonOps;
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+import builderb0y.autocodec.AutoCodec;
+import builderb0y.autocodec.annotations.VerifyNullable;
+import builderb0y.autocodec.common.DeferredHandler;
+import builderb0y.autocodec.common.FactoryException;
+import builderb0y.autocodec.common.FactoryList;
+import builderb0y.autocodec.common.JsonBuilder;
+import builderb0y.autocodec.common.TestCommon;
+import builderb0y.autocodec.decoders.DecodeException;
+import builderb0y.autocodec.encoders.EncodeException;
+import builderb0y.autocodec.logging.DisabledTaskLogger;
+import builderb0y.autocodec.logging.TaskLogger;
+import builderb0y.autocodec.reflection.reification.ReifiedType;
+
+import static org.junit.Assert.*;
+
+public class DeferredCoderTest {
+
+	public static AutoCodec deferring() {
+		return new AutoCodec() {
+
+			@Override
+			public boolean shouldDeferChildren(@NotNull FactoryList<?, ?> factoryList) {
+				return true;
+			}
+
+			@Override
+			public @NotNull TaskLogger createDefaultLogger(@NotNull ReentrantLock lock) {
+				return new DisabledTaskLogger();
+			}
+		};
+	}
+
+	@Test
+	public void testDefaultIsEager() {
+		try {
+			TestCommon.DISABLED_CODEC.createCoder(Root.class);
+			fail();
+		}
+		catch (FactoryException expected) {}
+		assertTrue(TestCommon.DISABLED_CODEC.coders.deferred.isEmpty());
+	}
+
+	@Test
+	public void testDeferred() throws DecodeException {
+		AutoCodec autoCodec = deferring();
+		AutoCoder<Root> coder = autoCodec.createCoder(Root.class);
+		assertFalse(autoCodec.coders.deferred.isEmpty());
+		Root root = new Root(1, new Child("x", List.of(2, 3)), null);
+		JsonElement encoded = autoCodec.encode(coder, root, JsonOps.INSTANCE);
+		assertEquals(JsonBuilder.object("a", 1, "child", JsonBuilder.object("name", "x", "numbers", JsonBuilder.array(2, 3))), encoded);
+		assertEquals(root, autoCodec.decode(coder, encoded, JsonOps.INSTANCE));
+	}
+
+	@Test
+	public void testErrorOnFirstUse() {
+		AutoCodec autoCodec = deferring();
+		AutoCoder<Root> coder = autoCodec.createCoder(Root.class);
+		Root root = new Root(1, null, new Rare(() -> {}));
+		Throwable first = null;
+		for (int attempt = 0; attempt < 2; attempt++) {
+			try {
+				autoCodec.encode(coder, root, JsonOps.INSTANCE);
+				fail();
+			}
+			catch (EncodeException exception) {
+				assertTrue(exception.getCause() instanceof FactoryException);
+				if (first == null) first = exception.getCause();
+				else assertSame(first, exception.getCause());
+			}
+		}
+	}
+
+	@Test
+	public void testValidateAll() {
+		AutoCodec autoCodec = deferring();
+		autoCodec.createCoder(Child.class);
+		autoCodec.validateAll();
+		assertTrue(autoCodec.coders.deferred.isEmpty());
+
+		autoCodec.createCoder(Root.class);
+		try {
+			autoCodec.validateAll();
+			fail();
+		}
+		catch (FactoryException expected) {
+			assertEquals(1, expected.getSuppressed().length);
+		}
+		assertTrue(autoCodec.coders.deferred.isEmpty());
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testConcurrentResolution() {
+		AutoCodec autoCodec = deferring();
+		autoCodec.createCoder(Root.class);
+		DeferredCoder<Child> deferred = (DeferredCoder<Child>)(
+			(Object)(autoCodec.coders.deferred.values().stream().filter((Object handler) -> ((DeferredCoder<?>)(handler)).type.getRawClass() == Child.class).findFirst().orElseThrow())
+		);
+		List<CompletableFuture<AutoCoder<Child>>> futures = List.of(
+			CompletableFuture.supplyAsync(deferred::resolve),
+			CompletableFuture.supplyAsync(deferred::resolve),
+			CompletableFuture.supplyAsync(deferred::resolve),
+			CompletableFuture.supplyAsync(deferred::resolve)
+		);
+		AutoCoder<Child> resolution = futures.get(0).join();
+		for (CompletableFuture<AutoCoder<Child>> future : futures) {
+			assertSame(resolution, future.join());
+		}
+		assertFalse(autoCodec.coders.deferred.containsValue(deferred));
+	}
+
+	@Test
+	public void testSharedPerType() {
+		AutoCodec autoCodec = deferring();
+		autoCodec.createCoder(Twins.class);
+		assertEquals(1, autoCodec.coders.deferred.size());
+		DeferredHandler<?> deferred = autoCodec.coders.deferred.get(ReifiedType.from(Child.class));
+		assertNotNull(deferred);
+		autoCodec.createCoder(Cousins.class);
+		assertEquals(2, autoCodec.coders.deferred.size());
+		assertSame(deferred, autoCodec.coders.deferred.get(ReifiedType.from(Child.class)));
+
+		autoCodec.invalidate((ReifiedType<?> type) -> type.getRawClass() == Child.class);
+		assertNull(autoCodec.coders.deferred.get(ReifiedType.from(Child.class)));
+		assertNotNull(autoCodec.coders.deferred.get(ReifiedType.from(Rare.class)));
+	}
+
+	public static record Root(int a, @VerifyNullable Child child, @VerifyNullable Rare rare) {}
+
+	public static record Child(String name, List<Integer> numbers) {}
+
+	public static record Twins(Child first, Child second) {}
+
+	public static record Cousins(Child child, Rare rare) {}
+
+	/** only used rarely, and can't actually be encoded. */
+	public static record Rare(Runnable callback) {}
+}
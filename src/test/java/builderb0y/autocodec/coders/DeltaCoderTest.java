@@ -0,0 +1,225 @@
+package builderb0y.autocodec.coders;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonParser;
+import com.mojang.serialization.JsonOps;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.Test;
+
+import builderb0y.autocodec.AutoCodec;
+import builderb0y.autocodec.annotations.MemberUsage;
+import builderb0y.autocodec.annotations.UseVerifier;
+import builderb0y.autocodec.annotations.VerifySizeRange;
+import builderb0y.autocodec.coders.DeltaCoder.Equality;
+import builderb0y.autocodec.common.AutoHandler;
+import builderb0y.autocodec.common.TestCommon;
+import builderb0y.autocodec.decoders.DecodeException;
+import builderb0y.autocodec.graph.HandlerGraph;
+import builderb0y.autocodec.imprinters.DeltaImprinter;
+import builderb0y.autocodec.imprinters.ImprintException;
+import builderb0y.autocodec.reflection.reification.ReifiedType;
+import builderb0y.autocodec.verifiers.VerifyContext;
+import builderb0y.autocodec.verifiers.VerifyException;
+
+import static org.junit.Assert.*;
+
+public class DeltaCoderTest {
+
+	public static final AutoCoder<Config> CODER = TestCommon.DEFAULT_CODEC.createCoder(Config.class);
+	public static final DeltaCoder<Config> DELTA = TestCommon.DEFAULT_CODEC.createDeltaCoder(Config.class);
+
+	public static Config config() {
+		Config config = new Config();
+		config.name = "test";
+		config.ticks = 1;
+		config.position = new Position(1, 2);
+		config.waypoints = new ArrayList<>(List.of(new Position(3, 4), new Position(5, 6)));
+		config.scores = new LinkedHashMap<>(Map.of("a", 1));
+		config.inner.value = 7;
+		return config;
+	}
+
+	public static Config copy(Config config) throws DecodeException {
+		return TestCommon.DEFAULT_CODEC.decode(CODER, TestCommon.DEFAULT_CODEC.encode(CODER, config, JsonOps.INSTANCE), JsonOps.INSTANCE);
+	}
+
+	@Test
+	public void testUnchanged() throws DecodeException {
+		Config config = config();
+		assertEquals(JsonNull.INSTANCE, TestCommon.DEFAULT_CODEC.encodeDelta(DELTA, copy(config), config, JsonOps.INSTANCE));
+	}
+
+	@Test
+	public void testChanges() throws DecodeException {
+		Config baseline = config();
+		Config current = copy(baseline);
+		current.ticks = 2;
+		current.position = new Position(1, 9);
+		current.waypoints.set(1, new Position(5, 0));
+		current.waypoints.add(new Position(7, 8));
+		current.scores.put("b", 2);
+		current.scores.remove("a");
+		current.inner.value = 8;
+		JsonElement delta = TestCommon.DEFAULT_CODEC.encodeDelta(DELTA, baseline, current, JsonOps.INSTANCE);
+		assertEquals(
+			JsonParser.parseString("""
+				{
+					"set": {
+						"ticks": 2,
+						"position": { "set": { "y": 9 } },
+						"waypoints": { "size": 3, "set": { "1": { "set": { "y": 0 } }, "2": { "x": 7, "y": 8 } } },
+						"scores": { "set": [{ "key": "b", "value": 2 }], "remove": ["a"] },
+						"inner": { "set": { "value": 8 } }
+					}
+				}
+			"""),
+			delta
+		);
+
+		Config applied = copy(baseline);
+		Inner inner = applied.inner;
+		List<Position> waypoints = applied.waypoints;
+		assertSame(applied, TestCommon.DEFAULT_CODEC.applyDelta(DELTA, applied, delta, JsonOps.INSTANCE));
+		assertSame(inner, applied.inner);
+		assertSame(waypoints, applied.waypoints);
+		assertEquals(TestCommon.DEFAULT_CODEC.encode(CODER, current, JsonOps.INSTANCE), TestCommon.DEFAULT_CODEC.encode(CODER, applied, JsonOps.INSTANCE));
+	}
+
+	@Test
+	public void testClear() throws DecodeException {
+		Config baseline = config();
+		Config current = copy(baseline);
+		current.name = null;
+		current.waypoints.set(0, null);
+		JsonElement delta = TestCommon.DEFAULT_CODEC.encodeDelta(DELTA, baseline, current, JsonOps.INSTANCE);
+		assertEquals(JsonParser.parseString("{ \"set\": { \"waypoints\": { \"size\": 2, \"clear\": [0] } }, \"clear\": [\"name\"] }"), delta);
+		Config applied = TestCommon.DEFAULT_CODEC.applyDelta(DELTA, copy(baseline), delta, JsonOps.INSTANCE);
+		assertNull(applied.name);
+		assertEquals(Arrays.asList(null, new Position(5, 6)), applied.waypoints);
+	}
+
+	@Test
+	public void testImprinter() throws DecodeException {
+		Config baseline = config();
+		Config current = copy(baseline);
+		current.ticks = 5;
+		JsonElement delta = TestCommon.DEFAULT_CODEC.encodeDelta(DELTA, baseline, current, JsonOps.INSTANCE);
+		TestCommon.DEFAULT_CODEC.imprint(new DeltaImprinter<>(DELTA), baseline, delta, JsonOps.INSTANCE);
+		assertEquals(5, baseline.ticks);
+
+		DeltaCoder<Position> positionDelta = TestCommon.DEFAULT_CODEC.createDeltaCoder(Position.class);
+		JsonElement positionDelta1 = TestCommon.DEFAULT_CODEC.encodeDelta(positionDelta, new Position(1, 2), new Position(1, 3), JsonOps.INSTANCE);
+		assertEquals(new Position(1, 3), TestCommon.DEFAULT_CODEC.applyDelta(positionDelta, new Position(1, 2), positionDelta1, JsonOps.INSTANCE));
+		try {
+			TestCommon.DEFAULT_CODEC.imprint(new DeltaImprinter<>(positionDelta), new Position(1, 2), positionDelta1, JsonOps.INSTANCE);
+			fail();
+		}
+		catch (ImprintException expected) {}
+	}
+
+	@Test
+	public void testImprinterChildren() {
+		Map<String, AutoHandler> children = new HashMap<>();
+		new DeltaImprinter<>(DELTA).visitChildren(children::put);
+		assertSame(CODER, children.get("coder"));
+		assertTrue(children.containsKey("position.coder"));
+		assertTrue(children.containsKey("waypoints.element.coder"));
+		assertTrue(children.containsKey("scores.keyCoder"));
+		assertTrue(children.containsKey("scores.value.coder"));
+
+		//recursive types must not be visited forever.
+		DeltaImprinter<Node> recursive = new DeltaImprinter<>(TestCommon.DEFAULT_CODEC.createDeltaCoder(Node.class));
+		assertNotNull(new HandlerGraph(recursive).root);
+	}
+
+	@Test
+	public void testRecursive() throws DecodeException {
+		DeltaCoder<Node> delta = TestCommon.DEFAULT_CODEC.createDeltaCoder(Node.class);
+		Node baseline = new Node(1, List.of(new Node(2, List.of()), new Node(3, List.of(new Node(4, List.of())))));
+		Node current  = new Node(1, List.of(new Node(2, List.of()), new Node(3, List.of(new Node(5, List.of())))));
+		JsonElement encoded = TestCommon.DEFAULT_CODEC.encodeDelta(delta, baseline, current, JsonOps.INSTANCE);
+		assertEquals(JsonParser.parseString("{ \"set\": { \"children\": { \"size\": 2, \"set\": { \"1\": { \"set\": { \"children\": { \"size\": 1, \"set\": { \"0\": { \"set\": { \"value\": 5 } } } } } } } } } }"), encoded);
+		assertEquals(current, TestCommon.DEFAULT_CODEC.applyDelta(delta, baseline, encoded, JsonOps.INSTANCE));
+	}
+
+	@Test
+	public void testCustomEquality() {
+		AutoCodec codec = new AutoCodec() {
+
+			@Override
+			@SuppressWarnings("unchecked")
+			public <T_Decoded> @Nullable Equality<T_Decoded> createDeltaEquality(@NotNull ReifiedType<T_Decoded> type) {
+				return type.getRawClass() == Position.class ? (Equality<T_Decoded>)((Equality<Position>)((Position a, Position b) -> a.x == b.x)) : null;
+			}
+		};
+		DeltaCoder<Position> delta = codec.createDeltaCoder(Position.class);
+		assertEquals(JsonNull.INSTANCE, codec.encodeDelta(delta, new Position(1, 2), new Position(1, 3), JsonOps.INSTANCE));
+		assertNotEquals(JsonNull.INSTANCE, codec.encodeDelta(delta, new Position(1, 2), new Position(2, 2), JsonOps.INSTANCE));
+	}
+
+	@Test
+	public void testVerified() throws DecodeException {
+		DeltaCoder<Bounds> delta = TestCommon.DEFAULT_CODEC.createDeltaCoder(Bounds.class);
+		Bounds bounds = new Bounds();
+		bounds.max = 1;
+		bounds.list = new ArrayList<>(List.of(1));
+		bounds.map = new LinkedHashMap<>(Map.of("a", 1));
+		for (String json : new String[] {
+			"{ \"set\": { \"min\": 2 } }",
+			"{ \"set\": { \"list\": { \"size\": 3, \"set\": { \"1\": 2, \"2\": 3 } } } }",
+			"{ \"set\": { \"map\": { \"set\": [ { \"key\": \"b\", \"value\": 2 }, { \"key\": \"c\", \"value\": 3 } ] } } }"
+		}) {
+			try {
+				TestCommon.DEFAULT_CODEC.applyDelta(delta, bounds, JsonParser.parseString(json), JsonOps.INSTANCE);
+				fail(json);
+			}
+			catch (VerifyException expected) {}
+		}
+		TestCommon.DEFAULT_CODEC.applyDelta(delta, bounds, JsonParser.parseString("{ \"set\": { \"min\": 1, \"list\": { \"size\": 2, \"set\": { \"1\": 2 } } } }"), JsonOps.INSTANCE);
+		assertEquals(1, bounds.min);
+		assertEquals(List.of(1, 2), bounds.list);
+	}
+
+	public static class Config {
+
+		public String name;
+		public int ticks;
+		public Position position;
+		public List<Position> waypoints;
+		public Map<String, Integer> scores;
+		public final Inner inner = new Inner();
+	}
+
+	public static class Inner {
+
+		public int value;
+	}
+
+	public static record Position(int x, int y) {}
+
+	@UseVerifier(name = "verify", usage = MemberUsage.METHOD_IS_HANDLER)
+	public static class Bounds {
+
+		public int min, max;
+		public @VerifySizeRange(max = 2) List<Integer> list;
+		public @VerifySizeRange(max = 2) Map<String, Integer> map;
+
+		public static <T_Encoded> void verify(VerifyContext<T_Encoded, Bounds> context) throws VerifyException {
+			Bounds bounds = context.object;
+			if (bounds != null && bounds.min > bounds.max) {
+				throw new VerifyException(() -> context.pathToString() + " has a min greater than its max.");
+			}
+		}
+	}
+
+	public static record Node(int value, List<Node> children) {}
+}
@@ -0,0 +1,124 @@
+package builderb0y.autocodec.coders;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.List;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.mojang.serialization.JsonOps;
+import org.junit.Test;
+
+import builderb0y.autocodec.annotations.*;
+import builderb0y.autocodec.common.JsonBuilder;
+import builderb0y.autocodec.common.TestCommon;
+import builderb0y.autocodec.decoders.DecodeException;
+import builderb0y.autocodec.encoders.EncodeException;
+import builderb0y.autocodec.reflection.reification.ReifiedType;
+
+import static org.junit.Assert.*;
+
+public class GeneratedCoderTest {
+
+	@Test
+	public void testUsesGeneratedCoder() {
+		assertTrue(TestCommon.encoder(TestCommon.DEFAULT_CODEC.createCoder(Point.class)) instanceof GeneratedRecordCoder<?>);
+		assertTrue(TestCommon.encoder(TestCommon.DEFAULT_CODEC.createCoder(Named.class)) instanceof GeneratedRecordCoder<?>);
+		assertTrue(TestCommon.encoder(TestCommon.DEFAULT_CODEC.createCoder(new ReifiedType<Pair<String>>() {})) instanceof GeneratedRecordCoder<?>);
+		assertTrue(TestCommon.encoder(TestCommon.DEFAULT_CODEC.createCoder(Color.class)) instanceof EnumCoder<?>);
+		assertFalse(TestCommon.encoder(TestCommon.DEFAULT_CODEC.createCoder(PlainPoint.class)) instanceof GeneratedRecordCoder<?>);
+		assertNotNull(GeneratedCoderRegistry.INSTANCE.getProvider(Point.class));
+		assertNull(GeneratedCoderRegistry.INSTANCE.getProvider(PlainPoint.class));
+	}
+
+	@Test
+	public void testRoundTrip() throws DecodeException {
+		new CoderUnitTester<>(TestCommon.DEFAULT_CODEC, Point.class).test(new Point(1, 2));
+		new CoderUnitTester<>(TestCommon.DEFAULT_CODEC, Named.class).test(new Named("a", new Point(3, 4), Color.GREEN, List.of(5, 6)));
+		new CoderUnitTester<>(TestCommon.DEFAULT_CODEC, new ReifiedType<Pair<String>>() {}).test(new Pair<>("x", "y"));
+		new CoderUnitTester<>(TestCommon.DEFAULT_CODEC, Color.class).test(Color.BLUE);
+	}
+
+	@Test
+	public void testMatchesRecordCoder() throws DecodeException {
+		JsonElement generated = TestCommon.DEFAULT_CODEC.encode(TestCommon.DEFAULT_CODEC.createCoder(Point.class), new Point(1, 2), JsonOps.INSTANCE);
+		JsonElement reflected = TestCommon.DEFAULT_CODEC.encode(TestCommon.DEFAULT_CODEC.createCoder(PlainPoint.class), new PlainPoint(1, 2), JsonOps.INSTANCE);
+		assertEquals(reflected, generated);
+		assertEquals(JsonBuilder.object("x", 1, "why", 2), generated);
+	}
+
+	@Test
+	public void testAnnotations() throws DecodeException {
+		//alias, default value, and inline components.
+		JsonElement input = JsonBuilder.object("name", "a", "x", 3, "why", 4, "colour", "GREEN");
+		Named decoded = TestCommon.DEFAULT_CODEC.decode(TestCommon.DEFAULT_CODEC.createCoder(Named.class), input, JsonOps.INSTANCE);
+		assertEquals(new Named("a", new Point(3, 4), Color.GREEN, null), decoded);
+
+		input = JsonBuilder.object("x", 3);
+		assertEquals(new Point(3, 7), TestCommon.DEFAULT_CODEC.decode(TestCommon.DEFAULT_CODEC.createCoder(Point.class), input, JsonOps.INSTANCE));
+	}
+
+	@Test
+	public void testVerifiers() {
+		JsonElement input = JsonBuilder.object("x", -1, "why", 0);
+		try {
+			TestCommon.DEFAULT_CODEC.decode(TestCommon.DEFAULT_CODEC.createCoder(Point.class), input, JsonOps.INSTANCE);
+			fail();
+		}
+		catch (DecodeException expected) {}
+	}
+
+	@Test
+	public void testConstructorExceptions() {
+		try {
+			TestCommon.DEFAULT_CODEC.decode(TestCommon.DEFAULT_CODEC.createCoder(Positive.class), JsonBuilder.object("value", 0), JsonOps.INSTANCE);
+			fail();
+		}
+		catch (DecodeException expected) {
+			assertTrue(expected.getCause() instanceof IllegalArgumentException);
+		}
+	}
+
+	@Test
+	public void testStreaming() throws DecodeException, EncodeException {
+		AutoCoder<Point> pointCoder = TestCommon.DEFAULT_CODEC.createCoder(Point.class);
+		assertEquals(new Point(1, 2), TestCommon.DEFAULT_CODEC.decodeJson(pointCoder, new StringReader("{ \"why\": 2, \"x\": 1 }")));
+		assertEquals(new Point(1, 7), TestCommon.DEFAULT_CODEC.decodeJson(pointCoder, new StringReader("{ \"x\": 1 }")));
+		StringWriter writer = new StringWriter();
+		TestCommon.DEFAULT_CODEC.encodeJson(pointCoder, new Point(1, 2), writer);
+		assertEquals(JsonBuilder.object("x", 1, "why", 2), JsonParser.parseString(writer.toString()));
+
+		AutoCoder<Named> namedCoder = TestCommon.DEFAULT_CODEC.createCoder(Named.class);
+		Named named = new Named("a", new Point(3, 4), Color.GREEN, List.of(5, 6));
+		writer = new StringWriter();
+		TestCommon.DEFAULT_CODEC.encodeJson(namedCoder, named, writer);
+		assertEquals(TestCommon.DEFAULT_CODEC.encode(namedCoder, named, JsonOps.INSTANCE), JsonParser.parseString(writer.toString()));
+		assertEquals(named, TestCommon.DEFAULT_CODEC.decodeJson(namedCoder, new StringReader(writer.toString())));
+	}
+
+	@GenerateCoder
+	public static record Point(@VerifyIntRange(min = 0) int x, @UseName("why") @DefaultInt(7) int y) {}
+
+	public static record PlainPoint(@VerifyIntRange(min = 0) int x, @UseName("why") @DefaultInt(7) int y) {}
+
+	@GenerateCoder
+	public static record Named(String name, @EncodeInline Point point, @Alias({ "color", "colour" }) Color color, @VerifyNullable List<Integer> numbers) {}
+
+	@GenerateCoder
+	public static record Positive(int value) {
+
+		public Positive {
+			if (value <= 0) throw new IllegalArgumentException("value must be positive: " + value);
+		}
+	}
+
+	@GenerateCoder
+	public static record Pair<T>(T first, T second) {}
+
+	@GenerateCoder
+	public static enum Color {
+		RED,
+		GREEN,
+		BLUE;
+	}
+}
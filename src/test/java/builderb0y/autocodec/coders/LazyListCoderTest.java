@@ -0,0 +1,79 @@
+package builderb0y.autocodec.coders;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.mojang.serialization.JsonOps;
+import org.junit.Test;
+
+import builderb0y.autocodec.annotations.DecodeLazily;
+import builderb0y.autocodec.coders.LazyListCoder.LazyDecodedList;
+import builderb0y.autocodec.common.TestCommon;
+import builderb0y.autocodec.decoders.DecodeException;
+import builderb0y.autocodec.decoders.LazyDecodeException;
+import builderb0y.autocodec.util.ObjectOps;
+
+import static org.junit.Assert.*;
+
+public class LazyListCoderTest {
+
+	public static final AutoCoder<Config> CODER = TestCommon.DEFAULT_CODEC.createCoder(Config.class);
+
+	@Test
+	public void testLazy() throws DecodeException {
+		JsonElement json = JsonParser.parseString("{ \"points\": [{ \"x\": 1, \"y\": 2 }, { \"x\": \"bad\" }] }");
+		Config config = TestCommon.DEFAULT_CODEC.decode(CODER, json, JsonOps.INSTANCE);
+		LazyDecodedList<?, Point> points = (LazyDecodedList<?, Point>)(config.points);
+		assertEquals(2, points.size());
+		assertFalse(points.isDecoded(0));
+		assertEquals(new Point(1, 2), points.get(0));
+		assertTrue(points.isDecoded(0));
+		assertSame(points.get(0), points.get(0));
+		assertFalse(points.isDecoded(1));
+		try {
+			points.get(1);
+			fail();
+		}
+		catch (LazyDecodeException expected) {
+			assertTrue(expected.getCause().getMessage(), expected.getCause().getMessage().startsWith("<root>.points[1].x is not a number"));
+		}
+		//the element which could not be decoded is written back as-is.
+		assertEquals(json, TestCommon.DEFAULT_CODEC.encode(CODER, config, JsonOps.INSTANCE));
+	}
+
+	@Test
+	public void testUntouchedEncoding() throws DecodeException {
+		JsonElement json = JsonParser.parseString("{ \"points\": [{ \"x\": 1, \"y\": 2 }, { \"x\": 3, \"y\": 4 }] }");
+		Config config = TestCommon.DEFAULT_CODEC.decode(CODER, json, JsonOps.INSTANCE);
+		JsonElement encoded = TestCommon.DEFAULT_CODEC.encode(CODER, config, JsonOps.INSTANCE);
+		assertSame(json.getAsJsonObject().get("points"), encoded.getAsJsonObject().get("points"));
+		assertFalse(((LazyDecodedList<?, ?>)(config.points)).touched);
+
+		//different ops need to re-encode everything.
+		Object object = TestCommon.DEFAULT_CODEC.encode(CODER, config, ObjectOps.INSTANCE);
+		assertEquals(config.points, TestCommon.DEFAULT_CODEC.decode(CODER, object, ObjectOps.INSTANCE).points);
+	}
+
+	@Test
+	public void testConcurrentAccess() throws DecodeException {
+		StringBuilder json = new StringBuilder("{ \"points\": [");
+		for (int index = 0; index < 1000; index++) {
+			if (index != 0) json.append(',');
+			json.append("{ \"x\": ").append(index).append(", \"y\": 0 }");
+		}
+		json.append("] }");
+		Config config = TestCommon.DEFAULT_CODEC.decode(CODER, JsonParser.parseString(json.toString()), JsonOps.INSTANCE);
+		Point[] first = IntStream.range(0, 1000).parallel().mapToObj(config.points::get).toArray(Point[]::new);
+		Point[] second = IntStream.range(0, 1000).parallel().mapToObj(config.points::get).toArray(Point[]::new);
+		for (int index = 0; index < 1000; index++) {
+			assertEquals(index, first[index].x);
+			assertSame(first[index], second[index]);
+		}
+	}
+
+	public static record Config(@DecodeLazily List<Point> points) {}
+
+	public static record Point(int x, int y) {}
+}
@@ -0,0 +1,85 @@
+package builderb0y.autocodec.common;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.*;
+
+/**
+measures how many bytes an operation allocates on average,
+using {@link com.sun.management.ThreadMXBean#getCurrentThreadAllocatedBytes()}.
+the operation is run enough times before measuring that the JIT
+has a chance to compile it, since compiled code can allocate
+less than interpreted code (for example, thanks to escape analysis).
+the measurement is repeated a few times, and the smallest result is used,
+since garbage collection, class loading, and deoptimization
+can all add allocations which have nothing to do with the operation.
+
+tests are skipped on JVMs which can't measure per-thread allocations.
+*/
+public class AllocationBudget {
+
+	public static final int
+		WARMUP_ITERATIONS = 50_000,
+		MEASURED_ITERATIONS = 10_000,
+		ROUNDS = 5;
+
+	/**
+	results of operations are stored here, so that
+	the JIT can't remove the operation entirely.
+	*/
+	public static volatile Object sink;
+
+	public static com.sun.management.ThreadMXBean threadBean() {
+		if (
+			ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean &&
+			bean.isThreadAllocatedMemorySupported()
+		) {
+			if (!bean.isThreadAllocatedMemoryEnabled()) {
+				bean.setThreadAllocatedMemoryEnabled(true);
+			}
+			return bean;
+		}
+		else {
+			return null;
+		}
+	}
+
+	/** returns the average number of bytes allocated per invocation of the operation. */
+	public static double bytesPerOperation(Operation operation) throws Exception {
+		com.sun.management.ThreadMXBean bean = threadBean();
+		assumeNotNull(bean);
+		for (int iteration = 0; iteration < WARMUP_ITERATIONS; iteration++) {
+			sink = operation.run();
+		}
+		long best = Long.MAX_VALUE;
+		for (int round = 0; round < ROUNDS; round++) {
+			long before = bean.getCurrentThreadAllocatedBytes();
+			for (int iteration = 0; iteration < MEASURED_ITERATIONS; iteration++) {
+				sink = operation.run();
+			}
+			long after = bean.getCurrentThreadAllocatedBytes();
+			best = Math.min(best, after - before);
+		}
+		sink = null;
+		return ((double)(best)) / ((double)(MEASURED_ITERATIONS));
+	}
+
+	/**
+	asserts that the operation allocates at most
+	maxBytesPerOperation bytes on average per invocation.
+	*/
+	public static void assertBudget(String name, long maxBytesPerOperation, Operation operation) throws Exception {
+		double actual = bytesPerOperation(operation);
+		assertTrue(
+			name + " allocated " + actual + " bytes per operation, but its budget is " + maxBytesPerOperation,
+			actual <= maxBytesPerOperation
+		);
+	}
+
+	@FunctionalInterface
+	public static interface Operation {
+
+		public abstract Object run() throws Exception;
+	}
+}
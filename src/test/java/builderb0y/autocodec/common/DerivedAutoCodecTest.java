@@ -0,0 +1,169 @@
+package builderb0y.autocodec.common;
+
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.google.gson.JsonPrimitive;
+import com.mojang.serialization.JsonOps;
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+import builderb0y.autocodec.AutoCodec;
+import builderb0y.autocodec.coders.AutoCoder;
+import builderb0y.autocodec.coders.CoderFactoryList;
+import builderb0y.autocodec.coders.EnumCoder;
+import builderb0y.autocodec.logging.DisabledTaskLogger;
+import builderb0y.autocodec.logging.TaskLogger;
+import builderb0y.autocodec.reflection.ReflectionManager;
+import builderb0y.autocodec.reflection.reification.ReifiedType;
+
+import static org.junit.Assert.*;
+
+public class DerivedAutoCodecTest {
+
+	public static AutoCodec frozenParent() {
+		return new AutoCodec() {
+
+			@Override
+			public @NotNull TaskLogger createDefaultLogger(@NotNull ReentrantLock lock) {
+				return new DisabledTaskLogger();
+			}
+		}
+		.freeze();
+	}
+
+	@Test
+	public void testParentMustBeFrozen() {
+		try {
+			new AutoCodec(new AutoCodec());
+			fail();
+		}
+		catch (IllegalStateException expected) {}
+	}
+
+	@Test
+	public void testFrozenFactoriesCannotChange() {
+		AutoCodec parent = frozenParent();
+		try {
+			parent.coders.addFactoryToEnd(new EnumCoder.Factory(EnumName.LOWERCASE));
+			fail();
+		}
+		catch (IllegalStateException expected) {}
+	}
+
+	@Test
+	public void testIdenticalDerivedSharesEverything() {
+		AutoCodec parent = frozenParent();
+		AutoCodec derived = new AutoCodec(parent);
+		assertSame(parent.reflectionManager, derived.reflectionManager);
+		AutoCoder<Plain> plain = parent.createCoder(Plain.class);
+		AutoCoder<WithEnum> withEnum = parent.createCoder(WithEnum.class);
+		assertSame(plain, derived.createCoder(Plain.class));
+		assertSame(withEnum, derived.createCoder(WithEnum.class));
+	}
+
+	@Test
+	public void testDifferentEnumNames() {
+		AutoCodec parent = frozenParent();
+		AutoCodec derived = new AutoCodec(parent) {
+
+			@Override
+			public @NotNull CoderFactoryList createCoders() {
+				return new CoderFactoryList(this) {
+
+					@Override
+					public void setup() {
+						super.setup();
+						this.replaceFactory(EnumCoder.Factory.class, new EnumCoder.Factory(EnumName.LOWERCASE));
+					}
+				};
+			}
+		};
+		AutoCoder<Plain> plain = parent.createCoder(Plain.class);
+		AutoCoder<List<String>> strings = parent.createCoder(new ReifiedType<List<String>>() {});
+		AutoCoder<WithEnum> withEnum = parent.createCoder(WithEnum.class);
+		AutoCoder<Color> color = parent.createCoder(Color.class);
+
+		assertSame(plain, derived.createCoder(Plain.class));
+		assertSame(strings, derived.createCoder(new ReifiedType<List<String>>() {}));
+		assertNotSame(withEnum, derived.createCoder(WithEnum.class));
+		assertNotSame(color, derived.createCoder(Color.class));
+
+		assertEquals(new JsonPrimitive("RED"), parent.encode(parent.createCoder(Color.class), Color.RED, JsonOps.INSTANCE));
+		assertEquals(new JsonPrimitive("red"), derived.encode(derived.createCoder(Color.class), Color.RED, JsonOps.INSTANCE));
+	}
+
+	@Test
+	public void testDifferentReflectionManager() {
+		AutoCodec parent = frozenParent();
+		AutoCodec derived = new AutoCodec(parent) {
+
+			@Override
+			public @NotNull ReflectionManager createReflectionManager() {
+				return new ReflectionManager() {
+
+					@Override
+					public boolean canView(@NotNull Field field) {
+						return super.canView(field) && !field.getName().equals("hidden");
+					}
+				};
+			}
+		};
+		AutoCoder<List<String>> strings = parent.createCoder(new ReifiedType<List<String>>() {});
+		AutoCoder<Plain> plain = parent.createCoder(Plain.class);
+		AutoCoder<FieldHolder> fieldHolder = parent.createCoder(FieldHolder.class);
+		//neither of these reflect into anything which has a field named hidden.
+		assertSame(strings, derived.createCoder(new ReifiedType<List<String>>() {}));
+		assertSame(plain, derived.createCoder(Plain.class));
+		assertNotSame(fieldHolder, derived.createCoder(FieldHolder.class));
+
+		//filtering must not affect other ReflectionManagers.
+		assertEquals(2, parent.reflectionManager.getClassCache(FieldHolder.class).fields().length);
+		assertEquals(1, derived.reflectionManager.getClassCache(FieldHolder.class).fields().length);
+		assertEquals(2, new ReflectionManager().getClassCache(FieldHolder.class).fields().length);
+		assertEquals(2, ReflectionManager.DECLARED_MEMBERS.get(FieldHolder.class).fields().length);
+	}
+
+	@Test
+	public void testHandlersCreatedBeforeFreezingAreNotShared() {
+		AutoCodec parent = new AutoCodec() {
+
+			@Override
+			public @NotNull TaskLogger createDefaultLogger(@NotNull ReentrantLock lock) {
+				return new DisabledTaskLogger();
+			}
+		};
+		AutoCoder<Plain> plain = parent.createCoder(Plain.class);
+		AutoCodec derived = new AutoCodec(parent.freeze());
+		assertNotSame(plain, derived.createCoder(Plain.class));
+	}
+
+	@Test
+	public void testInvalidateForgetsDependencies() {
+		AutoCodec parent = frozenParent();
+		AutoCoder<Plain> plain = parent.createCoder(Plain.class);
+		assertNotNull(parent.coders.getDependencies(ReifiedType.from(Plain.class)));
+		parent.invalidate((ReifiedType<?> type) -> type.getRawClass() == Plain.class);
+		assertNull(parent.coders.getDependencies(ReifiedType.from(Plain.class)));
+		//the replacement handler records fresh dependencies, and derived codecs share it.
+		AutoCoder<Plain> replacement = parent.createCoder(Plain.class);
+		assertNotSame(plain, replacement);
+		assertNotNull(parent.coders.getDependencies(ReifiedType.from(Plain.class)));
+		assertSame(replacement, new AutoCodec(parent).createCoder(Plain.class));
+	}
+
+	public static record Plain(String name, List<Integer> numbers) {}
+
+	public static record WithEnum(String name, Color color) {}
+
+	public static enum Color {
+		RED,
+		GREEN;
+	}
+
+	public static class FieldHolder {
+
+		public int visible, hidden;
+	}
+}
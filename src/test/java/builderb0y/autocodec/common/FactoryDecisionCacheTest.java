@@ -0,0 +1,147 @@
+package builderb0y.autocodec.common;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.Test;
+
+import builderb0y.autocodec.AutoCodec;
+import builderb0y.autocodec.coders.AutoCoder;
+import builderb0y.autocodec.coders.AutoCoder.NamedCoder;
+import builderb0y.autocodec.coders.AutoCoder.NamedCoderFactory;
+import builderb0y.autocodec.coders.LookupCoderFactory;
+import builderb0y.autocodec.decoders.DecodeContext;
+import builderb0y.autocodec.decoders.DecodeException;
+import builderb0y.autocodec.encoders.EncodeContext;
+import builderb0y.autocodec.reflection.reification.ReifiedType;
+import builderb0y.autocodec.util.ObjectOps;
+
+import static org.junit.Assert.*;
+
+public class FactoryDecisionCacheTest {
+
+	@Test
+	public void testReuse() throws IOException, DecodeException {
+		Path file = Files.createTempDirectory("autocodec").resolve("decisions.txt");
+
+		CountingFactory first = new CountingFactory();
+		AutoCodec firstCodec = codec(file, first);
+		AutoCoder<Point> firstCoder = firstCodec.createCoder(Point.class);
+		assertEquals(1, first.count);
+		assertTrue(firstCodec.decisionCache.dirty);
+		firstCodec.decisionCache.save();
+		assertFalse(firstCodec.decisionCache.dirty);
+
+		CountingFactory second = new CountingFactory();
+		AutoCodec secondCodec = codec(file, second);
+		AutoCoder<Point> secondCoder = secondCodec.createCoder(Point.class);
+		assertEquals(0, second.count);
+		assertFalse(secondCodec.decisionCache.dirty);
+		Point point = new Point(1, 2);
+		assertEquals(point, secondCodec.decode(secondCoder, firstCodec.encode(firstCoder, point, ObjectOps.INSTANCE), ObjectOps.INSTANCE));
+	}
+
+	@Test
+	public void testStaleFingerprint() throws IOException {
+		Path file = Files.createTempDirectory("autocodec").resolve("decisions.txt");
+		AutoCodec firstCodec = codec(file, new CountingFactory());
+		firstCodec.createCoder(Point.class);
+		firstCodec.decisionCache.save();
+		List<String> lines = Files.readAllLines(file);
+		String pointType = FactoryDecisionCache.formatType(ReifiedType.from(Point.class));
+		Files.write(file, lines.stream().map((String line) -> {
+			if (!line.startsWith("decision\t") || !line.endsWith('\t' + pointType)) return line;
+			String[] split = line.split("\t", -1);
+			split[4] = "0:0";
+			return String.join("\t", split);
+		})
+		.collect(Collectors.toList()));
+
+		CountingFactory second = new CountingFactory();
+		AutoCodec secondCodec = codec(file, second);
+		secondCodec.createCoder(Point.class);
+		assertEquals(1, second.count);
+		assertTrue(secondCodec.decisionCache.dirty);
+	}
+
+	@Test
+	public void testChangedFactories() throws IOException {
+		Path file = Files.createTempDirectory("autocodec").resolve("decisions.txt");
+		AutoCodec firstCodec = codec(file, new CountingFactory());
+		firstCodec.createCoder(Point.class);
+		firstCodec.decisionCache.save();
+
+		CountingFactory second = new CountingFactory();
+		AutoCodec secondCodec = codec(file, second);
+		secondCodec.coders.addFactoryToStart(new CountingFactory());
+		secondCodec.createCoder(Point.class);
+		assertEquals(1, second.count);
+	}
+
+	@Test
+	public void testChangedFactoryState() throws IOException, DecodeException {
+		Path file = Files.createTempDirectory("autocodec").resolve("decisions.txt");
+		AutoCodec firstCodec = codec(file, new CountingFactory());
+		firstCodec.createCoder(Point.class);
+		firstCodec.decisionCache.save();
+
+		//the saved decision skips the lookup factory, which would now handle Point.
+		AutoCodec secondCodec = codec(file, new CountingFactory());
+		AutoCoder<Point> registered = new NamedCoder<>("registered") {
+
+			@Override
+			public <T_Encoded> @Nullable Point decode(@NotNull DecodeContext<T_Encoded> context) {
+				return new Point(0, 0);
+			}
+
+			@Override
+			public <T_Encoded> @NotNull T_Encoded encode(@NotNull EncodeContext<T_Encoded, Point> context) {
+				return context.empty();
+			}
+		};
+		secondCodec.coders.getFactory(LookupCoderFactory.class).addRaw(Point.class, registered);
+		assertEquals(new Point(0, 0), secondCodec.decode(secondCodec.createCoder(Point.class), "ignored", ObjectOps.INSTANCE));
+	}
+
+	@Test
+	public void testFingerprint() {
+		FactoryDecisionCache cache = new FactoryDecisionCache(null);
+		assertNotNull(cache.fingerprint(ReifiedType.from(Point.class)));
+		//computed once per canonical type.
+		assertSame(cache.fingerprint(ReifiedType.from(Point.class)), cache.fingerprint(ReifiedType.from(Point.class)));
+		assertEquals(cache.computeFingerprint(ReifiedType.from(Point.class)), cache.fingerprint(ReifiedType.from(Point.class)));
+		assertNotEquals(cache.fingerprint(ReifiedType.from(Point.class)), cache.fingerprint(ReifiedType.from(String.class)));
+		assertNull(FactoryDecisionCache.hashClass(((Runnable)(() -> {})).getClass()));
+	}
+
+	public static AutoCodec codec(Path file, CountingFactory counter) {
+		AutoCodec autoCodec = new AutoCodec() {
+
+			@Override
+			public @Nullable FactoryDecisionCache createDecisionCache() {
+				return FactoryDecisionCache.loadOrEmpty(file);
+			}
+		};
+		autoCodec.coders.addFactoryToStart(counter);
+		return autoCodec;
+	}
+
+	public static record Point(int x, int y) {}
+
+	/** counts how many times it was asked to create a coder for {@link Point}. */
+	public static class CountingFactory extends NamedCoderFactory {
+
+		public int count;
+
+		@Override
+		public <T_HandledType> @Nullable AutoCoder<?> tryCreate(@NotNull FactoryContext<T_HandledType> context) throws FactoryException {
+			if (context.type.getRawClass() == Point.class) this.count++;
+			return null;
+		}
+	}
+}
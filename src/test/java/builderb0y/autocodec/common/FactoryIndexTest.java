@@ -0,0 +1,74 @@
+package builderb0y.autocodec.common;
+
+import java.util.BitSet;
+import java.util.List;
+
+import org.junit.Test;
+
+import builderb0y.autocodec.AutoCodec;
+import builderb0y.autocodec.annotations.DefaultInt;
+import builderb0y.autocodec.annotations.Intern;
+import builderb0y.autocodec.annotations.MultiLine;
+import builderb0y.autocodec.coders.AutoCoder.CoderFactory;
+import builderb0y.autocodec.coders.DefaultCoder;
+import builderb0y.autocodec.coders.InternedStringCoder;
+import builderb0y.autocodec.coders.MultiLineStringCoder;
+import builderb0y.autocodec.coders.OptionalCoder;
+import builderb0y.autocodec.reflection.reification.ReifiedType;
+
+import static org.junit.Assert.*;
+
+public class FactoryIndexTest {
+
+	@Test
+	public void testCandidates() {
+		AutoCodec autoCodec = new AutoCodec();
+		FactoryIndex<CoderFactory> index = autoCodec.coders.getIndex();
+		BitSet plainString = index.getCandidates(new ReifiedType<String>() {});
+		assertFalse(contains(index, plainString, InternedStringCoder.Factory.INSTANCE));
+		assertFalse(contains(index, plainString, MultiLineStringCoder.Factory.INSTANCE));
+		assertFalse(contains(index, plainString, OptionalCoder.Factory.INSTANCE));
+		assertFalse(contains(index, plainString, DefaultCoder.Factory.INSTANCE));
+
+		BitSet internedString = index.getCandidates(new ReifiedType<@Intern @MultiLine String>() {});
+		assertTrue(contains(index, internedString, InternedStringCoder.Factory.INSTANCE));
+		assertTrue(contains(index, internedString, MultiLineStringCoder.Factory.INSTANCE));
+
+		//the annotation alone is not enough, the raw class needs to match too.
+		assertFalse(contains(index, index.getCandidates(new ReifiedType<@Intern Integer>() {}), InternedStringCoder.Factory.INSTANCE));
+
+		assertTrue(contains(index, index.getCandidates(new ReifiedType<@DefaultInt(1) Integer>() {}), DefaultCoder.Factory.INSTANCE));
+	}
+
+	@Test
+	public void testOrderPreserved() {
+		AutoCodec autoCodec = new AutoCodec();
+		FactoryIndex<CoderFactory> index = autoCodec.coders.getIndex();
+		BitSet candidates = index.getCandidates(new ReifiedType<@Intern @MultiLine String>() {});
+		List<CoderFactory> factories = autoCodec.coders.factories;
+		int previous = -1;
+		for (int candidate = candidates.nextSetBit(0); candidate >= 0; candidate = candidates.nextSetBit(candidate + 1)) {
+			int position = factories.indexOf(index.factories.get(candidate));
+			assertTrue(position > previous);
+			previous = position;
+		}
+	}
+
+	@Test
+	public void testRebuild() {
+		AutoCodec autoCodec = new AutoCodec();
+		FactoryIndex<CoderFactory> before = autoCodec.coders.getIndex();
+		assertSame(before, autoCodec.coders.getIndex());
+		autoCodec.coders.addFactoryToStart(OptionalCoder.Factory.INSTANCE);
+		FactoryIndex<CoderFactory> after = autoCodec.coders.getIndex();
+		assertNotSame(before, after);
+		assertSame(OptionalCoder.Factory.INSTANCE, after.factories.get(0));
+	}
+
+	public static boolean contains(FactoryIndex<CoderFactory> index, BitSet candidates, CoderFactory factory) {
+		for (int candidate = candidates.nextSetBit(0); candidate >= 0; candidate = candidates.nextSetBit(candidate + 1)) {
+			if (index.factories.get(candidate) == factory) return true;
+		}
+		return false;
+	}
+}
@@ -0,0 +1,140 @@
+package builderb0y.autocodec.common;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+import builderb0y.autocodec.AutoCodec;
+import builderb0y.autocodec.annotations.MemberUsage;
+import builderb0y.autocodec.annotations.UseCoder;
+import builderb0y.autocodec.coders.AutoCoder;
+import builderb0y.autocodec.decoders.DecodeException;
+import builderb0y.autocodec.reflection.reification.ReifiedType;
+import builderb0y.autocodec.util.ObjectOps;
+
+import static org.junit.Assert.*;
+
+public class HandlerCacheTest {
+
+	@Test
+	public void testLeastRecentlyUsed() {
+		HandlerCache<AutoHandler> cache = new HandlerCache.LeastRecentlyUsed<>(2);
+		AutoHandler a = new Handler("a"), b = new Handler("b"), c = new Handler("c");
+		cache.put(ReifiedType.from(String.class), a);
+		cache.put(ReifiedType.from(Integer.class), b);
+		assertSame(a, cache.get(ReifiedType.from(String.class)));
+		cache.put(ReifiedType.from(Long.class), c);
+		assertEquals(2, cache.size());
+		assertSame(a, cache.get(ReifiedType.from(String.class)));
+		assertNull(cache.get(ReifiedType.from(Integer.class)));
+		assertSame(c, cache.get(ReifiedType.from(Long.class)));
+	}
+
+	@Test
+	public void testLeastFrequentlyUsed() {
+		HandlerCache<AutoHandler> cache = new HandlerCache.LeastFrequentlyUsed<>(2);
+		AutoHandler a = new Handler("a"), b = new Handler("b"), c = new Handler("c");
+		cache.put(ReifiedType.from(String.class), a);
+		cache.put(ReifiedType.from(Integer.class), b);
+		cache.get(ReifiedType.from(Integer.class));
+		cache.get(ReifiedType.from(Integer.class));
+		cache.get(ReifiedType.from(String.class));
+		cache.put(ReifiedType.from(Long.class), c);
+		assertEquals(2, cache.size());
+		assertNull(cache.get(ReifiedType.from(String.class)));
+		assertSame(b, cache.get(ReifiedType.from(Integer.class)));
+		assertSame(c, cache.get(ReifiedType.from(Long.class)));
+	}
+
+	@Test
+	public void testBoundedRecursion() throws DecodeException {
+		AutoCodec autoCodec = new AutoCodec() {
+
+			@Override
+			public <T_Handler extends AutoHandler> @NotNull HandlerCache<T_Handler> createHandlerCache(@NotNull FactoryList<T_Handler, ?> factoryList) {
+				return new HandlerCache.LeastRecentlyUsed<>(1);
+			}
+		};
+		AutoCoder<Tree> coder = autoCodec.createCoder(Tree.class);
+		assertTrue(autoCodec.coders.cache.size() <= 1);
+		Tree tree = new Tree(List.of(new Tree(List.of()), new Tree(List.of(new Tree(List.of())))));
+		assertEquals(tree, autoCodec.decode(coder, autoCodec.encode(coder, tree, ObjectOps.INSTANCE), ObjectOps.INSTANCE));
+	}
+
+	@Test
+	public void testInvalidate() throws Exception {
+		ClassLoader loader = new PluginLoader();
+		Class<?> pluginClass = loader.loadClass(Plugin.class.getName());
+		assertNotSame(Plugin.class, pluginClass);
+		ReifiedType<?> pluginType = ReifiedType.from(pluginClass);
+		ReifiedType<?> pluginList = ReifiedType.parameterize(List.class, pluginType);
+		Class<?> plugin = HandlerCache.mostSpecificClass(pluginList);
+		assertSame(pluginClass, plugin);
+		assertSame(plugin, HandlerCache.ClassScoped.ownerOf(pluginList));
+		assertSame(plugin, HandlerCache.ClassScoped.ownerOf(pluginList.canonicalize()));
+		assertSame(plugin, pluginList.canonicalize().attachments.get(HandlerCache.ClassScoped.OWNER_ATTACHMENT));
+
+		for (HandlerCache<AutoHandler> cache : List.<HandlerCache<AutoHandler>>of(new HandlerCache.Unbounded<>(), new HandlerCache.ClassScoped<>())) {
+			cache.put(ReifiedType.from(String.class), new Handler("string"));
+			cache.put(pluginType.canonicalize(), new Handler("plugin"));
+			cache.put(pluginList.canonicalize(), new Handler("list"));
+			assertEquals(3, cache.size());
+			assertEquals(2, cache.invalidate(loader));
+			assertEquals(1, cache.size());
+			assertNull(cache.get(pluginList.canonicalize()));
+			assertEquals(1, cache.invalidate((ReifiedType<?> type) -> type.getRawClass() == String.class));
+			assertEquals(0, cache.size());
+		}
+	}
+
+	@Test
+	public void testAnnotationsAreReferenced() {
+		ReifiedType<?> type = new ReifiedType<List<@UseCoder(name = "CODER", in = PluginCoders.class, usage = MemberUsage.FIELD_CONTAINS_HANDLER) String>>() {};
+		Set<Class<?>> classes = new HashSet<>();
+		HandlerCache.forEachClass(type, classes::add);
+		assertEquals(Set.of(List.class, String.class, UseCoder.class, PluginCoders.class, MemberUsage.class), classes);
+	}
+
+	public static class PluginCoders {}
+
+	public static record Tree(List<Tree> children) {}
+
+	public static record Handler(String name) implements AutoHandler {}
+
+	public static class Plugin {}
+
+	/**
+	loads {@link Plugin} itself, and delegates all other classes to its parent.
+	HandlerCacheTest needs to be loaded too, otherwise the
+	JVM will complain that Plugin's enclosing class is wrong.
+	*/
+	public static class PluginLoader extends ClassLoader {
+
+		public PluginLoader() {
+			super(HandlerCacheTest.class.getClassLoader());
+		}
+
+		@Override
+		public Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+			if (!name.equals(Plugin.class.getName()) && !name.equals(HandlerCacheTest.class.getName())) {
+				return super.loadClass(name, resolve);
+			}
+			synchronized (this.getClassLoadingLock(name)) {
+				Class<?> loaded = this.findLoadedClass(name);
+				if (loaded != null) return loaded;
+				try (InputStream stream = HandlerCacheTest.class.getResourceAsStream('/' + name.replace('.', '/') + ".class")) {
+					byte[] bytes = stream.readAllBytes();
+					return this.defineClass(name, bytes, 0, bytes.length);
+				}
+				catch (IOException exception) {
+					throw new ClassNotFoundException(name, exception);
+				}
+			}
+		}
+	}
+}
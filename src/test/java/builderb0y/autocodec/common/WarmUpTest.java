@@ -0,0 +1,164 @@
+package builderb0y.autocodec.common;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.Test;
+
+import builderb0y.autocodec.AutoCodec;
+import builderb0y.autocodec.coders.AutoCoder;
+import builderb0y.autocodec.coders.AutoCoder.NamedCoderFactory;
+import builderb0y.autocodec.decoders.DecodeException;
+import builderb0y.autocodec.logging.DisabledTaskLogger;
+import builderb0y.autocodec.logging.TaskLogger;
+import builderb0y.autocodec.reflection.reification.ReifiedType;
+import builderb0y.autocodec.util.ObjectOps;
+
+import static org.junit.Assert.*;
+
+public class WarmUpTest {
+
+	public static AutoCodec parallelCodec() {
+		return new AutoCodec() {
+
+			@Override
+			public @NotNull TaskLogger createFactoryLogger(@NotNull ReentrantLock lock) {
+				return new DisabledTaskLogger();
+			}
+		};
+	}
+
+	@Test
+	public void testWarmUp() throws DecodeException {
+		AutoCodec autoCodec = parallelCodec();
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			Map<ReifiedType<?>, AutoCoder<?>> coders = autoCodec.warmUp(
+				List.of(
+					ReifiedType.from(Tree.class),
+					ReifiedType.from(Forest.class),
+					ReifiedType.from(Shared.class),
+					ReifiedType.from(Tree.class)
+				),
+				executor
+			);
+			assertEquals(3, coders.size());
+			for (Map.Entry<ReifiedType<?>, AutoCoder<?>> entry : coders.entrySet()) {
+				assertSame(entry.getValue(), autoCodec.createCoder(entry.getKey()));
+			}
+			Tree tree = new Tree(new Shared("a"), List.of(new Tree(new Shared("b"), List.of())));
+			Forest forest = new Forest(List.of(tree, tree), new Shared("c"));
+			AutoCoder<Forest> coder = autoCodec.createCoder(Forest.class);
+			assertEquals(forest, autoCodec.decode(coder, autoCodec.encode(coder, forest, ObjectOps.INSTANCE), ObjectOps.INSTANCE));
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testFailures() {
+		AutoCodec autoCodec = parallelCodec();
+		try {
+			autoCodec.warmUp(Broken1.class, Shared.class, Broken2.class);
+			fail();
+		}
+		catch (WarmUpException exception) {
+			assertEquals(List.of(ReifiedType.from(Broken1.class), ReifiedType.from(Broken2.class)), new ArrayList<>(exception.failures.keySet()));
+			assertEquals(List.of(ReifiedType.from(Shared.class)), new ArrayList<>(exception.coders.keySet()));
+			assertEquals(2, exception.getSuppressed().length);
+			assertTrue(exception.failures.values().stream().allMatch(FactoryException.class::isInstance));
+		}
+	}
+
+	@Test
+	public void testConcurrentRequests() throws Exception {
+		for (int attempt = 0; attempt < 8; attempt++) {
+			AutoCodec autoCodec = parallelCodec();
+			int threads = 8;
+			ExecutorService executor = Executors.newFixedThreadPool(threads);
+			try {
+				CyclicBarrier barrier = new CyclicBarrier(threads);
+				List<Future<AutoCoder<Forest>>> futures = new ArrayList<>(threads);
+				for (int thread = 0; thread < threads; thread++) {
+					futures.add(executor.submit(() -> {
+						barrier.await();
+						return autoCodec.createCoder(Forest.class);
+					}));
+				}
+				AutoCoder<Forest> first = futures.get(0).get();
+				for (Future<AutoCoder<Forest>> future : futures) {
+					assertSame(first, future.get());
+				}
+				Forest forest = new Forest(List.of(new Tree(new Shared("a"), List.of())), new Shared("b"));
+				assertEquals(forest, autoCodec.decode(first, autoCodec.encode(first, forest, ObjectOps.INSTANCE), ObjectOps.INSTANCE));
+			}
+			finally {
+				executor.shutdown();
+			}
+		}
+	}
+
+	@Test
+	public void testNestedHandlersAreNotPublishedEarly() throws Exception {
+		AutoCodec autoCodec = parallelCodec();
+		CountDownLatch nestedCreated = new CountDownLatch(1), otherThreadDone = new CountDownLatch(1);
+		Thread builder = Thread.currentThread();
+		autoCodec.coders.addFactoryToStart(new NamedCoderFactory() {
+
+			@Override
+			public <T_HandledType> @Nullable AutoCoder<?> tryCreate(@NotNull FactoryContext<T_HandledType> context) throws FactoryException {
+				if (context.type.getRawClass() == Outer.class && Thread.currentThread() == builder && nestedCreated.getCount() != 0) {
+					//the coder for List<Outer> references the lazy coder for Outer, which is not resolved until we return.
+					context.type(new ReifiedType<List<Outer>>() {}).forceCreateCoder();
+					nestedCreated.countDown();
+					try {
+						otherThreadDone.await(10L, TimeUnit.SECONDS);
+					}
+					catch (InterruptedException exception) {
+						throw new FactoryException(exception);
+					}
+				}
+				return null;
+			}
+		});
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			Future<List<Outer>> other = executor.submit(() -> {
+				try {
+					nestedCreated.await();
+					AutoCoder<List<Outer>> coder = autoCodec.createCoder(new ReifiedType<List<Outer>>() {});
+					List<Outer> outers = List.of(new Outer("a"), new Outer("b"));
+					return autoCodec.decode(coder, autoCodec.encode(coder, outers, ObjectOps.INSTANCE), ObjectOps.INSTANCE);
+				}
+				finally {
+					otherThreadDone.countDown();
+				}
+			});
+			AutoCoder<Outer> coder = autoCodec.createCoder(Outer.class);
+			assertEquals(List.of(new Outer("a"), new Outer("b")), other.get());
+			Outer outer = new Outer("c");
+			assertEquals(outer, autoCodec.decode(coder, autoCodec.encode(coder, outer, ObjectOps.INSTANCE), ObjectOps.INSTANCE));
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+
+	public static record Shared(String name) {}
+
+	public static record Outer(String name) {}
+
+	public static record Tree(Shared shared, List<Tree> children) {}
+
+	public static record Forest(List<Tree> trees, Shared shared) {}
+
+	public static record Broken1(Runnable runnable) {}
+
+	public static record Broken2(Shared shared, Thread thread) {}
+}
@@ -0,0 +1,206 @@
+package builderb0y.autocodec.decoders;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.jetbrains.annotations.ApiStatus.OverrideOnly;
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+import builderb0y.autocodec.coders.AutoCoder;
+import builderb0y.autocodec.common.TestCommon;
+import builderb0y.autocodec.decoders.JsonDecodeSourceTest.Outer;
+import builderb0y.autocodec.decoders.JsonDecodeSourceTest.Point;
+import builderb0y.autocodec.encoders.AutoEncoder;
+import builderb0y.autocodec.encoders.BinaryContainerWriter;
+import builderb0y.autocodec.encoders.EncodeContext;
+import builderb0y.autocodec.encoders.EncodeException;
+import builderb0y.autocodec.encoders.EncodeSink;
+import builderb0y.autocodec.util.BinaryFormat;
+
+import static org.junit.Assert.*;
+
+public class BinaryContainerTest {
+
+	public static Path tempFile() throws IOException {
+		Path path = Files.createTempFile("autocodec", ".bin");
+		path.toFile().deleteOnExit();
+		return path;
+	}
+
+	public static Outer outer(int index) {
+		return new Outer(List.of(new Point(index, -index), new Point(index * 2, index * 3)), "outer #" + index);
+	}
+
+	@Test
+	public void testList() throws IOException, DecodeException {
+		AutoCoder<Outer> coder = TestCommon.DEFAULT_CODEC.createCoder(Outer.class);
+		Path path = tempFile();
+		//enough values to be flushed several times.
+		int count = 10000;
+		try (BinaryContainerWriter writer = BinaryContainerWriter.create(TestCommon.DEFAULT_CODEC, path)) {
+			for (int index = 0; index < count; index++) {
+				writer.add(coder, outer(index));
+			}
+		}
+		assertTrue(Files.size(path) > BinaryContainerWriter.FLUSH_THRESHOLD * 2);
+		try (BinaryContainerReader reader = BinaryContainerReader.open(TestCommon.DEFAULT_CODEC, path)) {
+			assertEquals(count, reader.size());
+			assertFalse(reader.isMap());
+			for (int index : new int[] { 9999, 0, 5000, 1234 }) {
+				assertEquals(outer(index), reader.get(coder, index));
+			}
+			try {
+				reader.get(coder, count);
+				fail();
+			}
+			catch (IndexOutOfBoundsException expected) {}
+			try {
+				reader.keys(coder);
+				fail();
+			}
+			catch (DecodeException expected) {}
+		}
+	}
+
+	@Test
+	public void testMap() throws IOException, DecodeException {
+		AutoCoder<Outer> valueCoder = TestCommon.DEFAULT_CODEC.createCoder(Outer.class);
+		AutoCoder<Point> keyCoder = TestCommon.DEFAULT_CODEC.createCoder(Point.class);
+		Path path = tempFile();
+		try (BinaryContainerWriter writer = BinaryContainerWriter.create(TestCommon.DEFAULT_CODEC, path)) {
+			for (int index = 0; index < 100; index++) {
+				writer.put(keyCoder, new Point(index, index + 1), valueCoder, outer(index));
+			}
+			try {
+				writer.add(valueCoder, outer(0));
+				fail();
+			}
+			catch (EncodeException expected) {}
+		}
+		try (BinaryContainerReader reader = BinaryContainerReader.open(TestCommon.DEFAULT_CODEC, path)) {
+			assertTrue(reader.isMap());
+			assertEquals(100, reader.keys(keyCoder).size());
+			assertEquals(outer(42), reader.get(keyCoder, new Point(42, 43), valueCoder));
+			assertEquals(outer(7), reader.get(keyCoder, new Point(7, 8), valueCoder));
+			assertNull(reader.get(keyCoder, new Point(42, 42), valueCoder));
+		}
+	}
+
+	/** returns an encoder which writes part of value, and then throws an exception. */
+	public static <T> AutoEncoder<T> failing(AutoCoder<T> coder) {
+		return new AutoEncoder<>() {
+
+			@Override
+			@OverrideOnly
+			public <T_Encoded> @NotNull T_Encoded encode(@NotNull EncodeContext<T_Encoded, T> context) throws EncodeException {
+				throw new EncodeException("failing");
+			}
+
+			@Override
+			@OverrideOnly
+			public <T_Encoded> void encodeTo(@NotNull EncodeContext<T_Encoded, T> context, @NotNull EncodeSink<T_Encoded> sink) throws EncodeException {
+				coder.encodeTo(context, sink);
+				throw new EncodeException("failing");
+			}
+		};
+	}
+
+	@Test
+	public void testRollback() throws IOException, DecodeException {
+		AutoCoder<Outer> valueCoder = TestCommon.DEFAULT_CODEC.createCoder(Outer.class);
+		AutoCoder<Point> keyCoder = TestCommon.DEFAULT_CODEC.createCoder(Point.class);
+		Path path = tempFile();
+		try (BinaryContainerWriter writer = BinaryContainerWriter.create(TestCommon.DEFAULT_CODEC, path)) {
+			try {
+				writer.put(failing(keyCoder), new Point(0, 1), valueCoder, outer(0));
+				fail();
+			}
+			catch (EncodeException expected) {}
+			try {
+				writer.put(keyCoder, new Point(0, 1), failing(valueCoder), outer(0));
+				fail();
+			}
+			catch (EncodeException expected) {}
+			assertEquals(0, writer.count);
+			assertNull(writer.keys);
+			writer.put(keyCoder, new Point(1, 2), valueCoder, outer(1));
+			try {
+				writer.put(keyCoder, new Point(2, 3), failing(valueCoder), outer(2));
+				fail();
+			}
+			catch (EncodeException expected) {}
+			writer.put(keyCoder, new Point(3, 4), valueCoder, outer(3));
+			assertEquals(2, writer.count);
+		}
+		try (BinaryContainerReader reader = BinaryContainerReader.open(TestCommon.DEFAULT_CODEC, path)) {
+			assertEquals(2, reader.size());
+			assertEquals(2, reader.keys(keyCoder).size());
+			assertEquals(outer(1), reader.get(keyCoder, new Point(1, 2), valueCoder));
+			assertEquals(outer(3), reader.get(keyCoder, new Point(3, 4), valueCoder));
+			assertNull(reader.get(keyCoder, new Point(2, 3), valueCoder));
+		}
+
+		path = tempFile();
+		try (BinaryContainerWriter writer = BinaryContainerWriter.create(TestCommon.DEFAULT_CODEC, path)) {
+			writer.add(valueCoder, outer(0));
+			try {
+				writer.add(failing(valueCoder), outer(1));
+				fail();
+			}
+			catch (EncodeException expected) {}
+			writer.add(valueCoder, outer(2));
+		}
+		try (BinaryContainerReader reader = BinaryContainerReader.open(TestCommon.DEFAULT_CODEC, path)) {
+			assertEquals(2, reader.size());
+			assertEquals(outer(0), reader.get(valueCoder, 0));
+			assertEquals(outer(2), reader.get(valueCoder, 1));
+		}
+	}
+
+	@Test
+	public void testEmpty() throws IOException, DecodeException {
+		Path path = tempFile();
+		BinaryContainerWriter.create(TestCommon.DEFAULT_CODEC, path).close();
+		try (BinaryContainerReader reader = BinaryContainerReader.open(TestCommon.DEFAULT_CODEC, path)) {
+			assertEquals(0, reader.size());
+		}
+	}
+
+	@Test
+	public void testNotAContainer() throws IOException {
+		Path path = tempFile();
+		Files.write(path, TestCommon.DEFAULT_CODEC.encodeBinary(TestCommon.DEFAULT_CODEC.createCoder(String.class), "this is not a container at all"));
+		try {
+			BinaryContainerReader.open(TestCommon.DEFAULT_CODEC, path).close();
+			fail();
+		}
+		catch (DecodeException expected) {}
+	}
+
+	@Test
+	public void testCorruptSchemaCount() throws IOException, DecodeException {
+		AutoCoder<Outer> coder = TestCommon.DEFAULT_CODEC.createCoder(Outer.class);
+		Path path = tempFile();
+		try (BinaryContainerWriter writer = BinaryContainerWriter.create(TestCommon.DEFAULT_CODEC, path)) {
+			writer.add(coder, outer(0));
+		}
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			ByteBuffer trailer = ByteBuffer.allocate(BinaryFormat.CONTAINER_TRAILER_SIZE);
+			BinaryContainerReader.readFully(channel, trailer, channel.size() - BinaryFormat.CONTAINER_TRAILER_SIZE);
+			long schemasOffset = trailer.getLong(8);
+			//first schema claims to have Integer.MAX_VALUE keys.
+			channel.write(ByteBuffer.wrap(new byte[] { 1, (byte)(0xFF), (byte)(0xFF), (byte)(0xFF), (byte)(0xFF), 0x07 }), schemasOffset);
+		}
+		try {
+			BinaryContainerReader.open(TestCommon.DEFAULT_CODEC, path).close();
+			fail();
+		}
+		catch (DecodeException expected) {}
+	}
+}
@@ -0,0 +1,153 @@
+package builderb0y.autocodec.decoders;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import builderb0y.autocodec.coders.AutoCoder;
+import builderb0y.autocodec.coders.KeyDispatchCoderTest.IntPrimitive;
+import builderb0y.autocodec.coders.KeyDispatchCoderTest.Primitive;
+import builderb0y.autocodec.common.TestCommon;
+import builderb0y.autocodec.decoders.JsonDecodeSourceTest.Everything;
+import builderb0y.autocodec.decoders.JsonDecodeSourceTest.Point;
+import builderb0y.autocodec.decoders.JsonDecodeSourceTest.Renamed;
+import builderb0y.autocodec.encoders.BinaryEncodeSink;
+import builderb0y.autocodec.reflection.reification.ReifiedType;
+import builderb0y.autocodec.util.BinaryFormat;
+
+import static org.junit.Assert.*;
+
+public class BinaryDecodeSourceTest {
+
+	public static <T> T roundTrip(AutoCoder<T> coder, T object) throws DecodeException {
+		byte[] bytes = TestCommon.DEFAULT_CODEC.encodeBinary(coder, object);
+		T decoded = TestCommon.DEFAULT_CODEC.decodeBinary(coder, bytes);
+		assertEquals(object, decoded);
+		return decoded;
+	}
+
+	@Test
+	public void testRoundTrip() throws DecodeException {
+		AutoCoder<Everything> coder = TestCommon.DEFAULT_CODEC.createCoder(Everything.class);
+		Everything everything = TestCommon.DEFAULT_CODEC.decodeJson(coder, new StringReader("""
+			{
+				"i": -1, "f": 2.5, "c": "c", "s": "striñg",
+				"emptyOptional": null, "fullOptional": 3,
+				"list": ["x", "y"], "map": { "a": 1, "b": 2 }, "array": [4, 5],
+				"color": "GREEN", "ordinal": 0, "inner": { "x": 6, "y": 7, "name": "inner" },
+				"points": [{ "y": 9, "x": 8 }, { "x": 10, "y": 11 }]
+			}
+		"""));
+		roundTrip(coder, everything);
+
+		StringWriter json = new StringWriter();
+		TestCommon.DEFAULT_CODEC.encodeJson(coder, everything, json);
+		assertTrue(TestCommon.DEFAULT_CODEC.encodeBinary(coder, everything).length < json.toString().length());
+
+		roundTrip(TestCommon.DEFAULT_CODEC.createCoder(Renamed.class), new Renamed(300, -70000));
+		roundTrip(TestCommon.DEFAULT_CODEC.createCoder(Primitive.class), new IntPrimitive(Integer.MIN_VALUE));
+	}
+
+	@Test
+	public void testSchemaWrittenOnce() throws DecodeException {
+		AutoCoder<List<Point>> coder = TestCommon.DEFAULT_CODEC.createCoder(new ReifiedType<List<Point>>() {});
+		Point point = new Point(1, 2);
+		int two = roundTripLength(coder, List.of(point, point));
+		int three = roundTripLength(coder, List.of(point, point, point));
+		//tag, schema ID, size, and then field key, tag, and value for each field.
+		assertEquals(3 + 2 * 3, three - two);
+		//sizes which don't fit in 1 byte.
+		roundTrip(coder, Collections.nCopies(300, point));
+	}
+
+	public static <T> int roundTripLength(AutoCoder<T> coder, T object) throws DecodeException {
+		return TestCommon.DEFAULT_CODEC.encodeBinary(coder, roundTrip(coder, object)).length;
+	}
+
+	@Test
+	public void testMultipleValues() throws DecodeException {
+		AutoCoder<Point> coder = TestCommon.DEFAULT_CODEC.createCoder(Point.class);
+		BinaryEncodeSink sink = new BinaryEncodeSink();
+		TestCommon.DEFAULT_CODEC.encodeTo(coder, new Point(1, 2), sink);
+		int first = sink.position;
+		TestCommon.DEFAULT_CODEC.encodeTo(coder, new Point(3, 4), sink);
+		//the second value should re-use the schema defined by the first one.
+		assertTrue(sink.position - first < first);
+
+		BinaryDecodeSource source = new BinaryDecodeSource(sink.toByteArray());
+		assertEquals(new Point(1, 2), TestCommon.DEFAULT_CODEC.decodeFrom(coder, source));
+		assertEquals(new Point(3, 4), TestCommon.DEFAULT_CODEC.decodeFrom(coder, source));
+		source.expectEnd();
+	}
+
+	@Test
+	public void testViews() throws DecodeException {
+		BinaryEncodeSink sink = new BinaryEncodeSink();
+		sink.beginList();
+		sink.writeString("hello");
+		sink.writeBytes(new byte[] { 1, 2, 3 }, 0, 3);
+		sink.writeEncoded(new byte[] { 4, 5 });
+		sink.endList();
+
+		BinaryDecodeSource source = new BinaryDecodeSource(sink.toByteBuffer());
+		source.beginList();
+		ByteBuffer string = source.readStringBytes();
+		assertEquals("hello", StandardCharsets.UTF_8.decode(string).toString());
+		ByteBuffer bytes = source.readByteView();
+		assertNotNull(bytes);
+		assertTrue(bytes.isReadOnly());
+		assertEquals(ByteBuffer.wrap(new byte[] { 1, 2, 3 }), bytes);
+		source.beginList();
+		assertEquals((byte)(4), source.readNumber(null));
+		assertEquals((byte)(5), source.readNumber(null));
+		assertFalse(source.hasNext());
+		source.endList();
+		assertFalse(source.hasNext());
+		source.endList();
+		source.expectEnd();
+	}
+
+	@Test
+	public void testErrors() {
+		AutoCoder<Point> coder = TestCommon.DEFAULT_CODEC.createCoder(Point.class);
+		byte[] bytes = TestCommon.DEFAULT_CODEC.encodeBinary(coder, new Point(1, 2));
+		try {
+			TestCommon.DEFAULT_CODEC.decodeBinary(coder, ByteBuffer.wrap(bytes, 0, bytes.length - 1));
+			fail();
+		}
+		catch (DecodeException expected) {}
+		try {
+			TestCommon.DEFAULT_CODEC.decodeBinary(coder, ByteBuffer.wrap(Arrays.copyOf(bytes, bytes.length + 1)));
+			fail();
+		}
+		catch (DecodeException expected) {}
+		try {
+			TestCommon.DEFAULT_CODEC.decodeBinary(coder, TestCommon.DEFAULT_CODEC.encodeBinary(TestCommon.DEFAULT_CODEC.createCoder(String.class), "point"));
+			fail();
+		}
+		catch (DecodeException expected) {}
+	}
+
+	@Test
+	public void testHugeSizes() {
+		//Integer.MAX_VALUE as a varint.
+		byte[] huge = { (byte)(0xFF), (byte)(0xFF), (byte)(0xFF), (byte)(0xFF), 0x07 };
+		AutoCoder<List<String>> coder = TestCommon.DEFAULT_CODEC.createCoder(new ReifiedType<List<String>>() {});
+		for (byte tag : new byte[] { BinaryFormat.SCHEMA, BinaryFormat.LIST, BinaryFormat.MAP }) {
+			byte[] bytes = new byte[huge.length + 1];
+			bytes[0] = tag;
+			System.arraycopy(huge, 0, bytes, 1, huge.length);
+			try {
+				TestCommon.DEFAULT_CODEC.decodeBinary(coder, bytes);
+				fail();
+			}
+			catch (DecodeException expected) {}
+		}
+	}
+}
@@ -0,0 +1,250 @@
+package builderb0y.autocodec.decoders;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.OptionalInt;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.mojang.serialization.JsonOps;
+import org.junit.Test;
+
+import builderb0y.autocodec.annotations.Alias;
+import builderb0y.autocodec.annotations.DefaultInt;
+import builderb0y.autocodec.annotations.EncodeInline;
+import builderb0y.autocodec.annotations.VerifyNullable;
+import builderb0y.autocodec.coders.AutoCoder;
+import builderb0y.autocodec.coders.KeyDispatchCoderTest.IntPrimitive;
+import builderb0y.autocodec.coders.KeyDispatchCoderTest.Primitive;
+import builderb0y.autocodec.common.TestCommon;
+
+import static org.junit.Assert.*;
+
+public class JsonDecodeSourceTest {
+
+	public static <T> T testSameAsTree(AutoCoder<T> coder, String json) throws DecodeException {
+		T streamed = TestCommon.DEFAULT_CODEC.decodeJson(coder, new StringReader(json));
+		T tree = TestCommon.DEFAULT_CODEC.decode(coder, JsonParser.parseString(json), JsonOps.INSTANCE);
+		assertEquals(tree, streamed);
+		return streamed;
+	}
+
+	@Test
+	public void testSameAsTree() throws DecodeException {
+		AutoCoder<Everything> coder = TestCommon.DEFAULT_CODEC.createCoder(Everything.class);
+		Everything everything = testSameAsTree(coder, """
+			{
+				"unknown": { "a": [1, 2, { "b": null }] },
+				"i": 1, "f": 2.5, "c": "c", "s": "string", "nothing": null,
+				"emptyOptional": null, "fullOptional": 3,
+				"list": ["x", "y"], "map": { "a": 1, "b": 2 }, "array": [4, 5],
+				"color": "GREEN", "ordinal": 0, "inner": { "x": 6, "y": 7, "name": "inner" },
+				"points": [{ "y": 9, "x": 8 }, { "x": 10, "y": 11 }]
+			}
+		""");
+		assertEquals(Color.GREEN, everything.color);
+		assertEquals(Color.RED, everything.ordinal);
+		assertEquals(List.of(new Point(8, 9), new Point(10, 11)), everything.points);
+	}
+
+	@Test
+	public void testNumbersAsStrings() throws DecodeException {
+		AutoCoder<Outer> coder = TestCommon.DEFAULT_CODEC.createCoder(Outer.class);
+		String json = "{ \"points\": [], \"name\": 5 }";
+		for (JsonOps ops : new JsonOps[] { JsonOps.INSTANCE, JsonOps.COMPRESSED }) {
+			Outer tree, streamed;
+			try {
+				tree = TestCommon.DEFAULT_CODEC.decode(coder, JsonParser.parseString(json), ops);
+			}
+			catch (DecodeException exception) {
+				tree = null;
+			}
+			try {
+				streamed = TestCommon.DEFAULT_CODEC.decodeFrom(coder, new JsonDecodeSource(new JsonReader(new StringReader(json)), ops));
+			}
+			catch (DecodeException exception) {
+				streamed = null;
+			}
+			//whatever the tree path does with numbers, streaming should do the same thing.
+			assertEquals(tree, streamed);
+			if (ops.compressMaps()) assertEquals(new Outer(List.of(), "5"), streamed);
+		}
+	}
+
+	@Test
+	public void testImprinting() throws DecodeException {
+		AutoCoder<Mutable> coder = TestCommon.DEFAULT_CODEC.createCoder(Mutable.class);
+		Mutable mutable = testSameAsTree(coder, "{ \"name\": \"a\", \"values\": [1, 2, 3], \"point\": { \"x\": 1, \"y\": 2 } }");
+		assertEquals(List.of(1, 2, 3), mutable.values);
+		testSameAsTree(coder, "{ \"values\": [] }");
+	}
+
+	@Test
+	public void testAliasesAndDefaults() throws DecodeException {
+		AutoCoder<Renamed> coder = TestCommon.DEFAULT_CODEC.createCoder(Renamed.class);
+		assertEquals(new Renamed(1, 5), testSameAsTree(coder, "{ \"old\": 2, \"value\": 1 }"));
+		assertEquals(new Renamed(1, 5), testSameAsTree(coder, "{ \"value\": 1, \"old\": 2 }"));
+		assertEquals(new Renamed(2, 5), testSameAsTree(coder, "{ \"value\": null, \"old\": 2 }"));
+		assertEquals(new Renamed(1, 3), testSameAsTree(coder, "{ \"old\": 1, \"count\": 3 }"));
+		//values under losing aliases are never decoded, even if they are invalid.
+		assertEquals(new Renamed(1, 5), testSameAsTree(coder, "{ \"old\": \"invalid\", \"value\": 1 }"));
+		AutoCoder<MutableRenamed> mutableCoder = TestCommon.DEFAULT_CODEC.createCoder(MutableRenamed.class);
+		assertEquals(1, testSameAsTree(mutableCoder, "{ \"old\": \"invalid\", \"value\": 1 }").value);
+		assertEquals(2, testSameAsTree(mutableCoder, "{ \"old\": 2 }").value);
+	}
+
+	@Test
+	public void testKeyDispatch() throws DecodeException {
+		AutoCoder<Primitive> coder = TestCommon.DEFAULT_CODEC.createCoder(Primitive.class);
+		assertEquals(new IntPrimitive(42), testSameAsTree(coder, "{ \"type\": \"INT\", \"value\": 42 }"));
+		assertEquals(new IntPrimitive(42), testSameAsTree(coder, "{ \"value\": 42, \"type\": \"INT\" }"));
+	}
+
+	@Test
+	public void testInputStream() throws DecodeException {
+		AutoCoder<Point> coder = TestCommon.DEFAULT_CODEC.createCoder(Point.class);
+		assertEquals(new Point(1, 2), TestCommon.DEFAULT_CODEC.decodeJson(coder, new ByteArrayInputStream("{\"x\":1,\"y\":2}".getBytes(StandardCharsets.UTF_8))));
+	}
+
+	@Test
+	public void testNoSubtrees() throws DecodeException {
+		AutoCoder<Outer> coder = TestCommon.DEFAULT_CODEC.createCoder(Outer.class);
+		CountingSource source = new CountingSource("{ \"name\": \"name\", \"points\": [{ \"x\": 1, \"y\": 2 }], \"extra\": [1, 2, 3] }");
+		assertEquals(new Outer(List.of(new Point(1, 2)), "name"), TestCommon.DEFAULT_CODEC.decodeFrom(coder, source));
+		assertEquals(0, source.subtrees);
+	}
+
+	@Test
+	public void testErrors() {
+		AutoCoder<Outer> coder = TestCommon.DEFAULT_CODEC.createCoder(Outer.class);
+		try {
+			TestCommon.DEFAULT_CODEC.decodeJson(coder, new StringReader("{ \"name\": \"name\", \"points\": [{ \"x\": 1, \"y\": \"2\" }] }"));
+			fail();
+		}
+		catch (DecodeException expected) {
+			//imprinters wrap the exception, but the original message should still be there.
+			Throwable cause = expected;
+			while (cause.getMessage() == null) cause = cause.getCause();
+			assertTrue(cause.getMessage(), cause.getMessage().startsWith("<root>.points[0].y is not a number"));
+		}
+		try {
+			TestCommon.DEFAULT_CODEC.decodeJson(coder, new StringReader("{ \"name\": \"name\" } {}"));
+			fail();
+		}
+		catch (DecodeException expected) {}
+		try {
+			TestCommon.DEFAULT_CODEC.decodeJson(coder, new StringReader("{ \"name\": "));
+			fail();
+		}
+		catch (DecodeException expected) {}
+	}
+
+	public static class CountingSource extends JsonDecodeSource {
+
+		public int subtrees;
+
+		public CountingSource(String json) {
+			super(new StringReader(json));
+		}
+
+		@Override
+		public JsonElement readEncoded() throws DecodeException {
+			this.subtrees++;
+			return super.readEncoded();
+		}
+	}
+
+	public static record Everything(
+		int i,
+		float f,
+		char c,
+		String s,
+		@VerifyNullable String nothing,
+		OptionalInt emptyOptional,
+		OptionalInt fullOptional,
+		List<String> list,
+		Map<String, Integer> map,
+		int[] array,
+		Color color,
+		Color ordinal,
+		Inner inner,
+		List<Point> points
+	) {
+
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof Everything that && (
+				this.i == that.i &&
+				this.f == that.f &&
+				this.c == that.c &&
+				Objects.equals(this.s, that.s) &&
+				Objects.equals(this.nothing, that.nothing) &&
+				this.emptyOptional.equals(that.emptyOptional) &&
+				this.fullOptional.equals(that.fullOptional) &&
+				this.list.equals(that.list) &&
+				this.map.equals(that.map) &&
+				Arrays.equals(this.array, that.array) &&
+				this.color == that.color &&
+				this.ordinal == that.ordinal &&
+				this.inner.equals(that.inner) &&
+				this.points.equals(that.points)
+			);
+		}
+	}
+
+	public static record Inner(@EncodeInline Point point, String name) {}
+
+	public static record Outer(List<Point> points, String name) {}
+
+	public static record Point(int x, int y) {}
+
+	public static record Renamed(@Alias("old") int value, @DefaultInt(5) int count) {}
+
+	public static class MutableRenamed {
+
+		public @Alias("old") int value;
+
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof MutableRenamed that && this.value == that.value;
+		}
+
+		@Override
+		public int hashCode() {
+			return this.value;
+		}
+	}
+
+	public static class Mutable {
+
+		public @VerifyNullable String name;
+		public final List<Integer> values = new ArrayList<>();
+		public @VerifyNullable Point point;
+
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof Mutable that && (
+				Objects.equals(this.name, that.name) &&
+				this.values.equals(that.values) &&
+				Objects.equals(this.point, that.point)
+			);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(this.name, this.values, this.point);
+		}
+	}
+
+	public static enum Color {
+		RED,
+		GREEN;
+	}
+}
@@ -0,0 +1,126 @@
+package builderb0y.autocodec.decoders;
+
+import java.io.StringReader;
+import java.util.List;
+import java.util.Objects;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.mojang.serialization.JsonOps;
+import org.junit.Test;
+
+import builderb0y.autocodec.common.FactoryException;
+import builderb0y.autocodec.common.TestCommon;
+
+import static org.junit.Assert.*;
+
+public class ProjectionDecoderTest {
+
+	//the members which are not selected would fail to decode if they were decoded.
+	public static final String JSON = """
+		{
+			"name": "test",
+			"ignored": "not a number",
+			"settings": {
+				"render": { "distance": 12, "fancy": "not a boolean" },
+				"tags": 42
+			}
+		}
+	""";
+
+	@Test
+	public void testRecords() throws DecodeException {
+		ProjectionDecoder<Settings> projection = TestCommon.DEFAULT_CODEC.createProjection(Settings.class, "render.distance");
+		JsonElement json = JsonParser.parseString(JSON).getAsJsonObject().get("settings");
+		assertEquals(new Settings(new Render(12, false), null), TestCommon.DEFAULT_CODEC.decode(projection, json, JsonOps.INSTANCE));
+		assertEquals(new Settings(new Render(12, false), null), TestCommon.DEFAULT_CODEC.decodeJson(projection, new StringReader(json.toString())));
+	}
+
+	@Test
+	public void testConstructed() throws DecodeException {
+		ProjectionDecoder<Profile> projection = TestCommon.DEFAULT_CODEC.createProjection(Profile.class, "name", "settings.render.distance");
+		for (Profile profile : new Profile[] {
+			TestCommon.DEFAULT_CODEC.decode(projection, JsonParser.parseString(JSON), JsonOps.INSTANCE),
+			TestCommon.DEFAULT_CODEC.decodeJson(projection, new StringReader(JSON))
+		}) {
+			assertEquals("test", profile.name);
+			assertEquals(0, profile.ignored);
+			assertEquals(new Settings(new Render(12, false), null), profile.settings);
+		}
+	}
+
+	@Test
+	public void testEntireMember() throws DecodeException {
+		ProjectionDecoder<Settings> projection = TestCommon.DEFAULT_CODEC.createProjection(Settings.class, "render.distance", "render");
+		JsonElement json = JsonParser.parseString("{ \"render\": { \"distance\": 4, \"fancy\": true }, \"tags\": 42 }");
+		assertEquals(new Settings(new Render(4, true), null), TestCommon.DEFAULT_CODEC.decode(projection, json, JsonOps.INSTANCE));
+	}
+
+	@Test
+	public void testCaching() {
+		assertSame(
+			TestCommon.DEFAULT_CODEC.createProjection(Profile.class, "name", "settings.render.distance"),
+			TestCommon.DEFAULT_CODEC.createProjection(Profile.class, "settings.render.distance", "name")
+		);
+		assertNotSame(
+			TestCommon.DEFAULT_CODEC.createProjection(Profile.class, "name"),
+			TestCommon.DEFAULT_CODEC.createProjection(Profile.class, "name", "settings.render.distance")
+		);
+	}
+
+	@Test
+	public void testInvalidPaths() {
+		for (String path : new String[] { "nope", "settings.nope", "settings.", ".name" }) {
+			try {
+				TestCommon.DEFAULT_CODEC.createProjection(Profile.class, path);
+				fail(path);
+			}
+			catch (FactoryException expected) {}
+		}
+	}
+
+	@Test
+	public void testValidatingRecords() throws DecodeException {
+		//Named rejects null names, so it can't be partially populated, and is decoded in full.
+		ProjectionDecoder<Named> named = TestCommon.DEFAULT_CODEC.createProjection(Named.class, "id");
+		JsonElement json = JsonParser.parseString("{ \"id\": 1, \"name\": \"a\" }");
+		assertEquals(new Named(1, "a"), TestCommon.DEFAULT_CODEC.decode(named, json, JsonOps.INSTANCE));
+		assertEquals(new Named(1, "a"), TestCommon.DEFAULT_CODEC.decodeJson(named, new StringReader(json.toString())));
+
+		//Range accepts its defaults, but not every selected value.
+		ProjectionDecoder<Range> range = TestCommon.DEFAULT_CODEC.createProjection(Range.class, "min");
+		assertEquals(new Range(-1, 0), TestCommon.DEFAULT_CODEC.decode(range, JsonParser.parseString("{ \"min\": -1, \"max\": 5 }"), JsonOps.INSTANCE));
+		try {
+			TestCommon.DEFAULT_CODEC.decode(range, JsonParser.parseString("{ \"min\": 1, \"max\": 5 }"), JsonOps.INSTANCE);
+			fail();
+		}
+		catch (DecodeException expected) {
+			assertTrue(expected.getMessage(), expected.getMessage().contains("not selected"));
+		}
+	}
+
+	public static record Named(int id, String name) {
+
+		public Named {
+			Objects.requireNonNull(name, "name");
+		}
+	}
+
+	public static record Range(int min, int max) {
+
+		public Range {
+			if (min > max) throw new IllegalArgumentException("min > max");
+		}
+	}
+
+	public static record Render(int distance, boolean fancy) {}
+
+	public static record Settings(Render render, List<String> tags) {}
+
+	public static class Profile {
+
+		public String name;
+		public int ignored;
+		public Settings settings;
+	}
+}
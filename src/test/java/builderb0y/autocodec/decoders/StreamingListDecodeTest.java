@@ -0,0 +1,149 @@
+package builderb0y.autocodec.decoders;
+
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.mojang.serialization.JsonOps;
+import org.jetbrains.annotations.ApiStatus.OverrideOnly;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.Test;
+
+import builderb0y.autocodec.coders.AutoCoder;
+import builderb0y.autocodec.common.TestCommon;
+import builderb0y.autocodec.decoders.JsonDecodeSourceTest.Point;
+
+import static org.junit.Assert.*;
+
+public class StreamingListDecodeTest {
+
+	public static final AutoCoder<Point> CODER = TestCommon.DEFAULT_CODEC.createCoder(Point.class);
+	public static final JsonElement POINTS = JsonParser.parseString("[{ \"x\": 1, \"y\": 2 }, { \"x\": 3, \"y\": 4 }, { \"x\": \"bad\", \"y\": 6 }]");
+
+	@Test
+	public void testTree() throws DecodeException {
+		List<Point> points = new ArrayList<>();
+		try {
+			TestCommon.DEFAULT_CODEC.decodeEach(CODER, POINTS, JsonOps.INSTANCE, points::add);
+			fail();
+		}
+		catch (DecodeException expected) {
+			assertTrue(expected.getMessage(), expected.getMessage().startsWith("<root>[2].x is not a number"));
+		}
+		assertEquals(List.of(new Point(1, 2), new Point(3, 4)), points);
+
+		//the bad element is never decoded.
+		assertEquals(
+			List.of(new Point(1, 2), new Point(3, 4)),
+			TestCommon.DEFAULT_CODEC.decodeStream(CODER, POINTS, JsonOps.INSTANCE).limit(2).collect(Collectors.toList())
+		);
+		Iterator<Point> iterator = TestCommon.DEFAULT_CODEC.decodeIterator(CODER, POINTS, JsonOps.INSTANCE);
+		assertEquals(new Point(1, 2), iterator.next());
+		assertEquals(new Point(3, 4), iterator.next());
+		try {
+			iterator.next();
+			fail();
+		}
+		catch (LazyDecodeException expected) {
+			assertTrue(expected.getCause().getMessage(), expected.getCause().getMessage().startsWith("<root>[2].x is not a number"));
+		}
+
+		try {
+			TestCommon.DEFAULT_CODEC.decodeStream(CODER, JsonParser.parseString("{}"), JsonOps.INSTANCE);
+			fail();
+		}
+		catch (DecodeException expected) {}
+	}
+
+	@Test
+	public void testParallelPaths() throws DecodeException {
+		JsonArray array = new JsonArray();
+		for (int index = 0; index < 10000; index++) array.add(index);
+		AutoDecoder<String> pathDecoder = new AutoDecoder<>() {
+
+			@Override
+			@OverrideOnly
+			public <T_Encoded> @Nullable String decode(@NotNull DecodeContext<T_Encoded> context) throws DecodeException {
+				return context.pathToString() + '=' + context.forceAsNumber().intValue();
+			}
+		};
+		List<String> paths = TestCommon.DEFAULT_CODEC.decodeStream(pathDecoder, array, JsonOps.INSTANCE).parallel().collect(Collectors.toList());
+		assertEquals(10000, paths.size());
+		for (int index = 0; index < 10000; index++) {
+			assertEquals("<root>[" + index + "]=" + index, paths.get(index));
+		}
+	}
+
+	@Test
+	public void testSource() throws DecodeException {
+		JsonDecodeSource source = new JsonDecodeSource(new StringReader("[{ \"x\": 1, \"y\": 2 }, { \"x\": 3, \"y\": 4 }]"));
+		Iterator<Point> iterator = TestCommon.DEFAULT_CODEC.decodeIteratorFrom(CODER, source);
+		assertTrue(iterator.hasNext());
+		assertEquals(new Point(1, 2), iterator.next());
+		assertEquals(new Point(3, 4), iterator.next());
+		assertFalse(iterator.hasNext());
+		assertFalse(iterator.hasNext());
+		source.expectEnd();
+
+		source = new JsonDecodeSource(new StringReader(POINTS.toString()));
+		assertEquals(2L, TestCommon.DEFAULT_CODEC.decodeStreamFrom(CODER, source).limit(2).count());
+
+		try {
+			TestCommon.DEFAULT_CODEC.decodeEachFrom(CODER, new JsonDecodeSource(new StringReader("\"not a list\"")), (Point point) -> fail());
+			fail();
+		}
+		catch (DecodeException expected) {}
+	}
+
+	@Test
+	public void testLargeInput() throws DecodeException {
+		int count = 200_000;
+		long[] sum = new long[1];
+		int[] seen = new int[1];
+		TestCommon.DEFAULT_CODEC.decodeEachFrom(CODER, new JsonDecodeSource(new GeneratingReader(count)), (Point point) -> {
+			assertEquals(seen[0]++, point.x());
+			sum[0] += point.y();
+		});
+		assertEquals(count, seen[0]);
+		assertEquals((long)(count) * (count - 1) / 2L, sum[0]);
+	}
+
+	/** produces the JSON text of a list of points on demand, so that it never exists in memory all at once. */
+	public static class GeneratingReader extends Reader {
+
+		public final int count;
+		public int next = -1;
+		public String pending = "";
+		public int pendingIndex;
+
+		public GeneratingReader(int count) {
+			this.count = count;
+		}
+
+		@Override
+		public int read(char[] buffer, int offset, int length) {
+			if (this.pendingIndex == this.pending.length()) {
+				if (this.next > this.count) return -1;
+				if (this.next == -1) this.pending = "[";
+				else if (this.next == this.count) this.pending = "]";
+				else this.pending = (this.next == 0 ? "" : ",") + "{\"x\":" + this.next + ",\"y\":" + this.next + '}';
+				this.next++;
+				this.pendingIndex = 0;
+			}
+			int read = Math.min(length, this.pending.length() - this.pendingIndex);
+			this.pending.getChars(this.pendingIndex, this.pendingIndex + read, buffer, offset);
+			this.pendingIndex += read;
+			return read;
+		}
+
+		@Override
+		public void close() {}
+	}
+}
@@ -0,0 +1,101 @@
+package builderb0y.autocodec.encoders;
+
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.mojang.serialization.JsonOps;
+import org.junit.Test;
+
+import builderb0y.autocodec.coders.AutoCoder;
+import builderb0y.autocodec.common.TestCommon;
+import builderb0y.autocodec.decoders.BinaryDecodeSource;
+import builderb0y.autocodec.decoders.DecodeException;
+import builderb0y.autocodec.decoders.JsonDecodeSourceTest.Point;
+import builderb0y.autocodec.reflection.reification.ReifiedType;
+
+import static org.junit.Assert.*;
+
+public class IterableEncoderTest {
+
+	public static final List<Point> POINTS = List.of(new Point(1, 2), new Point(3, 4));
+	public static final JsonElement JSON = JsonParser.parseString("[{ \"x\": 1, \"y\": 2 }, { \"x\": 3, \"y\": 4 }]");
+
+	public static <T> void test(ReifiedType<T> type, T tree, T sink) {
+		AutoEncoder<T> encoder = TestCommon.DEFAULT_CODEC.createEncoder(type);
+		assertTrue(encoder.toString(), encoder instanceof IterableEncoder<?, ?>);
+		assertEquals(JSON, TestCommon.DEFAULT_CODEC.encode(encoder, tree, JsonOps.INSTANCE));
+		StringWriter writer = new StringWriter();
+		TestCommon.DEFAULT_CODEC.encodeJson(encoder, sink, writer);
+		assertEquals(JSON, JsonParser.parseString(writer.toString()));
+	}
+
+	@Test
+	public void testTypes() {
+		test(new ReifiedType<Iterable<Point>>() {}, POINTS, POINTS);
+		test(new ReifiedType<Iterator<Point>>() {}, POINTS.iterator(), POINTS.iterator());
+		test(new ReifiedType<Stream<Point>>() {}, POINTS.stream(), POINTS.stream());
+		test(new ReifiedType<Spliterator<Point>>() {}, POINTS.spliterator(), POINTS.spliterator());
+	}
+
+	@Test
+	public void testEncodeEach() throws DecodeException {
+		AutoCoder<Point> coder = TestCommon.DEFAULT_CODEC.createCoder(Point.class);
+		assertEquals(JSON, TestCommon.DEFAULT_CODEC.encodeEach(coder, POINTS.stream(), JsonOps.INSTANCE));
+
+		StringWriter writer = new StringWriter();
+		TestCommon.DEFAULT_CODEC.encodeEachJson(coder, POINTS.iterator(), writer);
+		assertEquals(JSON, JsonParser.parseString(writer.toString()));
+
+		BinaryEncodeSink sink = new BinaryEncodeSink();
+		TestCommon.DEFAULT_CODEC.encodeEachTo(coder, POINTS, sink);
+		assertEquals(POINTS, TestCommon.DEFAULT_CODEC.decodeStreamFrom(coder, new BinaryDecodeSource(sink.toByteArray())).toList());
+	}
+
+	@Test
+	public void testElementsArePulledLazily() {
+		AutoCoder<Point> coder = TestCommon.DEFAULT_CODEC.createCoder(Point.class);
+		int count = 100_000;
+		int[] pulled = new int[1];
+		CountingWriter writer = new CountingWriter();
+		TestCommon.DEFAULT_CODEC.encodeEachTo(
+			coder,
+			IntStream.range(0, count).mapToObj((int index) -> {
+				//every element before this one should already have been written.
+				assertTrue(writer.written >= pulled[0] * 10L);
+				pulled[0]++;
+				return new Point(index, index);
+			}),
+			new JsonEncodeSink(writer)
+		);
+		assertEquals(count, pulled[0]);
+	}
+
+	/** discards everything written to it, but remembers how many chars were written. */
+	public static class CountingWriter extends Writer {
+
+		public long written;
+
+		@Override
+		public void write(char[] buffer, int offset, int length) {
+			this.written += length;
+		}
+
+		@Override
+		public void write(String string, int offset, int length) {
+			this.written += length;
+		}
+
+		@Override
+		public void flush() {}
+
+		@Override
+		public void close() {}
+	}
+}
@@ -0,0 +1,118 @@
+package builderb0y.autocodec.encoders;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.mojang.serialization.JsonOps;
+import org.junit.Test;
+
+import builderb0y.autocodec.annotations.EncodeInline;
+import builderb0y.autocodec.annotations.VerifyNullable;
+import builderb0y.autocodec.coders.AutoCoder;
+import builderb0y.autocodec.common.TestCommon;
+
+import static org.junit.Assert.*;
+
+public class JsonEncodeSinkTest {
+
+	public static <T> void testSameAsTree(AutoCoder<T> coder, T object) {
+		StringWriter writer = new StringWriter();
+		TestCommon.DEFAULT_CODEC.encodeJson(coder, object, writer);
+		JsonElement tree = TestCommon.DEFAULT_CODEC.encode(coder, object, JsonOps.INSTANCE);
+		assertEquals(tree, JsonParser.parseString(writer.toString()));
+	}
+
+	@Test
+	public void testSameAsTree() {
+		AutoCoder<Everything> coder = TestCommon.DEFAULT_CODEC.createCoder(Everything.class);
+		Map<String, Integer> map = new LinkedHashMap<>();
+		map.put("a", 1);
+		map.put("b", 2);
+		testSameAsTree(coder, new Everything(
+			1, 2.5F, 'c', "string", null, OptionalInt.empty(), OptionalInt.of(3),
+			List.of("x", "y"), map, new int[] { 4, 5 }, Color.GREEN,
+			new Inner(new Point(6, 7), "inner"),
+			List.of(new Point(8, 9), new Point(10, 11))
+		));
+		testSameAsTree(coder, null);
+	}
+
+	@Test
+	public void testOutputStream() {
+		AutoCoder<Point> coder = TestCommon.DEFAULT_CODEC.createCoder(Point.class);
+		ByteArrayOutputStream stream = new ByteArrayOutputStream();
+		TestCommon.DEFAULT_CODEC.encodeJson(coder, new Point(1, 2), stream);
+		assertEquals("{\"x\":1,\"y\":2}", stream.toString(StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void testNoSubtrees() {
+		AutoCoder<Outer> coder = TestCommon.DEFAULT_CODEC.createCoder(Outer.class);
+		StringWriter writer = new StringWriter();
+		CountingSink sink = new CountingSink(writer);
+		TestCommon.DEFAULT_CODEC.encodeTo(coder, new Outer(new Point(1, 2), "name"), sink);
+		sink.flush();
+		assertEquals(0, sink.subtrees);
+		assertEquals("{\"point\":{\"x\":1,\"y\":2},\"name\":\"name\"}", writer.toString());
+	}
+
+	@Test
+	public void testFallback() {
+		AutoCoder<Color> coder = TestCommon.DEFAULT_CODEC.createCoder(Color.class);
+		StringWriter writer = new StringWriter();
+		CountingSink sink = new CountingSink(writer);
+		TestCommon.DEFAULT_CODEC.encodeTo(coder, Color.RED, sink);
+		sink.flush();
+		assertEquals(1, sink.subtrees);
+		assertEquals("\"RED\"", writer.toString());
+	}
+
+	public static class CountingSink extends JsonEncodeSink {
+
+		public int subtrees;
+
+		public CountingSink(StringWriter writer) {
+			super(writer);
+		}
+
+		@Override
+		public void writeEncoded(JsonElement value) throws EncodeException {
+			this.subtrees++;
+			super.writeEncoded(value);
+		}
+	}
+
+	public static record Everything(
+		int i,
+		float f,
+		char c,
+		String s,
+		@VerifyNullable String nothing,
+		OptionalInt emptyOptional,
+		OptionalInt fullOptional,
+		List<String> list,
+		Map<String, Integer> map,
+		int[] array,
+		Color color,
+		Inner inner,
+		List<Point> points
+	) {}
+
+	public static record Inner(@EncodeInline Point point, String name) {}
+
+	public static record Outer(Point point, String name) {}
+
+	public static record Point(int x, int y) {}
+
+	public static enum Color {
+		RED,
+		GREEN;
+	}
+}
@@ -0,0 +1,135 @@
+package builderb0y.autocodec.graph;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.google.gson.JsonObject;
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+import builderb0y.autocodec.AutoCodec;
+import builderb0y.autocodec.coders.AutoCoder;
+import builderb0y.autocodec.coders.RecordCoder;
+import builderb0y.autocodec.common.AutoHandler;
+import builderb0y.autocodec.common.TestCommon;
+import builderb0y.autocodec.decoders.DecodeException;
+import builderb0y.autocodec.graph.HandlerGraph.Edge;
+import builderb0y.autocodec.graph.HandlerGraph.Node;
+import builderb0y.autocodec.logging.DisabledTaskLogger;
+import builderb0y.autocodec.logging.TaskLogger;
+import builderb0y.autocodec.logging.TimingTaskLogger;
+import builderb0y.autocodec.util.ObjectOps;
+
+import static org.junit.Assert.*;
+
+public class HandlerGraphTest {
+
+	@Test
+	public void testCycles() {
+		AutoCoder<Tree> coder = TestCommon.DEFAULT_CODEC.createCoder(Tree.class);
+		HandlerGraph graph = new HandlerGraph(coder);
+		assertSame(coder, graph.root.handler);
+		Node record = graph.nodes.stream().filter((Node node) -> node.handler instanceof RecordCoder<?>).findFirst().orElseThrow();
+		assertTrue(record.cyclic);
+		assertTrue(graph.findRedundantLazyHandlers().isEmpty());
+		assertTrue(graph.nodes.stream().flatMap((Node node) -> node.edges.stream()).anyMatch(Edge::isCyclic));
+
+		int[] counts = new int[2];
+		graph.walk(new HandlerVisitor() {
+
+			@Override
+			public boolean enterNode(@NotNull Node node) {
+				counts[0]++;
+				return true;
+			}
+
+			@Override
+			public void visitEdge(@NotNull Edge edge, boolean firstVisit) {
+				if (!firstVisit) counts[1]++;
+			}
+		});
+		assertEquals(graph.nodes.size(), counts[0]);
+		//at least one edge must lead back into the cycle.
+		assertTrue(counts[1] > 0);
+	}
+
+	@Test
+	public void testAcyclic() {
+		AutoCoder<Integer> coder = TestCommon.DEFAULT_CODEC.createCoder(int.class);
+		HandlerGraph graph = new HandlerGraph(coder);
+		assertTrue(graph.nodes.stream().noneMatch((Node node) -> node.cyclic || node.isLazy()));
+		assertTrue(graph.findRedundantLazyHandlers().isEmpty());
+		//every node except the root must be reachable from some other node.
+		assertTrue(graph.root.incomingEdges.isEmpty());
+		assertTrue(graph.nodes.stream().skip(1L).noneMatch((Node node) -> node.incomingEdges.isEmpty()));
+	}
+
+	@Test
+	public void testExport() throws DecodeException {
+		TimingTaskLogger timer = new TimingTaskLogger(new DisabledTaskLogger());
+		AutoCodec autoCodec = new AutoCodec() {
+
+			@Override
+			public @NotNull TaskLogger createEncodeLogger(@NotNull ReentrantLock lock) {
+				return timer;
+			}
+
+			@Override
+			public @NotNull TaskLogger createDecodeLogger(@NotNull ReentrantLock lock) {
+				return timer;
+			}
+		};
+		AutoCoder<Tree> coder = autoCodec.createCoder(Tree.class);
+		Tree tree = new Tree("root", List.of(new Tree("a", List.of()), new Tree("b", List.of(new Tree("c", List.of())))));
+		for (int iteration = 0; iteration < 10; iteration++) {
+			assertEquals(tree, autoCodec.decode(coder, autoCodec.encode(coder, tree, ObjectOps.INSTANCE), ObjectOps.INSTANCE));
+		}
+		HandlerGraph graph = new HandlerGraph(coder);
+		Map<String, Object> rootStatistics = timer.getStatistics(coder);
+		assertNotNull(rootStatistics);
+		//4 trees, each encoded and decoded 10 times.
+		assertEquals(80L, rootStatistics.get("calls"));
+
+		String dot = DotExporter.export(graph, timer);
+		assertTrue(dot.startsWith("digraph handlers {"));
+		assertTrue(dot.contains("calls: 80"));
+		assertTrue(dot.contains("style=dashed"));
+
+		JsonObject json = JsonExporter.export(graph, timer);
+		assertEquals(graph.nodes.size(), json.getAsJsonArray("nodes").size());
+		assertEquals(80L, json.getAsJsonArray("nodes").get(0).getAsJsonObject().getAsJsonObject("statistics").get("calls").getAsLong());
+	}
+
+	@Test
+	public void testDoubleWrapped() {
+		AutoHandler inner = new Leaf("inner");
+		AutoHandler outer = new Wrapper(new Wrapper(inner));
+		HandlerGraph graph = new HandlerGraph(outer);
+		assertEquals(3, graph.nodes.size());
+		assertEquals(List.of(graph.root), graph.findDoubleWrapped(Wrapper.class));
+	}
+
+	public static record Tree(String name, List<Tree> children) {}
+
+	public static record Leaf(String name) implements AutoHandler {
+
+		@Override
+		public String toString() {
+			return this.name;
+		}
+	}
+
+	public static record Wrapper(AutoHandler child) implements AutoHandler {
+
+		@Override
+		public void visitChildren(@NotNull ChildVisitor visitor) {
+			visitor.visitChild("child", this.child);
+		}
+
+		@Override
+		public String toString() {
+			return "Wrapper";
+		}
+	}
+}
@@ -0,0 +1,88 @@
+package builderb0y.autocodec.graph;
+
+import java.util.Arrays;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+import builderb0y.autocodec.AutoCodec;
+import builderb0y.autocodec.coders.AutoCoder;
+import builderb0y.autocodec.coders.CoderFactoryList;
+import builderb0y.autocodec.coders.LazyCoder;
+import builderb0y.autocodec.coders.LookupCoderFactory;
+import builderb0y.autocodec.coders.PrimitiveCoders;
+import builderb0y.autocodec.common.TestCommon;
+import builderb0y.autocodec.decoders.DecodeException;
+import builderb0y.autocodec.graph.HandlerGraph.Node;
+import builderb0y.autocodec.util.ObjectOps;
+
+import static org.junit.Assert.*;
+
+public class LazyLinkerTest {
+
+	public static final TreeNode TREE = new TreeNode(
+		"root",
+		new TreeNode("a"),
+		new TreeNode("b", new TreeNode("c"), new TreeNode("d"))
+	);
+
+	@Test
+	public void testLinkedByDefault() throws DecodeException {
+		AutoCoder<TreeNode> coder = TestCommon.DEFAULT_CODEC.createCoder(TreeNode.class);
+		HandlerGraph graph = new HandlerGraph(coder);
+		assertTrue(graph.nodes.stream().noneMatch(Node::isLazy));
+		//the cycle is still there, it just doesn't go through a lazy handler anymore.
+		assertTrue(graph.root.cyclic);
+		assertEquals(TREE, TestCommon.DEFAULT_CODEC.decode(coder, TestCommon.DEFAULT_CODEC.encode(coder, TREE, ObjectOps.INSTANCE), ObjectOps.INSTANCE));
+	}
+
+	@Test
+	public void testManualLink() throws DecodeException {
+		AutoCodec autoCodec = new AutoCodec() {
+
+			@Override
+			public @NotNull CoderFactoryList createCoders() {
+				return new CoderFactoryList(this) {
+
+					@Override
+					public void link(@NotNull AutoCoder<?> handler) {}
+				};
+			}
+		};
+		AutoCoder<TreeNode> coder = autoCodec.createCoder(TreeNode.class);
+		assertTrue(new HandlerGraph(coder).nodes.stream().anyMatch((Node node) -> node.isLazy() && node.cyclic));
+
+		LazyLinker.linkAll(coder);
+		assertTrue(new HandlerGraph(coder).nodes.stream().noneMatch(Node::isLazy));
+		assertEquals(TREE, autoCodec.decode(coder, autoCodec.encode(coder, TREE, ObjectOps.INSTANCE), ObjectOps.INSTANCE));
+	}
+
+	@Test
+	public void testExistingHandlersAreNotModified() throws DecodeException {
+		AutoCodec autoCodec = new AutoCodec();
+		LazyCoder<String> inner = new LazyCoder<>();
+		inner.setDelegateHandler(PrimitiveCoders.STRING);
+		LazyCoder<String> outer = new LazyCoder<>();
+		outer.setDelegateHandler(inner);
+		autoCodec.coders.getFactory(LookupCoderFactory.class).addRaw(String.class, outer);
+		AutoCoder<Named> coder = autoCodec.createCoder(Named.class);
+		//outer was not created by the request for Named, so it must not be linked.
+		assertSame(inner, outer.resolution);
+		assertEquals(new Named("a"), autoCodec.decode(coder, autoCodec.encode(coder, new Named("a"), ObjectOps.INSTANCE), ObjectOps.INSTANCE));
+	}
+
+	public static record Named(String name) {}
+
+	public static record TreeNode(String name, TreeNode... children) {
+
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof TreeNode that && this.name.equals(that.name) && Arrays.equals(this.children, that.children);
+		}
+
+		@Override
+		public int hashCode() {
+			return this.name.hashCode() * 31 + Arrays.hashCode(this.children);
+		}
+	}
+}
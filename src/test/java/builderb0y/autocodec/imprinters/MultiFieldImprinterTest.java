@@ -1,14 +1,24 @@
 package builderb0y.autocodec.imprinters;
 
+import java.io.StringReader;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.mojang.serialization.JsonOps;
 import org.junit.Test;
 
+import builderb0y.autocodec.annotations.EncodeInline;
 import builderb0y.autocodec.coders.CoderUnitTester;
 import builderb0y.autocodec.common.TestCommon;
+import builderb0y.autocodec.decoders.DecodeContext;
 import builderb0y.autocodec.decoders.DecodeException;
+import builderb0y.autocodec.decoders.JsonDecodeSource;
+
+import static org.junit.Assert.*;
 
 public class MultiFieldImprinterTest {
 
@@ -85,4 +95,39 @@ public class MultiFieldImprinterTest {
 			return obj instanceof Populatable that && Objects.equals(this.contents, that.contents);
 		}
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void testInlineImprintMember() throws DecodeException {
+		MultiFieldImprinter<Inlined> imprinter = (MultiFieldImprinter<Inlined>)(TestCommon.DEFAULT_CODEC.createImprinter(Inlined.class));
+		JsonElement json = JsonParser.parseString("{\"x\":1,\"y\":2,\"w\":3}");
+		for (boolean streamed : new boolean[] { false, true }) {
+			Inlined inlined = new Inlined();
+			DecodeContext<JsonElement> context = TestCommon.DEFAULT_CODEC.newDecodeContext(json, JsonOps.INSTANCE);
+			ImprintContext<JsonElement, Inlined> imprintContext = new ImprintContext<>(context, inlined);
+			for (MultiFieldImprinter.FieldStrategy<Inlined, ?> field : imprinter.fields) {
+				assertFalse(field.canImprintMember());
+				if (streamed) {
+					field.imprintMember(imprintContext, context, new JsonDecodeSource(new JsonReader(new StringReader(json.toString())), JsonOps.INSTANCE));
+				}
+				else {
+					field.imprintMember(imprintContext, context);
+				}
+			}
+			assertEquals(new Vec(1, 2), inlined.vec);
+			assertEquals(3, inlined.box.w);
+		}
+	}
+
+	public static class Inlined {
+
+		public @EncodeInline Vec vec;
+		public final @EncodeInline Box box = new Box();
+	}
+
+	public static record Vec(int x, int y) {}
+
+	public static class Box {
+
+		public int w;
+	}
+}
@@ -0,0 +1,241 @@
+package builderb0y.autocodec.imprinters;
+
+import java.util.*;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.mojang.serialization.JsonOps;
+import org.junit.Test;
+
+import builderb0y.autocodec.annotations.VerifyNullable;
+import builderb0y.autocodec.annotations.VerifySizeRange;
+import builderb0y.autocodec.coders.AutoCoder;
+import builderb0y.autocodec.common.AutoHandler;
+import builderb0y.autocodec.common.TestCommon;
+import builderb0y.autocodec.decoders.DecodeException;
+import builderb0y.autocodec.graph.HandlerGraph;
+import builderb0y.autocodec.verifiers.VerifyException;
+
+import static org.junit.Assert.*;
+
+public class ReusingImprinterTest {
+
+	public static final ReusingImprinter<Packet> REUSER = TestCommon.DEFAULT_CODEC.createReusingImprinter(Packet.class);
+
+	public static Packet decodeInto(Packet packet, String json) throws DecodeException {
+		return TestCommon.DEFAULT_CODEC.decodeInto(REUSER, packet, JsonParser.parseString(json), JsonOps.INSTANCE);
+	}
+
+	@Test
+	public void testReuse() throws DecodeException {
+		Packet packet = decodeInto(null, """
+			{
+				"id": 1,
+				"header": { "value": 2 },
+				"body": { "value": 3 },
+				"entries": [ { "value": 4 }, { "value": 5 } ],
+				"named": { "a": { "value": 6 } },
+				"position": { "x": 7, "y": 8 }
+			}
+		""");
+		Inner header = packet.header;
+		Inner body = packet.body;
+		List<Inner> entries = packet.entries;
+		Inner entry0 = entries.get(0);
+		Map<String, Inner> named = packet.named;
+		Inner namedA = named.get("a");
+
+		assertSame(packet, decodeInto(packet, """
+			{
+				"id": 9,
+				"header": { "value": 10 },
+				"body": { "value": 11 },
+				"entries": [ { "value": 12 } ],
+				"named": { "a": { "value": 13 }, "b": { "value": 14 } },
+				"position": { "x": 15, "y": 16 }
+			}
+		"""));
+		assertEquals(9, packet.id);
+		assertSame(header, packet.header);
+		assertEquals(10, header.value);
+		assertSame(body, packet.body);
+		assertEquals(11, body.value);
+		assertSame(entries, packet.entries);
+		assertEquals(1, entries.size());
+		assertSame(entry0, entries.get(0));
+		assertEquals(12, entry0.value);
+		assertSame(named, packet.named);
+		assertSame(namedA, named.get("a"));
+		assertEquals(13, namedA.value);
+		assertEquals(14, named.get("b").value);
+		//records are immutable, so they are decoded in full.
+		assertEquals(new Position(15, 16), packet.position);
+	}
+
+	@Test
+	public void testEmptyCollections() throws DecodeException {
+		Packet packet = decodeInto(null, "{ \"id\": 1, \"header\": { \"value\": 2 }, \"entries\": [ { \"value\": 3 } ], \"named\": { \"a\": { \"value\": 4 } } }");
+		List<Inner> entries = packet.entries;
+		Map<String, Inner> named = packet.named;
+		decodeInto(packet, "{ \"id\": 1, \"header\": { \"value\": 2 }, \"entries\": [], \"named\": {} }");
+		assertSame(entries, packet.entries);
+		assertTrue(entries.isEmpty());
+		assertSame(named, packet.named);
+		assertTrue(named.isEmpty());
+	}
+
+	@Test
+	public void testMissingMembers() throws DecodeException {
+		Packet packet = decodeInto(null, "{ \"id\": 1, \"header\": { \"value\": 2 }, \"body\": { \"value\": 3 }, \"entries\": [ { \"value\": 4 } ], \"named\": { \"a\": { \"value\": 5 } }, \"position\": { \"x\": 6, \"y\": 7 } }");
+		Inner header = packet.header;
+		//missing members are handled the same way that decode() handles them.
+		assertSame(packet, decodeInto(packet, "{ \"id\": 8, \"header\": { \"value\": 9 } }"));
+		assertEquals(8, packet.id);
+		assertSame(header, packet.header);
+		assertEquals(9, header.value);
+		assertNull(packet.body);
+		assertNull(packet.entries);
+		assertNull(packet.named);
+		assertNull(packet.position);
+		try {
+			decodeInto(packet, "{ \"id\": 8 }");
+			fail();
+		}
+		catch (DecodeException expected) {}
+	}
+
+	@Test
+	public void testMatchesDecode() throws DecodeException {
+		String json = "{ \"id\": 1, \"header\": { \"value\": 2 }, \"entries\": [ { \"value\": 4 }, { \"value\": 5 } ], \"named\": { \"a\": { \"value\": 6 } }, \"position\": { \"x\": 7, \"y\": 8 } }";
+		Packet scratch = decodeInto(null, "{ \"id\": 2, \"header\": { \"value\": 3 }, \"body\": { \"value\": 4 }, \"entries\": [ { \"value\": 5 }, { \"value\": 6 }, { \"value\": 7 } ], \"named\": { \"b\": { \"value\": 8 } } }");
+		decodeInto(scratch, json);
+		JsonElement expected = TestCommon.DEFAULT_CODEC.encode(TestCommon.DEFAULT_CODEC.createCoder(Packet.class), TestCommon.DEFAULT_CODEC.decode(TestCommon.DEFAULT_CODEC.createCoder(Packet.class), JsonParser.parseString(json), JsonOps.INSTANCE), JsonOps.INSTANCE);
+		assertEquals(expected, TestCommon.DEFAULT_CODEC.encode(TestCommon.DEFAULT_CODEC.createCoder(Packet.class), scratch, JsonOps.INSTANCE));
+	}
+
+	@Test
+	public void testImmutableCollectionsAreReplaced() throws DecodeException {
+		Packet packet = new Packet();
+		packet.entries = List.of(new Inner());
+		packet.named = Map.of();
+		decodeInto(packet, "{ \"id\": 0, \"header\": { \"value\": 0 }, \"entries\": [ { \"value\": 1 } ], \"named\": { \"a\": { \"value\": 2 } } }");
+		assertTrue(packet.entries instanceof ArrayList<Inner>);
+		assertEquals(1, packet.entries.get(0).value);
+		assertEquals(2, packet.named.get("a").value);
+	}
+
+	@Test
+	public void testRecursive() throws DecodeException {
+		ReusingImprinter<Node> reuser = TestCommon.DEFAULT_CODEC.createReusingImprinter(Node.class);
+		Node root = TestCommon.DEFAULT_CODEC.decodeInto(reuser, null, JsonParser.parseString("{ \"value\": 1, \"children\": [ { \"value\": 2, \"children\": [] } ] }"), JsonOps.INSTANCE);
+		Node child = root.children.get(0);
+		TestCommon.DEFAULT_CODEC.decodeInto(reuser, root, JsonParser.parseString("{ \"value\": 3, \"children\": [ { \"value\": 4, \"children\": [ { \"value\": 5, \"children\": [] } ] } ] }"), JsonOps.INSTANCE);
+		assertEquals(3, root.value);
+		assertSame(child, root.children.get(0));
+		assertEquals(4, child.value);
+		assertEquals(5, child.children.get(0).value);
+	}
+
+	@Test
+	public void testImprinter() throws DecodeException {
+		Packet packet = decodeInto(null, "{ \"id\": 0, \"header\": { \"value\": 1 } }");
+		Inner header = packet.header;
+		TestCommon.DEFAULT_CODEC.imprint(REUSER, packet, JsonParser.parseString("{ \"id\": 0, \"header\": { \"value\": 2 } }"), JsonOps.INSTANCE);
+		assertSame(header, packet.header);
+		assertEquals(2, header.value);
+
+		ReusingImprinter<Position> positionReuser = TestCommon.DEFAULT_CODEC.createReusingImprinter(Position.class);
+		try {
+			TestCommon.DEFAULT_CODEC.imprint(positionReuser, new Position(1, 2), JsonParser.parseString("{ \"x\": 3, \"y\": 4 }"), JsonOps.INSTANCE);
+			fail();
+		}
+		catch (ImprintException expected) {}
+	}
+
+	@Test
+	public void testVerified() throws DecodeException {
+		ReusingImprinter<Limited> reuser = TestCommon.DEFAULT_CODEC.createReusingImprinter(Limited.class);
+		Limited limited = TestCommon.DEFAULT_CODEC.decodeInto(reuser, null, JsonParser.parseString("{ \"list\": [ 1 ], \"set\": [ 1 ], \"map\": { \"a\": 1 } }"), JsonOps.INSTANCE);
+		for (String json : new String[] {
+			"{ \"list\": [ 1, 2, 3 ], \"set\": [ 1 ], \"map\": { \"a\": 1 } }",
+			"{ \"list\": [ 1 ], \"set\": [ 1, 2, 3 ], \"map\": { \"a\": 1 } }",
+			"{ \"list\": [ 1 ], \"set\": [ 1 ], \"map\": { \"a\": 1, \"b\": 2, \"c\": 3 } }"
+		}) {
+			try {
+				TestCommon.DEFAULT_CODEC.decodeInto(reuser, limited, JsonParser.parseString(json), JsonOps.INSTANCE);
+				fail(json);
+			}
+			catch (VerifyException expected) {}
+		}
+	}
+
+	@Test
+	public void testFinalFallback() throws DecodeException {
+		ReusingImprinter<Fixed> reuser = TestCommon.DEFAULT_CODEC.createReusingImprinter(Fixed.class);
+		Fixed fixed = new Fixed();
+		List<Integer> numbers = fixed.numbers;
+		Inner inner = fixed.inner;
+		//neither of these can be updated in place, so they are imprinted instead, just like decode() would do.
+		assertSame(fixed, TestCommon.DEFAULT_CODEC.decodeInto(reuser, fixed, JsonParser.parseString("{ \"numbers\": [ 1, 2 ], \"inner\": { \"value\": 3 } }"), JsonOps.INSTANCE));
+		assertSame(numbers, fixed.numbers);
+		assertEquals(List.of(1, 2), numbers);
+		assertSame(inner, fixed.inner);
+		assertEquals(3, inner.value);
+	}
+
+	@Test
+	public void testChildren() {
+		Map<String, AutoHandler> children = new HashMap<>();
+		REUSER.visitChildren(children::put);
+		assertTrue(children.get("coder") instanceof AutoCoder<?>);
+		assertTrue(children.get("header") instanceof ReusingImprinter<?>);
+		assertNotNull(children.get("header.imprinter"));
+		assertTrue(children.get("entries") instanceof ReusingImprinter.ListReusingImprinter<?>);
+		assertTrue(children.get("named") instanceof ReusingImprinter.MapReusingImprinter<?, ?>);
+
+		//recursive types must produce a graph with a cycle in it.
+		HandlerGraph graph = new HandlerGraph(TestCommon.DEFAULT_CODEC.createReusingImprinter(Node.class));
+		assertTrue(graph.nodes.stream().anyMatch((HandlerGraph.Node node) -> node.handler instanceof ReusingImprinter<?> && node.cyclic));
+	}
+
+	public static class Packet {
+
+		public int id;
+		public final Inner header = new Inner();
+		public @VerifyNullable Inner body;
+		public @VerifyNullable List<Inner> entries;
+		public @VerifyNullable Map<String, Inner> named;
+		public @VerifyNullable Position position;
+	}
+
+	public static class Inner {
+
+		public int value;
+	}
+
+	public static class SubInner extends Inner {
+
+		public int extra;
+	}
+
+	public static record Position(int x, int y) {}
+
+	public static class Limited {
+
+		public @VerifySizeRange(max = 2) List<Integer> list;
+		public @VerifySizeRange(max = 2) Set<Integer> set;
+		public @VerifySizeRange(max = 2) Map<String, Integer> map;
+	}
+
+	public static class Fixed {
+
+		public final List<Integer> numbers = new LinkedList<>();
+		public final Inner inner = new SubInner();
+	}
+
+	public static class Node {
+
+		public int value;
+		public List<Node> children;
+	}
+}
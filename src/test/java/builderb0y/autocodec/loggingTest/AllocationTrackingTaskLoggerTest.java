@@ -0,0 +1,67 @@
+package builderb0y.autocodec.loggingTest;
+
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+import builderb0y.autocodec.AutoCodec;
+import builderb0y.autocodec.coders.AutoCoder;
+import builderb0y.autocodec.coders.RecordCoder;
+import builderb0y.autocodec.decoders.DecodeException;
+import builderb0y.autocodec.logging.AllocationTrackingTaskLogger;
+import builderb0y.autocodec.logging.AllocationTrackingTaskLogger.AllocationReport;
+import builderb0y.autocodec.logging.AllocationTrackingTaskLogger.ReportEntry;
+import builderb0y.autocodec.logging.DisabledTaskLogger;
+import builderb0y.autocodec.logging.TaskLogger;
+import builderb0y.autocodec.reflection.reification.ReifiedType;
+import builderb0y.autocodec.util.ObjectOps;
+
+import static org.junit.Assert.*;
+
+public class AllocationTrackingTaskLoggerTest {
+
+	@Test
+	public void testReport() throws DecodeException {
+		AllocationTrackingTaskLogger tracker = new AllocationTrackingTaskLogger(new DisabledTaskLogger());
+		AutoCodec autoCodec = new AutoCodec() {
+
+			@Override
+			public @NotNull TaskLogger createDefaultLogger(@NotNull ReentrantLock lock) {
+				return tracker;
+			}
+		};
+		AutoCoder<Outer> coder = autoCodec.createCoder(Outer.class);
+		tracker.reset();
+		Outer outer = new Outer(new Inner("a", 1), new Inner("b", 2));
+		for (int iteration = 0; iteration < 100; iteration++) {
+			Object encoded = autoCodec.encode(coder, outer, ObjectOps.INSTANCE);
+			assertEquals(outer, autoCodec.decode(coder, encoded, ObjectOps.INSTANCE));
+		}
+		AllocationReport report = tracker.report();
+
+		List<ReportEntry> outerEntries = report.forType(ReifiedType.from(Outer.class)).stream().filter((ReportEntry entry) -> entry.subject() instanceof RecordCoder<?>).toList();
+		assertEquals(1, outerEntries.size());
+		ReportEntry outerEntry = outerEntries.get(0);
+		//100 encodes + 100 decodes.
+		assertEquals(200L, outerEntry.calls());
+		assertTrue(outerEntry.exclusiveBytes() > 0L);
+		assertTrue(outerEntry.exclusiveBytes() <= outerEntry.totalBytes());
+
+		List<ReportEntry> innerEntries = report.forType(ReifiedType.from(Inner.class)).stream().filter((ReportEntry entry) -> entry.subject() instanceof RecordCoder<?>).toList();
+		assertEquals(1, innerEntries.size());
+		ReportEntry innerEntry = innerEntries.get(0);
+		assertEquals(400L, innerEntry.calls());
+		//outer's total includes inner's work, but outer's exclusive bytes do not.
+		assertTrue(outerEntry.totalBytes() >= outerEntry.exclusiveBytes() + innerEntry.totalBytes());
+
+		List<ReportEntry> byClass = report.byHandlerClass();
+		assertTrue(byClass.stream().anyMatch((ReportEntry entry) -> entry.subject() == RecordCoder.class && entry.calls() == 600L));
+		assertFalse(report.toString().isEmpty());
+	}
+
+	public static record Outer(Inner first, Inner second) {}
+
+	public static record Inner(String name, int value) {}
+}
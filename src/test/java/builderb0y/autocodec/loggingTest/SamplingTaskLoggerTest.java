@@ -0,0 +1,140 @@
+package builderb0y.autocodec.loggingTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+import builderb0y.autocodec.logging.BasicTaskLogger;
+import builderb0y.autocodec.logging.Printer;
+import builderb0y.autocodec.logging.SamplingTaskLogger;
+import builderb0y.autocodec.logging.SamplingTaskLogger.Sampler;
+import builderb0y.autocodec.logging.TaskLogger;
+import builderb0y.autocodec.logging.ThresholdTaskLogger;
+import builderb0y.autocodec.loggingTest.StackContextLoggerTest.RecursiveTask;
+
+import static org.junit.Assert.*;
+
+public class SamplingTaskLoggerTest {
+
+	@Test
+	public void testOneIn() {
+		CollectingPrinter printer = new CollectingPrinter();
+		TaskLogger logger = new SamplingTaskLogger(new BasicTaskLogger(printer), Sampler.oneIn(3));
+		for (int index = 0; index < 6; index++) {
+			logger.runTask(new RecursiveTask(() -> logger.runTask(new RecursiveTask(() -> logger.logMessage("nested")))));
+		}
+		//2 sampled root tasks, each printing: outer, inner, nested, inner result, outer result.
+		assertEquals(10, printer.messages.size());
+		assertEquals(2, printer.messages.stream().filter("nested"::equals).count());
+	}
+
+	@Test
+	public void testPerClass() {
+		CollectingPrinter printer = new CollectingPrinter();
+		TaskLogger logger = new SamplingTaskLogger(
+			new BasicTaskLogger(printer),
+			Sampler.perClass(Map.of(OtherTask.class, Sampler.ALWAYS), Sampler.NEVER)
+		);
+		logger.runTask(new RecursiveTask(() -> logger.logMessage("not sampled")));
+		logger.runTask(new OtherTask(() -> logger.logMessage("sampled")));
+		assertEquals(List.of("OtherTask", "sampled", "null"), printer.messages);
+	}
+
+	@Test
+	public void testThreshold() {
+		CollectingPrinter printer = new CollectingPrinter();
+		ManualClockLogger threshold = new ManualClockLogger(printer, 20L, TimeUnit.MILLISECONDS);
+		TaskLogger logger = new SamplingTaskLogger(threshold, Sampler.ALWAYS);
+		logger.runTask(new RecursiveTask(() -> logger.runTask(new RecursiveTask(() -> logger.logMessage("fast")))));
+		assertTrue(printer.messages.isEmpty());
+		assertTrue(printer.errors.isEmpty());
+
+		logger.runTask(new RecursiveTask(() -> logger.runTask(new OtherTask(() -> {
+			logger.logMessage("slow");
+			threshold.now += TimeUnit.MILLISECONDS.toNanos(50L);
+		}))));
+		assertEquals(5, printer.messages.size());
+		assertTrue(printer.messages.get(0).startsWith("RecursiveTask (took "));
+		assertTrue(printer.messages.get(1).startsWith("\tOtherTask (took "));
+		assertEquals("\t\tslow", printer.messages.get(2));
+		assertEquals("\t\tnull", printer.messages.get(3));
+		assertEquals("\tnull", printer.messages.get(4));
+	}
+
+	@Test
+	public void testThresholdOutsideTask() {
+		CollectingPrinter printer = new CollectingPrinter();
+		ThresholdTaskLogger logger = new ThresholdTaskLogger(printer, 1L, TimeUnit.HOURS);
+		logger.logMessage("message");
+		logger.logError("error");
+		assertEquals(List.of("message"), printer.messages);
+		assertEquals(List.of("error"), printer.errors);
+	}
+
+	@Test
+	public void testThresholdFailures() {
+		CollectingPrinter printer = new CollectingPrinter();
+		ThresholdTaskLogger threshold = new ThresholdTaskLogger(printer, 1L, TimeUnit.HOURS);
+		TaskLogger logger = new SamplingTaskLogger(threshold, Sampler.ALWAYS);
+		try {
+			logger.runTask(new RecursiveTask(() -> { throw new IllegalStateException("discarded"); }));
+			fail();
+		}
+		catch (IllegalStateException expected) {}
+		assertTrue(printer.errors.isEmpty());
+
+		threshold.printFailures = true;
+		try {
+			logger.runTask(new RecursiveTask(() -> { throw new IllegalStateException("printed"); }));
+			fail();
+		}
+		catch (IllegalStateException expected) {}
+		assertFalse(printer.errors.isEmpty());
+		assertEquals(0, threshold.recordCount);
+	}
+
+	public static class ManualClockLogger extends ThresholdTaskLogger {
+
+		public long now;
+
+		public ManualClockLogger(@NotNull Printer printer, long threshold, @NotNull TimeUnit unit) {
+			super(printer, threshold, unit);
+		}
+
+		@Override
+		public long nanoTime() {
+			return this.now;
+		}
+	}
+
+	public static class OtherTask extends RecursiveTask {
+
+		public OtherTask(Runnable whenDone) {
+			super(whenDone);
+		}
+
+		@Override
+		public String toString() {
+			return "OtherTask";
+		}
+	}
+
+	public static class CollectingPrinter implements Printer {
+
+		public final List<String> messages = new ArrayList<>(), errors = new ArrayList<>();
+
+		@Override
+		public void print(@NotNull String message) {
+			this.messages.add(message);
+		}
+
+		@Override
+		public void printError(@NotNull String error) {
+			this.errors.add(error);
+		}
+	}
+}
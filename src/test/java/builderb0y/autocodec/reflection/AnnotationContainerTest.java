@@ -24,6 +24,48 @@ public class AnnotationContainerTest {
 		assertEquals(0, AnnotationContainer.fromDeclared(ClassWithInheritedAnnotations.class).getAll().length);
 	}
 
+	@Test
+	public void testQueriesByType() {
+		AnnotationContainer container = AnnotationContainer.fromDeclared(ClassWithRepeatedAnnotations.class);
+		assertTrue(container.has(RepeatableAnnotation.class));
+		assertTrue(container.has(RepeatableContainer.class));
+		assertFalse(container.has(Inherited.class));
+		assertEquals(3, container.count(RepeatableAnnotation.class));
+		assertEquals(1, container.count(RepeatableContainer.class));
+		assertEquals(0, container.count(Inherited.class));
+		assertEquals("a", container.getFirst(RepeatableAnnotation.class).value());
+		assertNull(container.getFirst(Inherited.class));
+		assertSame(container.getAll()[0], container.getFirst(Inherited.class, RepeatableAnnotation.class, RepeatableContainer.class));
+		assertSame(container.getAll()[1], container.getFirst(Inherited.class, RepeatableAnnotation.class));
+
+		RepeatableAnnotation[] all = container.getAll(RepeatableAnnotation.class);
+		assertEquals(RepeatableAnnotation.class, all.getClass().getComponentType());
+		assertEquals(3, all.length);
+		for (int i = 0; i < 3; i++) {
+			assertEquals(String.valueOf((char)(i + 'a')), all[i].value());
+		}
+		Inherited[] none = container.getAll(Inherited.class);
+		assertEquals(Inherited.class, none.getClass().getComponentType());
+		assertEquals(0, none.length);
+
+		assertFalse(AnnotationContainer.EMPTY_ANNOTATION_CONTAINER.has(RepeatableAnnotation.class));
+		assertEquals(0, AnnotationContainer.EMPTY_ANNOTATION_CONTAINER.getAll(RepeatableAnnotation.class).length);
+	}
+
+	@Test
+	public void testOrderedEquality() {
+		AnnotationContainer container = AnnotationContainer.fromDeclared(ClassWithRepeatedAnnotations.class);
+		Annotation[] annotations = container.getAll();
+		AnnotationContainer sameOrder = AnnotationContainer.of(false, annotations.clone());
+		AnnotationContainer reversed = AnnotationContainer.of(false, annotations[3], annotations[2], annotations[1], annotations[0]);
+		assertEquals(container.hashCodeOrdered(), sameOrder.hashCodeOrdered());
+		assertTrue(container.equalsOrdered(sameOrder));
+		assertFalse(container.equalsOrdered(reversed));
+		assertTrue(container.equalsUnordered(reversed));
+		//cached hash codes must not change.
+		assertEquals(container.hashCodeOrdered(), container.hashCodeOrdered());
+	}
+
 	@Inherited
 	@Repeatable(RepeatableContainer.class)
 	@Target(ElementType.TYPE_USE)
@@ -1,5 +1,7 @@
 package builderb0y.autocodec.reflection;
 
+import java.lang.ref.WeakReference;
+
 import org.junit.Test;
 
 import builderb0y.autocodec.annotations.UseGetter;
@@ -10,6 +12,7 @@ import builderb0y.autocodec.reflection.manipulators.InstanceReaderWriter;
 import builderb0y.autocodec.reflection.manipulators.InstanceWriter;
 import builderb0y.autocodec.reflection.memberViews.FieldLikeMemberView;
 import builderb0y.autocodec.reflection.memberViews.MethodLikeMemberView;
+import builderb0y.autocodec.reflection.reification.ReifiedType;
 
 import static org.junit.Assert.*;
 
@@ -176,6 +179,50 @@ public class ReflectionManagerTest {
 		assertNotNull(method(Visibility.class, "instanceMethod"));
 	}
 
+	@Test
+	public void testConcurrentCaches() throws InterruptedException {
+		ReflectionManager manager = new ReflectionManager();
+		ReifiedType<Visibility> owner = ReifiedType.from(Visibility.class);
+		Object[][] results = new Object[8][];
+		Thread[] threads = new Thread[results.length];
+		for (int index = 0; index < threads.length; index++) {
+			int index_ = index;
+			threads[index] = new Thread(() -> {
+				//non-canonical, but structurally equal to owner.
+				ReifiedType<Visibility> copy = new ReifiedType<Visibility>() {};
+				results[index_] = new Object[] { manager.getClassCache(Visibility.class), manager.getTypeCache(copy), manager.getTypeCache(copy).fields() };
+			});
+		}
+		for (Thread thread : threads) thread.start();
+		for (Thread thread : threads) thread.join();
+		for (Object[] result : results) {
+			assertSame(manager.getClassCache(Visibility.class), result[0]);
+			assertSame(manager.getTypeCache(owner), result[1]);
+			//lazy initialization may race, but every thread must see the same members.
+			assertArrayEquals(manager.getTypeCache(owner).fields(), (Object[])(result[2]));
+		}
+		//different managers must not share caches.
+		assertNotSame(manager.getTypeCache(owner), new ReflectionManager().getTypeCache(owner));
+	}
+
+	@Test
+	public void testManagerIsNotPinned() throws InterruptedException {
+		WeakReference<ReflectionManager> reference = inspect();
+		for (int attempt = 0; attempt < 50 && reference.get() != null; attempt++) {
+			System.gc();
+			Thread.sleep(10L);
+		}
+		assertNull(reference.get());
+	}
+
+	/** separate method so that the manager is not still on the stack when we check if it was collected. */
+	public static WeakReference<ReflectionManager> inspect() {
+		ReflectionManager manager = new ReflectionManager();
+		manager.getClassCache(Visibility.class).fields();
+		manager.getTypeCache(ReifiedType.from(Visibility.class)).inheritedFields();
+		return new WeakReference<>(manager);
+	}
+
 	public static class Visibility {
 
 		public static int staticField;
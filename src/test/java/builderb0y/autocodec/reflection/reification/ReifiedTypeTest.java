@@ -386,6 +386,30 @@ public class ReifiedTypeTest {
 		assertEquals(String.class, parameterizedInnerType.getOwner().getParameters()[0].getRawClass());
 	}
 
+	@Test
+	public void testCanonicalization() {
+		assertTrue(ReifiedType.from(String.class).isCanonical());
+		assertSame(ReifiedType.from(String.class), ReifiedType.parameterize(List.class, ReifiedType.from(String.class)).getParameters()[0].canonicalize());
+
+		ReifiedType<?> first = new ReifiedType<Map<String, List<@A("a") Integer>>>() {};
+		ReifiedType<?> second = new ReifiedType<Map<String, List<@A("a") Integer>>>() {};
+		ReifiedType<?> different = new ReifiedType<Map<String, List<@A("b") Integer>>>() {};
+		assertNotSame(first, second);
+		ReifiedType<?> canonical = first.canonicalize();
+		assertTrue(canonical.isCanonical());
+		assertSame(canonical, second.canonicalize());
+		assertSame(canonical, canonical.canonicalize());
+		assertNotSame(canonical, different.canonicalize());
+		assertEquals(first.hashCode(), canonical.hashCode());
+		assertEquals(canonical.hashCode(), canonical.orderedHashCode);
+		assertEquals(canonical, second);
+		assertNotEquals(canonical, different.canonicalize());
+
+		Object key = new Object();
+		assertSame(canonical.getAttachment(key, (Object k) -> "value"), canonical.getAttachment(key, (Object k) -> "other"));
+		try { second.getAttachment(key, (Object k) -> "value"); fail(); } catch (IllegalStateException expected) {}
+	}
+
 	public static class Outer<A> {
 
 		public class Inner {}